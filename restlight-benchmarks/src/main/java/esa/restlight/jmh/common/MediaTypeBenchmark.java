@@ -16,8 +16,10 @@
 package esa.restlight.jmh.common;
 
 import esa.restlight.core.util.MediaType;
+import esa.restlight.server.util.MediaTypeUtils;
 import org.openjdk.jmh.annotations.*;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode({Mode.Throughput})
@@ -39,4 +41,14 @@ public class MediaTypeBenchmark {
         return MediaType.valueOf("application/json;charset=utf-8");
     }
 
+    @Benchmark
+    public List<MediaType> parseAcceptDirectly() {
+        return MediaType.valuesOf("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+    }
+
+    @Benchmark
+    public List<MediaType> parseAcceptWithCache() {
+        return MediaTypeUtils.parseMediaTypes("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+    }
+
 }
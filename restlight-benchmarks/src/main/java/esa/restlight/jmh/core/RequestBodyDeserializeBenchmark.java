@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.core;
+
+import esa.restlight.core.serialize.FastJsonSerializer;
+import esa.restlight.core.serialize.GsonSerializer;
+import esa.restlight.core.serialize.JacksonSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares deserializing the request body from a copied byte array(which is what {@code AsyncRequest#body()} does)
+ * with deserializing from the {@link ByteBuf} directly.
+ */
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBodyDeserializeBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean direct;
+
+    private final JacksonSerializer jackson = new JacksonSerializer();
+    private final GsonSerializer gson = new GsonSerializer();
+    private final FastJsonSerializer fastJson = new FastJsonSerializer();
+
+    private ByteBuf body;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder sb = new StringBuilder("{\"items\":[");
+        int i = 0;
+        while (sb.length() < size - 64) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\"}");
+            i++;
+        }
+        sb.append("]}");
+        final byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+        body = direct
+                ? PooledByteBufAllocator.DEFAULT.directBuffer(data.length)
+                : PooledByteBufAllocator.DEFAULT.heapBuffer(data.length);
+        body.writeBytes(data);
+    }
+
+    @TearDown
+    public void tearDown() {
+        body.release();
+    }
+
+    @Benchmark
+    public Payload jacksonFromBytes() throws Exception {
+        return jackson.deSerialize(ByteBufUtil.getBytes(body), Payload.class);
+    }
+
+    @Benchmark
+    public Payload jacksonFromByteBuf() throws Exception {
+        return jackson.deSerialize(body, Payload.class);
+    }
+
+    @Benchmark
+    public Payload gsonFromBytes() {
+        return gson.deSerialize(ByteBufUtil.getBytes(body), Payload.class);
+    }
+
+    @Benchmark
+    public Payload gsonFromByteBuf() {
+        return gson.deSerialize(body, Payload.class);
+    }
+
+    @Benchmark
+    public Payload fastJsonFromBytes() {
+        return fastJson.deSerialize(ByteBufUtil.getBytes(body), Payload.class);
+    }
+
+    @Benchmark
+    public Payload fastJsonFromByteBuf() throws Exception {
+        return fastJson.deSerialize(body, Payload.class);
+    }
+
+    public static class Payload {
+        private List<Item> items = new ArrayList<>();
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+    }
+
+    public static class Item {
+        private int id;
+        private String name;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
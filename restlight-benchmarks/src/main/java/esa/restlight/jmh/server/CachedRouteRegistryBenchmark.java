@@ -32,8 +32,11 @@ import org.openjdk.jmh.annotations.*;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
-@BenchmarkMode({Mode.Throughput})
-@OutputTimeUnit(TimeUnit.MILLISECONDS)
+/**
+ * Reports both of the throughput and the latency distribution(p99 and so on by {@link Mode#SampleTime}) of routing.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
 @Warmup(iterations = 5)
 @Measurement(iterations = 10)
 @Threads(Threads.MAX)
@@ -42,6 +45,7 @@ import java.util.concurrent.TimeUnit;
 public class CachedRouteRegistryBenchmark {
 
     private ReadOnlyRouteRegistry cache;
+    private ReadOnlyRouteRegistry scheduledCache;
     private ReadOnlyRouteRegistry noCache;
 
     @Param({"10", "20", "50", "100"})
@@ -53,6 +57,7 @@ public class CachedRouteRegistryBenchmark {
     @Setup
     public void setUp() {
         RouteRegistry cache = new CachedRouteRegistry(1);
+        RouteRegistry scheduledCache = new CachedRouteRegistry(1, 100L);
         RouteRegistry noCache = new SimpleRouteRegistry();
         Mapping[] mappings = new Mapping[routes];
         for (int i = 0; i < routes; i++) {
@@ -71,6 +76,7 @@ public class CachedRouteRegistryBenchmark {
         for (Mapping m : mappings) {
             Route route = Route.route(m);
             cache.registerRoute(route);
+            scheduledCache.registerRoute(route);
             noCache.registerRoute(route);
         }
 
@@ -88,6 +94,7 @@ public class CachedRouteRegistryBenchmark {
                     .build();
         }
         this.cache = cache.toReadOnly();
+        this.scheduledCache = scheduledCache.toReadOnly();
         this.noCache = noCache.toReadOnly();
         this.lambda = (double) routes / 2;
     }
@@ -97,6 +104,11 @@ public class CachedRouteRegistryBenchmark {
         return cache.route(getRequest());
     }
 
+    @Benchmark
+    public Route matchByScheduledCachedRouteRegistry() {
+        return scheduledCache.route(getRequest());
+    }
+
     @Benchmark
     public Route matchByDefaultRouteRegistry() {
         return noCache.route(getRequest());
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.server;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.impl.MatchCachedRouteRegistry;
+import esa.restlight.server.route.impl.SimpleRouteRegistry;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the routing of templated routes with and without {@link MatchCachedRouteRegistry} under a Zipf workload.
+ */
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchCachedRouteRegistryBenchmark {
+
+    private static final int SAMPLES = 1 << 16;
+
+    private ReadOnlyRouteRegistry cache;
+    private ReadOnlyRouteRegistry noCache;
+
+    /**
+     * Count of distinct concrete paths.
+     */
+    @Param({"1000", "5000"})
+    private int paths = 1000;
+
+    @Param({"256", "1024", "4096"})
+    private int cacheSize = 1024;
+
+    /**
+     * Exponent of the Zipf distribution.
+     */
+    @Param({"0.8", "1.2"})
+    private double skew = 1.2D;
+
+    private AsyncRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        final String[] resources = {"users", "orders", "items", "carts", "payments"};
+        for (String resource : resources) {
+            for (HttpMethod method : new HttpMethod[]{HttpMethod.GET, HttpMethod.PUT, HttpMethod.DELETE}) {
+                registry.registerRoute(Route.route(Mapping.mapping("/api/v1/" + resource + "/{id}", method)));
+                registry.registerRoute(Route.route(
+                        Mapping.mapping("/api/v1/" + resource + "/{id}/detail/{field}", method)));
+            }
+        }
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+        this.noCache = readOnly;
+        this.cache = new MatchCachedRouteRegistry(readOnly, cacheSize);
+
+        final String[] distinct = new String[paths];
+        final Random random = new Random(paths);
+        for (int i = 0; i < paths; i++) {
+            final String resource = resources[random.nextInt(resources.length)];
+            distinct[i] = random.nextBoolean()
+                    ? "/api/v1/" + resource + "/" + i
+                    : "/api/v1/" + resource + "/" + i + "/detail/f" + random.nextInt(10);
+        }
+
+        // cumulative probabilities of zipf distribution
+        final double[] cdf = new double[paths];
+        double sum = 0D;
+        for (int i = 0; i < paths; i++) {
+            sum += 1D / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        this.requests = new AsyncRequest[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int idx = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            if (idx < 0) {
+                idx = -idx - 1;
+            }
+            requests[i] = MockAsyncRequest.aMockRequest()
+                    .withMethod("GET")
+                    .withUri(distinct[Math.min(idx, paths - 1)])
+                    .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        final MatchCachedRouteRegistry cached = (MatchCachedRouteRegistry) cache;
+        final long hits = cached.hitCount();
+        final long total = hits + cached.missCount();
+        System.out.printf("%npaths=%d, cacheSize=%d, skew=%.1f, hits=%d, misses=%d, hit ratio=%.4f%n",
+                paths, cacheSize, skew, hits, total - hits, total == 0 ? 0D : (double) hits / total);
+    }
+
+    @Benchmark
+    public Route matchByMatchCachedRouteRegistry() {
+        return cache.route(getRequest());
+    }
+
+    @Benchmark
+    public Route matchWithoutCache() {
+        return noCache.route(getRequest());
+    }
+
+    private AsyncRequest getRequest() {
+        return requests[ThreadLocalRandom.current().nextInt(SAMPLES)];
+    }
+}
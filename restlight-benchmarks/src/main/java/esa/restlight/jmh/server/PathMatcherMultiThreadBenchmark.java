@@ -30,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 public class PathMatcherMultiThreadBenchmark {
 
     private PathMatcher restlightMatcher;
+    private PathMatcher regexMatcher;
     private org.springframework.util.PathMatcher springMatcher;
 
     @Param({"/abcd/efgh/ijkl",
@@ -48,6 +49,7 @@ public class PathMatcherMultiThreadBenchmark {
     @Setup
     public void setUp() {
         this.restlightMatcher = new PathMatcher(pattern);
+        this.regexMatcher = new PathMatcher(pattern, true, true);
         this.springMatcher = new org.springframework.util.AntPathMatcher();
     }
 
@@ -56,6 +58,11 @@ public class PathMatcherMultiThreadBenchmark {
         return restlightMatcher.match(path);
     }
 
+    @Benchmark
+    public boolean matchByRegex() {
+        return regexMatcher.match(path);
+    }
+
     @Benchmark
     public boolean matchBySpring() {
         return springMatcher.match(pattern, path);
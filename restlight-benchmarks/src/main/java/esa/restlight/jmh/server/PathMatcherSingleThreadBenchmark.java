@@ -30,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 public class PathMatcherSingleThreadBenchmark {
 
     private PathMatcher restlightMatcher;
+    private PathMatcher regexMatcher;
     private org.springframework.util.PathMatcher springMatcher;
 
     @Param({"/abcd/efgh/ijkl",
@@ -45,6 +46,7 @@ public class PathMatcherSingleThreadBenchmark {
     @Setup
     public void setUp() {
         this.restlightMatcher = new PathMatcher(pattern);
+        this.regexMatcher = new PathMatcher(pattern, true, true);
         this.springMatcher = new org.springframework.util.AntPathMatcher();
     }
 
@@ -53,6 +55,11 @@ public class PathMatcherSingleThreadBenchmark {
         return restlightMatcher.match(path);
     }
 
+    @Benchmark
+    public boolean matchByRegex() {
+        return regexMatcher.match(path);
+    }
+
     @Benchmark
     public boolean matchSpring() {
         return springMatcher.match(pattern, path);
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.server;
+
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.impl.SimpleRouteRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup cost of registering a large number of generated routes, most of which is spent on the detection
+ * of ambiguous routes.
+ */
+@BenchmarkMode({Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteRegistrationBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int routes = 1000;
+
+    private Route[] generated;
+
+    @Setup
+    public void setUp() {
+        final HttpMethod[] methods = {HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE};
+        generated = new Route[routes];
+        for (int i = 0; i < routes; i++) {
+            final String path;
+            switch (i % 3) {
+                case 0:
+                    path = "/api/v" + (i % 5) + "/svc" + (i / 100) + "/res" + i;
+                    break;
+                case 1:
+                    path = "/api/v" + (i % 5) + "/svc" + (i / 100) + "/res" + i + "/{id}";
+                    break;
+                default:
+                    path = "/api/v" + (i % 5) + "/svc" + (i / 100) + "/res" + i + "/{id}/items/*";
+                    break;
+            }
+            generated[i] = Route.route(Mapping.mapping(path).method(methods[i % methods.length]));
+        }
+    }
+
+    @Benchmark
+    public RouteRegistry registerRoutes() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        for (Route route : generated) {
+            registry.registerRoute(route);
+        }
+        return registry;
+    }
+}
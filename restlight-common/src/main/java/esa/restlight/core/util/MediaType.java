@@ -139,6 +139,18 @@ public class MediaType extends MimeType {
     public static final String TEXT_PLAIN_VALUE
             = "text/plain";
 
+    /**
+     * Media type for {@code text/event-stream}.
+     */
+    public static final MediaType TEXT_EVENT_STREAM
+            = of("text", "event-stream");
+
+    /**
+     * String media type for {@code text/event-stream}.
+     */
+    public static final String TEXT_EVENT_STREAM_VALUE
+            = "text/event-stream";
+
     private static final String Q_VALUE = "q";
 
     public static MediaType of(String type) {
@@ -37,4 +37,13 @@ public @interface Scheduled {
      */
     String value();
 
+    /**
+     * Specifies the priority of the requests routed to current component(s), requests with higher priority would be
+     * scheduled earlier by a priority-aware scheduler and would be rejected later than others while overloading.
+     *
+     * @return priority between {@link esa.restlight.server.schedule.RequestTask#MIN_PRIORITY} and {@link
+     * esa.restlight.server.schedule.RequestTask#MAX_PRIORITY}
+     */
+    int priority() default esa.restlight.server.schedule.RequestTask.NORM_PRIORITY;
+
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Indicates that the body of the requests routed to current controller(s) should be streamed rather than aggregated,
+ * which means the body could only be read from the {@link esa.httpserver.core.AsyncRequest#inputStream()}.
+ * <p>
+ * Reading the body blocks the current thread until the content arrives, so it's not allowed to schedule the streaming
+ * controllers by the {@link esa.restlight.server.schedule.Schedulers#IO} scheduler.
+ *
+ * @see esa.restlight.server.route.Mapping#streaming()
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StreamingBody {
+}
@@ -24,6 +24,7 @@ import esa.restlight.core.method.MethodParam;
 import esa.restlight.core.serialize.Serializers;
 import esa.restlight.server.bootstrap.WebServerException;
 import esa.restlight.server.route.Execution;
+import esa.restlight.server.schedule.ExecutionDeadline;
 import esa.restlight.server.util.Futures;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
@@ -103,7 +104,7 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
             if (handlerAdapter.isConcurrent() && returnValue == null) {
                 // null return value in handler controller is not allowed
                 logger.error(getDetailedMessage("Unexpected null return value of concurrent handler."));
-                if (!response.isCommitted()) {
+                if (!response.isCommitted() && ExecutionDeadline.tryClaim(request)) {
                     response.sendResult(HttpResponseStatus.INTERNAL_SERVER_ERROR.code());
                 }
                 return Futures.completedFuture();
@@ -124,6 +125,11 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
 
     protected void handleReturnValue(Object returnValue, AsyncRequest request, AsyncResponse response) {
 
+        if (!ExecutionDeadline.tryClaim(request)) {
+            // response has been completed by the execution deadline, drop the result
+            return;
+        }
+
         if (this.handlerAdapter.hasCustomResponse()) {
             response.setStatus(handlerAdapter.customResponse().code());
         }
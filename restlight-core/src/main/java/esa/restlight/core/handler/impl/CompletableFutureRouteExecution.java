@@ -15,14 +15,18 @@
  */
 package esa.restlight.core.handler.impl;
 
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.interceptor.InternalInterceptor;
+import esa.restlight.server.schedule.RequestDeadline;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of {@link esa.restlight.server.route.RouteExecution} that always cast the {@code return value} to
- * {@link CompletableFuture}
+ * {@link CompletableFuture}, and the {@link CompletableFuture} will be completed exceptionally once the {@link
+ * RequestDeadline} of current request is exceeded.
  */
 public class CompletableFutureRouteExecution extends DefaultRouteExecution {
 
@@ -31,6 +35,17 @@ public class CompletableFutureRouteExecution extends DefaultRouteExecution {
         super(routeHandler, interceptors);
     }
 
+    @Override
+    protected CompletableFuture<Object> invoke(AsyncRequest request, AsyncResponse response, Object[] args) {
+        final CompletableFuture<Object> future = super.invoke(request, response, args);
+        final RequestDeadline deadline = RequestDeadline.of(request);
+        if (deadline == null || future == null) {
+            return future;
+        }
+        // short-circuit the execution which is still pending when the deadline is exceeded
+        return deadline.within(future);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     protected CompletableFuture<Object> transferToFuture(Object returnValue) {
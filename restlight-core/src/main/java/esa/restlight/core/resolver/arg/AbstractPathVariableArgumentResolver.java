@@ -23,6 +23,7 @@ import esa.restlight.core.resolver.ArgumentResolverFactory;
 import esa.restlight.core.serialize.HttpRequestSerializer;
 import esa.restlight.core.util.ConverterUtils;
 import esa.restlight.server.util.PathVariableUtils;
+import esa.restlight.server.util.PathVariables;
 
 import java.util.List;
 import java.util.function.Function;
@@ -41,9 +42,12 @@ public abstract class AbstractPathVariableArgumentResolver implements ArgumentRe
             protected final Function<String, Object> converter =
                     ConverterUtils.str2ObjectConverter(param.genericType(), p -> p);
 
+            // resolve the variable by the slot index instead of the name
+            private final PathVariables.Slot slot = new PathVariables.Slot(nav.name);
+
             @Override
             protected Object resolveName(String name, AsyncRequest request) throws Exception {
-                String value = PathVariableUtils.getPathVariable(request, name);
+                String value = PathVariableUtils.getPathVariable(request, slot);
                 return converter.apply(StringUtils.isEmpty(value) ? value : cleanTemplateValueIfNecessary(value));
             }
 
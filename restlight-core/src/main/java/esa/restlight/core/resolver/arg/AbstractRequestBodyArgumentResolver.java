@@ -127,7 +127,7 @@ public abstract class AbstractRequestBodyArgumentResolver implements ArgumentRes
             if (serializer.preferStream()) {
                 return serializer.deSerialize(request.inputStream(), param.genericType());
             }
-            return serializer.deSerialize(request.body(), param.genericType());
+            return serializer.deSerialize(request.byteBufBody(), param.genericType());
         }
     }
 
@@ -129,7 +129,7 @@ public abstract class AbstractSpecifiedFixedRequestBodyArgumentResolver implemen
             if (serializer.preferStream()) {
                 resolved = serializer.deSerialize(request.inputStream(), param.genericType());
             } else {
-                resolved = serializer.deSerialize(request.body(), param.genericType());
+                resolved = serializer.deSerialize(request.byteBufBody(), param.genericType());
             }
             return resolved;
         }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.resolver.arg;
+
+import esa.restlight.core.method.Param;
+import esa.restlight.core.resolver.ArgumentResolver;
+import esa.restlight.core.resolver.ArgumentResolverFactory;
+import esa.restlight.core.serialize.HttpRequestSerializer;
+import esa.restlight.server.schedule.RequestDeadline;
+
+import java.util.List;
+
+/**
+ * Binds the {@link RequestDeadline} of current request, and {@code null} will be bound if the request is not
+ * scheduled by a scheduler with timeout.
+ */
+public class RequestDeadlineArgumentResolverFactory implements ArgumentResolverFactory {
+
+    @Override
+    public ArgumentResolver createResolver(Param param,
+                                           List<? extends HttpRequestSerializer> serializers) {
+        return (request, response) -> RequestDeadline.of(request);
+    }
+
+    @Override
+    public boolean supports(Param parameter) {
+        return RequestDeadline.class.isAssignableFrom(parameter.type());
+    }
+
+    /**
+     * Default to HIGHEST_PRECEDENCE.
+     *
+     * @return order
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -15,17 +15,14 @@
  */
 package esa.restlight.core.resolver.result;
 
-import esa.commons.StringUtils;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.resolver.ReturnValueResolver;
 import esa.restlight.core.serialize.Serializers;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.server.route.predicate.ProducesPredicate;
-import io.netty.handler.codec.http.HttpHeaderNames;
-import io.netty.util.internal.InternalThreadLocalMap;
+import esa.restlight.server.util.MediaTypeUtils;
 
-import java.util.Collections;
 import java.util.List;
 
 abstract class AbstractDetectableReturnValueResolver implements ReturnValueResolver {
@@ -77,16 +74,10 @@ abstract class AbstractDetectableReturnValueResolver implements ReturnValueResol
         List<MediaType> compatibleTypes =
                 request.getUncheckedAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES);
         if (compatibleTypes == null) {
-            String accept = request.getHeader(HttpHeaderNames.ACCEPT);
-            if (!StringUtils.isEmpty(accept)) {
-                List<MediaType> ret = InternalThreadLocalMap.get().arrayList();
-                MediaType.valuesOf(accept, ret);
-                return ret;
-            }
-        } else {
-            return compatibleTypes;
+            // may have been parsed while routing
+            return MediaTypeUtils.getAcceptedMediaTypes(request);
         }
-        return Collections.emptyList();
+        return compatibleTypes;
     }
 
     protected abstract byte[] resolve0(Object returnValue,
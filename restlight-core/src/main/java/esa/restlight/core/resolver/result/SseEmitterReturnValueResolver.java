@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.resolver.result;
+
+import esa.restlight.core.method.InvocableMethod;
+import esa.restlight.core.resolver.ReturnValueResolver;
+import esa.restlight.core.resolver.ReturnValueResolverFactory;
+import esa.restlight.core.serialize.HttpResponseSerializer;
+import esa.restlight.core.serialize.Serializers;
+import esa.restlight.core.sse.SseEmitter;
+import esa.restlight.core.util.MediaType;
+
+import java.util.List;
+
+/**
+ * Implementation of {@link ReturnValueResolverFactory} for resolving the return value type of {@link SseEmitter}, which
+ * binds the emitter to the response and serializes the data of events by the first {@link HttpResponseSerializer}
+ * that supports json.
+ */
+public class SseEmitterReturnValueResolver implements ReturnValueResolverFactory {
+
+    @Override
+    public boolean supports(InvocableMethod invocableMethod) {
+        return SseEmitter.class.isAssignableFrom(invocableMethod.method().getReturnType());
+    }
+
+    @Override
+    public ReturnValueResolver createResolver(InvocableMethod method,
+                                              List<? extends HttpResponseSerializer> serializers) {
+        final HttpResponseSerializer serializer = findSerializer(serializers);
+        return (returnValue, request, response) -> {
+            if (returnValue == null) {
+                return null;
+            }
+            ((SseEmitter) returnValue).bind(response, serializer);
+            return Serializers.alreadyWrite();
+        };
+    }
+
+    private static HttpResponseSerializer findSerializer(List<? extends HttpResponseSerializer> serializers) {
+        if (serializers == null || serializers.isEmpty()) {
+            return null;
+        }
+        for (HttpResponseSerializer serializer : serializers) {
+            if (serializer.supportsWrite(MediaType.APPLICATION_JSON, Object.class)) {
+                return serializer;
+            }
+        }
+        return serializers.get(0);
+    }
+}
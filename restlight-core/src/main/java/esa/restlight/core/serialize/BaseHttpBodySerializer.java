@@ -20,12 +20,21 @@ import esa.httpserver.core.AsyncResponse;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.handler.codec.http.HttpHeaderNames;
 
 import java.lang.reflect.Type;
 
 public abstract class BaseHttpBodySerializer implements HttpBodySerializer {
 
+    /**
+     * Subclasses which override the {@link #deSerialize(byte[], Type)} only still receive the copied bytes, and they
+     * should override the {@link #deSerialize(ByteBuf, Type)} as well to read from the {@link ByteBuf} directly.
+     */
+    private final boolean deSerializeBytesOverridden =
+            Serializers.isDeSerializeBytesOverridden(getClass(), BaseHttpBodySerializer.class);
+
     @Override
     public boolean supportsRead(MediaType mediaType, Type type) {
         return mediaType != null && MediaType.APPLICATION_JSON.isCompatibleWith(mediaType);
@@ -55,6 +64,17 @@ public abstract class BaseHttpBodySerializer implements HttpBodySerializer {
         return serializer().deSerialize(data, type);
     }
 
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        if (data == null || !data.isReadable()) {
+            return null;
+        }
+        if (deSerializeBytesOverridden) {
+            return deSerialize(ByteBufUtil.getBytes(data, data.readerIndex(), data.readableBytes(), false), type);
+        }
+        return serializer().deSerialize(data, type);
+    }
+
     @Override
     public void serialize(Object target, HttpOutputStream outputStream) throws Exception {
         serializer().serialize(target, outputStream);
@@ -19,8 +19,11 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 
 public class FastJsonSerializer implements JsonSerializer {
 
@@ -49,4 +52,16 @@ public class FastJsonSerializer implements JsonSerializer {
     public <T> T deSerialize(HttpInputStream inputStream, Type type) throws Exception {
         return JSON.parseObject(inputStream, type);
     }
+
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        if (data.hasArray()) {
+            return JSON.parseObject(data.array(),
+                    data.arrayOffset() + data.readerIndex(),
+                    data.readableBytes(),
+                    StandardCharsets.UTF_8,
+                    type);
+        }
+        return JSON.parseObject(new ByteBufInputStream(data.duplicate()), type);
+    }
 }
@@ -19,6 +19,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
 
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
@@ -59,4 +60,10 @@ public class GsonSerializer implements JsonSerializer {
 
         return gson.fromJson(inputStream.readString(StandardCharsets.UTF_8), type);
     }
+
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) {
+        // decode the chars from the ByteBuf directly
+        return gson.fromJson(data.toString(StandardCharsets.UTF_8), type);
+    }
 }
@@ -26,6 +26,8 @@ import com.fasterxml.jackson.databind.type.TypeFactory;
 import esa.commons.Checks;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -68,6 +70,18 @@ public class JacksonSerializer implements JsonSerializer {
         return objectMapper.readValue((InputStream) inputStream, getJavaType(type));
     }
 
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws IOException {
+        if (data.hasArray()) {
+            return objectMapper.readValue(data.array(),
+                    data.arrayOffset() + data.readerIndex(),
+                    data.readableBytes(),
+                    getJavaType(type));
+        }
+        // parse from the direct buffer without copying, and the duplicate keeps the indexes of the data untouched.
+        return objectMapper.readValue((InputStream) new ByteBufInputStream(data.duplicate()), getJavaType(type));
+    }
+
     public static synchronized ObjectMapper getDefaultMapper() {
         if (DEFAULT_OBJECT_MAPPER == null) {
             final ObjectMapper objectMapper = new ObjectMapper();
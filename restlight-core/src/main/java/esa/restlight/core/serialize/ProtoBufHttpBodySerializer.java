@@ -21,6 +21,8 @@ import esa.httpserver.core.AsyncResponse;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.util.AsciiString;
 
@@ -47,6 +49,13 @@ public class ProtoBufHttpBodySerializer implements HttpBodySerializer {
 
     private final ProtoBufSerializer serializer;
 
+    /**
+     * Same as the {@link BaseHttpBodySerializer}, subclasses which override the {@link #deSerialize(byte[], Type)}
+     * only still receive the copied bytes.
+     */
+    private final boolean deSerializeBytesOverridden =
+            Serializers.isDeSerializeBytesOverridden(getClass(), ProtoBufHttpBodySerializer.class);
+
     public ProtoBufHttpBodySerializer() {
         this(new ProtoBufSerializer());
     }
@@ -101,4 +110,15 @@ public class ProtoBufHttpBodySerializer implements HttpBodySerializer {
         }
         return serializer.deSerialize(inputStream, type);
     }
+
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        if (data == null || !data.isReadable()) {
+            return null;
+        }
+        if (deSerializeBytesOverridden) {
+            return deSerialize(ByteBufUtil.getBytes(data, data.readerIndex(), data.readableBytes(), false), type);
+        }
+        return serializer.deSerialize(data, type);
+    }
 }
@@ -15,10 +15,13 @@
  */
 package esa.restlight.core.serialize;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
@@ -82,6 +85,26 @@ public class ProtoBufSerializer implements Serializer {
         return (T) builder.build();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        Message.Builder builder = getMessageBuilder((Class<? extends Message>) type);
+        final CodedInputStream input;
+        if (data.hasArray()) {
+            input = CodedInputStream.newInstance(data.array(),
+                    data.arrayOffset() + data.readerIndex(),
+                    data.readableBytes());
+        } else if (data.nioBufferCount() == 1) {
+            input = CodedInputStream.newInstance(data.nioBuffer());
+        } else {
+            // composite buffer
+            builder.mergeFrom(new ByteBufInputStream(data.duplicate()), extensionRegistry);
+            return (T) builder.build();
+        }
+        builder.mergeFrom(input, extensionRegistry);
+        return (T) builder.build();
+    }
+
     private Message.Builder getMessageBuilder(Class<? extends Message> clazz) throws Exception {
         Method method = METHOD_CACHE.get(clazz);
         if (method == null) {
@@ -16,6 +16,8 @@
 package esa.restlight.core.serialize;
 
 import esa.httpserver.core.HttpInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 import java.lang.reflect.Type;
 
@@ -47,4 +49,21 @@ public interface RxSerializer {
      */
     <T> T deSerialize(HttpInputStream inputStream, Type type) throws Exception;
 
+    /**
+     * deSerialize the readable bytes of the given {@link ByteBuf} to the object, and the indexes of the {@code data}
+     * would not be modified.
+     * <p>
+     * Implementations should read from the {@link ByteBuf} directly rather than copying it to a byte array, and the
+     * default implementation copies it unless it is a heap buffer exactly backed by a whole array.
+     *
+     * @param data data
+     * @param type data type
+     * @param <T>  generic type
+     * @return decoded value
+     * @throws Exception error
+     */
+    default <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        return deSerialize(ByteBufUtil.getBytes(data, data.readerIndex(), data.readableBytes(), false), type);
+    }
+
 }
@@ -24,6 +24,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaderNames;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 
 public final class Serializers {
@@ -118,4 +119,17 @@ public final class Serializers {
         return null;
     }
 
+    /**
+     * Whether the {@link RxSerializer#deSerialize(byte[], Type)} of the given {@code clazz} is overridden by a subclass
+     * of the {@code base}, which means the {@link ByteBuf} should be copied and deSerialized by it to keep the custom
+     * logic working.
+     */
+    static boolean isDeSerializeBytesOverridden(Class<?> clazz, Class<?> base) {
+        try {
+            return clazz.getMethod("deSerialize", byte[].class, Type.class).getDeclaringClass() != base;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
 }
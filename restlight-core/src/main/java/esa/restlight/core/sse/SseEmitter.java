@@ -0,0 +1,398 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.sse;
+
+import esa.commons.Checks;
+import esa.commons.annotation.Internal;
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.ChunkedWriter;
+import esa.restlight.core.serialize.HttpResponseSerializer;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.schedule.RequestDeadline;
+import esa.restlight.server.util.Futures;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Emitter of the server-sent events, which could be returned by a handler to keep the connection open and push the
+ * events to the client.
+ * <pre>{@code
+ * @GetMapping("/events")
+ * public SseEmitter events() {
+ *     final SseEmitter emitter = new SseEmitter();
+ *     publisher.subscribe(emitter::send);
+ *     emitter.onCompletion(() -> publisher.unsubscribe(...));
+ *     return emitter;
+ * }
+ * }</pre>
+ * <p>
+ * The handler should return as soon as the emitter is created, so that the biz thread is released and the events are
+ * written by whichever thread calls {@link #send(Object)} without blocking. Events sent before the emitter is bound to
+ * the response are buffered and written once it is bound.
+ * <p>
+ * A comment line is written as the heartbeat by the shared timer if there's nothing written during the heartbeat
+ * interval, which keeps the idle connection alive and detects the closed connection. The emitter is completed and
+ * the callbacks of {@link #onCompletion(Runnable)} are called once the response has been ended, the connection has
+ * been closed or any write has failed.
+ */
+public class SseEmitter {
+
+    public static final long DEFAULT_HEARTBEAT_MILLIS = 15_000L;
+
+    private static final Logger logger = LoggerFactory.getLogger(SseEmitter.class);
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final long heartbeatMillis;
+
+    /**
+     * guarded by this
+     */
+    private final List<Object[]> pending = new ArrayList<>(2);
+    private final List<Runnable> callbacks = new ArrayList<>(1);
+    private ChunkedWriter writer;
+    private HttpResponseSerializer serializer;
+    private Consumer<Boolean> writabilityListener;
+    private Timeout heartbeat;
+    private boolean completed;
+    private boolean terminated;
+
+    private volatile long lastWriteNanos;
+
+    public SseEmitter() {
+        this(DEFAULT_HEARTBEAT_MILLIS);
+    }
+
+    /**
+     * @param heartbeatMillis heartbeat interval, and the heartbeat is disabled if it is not positive.
+     */
+    public SseEmitter(long heartbeatMillis) {
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Sends an event with the given data, which is the same as {@link #send(SseEvent)} if the {@code data} is an
+     * {@link SseEvent}.
+     *
+     * @param data data
+     *
+     * @return future which will be completed once the event has been flushed.
+     */
+    public CompletableFuture<Void> send(Object data) {
+        Checks.checkNotNull(data, "data");
+        return send(data instanceof SseEvent ? (SseEvent) data : SseEvent.of(data));
+    }
+
+    /**
+     * Sends the given event.
+     *
+     * @param event event
+     *
+     * @return future which will be completed once the event has been flushed.
+     */
+    public CompletableFuture<Void> send(SseEvent event) {
+        Checks.checkNotNull(event, "event");
+        final HttpResponseSerializer ser;
+        synchronized (this) {
+            if (completed) {
+                return Futures.completedExceptionally(new IllegalStateException("Already completed"));
+            }
+            if (writer == null) {
+                final CompletableFuture<Void> future = new CompletableFuture<>();
+                pending.add(new Object[]{event, future});
+                return future;
+            }
+            ser = serializer;
+        }
+        final byte[] encoded;
+        try {
+            encoded = encode(event, ser);
+        } catch (Throwable t) {
+            return Futures.completedExceptionally(t);
+        }
+        return write(encoded);
+    }
+
+    /**
+     * Completes this emitter and ends the response.
+     */
+    public void complete() {
+        final ChunkedWriter w;
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            w = writer;
+            if (w == null) {
+                // will be ended once it is bound.
+                return;
+            }
+        }
+        w.end();
+    }
+
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Whether the events could be sent without piling up in memory.
+     *
+     * @return {@code true} if writable
+     *
+     * @see ChunkedWriter#isWritable()
+     */
+    public synchronized boolean isWritable() {
+        return writer == null || writer.isWritable();
+    }
+
+    /**
+     * Sets the listener which will be called with the new writability once it is changed.
+     *
+     * @param listener listener
+     *
+     * @return this
+     */
+    public SseEmitter onWritabilityChanged(Consumer<Boolean> listener) {
+        synchronized (this) {
+            writabilityListener = listener;
+            if (writer != null) {
+                writer.onWritabilityChanged(listener);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a callback which will be called once this emitter has been completed, the connection has been closed or
+     * any write has failed.
+     *
+     * @param callback callback
+     *
+     * @return this
+     */
+    public SseEmitter onCompletion(Runnable callback) {
+        Checks.checkNotNull(callback, "callback");
+        boolean runNow = false;
+        synchronized (this) {
+            if (terminated) {
+                runNow = true;
+            } else {
+                callbacks.add(callback);
+            }
+        }
+        if (runNow) {
+            runCallback(callback);
+        }
+        return this;
+    }
+
+    /**
+     * Binds this emitter to the given response, which is called by the framework after the handler has returned.
+     *
+     * @param response   response
+     * @param serializer serializer of the data of events, maybe {@code null}
+     */
+    @Internal
+    public void bind(AsyncResponse response, HttpResponseSerializer serializer) {
+        Checks.checkNotNull(response, "response");
+        response.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setHeader(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE.toString());
+        final ChunkedWriter w = response.chunkedWriter();
+        response.onEnd(r -> terminate());
+        synchronized (this) {
+            if (writer != null) {
+                throw new IllegalStateException("Already bound");
+            }
+            this.writer = w;
+            this.serializer = serializer;
+            if (writabilityListener != null) {
+                w.onWritabilityChanged(writabilityListener);
+            }
+            if (pending.isEmpty()) {
+                // write a comment to send the headers immediately
+                write(HEARTBEAT);
+            } else {
+                // a write failed synchronously would terminate this emitter and clear the pending events in place
+                final List<Object[]> toWrite = new ArrayList<>(pending);
+                pending.clear();
+                for (Object[] p : toWrite) {
+                    @SuppressWarnings("unchecked")
+                    final CompletableFuture<Void> future = (CompletableFuture<Void>) p[1];
+                    if (terminated) {
+                        future.completeExceptionally(new IllegalStateException("Already completed"));
+                        continue;
+                    }
+                    try {
+                        write(encode((SseEvent) p[0], serializer)).whenComplete((r, t) -> {
+                            if (t == null) {
+                                future.complete(null);
+                            } else {
+                                future.completeExceptionally(t);
+                            }
+                        });
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }
+            }
+            if (completed) {
+                w.end();
+                return;
+            }
+            if (heartbeatMillis > 0L) {
+                heartbeat = RequestDeadline.timer()
+                        .newTimeout(new Heartbeat(), heartbeatMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private CompletableFuture<Void> write(byte[] bytes) {
+        lastWriteNanos = System.nanoTime();
+        final CompletableFuture<Void> written = writer.write(Unpooled.wrappedBuffer(bytes));
+        written.whenComplete((r, t) -> {
+            if (t != null) {
+                // the connection may have been closed
+                logger.debug("Error while writing server-sent events, complete it.", t);
+                complete();
+                terminate();
+            }
+        });
+        return written;
+    }
+
+    private void terminate() {
+        final List<Runnable> toRun;
+        final List<Object[]> toFail;
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            completed = true;
+            if (heartbeat != null) {
+                heartbeat.cancel();
+                heartbeat = null;
+            }
+            toRun = new ArrayList<>(callbacks);
+            callbacks.clear();
+            toFail = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Object[] p : toFail) {
+            ((CompletableFuture<?>) p[1]).completeExceptionally(new IllegalStateException("Already completed"));
+        }
+        for (Runnable callback : toRun) {
+            runCallback(callback);
+        }
+    }
+
+    private static void runCallback(Runnable callback) {
+        try {
+            callback.run();
+        } catch (Throwable t) {
+            logger.error("Error while calling completion callback of SseEmitter: " + callback, t);
+        }
+    }
+
+    static byte[] encode(SseEvent event, HttpResponseSerializer serializer) throws Exception {
+        final StringBuilder sb = new StringBuilder(64);
+        if (event.comment() != null) {
+            appendLines(sb, "", event.comment());
+        }
+        if (event.id() != null) {
+            appendLines(sb, "id", event.id());
+        }
+        if (event.name() != null) {
+            appendLines(sb, "event", event.name());
+        }
+        if (event.retryMillis() >= 0L) {
+            sb.append("retry:").append(event.retryMillis()).append('\n');
+        }
+        final Object data = event.data();
+        if (data != null) {
+            final String text;
+            if (data instanceof CharSequence) {
+                text = data.toString();
+            } else if (data instanceof byte[]) {
+                text = new String((byte[]) data, StandardCharsets.UTF_8);
+            } else {
+                if (serializer == null) {
+                    throw new IllegalStateException(
+                            "Could not find any compatible serializer to serialize data of event: " + event);
+                }
+                text = new String(serializer.serialize(data), StandardCharsets.UTF_8);
+            }
+            appendLines(sb, "data", text);
+        }
+        sb.append('\n');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendLines(StringBuilder sb, String field, String value) {
+        int start = 0;
+        final int len = value.length();
+        for (int i = 0; i <= len; i++) {
+            final char c = i == len ? '\n' : value.charAt(i);
+            if (c == '\n' || c == '\r') {
+                sb.append(field).append(':').append(value, start, i).append('\n');
+                if (c == '\r' && i + 1 < len && value.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+    }
+
+    private final class Heartbeat implements TimerTask {
+
+        @Override
+        public void run(Timeout timeout) {
+            synchronized (SseEmitter.this) {
+                if (completed) {
+                    return;
+                }
+            }
+            final long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastWriteNanos);
+            final long delay;
+            if (idleMillis >= heartbeatMillis) {
+                write(HEARTBEAT);
+                delay = heartbeatMillis;
+            } else {
+                // something has been written recently
+                delay = heartbeatMillis - idleMillis;
+            }
+            synchronized (SseEmitter.this) {
+                if (!completed) {
+                    heartbeat = RequestDeadline.timer().newTimeout(this, delay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+}
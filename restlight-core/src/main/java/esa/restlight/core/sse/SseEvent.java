@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.sse;
+
+import esa.commons.Checks;
+
+/**
+ * An event of the server-sent events, see <a href="https://html.spec.whatwg.org/multipage/server-sent-events.html">
+ * server-sent events</a>.
+ * <p>
+ * The {@link #data()} will be written as it is if it is a {@link CharSequence} or a byte array, otherwise it will be
+ * serialized by the configured {@link esa.restlight.core.serialize.HttpResponseSerializer}.
+ */
+public final class SseEvent {
+
+    private final String id;
+    private final String name;
+    private final Object data;
+    private final long retryMillis;
+    private final String comment;
+
+    private SseEvent(String id, String name, Object data, long retryMillis, String comment) {
+        this.id = id;
+        this.name = name;
+        this.data = data;
+        this.retryMillis = retryMillis;
+        this.comment = comment;
+    }
+
+    public static Builder anEvent() {
+        return new Builder();
+    }
+
+    public static SseEvent of(Object data) {
+        return new SseEvent(null, null, data, -1L, null);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Object data() {
+        return data;
+    }
+
+    /**
+     * Reconnection time of the client.
+     *
+     * @return reconnection time or {@code -1} if absent
+     */
+    public long retryMillis() {
+        return retryMillis;
+    }
+
+    public String comment() {
+        return comment;
+    }
+
+    @Override
+    public String toString() {
+        return "SseEvent{id='" + id + "', name='" + name + "', data=" + data
+                + ", retryMillis=" + retryMillis + ", comment='" + comment + "'}";
+    }
+
+    public static final class Builder {
+        private String id;
+        private String name;
+        private Object data;
+        private long retryMillis = -1L;
+        private String comment;
+
+        private Builder() {
+        }
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder data(Object data) {
+            this.data = data;
+            return this;
+        }
+
+        public Builder retryMillis(long retryMillis) {
+            this.retryMillis = retryMillis;
+            return this;
+        }
+
+        public Builder comment(String comment) {
+            this.comment = comment;
+            return this;
+        }
+
+        public SseEvent build() {
+            Checks.checkArg(data != null || comment != null || retryMillis >= 0L || id != null,
+                    "empty event");
+            return new SseEvent(id, name, data, retryMillis, comment);
+        }
+    }
+}
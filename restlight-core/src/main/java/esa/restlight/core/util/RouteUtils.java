@@ -21,6 +21,7 @@ import esa.commons.StringUtils;
 import esa.commons.spi.SpiLoader;
 import esa.restlight.core.DeployContext;
 import esa.restlight.core.annotation.Scheduled;
+import esa.restlight.core.annotation.StreamingBody;
 import esa.restlight.core.config.RestlightOptions;
 import esa.restlight.core.handler.RouteHandler;
 import esa.restlight.core.handler.impl.CompletableFutureRouteExecution;
@@ -39,6 +40,8 @@ import esa.restlight.core.spi.RouteHandlerLocatorFactory;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteExecution;
+import esa.restlight.server.route.impl.MappingImpl;
+import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.schedule.Scheduler;
 import esa.restlight.server.schedule.Schedulers;
 import esa.restlight.server.util.LoggerUtils;
@@ -82,6 +85,24 @@ public class RouteUtils {
         return scheduled.value();
     }
 
+    public static int priority(InvocableMethod handler) {
+        final Scheduled scheduled = findScheduled(handler);
+        return scheduled == null ? RequestTask.NORM_PRIORITY : scheduled.priority();
+    }
+
+    private static Scheduled findScheduled(InvocableMethod handler) {
+        Scheduled scheduled = handler.getMethodAnnotation(Scheduled.class);
+        if (scheduled == null) {
+            scheduled = handler.beanType().getAnnotation(Scheduled.class);
+        }
+        return scheduled;
+    }
+
+    public static boolean streaming(InvocableMethod handler) {
+        return handler.hasMethodAnnotation(StreamingBody.class)
+                || handler.beanType().isAnnotationPresent(StreamingBody.class);
+    }
+
     /**
      * Choose a implementation of {@link RouteExecution} by the return value type of the given handler, and use the
      * non-asynchronous implementation({@link DefaultRouteExecution}) as the default.
@@ -158,6 +179,21 @@ public class RouteUtils {
         Scheduler scheduler = ctx.schedulers().get(handlerAdapter.scheduler());
         Checks.checkNotNull(scheduler,
                 "Could not find any scheduler named '" + handlerAdapter.scheduler() + "'");
+        // keep the priority of the mapping unless it is specified by @Scheduled
+        final Scheduled scheduled = findScheduled(routeHandler.handler());
+        final int priority = scheduled == null ? mapping.priority() : scheduled.priority();
+        final boolean streaming = mapping.streaming() || streaming(routeHandler.handler());
+        if (priority != mapping.priority() || streaming != mapping.streaming()) {
+            mapping = new MappingImpl(mapping.name(),
+                    mapping.path(),
+                    mapping.method(),
+                    mapping.params(),
+                    mapping.headers(),
+                    mapping.consumes(),
+                    mapping.produces(),
+                    priority,
+                    streaming);
+        }
         final Route route = Route.route(mapping)
                 .executionFactory(handlerAdapter::toExecution)
                 .schedule(scheduler)
@@ -192,8 +192,8 @@ class DeploymentsTest {
         ctx = restlight.deployments().deployContext();
         assertEquals(ops, ctx.options());
         assertTrue(ctx.resolverFactory().isPresent());
-        assertEquals(8, ctx.resolverFactory().get().argumentResolvers().size());
-        assertEquals(5, ctx.resolverFactory().get().returnValueResolvers().size());
+        assertEquals(9, ctx.resolverFactory().get().argumentResolvers().size());
+        assertEquals(6, ctx.resolverFactory().get().returnValueResolvers().size());
         assertEquals(5, ctx.resolverFactory().get().rxSerializers().size());
         assertEquals(5, ctx.resolverFactory().get().txSerializers().size());
 
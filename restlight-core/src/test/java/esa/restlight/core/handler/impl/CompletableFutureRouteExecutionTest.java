@@ -15,13 +15,27 @@
  */
 package esa.restlight.core.handler.impl;
 
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.server.schedule.RequestDeadline;
 import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class CompletableFutureRouteExecutionTest {
 
@@ -33,4 +47,23 @@ class CompletableFutureRouteExecutionTest {
         assertEquals(cf, execution.transferToFuture(cf));
     }
 
+    @Test
+    void testShortCircuitByDeadline() throws Throwable {
+        final RouteHandlerAdapter adapter = mock(RouteHandlerAdapter.class);
+        final CompletableFuture<Object> pending = new CompletableFuture<>();
+        when(adapter.invoke(any(), any(), any())).thenReturn(pending);
+        final CompletableFutureRouteExecution execution = new CompletableFutureRouteExecution(adapter, null);
+
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        // without deadline
+        assertSame(pending, execution.invoke(request, response, new Object[0]));
+        assertFalse(pending.isDone());
+
+        request.setAttribute(RequestDeadline.ATTRIBUTE, new RequestDeadline(System.currentTimeMillis() + 20L));
+        final CompletableFuture<Object> f = execution.invoke(request, response, new Object[0]);
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(1L, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof WebServerException);
+    }
+
 }
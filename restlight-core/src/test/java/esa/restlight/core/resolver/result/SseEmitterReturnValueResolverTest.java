@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.resolver.result;
+
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.core.resolver.ReturnValueResolver;
+import esa.restlight.core.serialize.FastJsonHttpBodySerializer;
+import esa.restlight.core.serialize.Serializers;
+import esa.restlight.core.sse.SseEmitter;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SseEmitterReturnValueResolverTest {
+
+    private final SseEmitterReturnValueResolver factory = new SseEmitterReturnValueResolver();
+
+    @Test
+    void testSupports() throws NoSuchMethodException {
+        assertTrue(factory.supports(HandlerMethod.of(Subject.class.getDeclaredMethod("sse"), new Subject())));
+        assertFalse(factory.supports(HandlerMethod.of(Subject.class.getDeclaredMethod("str"), new Subject())));
+    }
+
+    @Test
+    void testResolve() throws Exception {
+        final ReturnValueResolver resolver = factory.createResolver(
+                HandlerMethod.of(Subject.class.getDeclaredMethod("sse"), new Subject()),
+                Collections.singletonList(new FastJsonHttpBodySerializer()));
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        assertNull(resolver.resolve(null, MockAsyncRequest.aMockRequest().build(), response));
+
+        final SseEmitter emitter = new SseEmitter(0L);
+        final byte[] resolved = resolver.resolve(emitter, MockAsyncRequest.aMockRequest().build(), response);
+        assertTrue(Serializers.alreadyWrite(resolved));
+        assertTrue(response.isCommitted());
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, response.getHeader(HttpHeaderNames.CONTENT_TYPE));
+
+        emitter.send(Collections.singletonMap("a", 1));
+        emitter.complete();
+        assertEquals(":\n\ndata:{\"a\":1}\n\n", response.getSentData().toString(StandardCharsets.UTF_8));
+    }
+
+    private static class Subject {
+
+        SseEmitter sse() {
+            return new SseEmitter();
+        }
+
+        String str() {
+            return "";
+        }
+    }
+}
@@ -20,10 +20,13 @@ import esa.restlight.core.util.MediaType;
 import esa.restlight.core.util.Ordered;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -105,6 +108,34 @@ class BaseHttpBodySerializerTest {
         assertEquals(pojo, pojoReduction);
     }
 
+    @Test
+    void testDeSerializeByteBuf() throws Exception {
+        assertNull(baseHttpBodySerializer.deSerialize((ByteBuf) null, Pojo.class));
+        assertNull(baseHttpBodySerializer.deSerialize(Unpooled.EMPTY_BUFFER, Pojo.class));
+        assertEquals(pojo, baseHttpBodySerializer.deSerialize(Unpooled.wrappedBuffer(pojoBytes), Pojo.class));
+    }
+
+    @Test
+    void testDeSerializeByteBufByOverriddenBytes() throws Exception {
+        final Pojo custom = new Pojo("custom", 1);
+        final BaseHttpBodySerializer overridden = new BaseHttpBodySerializer() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> T deSerialize(byte[] data, Type type) {
+                assertArrayEquals(pojoBytes, data);
+                return (T) custom;
+            }
+
+            @Override
+            protected Serializer serializer() {
+                return serializer;
+            }
+        };
+        final ByteBuf buf = Unpooled.wrappedBuffer(pojoBytes);
+        assertSame(custom, overridden.deSerialize(buf, Pojo.class));
+        assertEquals(0, buf.readerIndex());
+    }
+
     @Test
     void testSerialize() throws Exception {
         final String pojoString = JacksonSerializer.getDefaultMapper().writeValueAsString(pojo);
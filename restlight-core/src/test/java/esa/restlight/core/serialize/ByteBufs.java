@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.serialize;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.Arrays;
+import java.util.List;
+
+final class ByteBufs {
+
+    /**
+     * Heap, heap with offset, direct and composite buffers which all contain the given data as the readable bytes.
+     */
+    static List<ByteBuf> of(byte[] data) {
+        final ByteBuf offset = Unpooled.buffer(data.length + 8);
+        offset.writeZero(3).writeBytes(data).writeZero(5).readerIndex(3).writerIndex(3 + data.length);
+        final ByteBuf direct = Unpooled.directBuffer(data.length).writeBytes(data);
+        final int half = data.length / 2;
+        final CompositeByteBuf composite = Unpooled.compositeBuffer()
+                .addComponent(true, Unpooled.directBuffer().writeBytes(data, 0, half))
+                .addComponent(true, Unpooled.directBuffer().writeBytes(data, half, data.length - half));
+        return Arrays.asList(Unpooled.wrappedBuffer(data), offset.slice(), offset, direct, composite);
+    }
+
+    private ByteBufs() {
+    }
+}
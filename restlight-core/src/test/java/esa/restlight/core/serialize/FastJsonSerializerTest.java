@@ -19,6 +19,7 @@ import com.alibaba.fastjson.JSON;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -66,4 +67,13 @@ class FastJsonSerializerTest {
         final MockAsyncRequest request = builder.withBody(pojoBytes).build();
         assertEquals(pojo, fastJsonSerializer.deSerialize(request.inputStream(), Pojo.class));
     }
+
+    @Test
+    void testDeSerializeByteBuf() throws Exception {
+        for (ByteBuf buf : ByteBufs.of(pojoBytes)) {
+            final int readerIndex = buf.readerIndex();
+            assertEquals(pojo, fastJsonSerializer.deSerialize(buf, Pojo.class));
+            assertEquals(readerIndex, buf.readerIndex());
+        }
+    }
 }
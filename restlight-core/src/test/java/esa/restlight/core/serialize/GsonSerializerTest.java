@@ -19,6 +19,7 @@ import com.google.gson.Gson;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -68,4 +69,13 @@ class GsonSerializerTest {
         final MockAsyncRequest request = builder.withBody(pojoBytes).build();
         assertEquals(pojo, gsonSerializer.deSerialize(request.inputStream(), Pojo.class));
     }
+
+    @Test
+    void testDeSerializeByteBuf() throws Exception {
+        for (ByteBuf buf : ByteBufs.of(pojoBytes)) {
+            final int readerIndex = buf.readerIndex();
+            assertEquals(pojo, gsonSerializer.deSerialize(buf, Pojo.class));
+            assertEquals(readerIndex, buf.readerIndex());
+        }
+    }
 }
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -75,6 +76,15 @@ class JacksonSerializerTest {
         assertEquals(pojo, defaultJacksonSerializer.deSerialize(request.inputStream(), Pojo.class));
     }
 
+    @Test
+    void testDeSerializeByteBuf() throws Exception {
+        for (ByteBuf buf : ByteBufs.of(pojoBytes)) {
+            final int readerIndex = buf.readerIndex();
+            assertEquals(pojo, defaultJacksonSerializer.deSerialize(buf, Pojo.class));
+            assertEquals(readerIndex, buf.readerIndex());
+        }
+    }
+
     @Test
     void getDefaultMapper() {
         assertEquals(defaultObjectMapper, JacksonSerializer.getDefaultMapper());
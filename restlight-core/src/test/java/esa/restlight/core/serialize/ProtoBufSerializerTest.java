@@ -18,6 +18,7 @@ package esa.restlight.core.serialize;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -72,4 +73,15 @@ class ProtoBufSerializerTest {
         assertEquals(pojo.getName(), pojoReduction.getName());
         assertEquals(pojo.getAge(), pojoReduction.getAge());
     }
+
+    @Test
+    void testDeSerializeByteBuf() throws Exception {
+        for (ByteBuf buf : ByteBufs.of(pojoBytes)) {
+            final int readerIndex = buf.readerIndex();
+            final PojoProtobuf.Pojo pojoReduction = protoBufSerializer.deSerialize(buf, PojoProtobuf.Pojo.class);
+            assertEquals(pojo.getName(), pojoReduction.getName());
+            assertEquals(pojo.getAge(), pojoReduction.getAge());
+            assertEquals(readerIndex, buf.readerIndex());
+        }
+    }
 }
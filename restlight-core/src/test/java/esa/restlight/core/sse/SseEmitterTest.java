@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.sse;
+
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.ChunkedWriter;
+import esa.restlight.core.serialize.FastJsonHttpBodySerializer;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SseEmitterTest {
+
+    @Test
+    void testEncode() throws Exception {
+        assertEquals("data:foo\n\n", encode(SseEvent.of("foo")));
+        assertEquals("data:foo\ndata:bar\ndata:\ndata:baz\n\n", encode(SseEvent.of("foo\r\nbar\n\rbaz")));
+        assertEquals(":hi\nid:1\nevent:update\nretry:3000\ndata:{\"a\":1}\n\n",
+                encode(SseEvent.anEvent()
+                        .comment("hi")
+                        .id("1")
+                        .name("update")
+                        .retryMillis(3000L)
+                        .data(Collections.singletonMap("a", 1))
+                        .build()));
+        assertEquals("data:foo\n\n", encode(SseEvent.of("foo".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IllegalArgumentException.class, () -> SseEvent.anEvent().name("foo").build());
+        assertThrows(IllegalStateException.class,
+                () -> SseEmitter.encode(SseEvent.of(Collections.emptyMap()), null));
+    }
+
+    @Test
+    void testSendBeforeAndAfterBound() {
+        final SseEmitter emitter = new SseEmitter(0L);
+        final CompletableFuture<Void> early = emitter.send("foo");
+        assertFalse(early.isDone());
+
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        emitter.bind(response, new FastJsonHttpBodySerializer());
+        assertTrue(early.isDone());
+        assertFalse(early.isCompletedExceptionally());
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, response.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertEquals("no-cache", response.getHeader(HttpHeaderNames.CACHE_CONTROL));
+        assertTrue(response.isCommitted());
+        assertThrows(IllegalStateException.class, () -> emitter.bind(response, null));
+
+        emitter.send(SseEvent.anEvent().id("1").data("bar").build());
+        assertEquals("data:foo\n\nid:1\ndata:bar\n\n", sent(response));
+    }
+
+    @Test
+    void testWriteFailedWhenBinding() {
+        final SseEmitter emitter = new SseEmitter(0L);
+        final AtomicInteger completions = new AtomicInteger();
+        emitter.onCompletion(completions::incrementAndGet);
+        final CompletableFuture<Void> first = emitter.send("foo");
+        final CompletableFuture<Void> second = emitter.send("bar");
+
+        final ChunkedWriter writer = mock(ChunkedWriter.class);
+        when(writer.write(any(ByteBuf.class))).thenReturn(Futures.completedExceptionally(new IOException()));
+        final AsyncResponse response = mock(AsyncResponse.class);
+        when(response.chunkedWriter()).thenReturn(writer);
+        emitter.bind(response, null);
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertTrue(emitter.isCompleted());
+        assertEquals(1, completions.get());
+        verify(writer).write(any(ByteBuf.class));
+    }
+
+    @Test
+    void testComplete() {
+        final SseEmitter emitter = new SseEmitter(0L);
+        final AtomicInteger completions = new AtomicInteger();
+        emitter.onCompletion(completions::incrementAndGet);
+        emitter.send("foo");
+        emitter.complete();
+        assertTrue(emitter.isCompleted());
+        assertTrue(emitter.send("bar").isCompletedExceptionally());
+
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        // ended once bound
+        emitter.bind(response, null);
+        assertEquals("data:foo\n\n", sent(response));
+        assertEquals(1, completions.get());
+
+        emitter.complete();
+        emitter.onCompletion(completions::incrementAndGet);
+        assertEquals(2, completions.get());
+    }
+
+    @Test
+    void testHeartbeat() throws InterruptedException {
+        final SseEmitter emitter = new SseEmitter(20L);
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        emitter.bind(response, null);
+        // the initial comment
+        assertEquals(":\n\n", sent(response));
+        for (int i = 0; i < 300 && sent(response).length() <= 3; i++) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        assertTrue(sent(response).startsWith(":\n\n:\n\n"));
+        emitter.complete();
+    }
+
+    private static String encode(SseEvent event) throws Exception {
+        return new String(SseEmitter.encode(event, new FastJsonHttpBodySerializer()), StandardCharsets.UTF_8);
+    }
+
+    private static String sent(MockAsyncResponse response) {
+        return response.getSentData().toString(StandardCharsets.UTF_8);
+    }
+}
@@ -27,6 +27,7 @@ import esa.restlight.core.resolver.HandlerResolverFactory;
 import esa.restlight.core.resolver.exception.ExceptionResolverFactory;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.route.Route;
+import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.schedule.Schedulers;
 import esa.restlight.server.util.Futures;
 import io.netty.util.concurrent.Future;
@@ -85,6 +86,17 @@ class RouteUtilsTest {
                 RouteUtils.scheduling(method8, Schedulers.BIZ));
     }
 
+    @Test
+    void testPriority() throws NoSuchMethodException {
+        final HandlerMethod method2
+                = HandlerMethod.of(Subject.class.getDeclaredMethod("method2"), SUBJECT);
+        assertEquals(RequestTask.NORM_PRIORITY, RouteUtils.priority(method2));
+
+        final HandlerMethod method9
+                = HandlerMethod.of(Subject.class.getDeclaredMethod("method9"), SUBJECT);
+        assertEquals(RequestTask.MAX_PRIORITY, RouteUtils.priority(method9));
+    }
+
     @Test
     void testExtractRouteByMappingAndRouteHandler() throws NoSuchMethodException {
         final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
@@ -121,6 +133,13 @@ class RouteUtilsTest {
         assertEquals(routeHandler.handler(), ret.get().handler().get());
         assertSame(Schedulers.biz(), ret.get().scheduler());
         assertSame(mapping, ret.get().mapping());
+
+        // priority specified by mapping should be kept if there's no @Scheduled
+        final Mapping prior = Mapping.get().priority(RequestTask.MAX_PRIORITY);
+        ret = RouteUtils.extractRoute(ctx, prior, routeHandler);
+        assertTrue(ret.isPresent());
+        assertSame(prior, ret.get().mapping());
+        assertEquals(RequestTask.MAX_PRIORITY, ret.get().mapping().priority());
     }
 
     @Test
@@ -257,5 +276,9 @@ class RouteUtilsTest {
         @Scheduled(Schedulers.IO)
         void method8() {
         }
+
+        @Scheduled(value = Schedulers.BIZ, priority = RequestTask.MAX_PRIORITY)
+        void method9() {
+        }
     }
 }
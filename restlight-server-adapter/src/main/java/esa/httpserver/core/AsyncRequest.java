@@ -175,6 +175,18 @@ public interface AsyncRequest {
         return null;
     }
 
+    /**
+     * Probes the parameter with the given name, the result is same as {@link #getParameter(String)}, but
+     * implementations could find it without decoding all the parameters of current request, which is useful when only
+     * a few parameters would be read, such as routing.
+     *
+     * @param parName parameter name
+     * @return value
+     */
+    default String probeParameter(String parName) {
+        return getParameter(parName);
+    }
+
     /**
      * Get parameters This pair of parameter can be from url parameters or body k-v values when Content-Type equals to
      * 'x-www-form-urlencoded'
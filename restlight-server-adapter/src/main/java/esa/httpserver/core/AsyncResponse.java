@@ -74,6 +74,16 @@ public interface AsyncResponse {
      */
     HttpOutputStream outputStream();
 
+    /**
+     * Get the non-blocking chunked writer of this response. Create a new one if it is {@code null}.
+     * <p>
+     * Note: Once you have called this function you should use this writer to write your response data rather than
+     * using other method such as {@link #outputStream()} or sendResult(...)
+     *
+     * @return chunked writer
+     */
+    ChunkedWriter chunkedWriter();
+
     /**
      * Set buffer size of the output stream. it will not be effective unless current output stream is null, which means
      * you'd better call this function before {@link #outputStream()}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.core;
+
+import esa.commons.http.HttpHeaders;
+import io.netty.buffer.ByteBuf;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A non-blocking writer which writes the response body chunk by chunk.
+ * <p>
+ * Every chunk written will be counted as pending until it has been flushed to the connection, and this writer turns
+ * into unwritable once the pending bytes reach the high water mark and turns back to writable after they fall to the
+ * low water mark, which means a producer should stop writing while {@link #isWritable()} is {@code false} and continue
+ * when it is notified by the {@link #onWritabilityChanged(Consumer)} so that the response would be sent at the pace of
+ * the client with bounded memory.
+ * <p>
+ * Note: the returned futures and the writability listener may be completed or called by the IO thread, so do not
+ * block in them.
+ */
+public interface ChunkedWriter {
+
+    /**
+     * Writes a chunk of the response body, and the ownership of the {@code chunk} is transferred to this writer.
+     *
+     * @param chunk chunk
+     *
+     * @return future which will be completed once the chunk has been flushed.
+     */
+    CompletableFuture<Void> write(ByteBuf chunk);
+
+    /**
+     * Whether the pending bytes are under the high water mark.
+     *
+     * @return {@code true} if writable
+     */
+    boolean isWritable();
+
+    /**
+     * Sets the listener which will be called with the new writability once it is changed.
+     *
+     * @param listener listener
+     *
+     * @return this
+     */
+    ChunkedWriter onWritabilityChanged(Consumer<Boolean> listener);
+
+    /**
+     * Ends the response.
+     *
+     * @return future which will be completed once the response has been ended.
+     */
+    default CompletableFuture<Void> end() {
+        return end(null);
+    }
+
+    /**
+     * Ends the response with given trailers.
+     *
+     * @param trailers trailers, maybe {@code null}
+     *
+     * @return future which will be completed once the response has been ended.
+     */
+    CompletableFuture<Void> end(HttpHeaders trailers);
+
+    /**
+     * Whether this writer has been ended.
+     *
+     * @return {@code true} if ended
+     */
+    boolean isEnded();
+}
@@ -26,6 +26,7 @@ import esa.httpserver.core.Request;
 import esa.restlight.core.util.MediaType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.EmptyHttpHeaders;
@@ -63,7 +64,8 @@ public class AsyncRequestImpl implements AsyncRequest {
     private final Request req;
     private final HttpMethod method;
     private final HttpHeaders headers;
-    private final HttpHeaders trailers;
+    private HttpHeaders trailers;
+    private boolean streaming;
     private Map<String, List<String>> params;
     private HttpInputStream is;
     private Set<Cookie> cookies;
@@ -83,20 +85,6 @@ public class AsyncRequestImpl implements AsyncRequest {
             }
         }
 
-        if (req.aggregated().trailers().isEmpty()) {
-            this.trailers = EmptyHttpHeaders.INSTANCE;
-        } else if (req.aggregated().trailers() instanceof HttpHeaders) {
-            this.trailers = (HttpHeaders) req.aggregated().trailers();
-        } else {
-            this.trailers = new DefaultHttpHeaders();
-            Iterator<Map.Entry<CharSequence, CharSequence>> it =
-                    req.aggregated().trailers().iteratorCharSequence();
-            while (it.hasNext()) {
-                Map.Entry<CharSequence, CharSequence> entry = it.next();
-                this.trailers.add(entry.getKey(), entry.getValue());
-            }
-        }
-
     }
 
     @Override
@@ -141,12 +129,41 @@ public class AsyncRequestImpl implements AsyncRequest {
 
     @Override
     public HttpHeaders trailers() {
+        if (trailers == null) {
+            trailers = toHttpHeaders(req.aggregated().trailers());
+        }
         return trailers;
     }
 
+    private static HttpHeaders toHttpHeaders(esa.commons.http.HttpHeaders headers) {
+        if (headers.isEmpty()) {
+            return EmptyHttpHeaders.INSTANCE;
+        } else if (headers instanceof HttpHeaders) {
+            return (HttpHeaders) headers;
+        }
+        final HttpHeaders converted = new DefaultHttpHeaders();
+        Iterator<Map.Entry<CharSequence, CharSequence>> it = headers.iteratorCharSequence();
+        while (it.hasNext()) {
+            Map.Entry<CharSequence, CharSequence> entry = it.next();
+            converted.add(entry.getKey(), entry.getValue());
+        }
+        return converted;
+    }
+
     @Override
     public ByteBuf byteBufBody() {
-        return req.aggregated().body();
+        return streaming ? Unpooled.EMPTY_BUFFER : req.aggregated().body();
+    }
+
+    /**
+     * Streams the body of current request by the given {@link StreamingHttpInputStream}, which means the body could
+     * only be read from {@link #inputStream()} and the {@link #byteBufBody()} is always empty.
+     *
+     * @param body body
+     */
+    public void streaming(StreamingHttpInputStream body) {
+        this.streaming = true;
+        this.is = body;
     }
 
     @Override
@@ -182,40 +199,49 @@ public class AsyncRequestImpl implements AsyncRequest {
         return NetworkUtils.getPort(req.localAddress());
     }
 
+    @Override
+    public String probeParameter(String parName) {
+        if (params != null) {
+            return getParameter(parName);
+        }
+        // parameters in query have a higher priority than the ones in body, see parameterMap()
+        final String value = probeQuery(query(), parName);
+        if (value != null || !mayHaveFormBody()) {
+            return value;
+        }
+        return getParameter(parName);
+    }
+
     @Override
     public Map<String, List<String>> parameterMap() {
         if (params == null) {
             // merge parameters of application/x-www-form-urlencoded
             Map<String, List<String>> decoded = req.paramMap();
-            if (esa.commons.http.HttpMethod.POST.equals(req.method()) && byteBufBody().isReadable()) {
+            if (mayHaveFormBody()) {
                 String contentType = req.headers().get(HttpHeaderNames.CONTENT_TYPE);
-                if (contentType != null
-                        && contentType.length() >= MediaType.APPLICATION_FORM_URLENCODED_VALUE.length()
-                        && contentType.charAt(0) == MediaType.APPLICATION_FORM_URLENCODED_VALUE.charAt(0)) {
-                    MediaType mediaType = null;
+                MediaType mediaType = null;
+                try {
+                    mediaType = MediaType.valueOf(contentType);
+                } catch (Exception e) {
+                    logger.warn("Error while parsing content type: " + contentType, e);
+                }
+
+                if (mediaType != null && mediaType.isCompatibleWith(MediaType.APPLICATION_FORM_URLENCODED)) {
+                    Charset charset = mediaType.charset();
+                    if (charset == null) {
+                        charset = StandardCharsets.UTF_8;
+                    }
+                    String body = byteBufBody().toString(charset);
+                    final QueryStringDecoder decoder = new QueryStringDecoder(body, false);
+                    Map<String, List<String>> bodyParam = null;
                     try {
-                        mediaType = MediaType.valueOf(contentType);
+                        bodyParam = decoder.parameters();
                     } catch (Exception e) {
-                        logger.warn("Error while parsing content type: " + contentType, e);
+                        logger.warn("Error while parsing body parameter, body: " + body, e);
                     }
-
-                    if (mediaType != null && mediaType.isCompatibleWith(MediaType.APPLICATION_FORM_URLENCODED)) {
-                        Charset charset = mediaType.charset();
-                        if (charset == null) {
-                            charset = StandardCharsets.UTF_8;
-                        }
-                        String body = byteBufBody().toString(charset);
-                        final QueryStringDecoder decoder = new QueryStringDecoder(body, false);
-                        Map<String, List<String>> bodyParam = null;
-                        try {
-                            bodyParam = decoder.parameters();
-                        } catch (Exception e) {
-                            logger.warn("Error while parsing body parameter, body: " + body, e);
-                        }
-                        if (bodyParam != null && !bodyParam.isEmpty()) {
-                            bodyParam.putAll(decoded);
-                            decoded = bodyParam;
-                        }
+                    if (bodyParam != null && !bodyParam.isEmpty()) {
+                        bodyParam.putAll(decoded);
+                        decoded = bodyParam;
                     }
                 }
             }
@@ -224,6 +250,62 @@ public class AsyncRequestImpl implements AsyncRequest {
         return params;
     }
 
+    private boolean mayHaveFormBody() {
+        if (esa.commons.http.HttpMethod.POST.equals(req.method()) && byteBufBody().isReadable()) {
+            String contentType = req.headers().get(HttpHeaderNames.CONTENT_TYPE);
+            return contentType != null
+                    && contentType.length() >= MediaType.APPLICATION_FORM_URLENCODED_VALUE.length()
+                    && contentType.charAt(0) == MediaType.APPLICATION_FORM_URLENCODED_VALUE.charAt(0);
+        }
+        return false;
+    }
+
+    /**
+     * Finds the first value of the given parameter in the query string without decoding the others, which is same as
+     * {@link QueryStringDecoder}.
+     */
+    static String probeQuery(String query, String name) {
+        if (StringUtils.isEmpty(query)) {
+            return null;
+        }
+        final int len = query.length();
+        int start = 0;
+        while (start < len) {
+            int end = start;
+            int eq = -1;
+            boolean encoded = false;
+            char c;
+            while (end < len && (c = query.charAt(end)) != '&' && c != ';' && c != '#') {
+                if (eq < 0) {
+                    if (c == '=') {
+                        eq = end;
+                    } else if (c == '%' || c == '+') {
+                        encoded = true;
+                    }
+                }
+                end++;
+            }
+            final int nameEnd = eq < 0 ? end : eq;
+            if (nameEnd > start && nameMatches(query, start, nameEnd, encoded, name)) {
+                return eq < 0
+                        ? StringUtils.empty()
+                        : QueryStringDecoder.decodeComponent(query.substring(eq + 1, end));
+            }
+            if (end < len && query.charAt(end) == '#') {
+                break;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static boolean nameMatches(String query, int start, int end, boolean encoded, String name) {
+        if (encoded) {
+            return name.equals(QueryStringDecoder.decodeComponent(query.substring(start, end)));
+        }
+        return end - start == name.length() && query.regionMatches(start, name, 0, name.length());
+    }
+
     @Override
     public Set<Cookie> cookies() {
         if (cookies == null) {
@@ -20,11 +20,13 @@ import esa.commons.ExceptionUtils;
 import esa.commons.annotation.Internal;
 import esa.commons.netty.http.CookieImpl;
 import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.ChunkedWriter;
 import esa.httpserver.core.HttpOutputStream;
 import esa.httpserver.core.Response;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.util.internal.MathUtil;
 
@@ -40,11 +42,30 @@ import java.util.function.Consumer;
 public class AsyncResponseImpl implements AsyncResponse {
 
     private final Response res;
+    private final int writeBufferHighWaterMark;
+    private final int writeBufferLowWaterMark;
     private int bufferSize = DEFAULT_BUFFER_SIZE;
     private HttpOutputStream os;
+    private ChunkedWriter writer;
 
     public AsyncResponseImpl(Response res) {
+        this(res, -1, -1);
+    }
+
+    /**
+     * @param res                      response
+     * @param writeBufferHighWaterMark high water mark of the pending bytes of the {@link #chunkedWriter()}, use the
+     *                                 default value of netty if it is not positive.
+     * @param writeBufferLowWaterMark  low water mark of the pending bytes of the {@link #chunkedWriter()}, use the
+     *                                 default value of netty if it is negative.
+     */
+    public AsyncResponseImpl(Response res, int writeBufferHighWaterMark, int writeBufferLowWaterMark) {
         this.res = res;
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark > 0
+                ? writeBufferHighWaterMark : WriteBufferWaterMark.DEFAULT.high();
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark >= 0
+                ? Math.min(writeBufferLowWaterMark, this.writeBufferHighWaterMark - 1)
+                : Math.min(WriteBufferWaterMark.DEFAULT.low(), this.writeBufferHighWaterMark >> 1);
     }
 
     @Override
@@ -68,15 +89,29 @@ public class AsyncResponseImpl implements AsyncResponse {
             throw new IllegalStateException("Already ended");
         }
         if (os == null) {
+            checkChunkedWriter();
             checkCommitted();
             os = new ByteBufHttpOutputStream(bufferSize, res);
         }
         return os;
     }
 
+    @Override
+    public ChunkedWriter chunkedWriter() {
+        if (writer == null) {
+            checkOutputStream();
+            if (res.isEnded()) {
+                throw new IllegalStateException("Already ended");
+            }
+            checkCommitted();
+            writer = new ChunkedWriterImpl(res, writeBufferHighWaterMark, writeBufferLowWaterMark);
+        }
+        return writer;
+    }
+
     @Override
     public void setBufferSize(int size) {
-        if (isCommitted() || os != null) {
+        if (isCommitted() || os != null || writer != null) {
             return;
         }
         Checks.checkArg(size > 0, "buffer size must be over than 0. actual: " + size);
@@ -273,5 +308,13 @@ public class AsyncResponseImpl implements AsyncResponse {
         if (os != null) {
             throw new IllegalStateException("OutputStream has already opened. use it please.");
         }
+        checkChunkedWriter();
+    }
+
+    private void checkChunkedWriter() {
+        // only one of chunked writer and sendXX() is allowed.
+        if (writer != null) {
+            throw new IllegalStateException("ChunkedWriter has already opened. use it please.");
+        }
     }
 }
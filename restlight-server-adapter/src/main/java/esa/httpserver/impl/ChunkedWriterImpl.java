@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.impl;
+
+import esa.commons.Checks;
+import esa.commons.http.HttpHeaders;
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.httpserver.core.ChunkedWriter;
+import esa.httpserver.core.Response;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.Future;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+
+final class ChunkedWriterImpl implements ChunkedWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedWriterImpl.class);
+
+    private static final AtomicLongFieldUpdater<ChunkedWriterImpl> PENDING_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(ChunkedWriterImpl.class, "pending");
+    private static final AtomicIntegerFieldUpdater<ChunkedWriterImpl> UNWRITABLE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ChunkedWriterImpl.class, "unwritable");
+    private static final AtomicIntegerFieldUpdater<ChunkedWriterImpl> ENDED_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ChunkedWriterImpl.class, "ended");
+
+    private final Response res;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private volatile long pending;
+    private volatile int unwritable;
+    private volatile int ended;
+    private volatile Consumer<Boolean> listener;
+
+    ChunkedWriterImpl(Response res, int highWaterMark, int lowWaterMark) {
+        Checks.checkArg(lowWaterMark >= 0, "lowWaterMark must not be negative");
+        Checks.checkArg(highWaterMark > lowWaterMark, "highWaterMark must be over than lowWaterMark");
+        this.res = res;
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    @Override
+    public CompletableFuture<Void> write(ByteBuf chunk) {
+        Checks.checkNotNull(chunk, "chunk");
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        if (ended == 1 || res.isEnded()) {
+            chunk.release();
+            written.completeExceptionally(new IllegalStateException("Already ended"));
+            return written;
+        }
+        final int size = chunk.readableBytes();
+        incrementPending(size);
+        final Future<?> f;
+        try {
+            f = res.write(chunk);
+        } catch (Throwable t) {
+            decrementPending(size);
+            written.completeExceptionally(t);
+            return written;
+        }
+        f.addListener(future -> {
+            decrementPending(size);
+            if (future.isSuccess()) {
+                written.complete(null);
+            } else {
+                written.completeExceptionally(future.cause());
+            }
+        });
+        return written;
+    }
+
+    @Override
+    public boolean isWritable() {
+        return unwritable == 0;
+    }
+
+    @Override
+    public ChunkedWriter onWritabilityChanged(Consumer<Boolean> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<Void> end(HttpHeaders trailers) {
+        final CompletableFuture<Void> ended = new CompletableFuture<>();
+        if (!ENDED_UPDATER.compareAndSet(this, 0, 1)) {
+            ended.completeExceptionally(new IllegalStateException("Already ended"));
+            return ended;
+        }
+        if (trailers != null) {
+            for (Map.Entry<String, String> trailer : trailers) {
+                res.trailers().add(trailer.getKey(), trailer.getValue());
+            }
+        }
+        try {
+            res.end();
+        } catch (Throwable t) {
+            ended.completeExceptionally(t);
+            return ended;
+        }
+        res.onEndFuture().addListener(future -> {
+            if (future.isSuccess()) {
+                ended.complete(null);
+            } else {
+                ended.completeExceptionally(future.cause());
+            }
+        });
+        return ended;
+    }
+
+    @Override
+    public boolean isEnded() {
+        return ended == 1;
+    }
+
+    long pendingBytes() {
+        return pending;
+    }
+
+    private void incrementPending(int size) {
+        if (PENDING_UPDATER.addAndGet(this, size) >= highWaterMark
+                && UNWRITABLE_UPDATER.compareAndSet(this, 0, 1)) {
+            fireWritabilityChanged(false);
+            // the pending bytes may have been flushed concurrently before the writability was changed.
+            if (pending <= lowWaterMark && UNWRITABLE_UPDATER.compareAndSet(this, 1, 0)) {
+                fireWritabilityChanged(true);
+            }
+        }
+    }
+
+    private void decrementPending(int size) {
+        if (PENDING_UPDATER.addAndGet(this, -size) <= lowWaterMark
+                && UNWRITABLE_UPDATER.compareAndSet(this, 1, 0)) {
+            fireWritabilityChanged(true);
+        }
+    }
+
+    private void fireWritabilityChanged(boolean writable) {
+        final Consumer<Boolean> l = listener;
+        if (l == null) {
+            return;
+        }
+        try {
+            l.accept(writable);
+        } catch (Throwable t) {
+            logger.warn("Error while calling writability listener: " + l, t);
+        }
+    }
+}
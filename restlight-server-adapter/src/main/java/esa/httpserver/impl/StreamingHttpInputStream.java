@@ -0,0 +1,397 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.impl;
+
+import esa.commons.Checks;
+import esa.commons.annotation.Internal;
+import esa.httpserver.core.HttpInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link HttpInputStream} which is fed by the chunks of the request body as soon as they arrive, and the reading
+ * blocks until there's any readable content or the body has ended.
+ * <p>
+ * Reading from the connection would be paused once the buffered bytes reach the given {@code bufferSize} and resumed
+ * after half of them have been consumed, so that a slow consumer could never make the body to pile up in memory.
+ * <p>
+ * Note: the auto read is a switch of the whole connection, so all the streams of a HTTP2 connection are paused.
+ */
+@Internal
+public class StreamingHttpInputStream extends HttpInputStream {
+
+    private final Channel channel;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final Lock lock = new ReentrantLock();
+    private final Condition readable = lock.newCondition();
+
+    /**
+     * guarded by lock
+     */
+    private final ArrayDeque<ByteBuf> chunks = new ArrayDeque<>();
+    private int buffered;
+    private boolean ended;
+    private boolean closed;
+    private boolean paused;
+    private Throwable cause;
+
+    /**
+     * accessed by the reading thread only
+     */
+    private int readBytes;
+    private DataInputStream data;
+
+    /**
+     * @param channel    connection of the request, which is paused once the buffer is full
+     * @param bufferSize max bytes to buffer before pausing reading from the connection
+     */
+    public StreamingHttpInputStream(Channel channel, int bufferSize) {
+        Checks.checkNotNull(channel, "channel");
+        Checks.checkArg(bufferSize > 0, "bufferSize must be over than 0");
+        this.channel = channel;
+        this.highWaterMark = bufferSize;
+        this.lowWaterMark = bufferSize >> 1;
+    }
+
+    /**
+     * Appends a chunk of the body, which is called by the IO thread.
+     *
+     * @param chunk chunk
+     */
+    public void onData(ByteBuf chunk) {
+        if (!chunk.isReadable()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed || ended) {
+                // discard
+                return;
+            }
+            chunks.add(chunk.retain());
+            buffered += chunk.readableBytes();
+            if (!paused && buffered >= highWaterMark) {
+                paused = true;
+                channel.config().setAutoRead(false);
+            }
+            readable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the body as ended, which is called by the IO thread.
+     */
+    public void onEnd() {
+        lock.lock();
+        try {
+            ended = true;
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fails the reading with given cause, which is called by the IO thread.
+     *
+     * @param t cause
+     */
+    public void onError(Throwable t) {
+        lock.lock();
+        try {
+            if (!ended) {
+                cause = t;
+                ended = true;
+            }
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        lock.lock();
+        try {
+            final ByteBuf chunk = awaitReadable();
+            if (chunk == null) {
+                return -1;
+            }
+            final int b = chunk.readUnsignedByte();
+            consumed(chunk, 1);
+            return b;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Checks.checkNotNull(b, "b");
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            final ByteBuf chunk = awaitReadable();
+            if (chunk == null) {
+                return -1;
+            }
+            final int n = Math.min(len, chunk.readableBytes());
+            chunk.readBytes(b, off, n);
+            consumed(chunk, n);
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long remaining = n;
+        lock.lock();
+        try {
+            while (remaining > 0L) {
+                final ByteBuf chunk = awaitReadable();
+                if (chunk == null) {
+                    break;
+                }
+                final int skipped = (int) Math.min(remaining, chunk.readableBytes());
+                chunk.skipBytes(skipped);
+                consumed(chunk, skipped);
+                remaining -= skipped;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public int available() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            return buffered;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes this stream and discards the rest of the body.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ByteBuf chunk;
+            while ((chunk = chunks.poll()) != null) {
+                chunk.release();
+            }
+            buffered = 0;
+            resumeIfNecessary();
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a readable chunk, must be called with the lock held.
+     *
+     * @return readable chunk or {@code null} if the body has ended.
+     */
+    private ByteBuf awaitReadable() throws IOException {
+        for (; ; ) {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (cause != null) {
+                throw new IOException("Error while reading request body", cause);
+            }
+            final ByteBuf chunk = chunks.peek();
+            if (chunk != null) {
+                return chunk;
+            }
+            if (ended) {
+                return null;
+            }
+            try {
+                readable.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for request body");
+            }
+        }
+    }
+
+    private void consumed(ByteBuf chunk, int n) {
+        readBytes += n;
+        buffered -= n;
+        if (!chunk.isReadable()) {
+            chunks.poll();
+            chunk.release();
+        }
+        if (buffered <= lowWaterMark) {
+            resumeIfNecessary();
+        }
+    }
+
+    private void resumeIfNecessary() {
+        if (paused) {
+            paused = false;
+            channel.config().setAutoRead(true);
+        }
+    }
+
+    @Override
+    public int readBytes() {
+        return readBytes;
+    }
+
+    @Override
+    public String readString(Charset charset) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[4096];
+        try {
+            int n;
+            while ((n = read(buf, 0, buf.length)) != -1) {
+                out.write(buf, 0, n);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(out.toByteArray(), charset);
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+        data().readFully(b);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        data().readFully(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(int n) throws IOException {
+        return (int) skip(n);
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return data().readBoolean();
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return data().readByte();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return data().readUnsignedByte();
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return data().readShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return data().readUnsignedShort();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return data().readChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return data().readInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return data().readLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return data().readFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return data().readDouble();
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            sb.append((char) c);
+        }
+        if (c == -1 && sb.length() == 0) {
+            return null;
+        }
+        final int last = sb.length() - 1;
+        if (last >= 0 && sb.charAt(last) == '\r') {
+            sb.setLength(last);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return data().readUTF();
+    }
+
+    private DataInputStream data() {
+        if (data == null) {
+            data = new DataInputStream(this);
+        }
+        return data;
+    }
+}
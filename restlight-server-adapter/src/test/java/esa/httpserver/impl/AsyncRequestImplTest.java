@@ -42,6 +42,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -311,6 +312,52 @@ class AsyncRequestImplTest {
         assertEquals("2", req.getParameter("b"));
     }
 
+    @Test
+    void testProbeQuery() {
+        assertNull(AsyncRequestImpl.probeQuery(null, "a"));
+        assertNull(AsyncRequestImpl.probeQuery("", "a"));
+        assertNull(AsyncRequestImpl.probeQuery("b=1", "a"));
+        assertNull(AsyncRequestImpl.probeQuery("ab=1", "a"));
+        assertEquals("1", AsyncRequestImpl.probeQuery("a=1", "a"));
+        assertEquals("1", AsyncRequestImpl.probeQuery("a=1&a=2", "a"));
+        assertEquals("2", AsyncRequestImpl.probeQuery("b=1;a=2", "a"));
+        assertEquals("", AsyncRequestImpl.probeQuery("b=1&a", "a"));
+        assertEquals("", AsyncRequestImpl.probeQuery("a=&b=1", "a"));
+        assertEquals("a b", AsyncRequestImpl.probeQuery("a=a+b", "a"));
+        assertEquals("1", AsyncRequestImpl.probeQuery("a%20b=1", "a b"));
+        assertNull(AsyncRequestImpl.probeQuery("b=1#a=2", "a"));
+    }
+
+    @Test
+    void testProbeParameter() {
+        final Request mock = mock(Request.class);
+        when(mock.rawMethod()).thenReturn(HttpMethod.POST.name());
+        when(mock.method()).thenReturn(HttpMethod.POST);
+        final HttpHeaders headers = new Http1HeadersImpl();
+        headers.set(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+        when(mock.headers()).thenReturn(headers);
+        when(mock.query()).thenReturn("a=1&b=2");
+
+        final LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("a", "1");
+        params.add("b", "2");
+        when(mock.paramMap()).thenReturn(params);
+
+        final Aggregation aggregation = mock(Aggregation.class);
+        when(aggregation.trailers()).thenReturn(new Http1HeadersImpl());
+        final ByteBuf body = Unpooled.copiedBuffer("b=3&c=4".getBytes(StandardCharsets.UTF_8));
+        when(aggregation.body()).thenReturn(body);
+        when(mock.aggregated()).thenReturn(aggregation);
+
+        final AsyncRequestImpl req = new AsyncRequestImpl(mock);
+        assertEquals("1", req.probeParameter("a"));
+        assertEquals("2", req.probeParameter("b"));
+        // fallback to the form body
+        assertEquals("4", req.probeParameter("c"));
+        assertNull(req.probeParameter("d"));
+        assertEquals(req.getParameter("c"), req.probeParameter("c"));
+    }
+
     @Test
     void testAttribute() {
         final Request mock = mock(Request.class);
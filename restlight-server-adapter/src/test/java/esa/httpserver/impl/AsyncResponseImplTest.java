@@ -18,6 +18,7 @@ package esa.httpserver.impl;
 import esa.commons.http.HttpHeaders;
 import esa.commons.netty.http.Http1HeadersImpl;
 import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.ChunkedWriter;
 import esa.httpserver.core.HttpOutputStream;
 import esa.httpserver.core.Response;
 import io.netty.buffer.ByteBuf;
@@ -140,6 +141,27 @@ class AsyncResponseImplTest {
         reset(mock);
         final HttpOutputStream os = initOutputStream(mock, response);
         assertSame(os, response.outputStream());
+        assertThrows(IllegalStateException.class, response::chunkedWriter);
+    }
+
+    @Test
+    void testChunkedWriter() {
+        final Response mock = mock(Response.class);
+        final AsyncResponseImpl response = new AsyncResponseImpl(mock, 1024, 512);
+
+        when(mock.isEnded()).thenReturn(true);
+        assertThrows(IllegalStateException.class, response::chunkedWriter);
+
+        reset(mock);
+        when(mock.isCommitted()).thenReturn(true);
+        assertThrows(IllegalStateException.class, response::chunkedWriter);
+
+        reset(mock);
+        final ChunkedWriter writer = response.chunkedWriter();
+        assertTrue(writer.isWritable());
+        assertSame(writer, response.chunkedWriter());
+        assertThrows(IllegalStateException.class, response::outputStream);
+        assertThrows(IllegalStateException.class, () -> response.sendResult(new byte[0]));
     }
 
     @Test
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.impl;
+
+import esa.commons.http.HttpHeaders;
+import esa.commons.netty.http.Http1HeadersImpl;
+import esa.httpserver.core.ChunkedWriter;
+import esa.httpserver.core.Response;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChunkedWriterImplTest {
+
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+
+    @Test
+    void testIllegalArgs() {
+        final Response res = mock(Response.class);
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedWriterImpl(res, 8, -1));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedWriterImpl(res, 8, 8));
+    }
+
+    @Test
+    void testWritabilityChanged() {
+        final Response res = mock(Response.class);
+        final ChannelPromise p1 = channel.newPromise();
+        final ChannelPromise p2 = channel.newPromise();
+        final ChannelPromise p3 = channel.newPromise();
+        when(res.write(any(ByteBuf.class))).thenReturn(p1, p2, p3);
+
+        final ChunkedWriterImpl writer = new ChunkedWriterImpl(res, 8, 4);
+        final List<Boolean> changes = new ArrayList<>();
+        writer.onWritabilityChanged(changes::add);
+
+        final CompletableFuture<Void> f1 = writer.write(buf("1234"));
+        assertTrue(writer.isWritable());
+        final CompletableFuture<Void> f2 = writer.write(buf("5678"));
+        assertFalse(writer.isWritable());
+        assertEquals(8L, writer.pendingBytes());
+        final CompletableFuture<Void> f3 = writer.write(buf("9"));
+        assertEquals(9L, writer.pendingBytes());
+
+        p1.setSuccess();
+        assertTrue(f1.isDone());
+        assertFalse(f1.isCompletedExceptionally());
+        // still over the low water mark
+        assertFalse(writer.isWritable());
+
+        p2.setSuccess();
+        assertTrue(writer.isWritable());
+        assertEquals(1L, writer.pendingBytes());
+        assertTrue(f2.isDone());
+
+        p3.setFailure(new IllegalStateException("reset"));
+        assertTrue(f3.isCompletedExceptionally());
+        assertEquals(0L, writer.pendingBytes());
+
+        assertEquals(2, changes.size());
+        assertFalse(changes.get(0));
+        assertTrue(changes.get(1));
+    }
+
+    @Test
+    void testEndWithTrailers() {
+        final Response res = mock(Response.class);
+        final HttpHeaders trailers = new Http1HeadersImpl();
+        when(res.trailers()).thenReturn(trailers);
+        final ChannelPromise ended = channel.newPromise();
+        when(res.onEndFuture()).thenReturn(ended);
+
+        final ChunkedWriter writer = new ChunkedWriterImpl(res, 8, 4);
+        final HttpHeaders toAdd = new Http1HeadersImpl();
+        toAdd.add("a", "1");
+        final CompletableFuture<Void> end = writer.end(toAdd);
+        assertTrue(writer.isEnded());
+        assertEquals("1", trailers.get("a"));
+        verify(res).end();
+        assertFalse(end.isDone());
+        ended.setSuccess();
+        assertTrue(end.isDone());
+        assertFalse(end.isCompletedExceptionally());
+
+        // ended
+        assertTrue(writer.end().isCompletedExceptionally());
+        final ByteBuf chunk = buf("foo");
+        assertTrue(writer.write(chunk).isCompletedExceptionally());
+        assertEquals(0, chunk.refCnt());
+        verify(res, never()).write(any(ByteBuf.class));
+    }
+
+    private static ByteBuf buf(String s) {
+        return Unpooled.copiedBuffer(s.getBytes());
+    }
+}
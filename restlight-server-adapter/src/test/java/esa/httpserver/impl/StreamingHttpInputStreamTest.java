@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingHttpInputStreamTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(NullPointerException.class, () -> new StreamingHttpInputStream(null, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingHttpInputStream(new EmbeddedChannel(), 0));
+    }
+
+    @Test
+    void testReadUntilEnd() throws Exception {
+        final StreamingHttpInputStream in = new StreamingHttpInputStream(new EmbeddedChannel(), 1024);
+        final CompletableFuture<String> read = CompletableFuture.supplyAsync(() ->
+                in.readString(StandardCharsets.UTF_8));
+        in.onData(buf("hello "));
+        in.onData(Unpooled.EMPTY_BUFFER);
+        in.onData(buf("world"));
+        assertFalse(read.isDone());
+        in.onEnd();
+        assertEquals("hello world", read.get(3L, TimeUnit.SECONDS));
+        assertEquals(11, in.readBytes());
+        assertEquals(-1, in.read());
+
+        // discarded after end
+        in.onData(buf("foo"));
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    void testDataInput() throws IOException {
+        final StreamingHttpInputStream in = new StreamingHttpInputStream(new EmbeddedChannel(), 1024);
+        final ByteBuf buf = Unpooled.buffer();
+        buf.writeInt(1);
+        buf.writeLong(2L);
+        buf.writeBytes("foo\r\nbar".getBytes(StandardCharsets.US_ASCII));
+        in.onData(buf);
+        in.onEnd();
+        assertEquals(1, in.readInt());
+        assertEquals(2L, in.readLong());
+        assertEquals("foo", in.readLine());
+        assertEquals(1L, in.skip(1L));
+        assertEquals("ar", in.readLine());
+        assertNull(in.readLine());
+        // retained by the stream and released after being read
+        assertEquals(1, buf.refCnt());
+    }
+
+    @Test
+    void testPauseAndResume() throws IOException {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        final StreamingHttpInputStream in = new StreamingHttpInputStream(channel, 8);
+        in.onData(buf("1234"));
+        assertTrue(channel.config().isAutoRead());
+        in.onData(buf("5678"));
+        assertFalse(channel.config().isAutoRead());
+        assertEquals(8, in.available());
+
+        final byte[] b = new byte[3];
+        assertEquals(3, in.read(b, 0, 3));
+        // still over the low water mark
+        assertFalse(channel.config().isAutoRead());
+        assertEquals(1, in.read(b, 0, 3));
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    void testCloseDiscardsAndResumes() throws IOException {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        final StreamingHttpInputStream in = new StreamingHttpInputStream(channel, 4);
+        final ByteBuf buf = buf("12345678");
+        in.onData(buf);
+        assertFalse(channel.config().isAutoRead());
+        in.close();
+        assertTrue(channel.config().isAutoRead());
+        assertEquals(1, buf.refCnt());
+        assertThrows(IOException.class, in::read);
+        assertThrows(IOException.class, in::available);
+    }
+
+    @Test
+    void testError() throws Exception {
+        final StreamingHttpInputStream in = new StreamingHttpInputStream(new EmbeddedChannel(), 1024);
+        final CompletableFuture<Integer> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return in.read();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        in.onError(new IllegalStateException("reset"));
+        assertThrows(Exception.class, () -> read.get(3L, TimeUnit.SECONDS));
+        assertThrows(IOException.class, in::read);
+    }
+
+    private static ByteBuf buf(String s) {
+        return Unpooled.copiedBuffer(s, StandardCharsets.US_ASCII);
+    }
+}
@@ -25,19 +25,32 @@ import esa.restlight.server.bootstrap.DispatcherExceptionHandler;
 import esa.restlight.server.bootstrap.DispatcherHandler;
 import esa.restlight.server.bootstrap.RestlightThreadFactory;
 import esa.restlight.server.config.BizThreadsOptions;
+import esa.restlight.server.config.ConcurrencyLimitOptions;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.TimeoutOptions;
 import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.RuntimeRouteRegistry;
 import esa.restlight.server.route.impl.CachedRouteRegistry;
+import esa.restlight.server.route.impl.CopyOnWriteRouteRegistry;
+import esa.restlight.server.route.impl.MatchCachedRouteRegistry;
+import esa.restlight.server.route.impl.NegativeCachedRouteRegistry;
+import esa.restlight.server.route.impl.PartitionedRouteRegistry;
 import esa.restlight.server.route.impl.SimpleRouteRegistry;
+import esa.restlight.server.route.impl.TrieRouteRegistry;
+import esa.restlight.server.schedule.AdaptiveLifoQueue;
+import esa.restlight.server.schedule.BatchDrainingExecutor;
 import esa.restlight.server.schedule.ExecutorScheduler;
+import esa.restlight.server.schedule.PriorityTaskQueue;
 import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.schedule.RequestTaskHook;
 import esa.restlight.server.schedule.ScheduledRestlightHandler;
 import esa.restlight.server.schedule.Scheduler;
 import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.schedule.ThreadPoolAutoScaler;
+import esa.restlight.server.schedule.VirtualThreadExecutor;
 import esa.restlight.server.spi.DispatcherExceptionHandlerFactory;
 import esa.restlight.server.spi.DispatcherHandlerFactory;
 import esa.restlight.server.spi.RequestTaskHookFactory;
@@ -51,6 +64,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.SynchronousQueue;
@@ -91,17 +105,73 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
 
     private void configEmbeddedSchedulers(O options) {
         this.addScheduler(Schedulers.io());
-        BizThreadsOptions bizOptions = options.getBizThreads();
-        final BlockingQueue<Runnable> workQueue = bizOptions.getBlockingQueueLength() > 0
-                ? new LinkedBlockingQueue<>(bizOptions.getBlockingQueueLength())
-                : new SynchronousQueue<>();
-        final ThreadPoolExecutor biz = new ThreadPoolExecutor(bizOptions.getCore(),
-                bizOptions.getMax(),
-                bizOptions.getKeepAliveTimeSeconds(),
+        final ExecutorScheduler bizScheduler = Schedulers.fromExecutor(Schedulers.BIZ,
+                newThreadPool(Schedulers.BIZ, options.getBizThreads(), "Restlight-Biz"));
+        this.addScheduler(bizScheduler);
+        final int virtualMaxConcurrency = options.getScheduling().getVirtualMaxConcurrency();
+        if (virtualMaxConcurrency > 0) {
+            // fallback to the configured BIZ scheduler to keep its timeout and concurrency limit
+            this.addScheduler(Schedulers.virtual(virtualMaxConcurrency, ctx().schedulers().get(Schedulers.BIZ)));
+        }
+        // isolated thread pools, so that a slow dependency could not drain the BIZ pool
+        options.getScheduling().getBulkheads().forEach((name, bulkhead) -> {
+            Checks.checkNotEmptyArg(name, "name of bulkhead");
+            Checks.checkNotNull(bulkhead, "bulkhead");
+            if (Schedulers.BIZ.equals(name) || Schedulers.IO.equals(name) || Schedulers.VIRTUAL.equals(name)) {
+                throw new IllegalArgumentException("Bulkhead could not be named as embedded scheduler '"
+                        + name + "'");
+            }
+            this.addScheduler(Schedulers.fromExecutor(name,
+                    newThreadPool(name, bulkhead, "Restlight-Bulkhead-" + name)));
+        });
+    }
+
+    private ExecutorService newThreadPool(String name, BizThreadsOptions threads, String threadPrefix) {
+        final TimeoutOptions timeout = ctx.options().getScheduling().getTimeout().get(name);
+        if (threads.isBatchDraining() || threads.getShards() > 1) {
+            Checks.checkArg(threads.getBlockingQueueLength() > 0,
+                    "blockingQueueLength must be over than 0 if batchDraining is enabled");
+            Checks.checkArg(!threads.isPriorityQueue(),
+                    "priorityQueue is not supported if batchDraining is enabled");
+            Checks.checkArg(!threads.getAutoScaling().isEnable(),
+                    "autoScaling is not supported if batchDraining is enabled");
+            if (threads.getMax() != threads.getCore()) {
+                LoggerUtils.logger()
+                        .warn("max({}) and keepAliveTimeSeconds({}) are ignored in scheduler({}), " +
+                                        "a fixed count of core({}) workers is used if batchDraining is enabled",
+                                threads.getMax(),
+                                threads.getKeepAliveTimeSeconds(),
+                                name,
+                                threads.getCore());
+            }
+            return new BatchDrainingExecutor(new RestlightThreadFactory(threadPrefix),
+                    threads.getCore(),
+                    threads.getBlockingQueueLength(),
+                    threads.getShards());
+        }
+        final BlockingQueue<Runnable> workQueue;
+        if (threads.getBlockingQueueLength() <= 0) {
+            workQueue = new SynchronousQueue<>();
+        } else if (threads.isPriorityQueue()) {
+            workQueue = new PriorityTaskQueue(threads.getBlockingQueueLength(), threads.getPriorityAgingMillis());
+        } else if (timeout != null && timeout.getType() == TimeoutOptions.Type.CODEL) {
+            // serve the newest tasks first under overload, stale tasks will be dropped by CoDel
+            workQueue = new AdaptiveLifoQueue(threads.getBlockingQueueLength(), timeout.getIntervalMillis());
+        } else {
+            workQueue = new LinkedBlockingQueue<>(threads.getBlockingQueueLength());
+        }
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads.getCore(),
+                threads.getMax(),
+                threads.getKeepAliveTimeSeconds(),
                 TimeUnit.SECONDS,
                 workQueue,
-                new RestlightThreadFactory("Restlight-Biz"));
-        this.addScheduler(Schedulers.fromExecutor(Schedulers.BIZ, biz));
+                new RestlightThreadFactory(threadPrefix));
+        if (threads.getAutoScaling().isEnable()) {
+            final ThreadPoolAutoScaler scaler = new ThreadPoolAutoScaler(name, pool, threads.getAutoScaling());
+            ctx.attribute(ThreadPoolAutoScaler.ATTRIBUTE_PREFIX + name, scaler);
+            scaler.start();
+        }
+        return pool;
     }
 
     protected ServerDeployContext<O> newContext(O options) {
@@ -118,6 +188,15 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
     public D addRoute(Route route) {
         checkImmutable();
         Checks.checkNotNull(route, "route");
+        this.routes.add(normalize(route));
+        return self();
+    }
+
+    /**
+     * Completes and validates the scheduler of given route, which is also applied to the routes registered at
+     * runtime.
+     */
+    private Route normalize(Route route) {
         if (route.scheduler() == null) {
             String defaultScheduler = ctx.options().getScheduling().getDefaultScheduler();
             if (StringUtils.isNotEmpty(defaultScheduler)) {
@@ -132,12 +211,15 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
                 route = Route.route(route)
                         .schedule(ctx().schedulers().get(Schedulers.BIZ));
             }
-        } else if (Schedulers.isBiz(route.scheduler())) {
+        } else if (Schedulers.isBiz(route.scheduler())
+                && route.scheduler() != ctx().schedulers().get(Schedulers.BIZ)) {
             route = Route.route(route)
                     .schedule(ctx().schedulers().get(Schedulers.BIZ));
         }
-        this.routes.add(route);
-        return self();
+        // reading the streaming body in io thread would block the arrival of the body itself.
+        Checks.checkArg(!route.mapping().streaming() || !Schedulers.IO.equals(route.scheduler().name()),
+                "Streaming route(" + route.mapping() + ") could not be scheduled by IO scheduler");
+        return route;
     }
 
     /**
@@ -208,12 +290,35 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
                 }
                 // replace reject handler to restlight embedded BizRejectedHandler whatever what reject handler it is.
                 pool.setRejectedExecutionHandler(new BizRejectedHandler(scheduler.name()));
+            } else if (e instanceof BatchDrainingExecutor) {
+                final BatchDrainingExecutor batching = (BatchDrainingExecutor) e;
+                final BizRejectedHandler rejectHandler = new BizRejectedHandler(scheduler.name());
+                batching.setRejectedHandler(r -> rejectHandler.reject(r, batching.isShutdown()
+                        ? "Scheduler(" + scheduler.name() + ") has been shutdown"
+                        : "Rejected by scheduler(" + scheduler.name() + "), size of queue: "
+                        + batching.getQueueSize()));
+            } else if (e instanceof VirtualThreadExecutor) {
+                final VirtualThreadExecutor virtual = (VirtualThreadExecutor) e;
+                final BizRejectedHandler rejectHandler = new BizRejectedHandler(scheduler.name());
+                virtual.setRejectedHandler(r -> rejectHandler.reject(r, virtual.isShutdown()
+                        ? "Scheduler(" + scheduler.name() + ") has been shutdown"
+                        : "Rejected by scheduler(" + scheduler.name() + "), max concurrency: "
+                        + virtual.getMaxConcurrency()));
             }
         }
 
         // config by timeout options
         TimeoutOptions timeoutOptions = ctx().options().getScheduling().getTimeout().get(scheduler.name());
-        return Schedulers.wrapped(scheduler, timeoutOptions);
+        final Scheduler wrapped = Schedulers.wrapped(scheduler, timeoutOptions);
+
+        // limit the in-flight requests before queueing
+        ConcurrencyLimitOptions limitOptions =
+                ctx().options().getScheduling().getConcurrencyLimit().get(scheduler.name());
+        if (limitOptions == null) {
+            return wrapped;
+        }
+        final BizRejectedHandler rejectHandler = new BizRejectedHandler(scheduler.name());
+        return Schedulers.limited(wrapped, limitOptions, rejectHandler::reject);
     }
 
     public ServerDeployContext<O> deployContext() {
@@ -248,10 +353,14 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
 
     protected RestlightHandler doGetRestlightHandler() {
 
-        final RouteRegistry routeRegistry = getRouteRegistry();
+        final RouteRegistry routeRegistry = ctx.options().getRoute().isRuntimeRouting()
+                ? new CopyOnWriteRouteRegistry(this::getRouteRegistry, this::toReadOnly, this::normalize)
+                : getRouteRegistry();
         // register routes
         registerRoutes(routeRegistry);
-        ctx().setRegistry(routeRegistry.toReadOnly());
+        ctx().setRegistry(routeRegistry instanceof RuntimeRouteRegistry
+                ? routeRegistry.toReadOnly()
+                : toReadOnly(routeRegistry));
 
         // load DispatcherExceptionHandler by spi
         List<DispatcherExceptionHandlerFactory> exHandlerFactories =
@@ -286,24 +395,48 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
                 .getByGroup(restlight.name(), true)
                 .forEach(this::addRequestTaskHook);
 
-        return new ScheduledRestlightHandler(ctx.options(),
+        final ScheduledRestlightHandler handler = new ScheduledRestlightHandler(ctx.options(),
                 dispatcherHandler,
                 requestTaskHooks.stream()
                         .map(f -> f.hook(ctx()))
                         .filter(Optional::isPresent)
                         .map(Optional::get)
                         .collect(Collectors.toList()));
+        if (routeRegistry instanceof CopyOnWriteRouteRegistry) {
+            // schedulers and streaming paths of the routes registered at runtime must be known by the handler
+            // before they are routable.
+            ((CopyOnWriteRouteRegistry) routeRegistry).onPublishing(handler::refresh);
+        }
+        return handler;
     }
 
     private RouteRegistry getRouteRegistry() {
-        if (ctx.options().getRoute().isUseCachedRouting() && routes.size() >= 10) {
+        if (ctx.options().getRoute().isPartitionByMethod()) {
+            return new PartitionedRouteRegistry(ctx.options().getRoute().isUseTrieRouting());
+        } else if (ctx.options().getRoute().isUseTrieRouting()) {
+            return new TrieRouteRegistry();
+        } else if (ctx.options().getRoute().isUseCachedRouting() && routes.size() >= 10) {
             return new CachedRouteRegistry(
-                    ctx.options().getRoute().getComputeRate());
+                    ctx.options().getRoute().getComputeRate(),
+                    ctx.options().getRoute().getComputePeriod());
         } else {
             return new SimpleRouteRegistry();
         }
     }
 
+    private ReadOnlyRouteRegistry toReadOnly(RouteRegistry registry) {
+        ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+        final int matchCacheSize = ctx.options().getRoute().getMatchCacheSize();
+        if (matchCacheSize > 0) {
+            readOnly = new MatchCachedRouteRegistry(readOnly, matchCacheSize);
+        }
+        final int negativeCacheSize = ctx.options().getRoute().getNegativeCacheSize();
+        if (negativeCacheSize > 0) {
+            readOnly = new NegativeCachedRouteRegistry(readOnly, negativeCacheSize);
+        }
+        return readOnly;
+    }
+
     /**
      * Registers routes into the given {@link RouteRegistry}.
      *
@@ -342,8 +475,14 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
 
         @Override
         public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-            final Optional<DispatcherHandler> h;
-            if (r instanceof RequestTask && (h = ctx().dispatcherHandler()).isPresent()) {
+            if (!executor.isShutdown() && executor.getQueue() instanceof PriorityTaskQueue) {
+                // reject the lowest priority task first
+                r = ((PriorityTaskQueue) executor.getQueue()).offerOrEvict(r);
+                if (r == null) {
+                    return;
+                }
+            }
+            if (r instanceof RequestTask && ctx().dispatcherHandler().isPresent()) {
                 String reason;
                 if (executor.isShutdown()) {
                     reason =
@@ -356,6 +495,13 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
                         reason = "Rejected by scheduler(" + name + ")";
                     }
                 }
+                reject(r, reason);
+            }
+        }
+
+        private void reject(Runnable r, String reason) {
+            final Optional<DispatcherHandler> h;
+            if (r instanceof RequestTask && (h = ctx().dispatcherHandler()).isPresent()) {
                 h.get().handleRejectedWork((RequestTask) r, reason);
             }
         }
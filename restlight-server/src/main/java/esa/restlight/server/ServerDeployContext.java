@@ -19,6 +19,7 @@ import esa.restlight.server.bootstrap.DispatcherExceptionHandler;
 import esa.restlight.server.bootstrap.DispatcherHandler;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.RuntimeRouteRegistry;
 import esa.restlight.server.schedule.Scheduler;
 
 import java.util.List;
@@ -63,6 +64,19 @@ public interface ServerDeployContext<O extends ServerOptions> {
      */
     Optional<ReadOnlyRouteRegistry> routeRegistry();
 
+    /**
+     * Gets the instance of {@link RuntimeRouteRegistry} which could be used to register and deregister routes while
+     * the server is running. It is present only if runtime routing is enabled(see {@link
+     * esa.restlight.server.config.RouteOptions#isRuntimeRouting()}) and the route registry has been instantiated.
+     *
+     * @return optional value
+     */
+    default Optional<RuntimeRouteRegistry> runtimeRouteRegistry() {
+        return routeRegistry()
+                .filter(RuntimeRouteRegistry.class::isInstance)
+                .map(RuntimeRouteRegistry.class::cast);
+    }
+
     /**
      * Gets the instance of {@link DispatcherHandler}. It should be instantiate when server is about to starting and
      * initializing.
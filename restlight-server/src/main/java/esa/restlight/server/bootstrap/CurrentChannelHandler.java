@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.bootstrap;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Exposes the {@link Channel} which is being read by current IO thread, so that the request which is handled
+ * synchronously while reading could find its own connection. It should be added as the first handler of the pipeline.
+ */
+@ChannelHandler.Sharable
+final class CurrentChannelHandler extends ChannelInboundHandlerAdapter {
+
+    static final CurrentChannelHandler INSTANCE = new CurrentChannelHandler();
+
+    private static final FastThreadLocal<Channel> CURRENT = new FastThreadLocal<>();
+
+    private CurrentChannelHandler() {
+    }
+
+    /**
+     * Gets the {@link Channel} which is being read by current thread.
+     *
+     * @return channel or {@code null} if current thread is not reading any channel.
+     */
+    static Channel current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        final Channel prev = CURRENT.get();
+        CURRENT.set(ctx.channel());
+        try {
+            ctx.fireChannelRead(msg);
+        } finally {
+            if (prev == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(prev);
+            }
+        }
+    }
+}
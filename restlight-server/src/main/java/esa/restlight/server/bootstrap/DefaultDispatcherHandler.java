@@ -26,6 +26,7 @@ import esa.restlight.server.route.ExceptionHandler;
 import esa.restlight.server.route.ReadOnlyRouteRegistry;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteExecution;
+import esa.restlight.server.schedule.ExecutionDeadline;
 import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.util.ErrorDetail;
 import esa.restlight.server.util.Futures;
@@ -84,7 +85,13 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
         }
 
         try {
-            execution.handle(request, response)
+            final CompletableFuture<Void> handled = execution.handle(request, response);
+            final ExecutionDeadline deadline = ExecutionDeadline.of(request);
+            if (deadline != null) {
+                // cancel the execution once it is out of the deadline
+                deadline.bind(handled);
+            }
+            handled
                     // wind up
                     .whenComplete((r, t) -> {
                         final Throwable ex = Futures.unwrapCompletionException(t);
@@ -116,7 +123,7 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
                          Throwable dispatchException,
                          RouteExecution execution) {
         //clean up response.
-        if (!response.isCommitted()) {
+        if (!response.isCommitted() && ExecutionDeadline.tryClaim(request)) {
             if (dispatchException != null) {
 
                 DispatcherExceptionHandler.HandleStatus handleStatus = null;
@@ -140,8 +147,15 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
         }
 
         if (dispatchException != null) {
-            logger.error("Error occurred when doing request(url={}, method={})",
-                    request.path(), request.method(), dispatchException);
+            final ExecutionDeadline deadline = ExecutionDeadline.of(request);
+            if (deadline != null && deadline.isExpired()) {
+                // result of the expired request has been dropped
+                logger.debug("Dropped the result of expired request(url={}, method={})",
+                        request.path(), request.method(), dispatchException);
+            } else {
+                logger.error("Error occurred when doing request(url={}, method={})",
+                        request.path(), request.method(), dispatchException);
+            }
         }
 
         if (execution == null) {
@@ -21,8 +21,10 @@ import esa.httpserver.H2OptionsConfigure;
 import esa.httpserver.HttpServer;
 import esa.httpserver.ServerOptionsConfigure;
 import esa.httpserver.SslOptionsConfigure;
+import esa.httpserver.core.RequestHandle;
 import esa.httpserver.impl.AsyncRequestImpl;
 import esa.httpserver.impl.AsyncResponseImpl;
+import esa.httpserver.impl.StreamingHttpInputStream;
 import esa.restlight.core.util.ResourceUtils;
 import esa.restlight.core.util.RestlightVer;
 import esa.restlight.server.config.ServerOptions;
@@ -30,15 +32,20 @@ import esa.restlight.server.config.SslOptions;
 import esa.restlight.server.handler.RestlightHandler;
 import esa.restlight.server.schedule.ExecutorScheduler;
 import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.util.ErrorDetail;
 import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.concurrent.Promise;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -227,19 +234,73 @@ public class NettyRestlightServer implements RestlightServer {
         }
 
         return HttpServer.create(configure.configured())
-                .onConnected(handler::onConnected)
+                .onConnected(ctx -> {
+                    // requests are handled while reading, which is used to find the connection of streaming requests.
+                    ctx.pipeline().addFirst(CurrentChannelHandler.INSTANCE);
+                    handler.onConnected(ctx);
+                })
                 .onClose(handler::shutdown)
-                .handle(req -> req.aggregate(true)
-                        .onEnd(promise -> {
-                            handler.process(new AsyncRequestImpl(req), new AsyncResponseImpl(req.response()))
-                                    .whenComplete((r, t) -> {
-                                        if (t == null) {
-                                            PromiseUtils.setSuccess(promise);
-                                        } else {
-                                            PromiseUtils.setFailure(promise, t);
-                                        }
-                                    });
-                            return promise;
-                        }));
+                .handle(req -> {
+                    final AsyncRequestImpl request = new AsyncRequestImpl(req);
+                    final AsyncResponseImpl response = new AsyncResponseImpl(req.response(),
+                            options.getWriteBufferHighWaterMark(),
+                            options.getWriteBufferLowWaterMark());
+                    if (handler.isStreaming(request, response)) {
+                        stream(req, request, response, options.getStreamingBufferSize());
+                        return;
+                    }
+                    req.aggregate(true)
+                            .onEnd(promise -> {
+                                handler.process(request, response)
+                                        .whenComplete((r, t) -> complete(promise, t));
+                                return promise;
+                            });
+                });
+    }
+
+    /**
+     * Processes the request as soon as the headers have arrived and feeds the body to the handler chunk by chunk.
+     */
+    private void stream(RequestHandle req,
+                        AsyncRequestImpl request,
+                        AsyncResponseImpl response,
+                        int bufferSize) {
+        final Channel ch = CurrentChannelHandler.current();
+        if (ch == null) {
+            // reading could not be paused without the channel, and the body would be buffered without bound.
+            LoggerUtils.logger().error("Could not find the connection of streaming request(url={}, method={})",
+                    request.path(), request.method());
+            ErrorDetail.sendErrorResult(request, response, "Connection of streaming request not found",
+                    HttpResponseStatus.INTERNAL_SERVER_ERROR);
+            return;
+        }
+        final StreamingHttpInputStream body = new StreamingHttpInputStream(ch, bufferSize);
+        request.streaming(body);
+        final CompletableFuture<Void> processed = new CompletableFuture<>();
+        req.aggregate(false)
+                .onData(body::onData)
+                .onError(body::onError)
+                .onEnd(promise -> {
+                    body.onEnd();
+                    processed.whenComplete((r, t) -> complete(promise, t));
+                    return promise;
+                });
+        handler.process(request, response).whenComplete((r, t) -> {
+            // discard the rest of the body which hasn't been read by the handler
+            body.close();
+            if (t == null) {
+                processed.complete(null);
+            } else {
+                processed.completeExceptionally(t);
+            }
+        });
+    }
+
+    private static void complete(Promise<Void> promise, Throwable t) {
+        if (t == null) {
+            PromiseUtils.setSuccess(promise);
+        } else {
+            PromiseUtils.setFailure(promise, t);
+        }
     }
 }
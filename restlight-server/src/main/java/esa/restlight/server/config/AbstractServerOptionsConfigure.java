@@ -33,6 +33,7 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
     private boolean compress;
     private boolean decompress;
     private int maxContentLength = 4 * 1024 * 1024;
+    private int streamingBufferSize = 64 * 1024;
     private int maxInitialLineLength = 4096;
     private int maxHeaderSize = 8192;
     private int soBacklog = 128;
@@ -143,6 +144,11 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         return self();
     }
 
+    public C streamingBufferSize(int streamingBufferSize) {
+        this.streamingBufferSize = streamingBufferSize;
+        return self();
+    }
+
     public C maxInitialLineLength(int maxInitialLineLength) {
         this.maxInitialLineLength = maxInitialLineLength;
         return self();
@@ -221,6 +227,7 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         options.setCompress(compress);
         options.setDecompress(decompress);
         options.setMaxContentLength(maxContentLength);
+        options.setStreamingBufferSize(streamingBufferSize);
         options.setMaxInitialLineLength(maxInitialLineLength);
         options.setMaxHeaderSize(maxHeaderSize);
         options.setSoBacklog(soBacklog);
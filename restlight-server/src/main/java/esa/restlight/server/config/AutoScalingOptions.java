@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the auto scaling of a biz thread pool, see {@link esa.restlight.server.schedule.ThreadPoolAutoScaler}.
+ */
+public class AutoScalingOptions implements Serializable {
+
+    private static final long serialVersionUID = 2306271938461457029L;
+
+    private boolean enable = false;
+
+    /**
+     * interval of sampling and resizing.
+     */
+    private long intervalMillis = 1000L;
+
+    /**
+     * lower bound of the core pool size, {@code 0} means the configured core of the thread pool.
+     */
+    private int minThreads = 0;
+
+    /**
+     * upper bound of the core pool size, {@code 0} means the configured max of the thread pool.
+     */
+    private int maxThreads = 0;
+
+    /**
+     * pool will be enlarged if the estimated waiting time of the queued tasks exceeds this value.
+     */
+    private long targetQueueWaitMillis = 50L;
+
+    /**
+     * pool will be enlarged if the percentage of the active threads over the core pool size reaches this value.
+     */
+    private int scaleUpUtilization = 85;
+
+    /**
+     * pool will be shrunk if the percentage of the active threads over the core pool size stays below this value.
+     */
+    private int scaleDownUtilization = 50;
+
+    /**
+     * pool will never be enlarged while the cpu usage(in percentage) of current process reaches this value, because
+     * more threads would not help.
+     */
+    private int maxCpuUtilization = 90;
+
+    /**
+     * count of the consecutive samples which satisfy the condition of shrinking before the pool is actually shrunk.
+     */
+    private int scaleDownSamples = 5;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    public void setMinThreads(int minThreads) {
+        this.minThreads = minThreads;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public long getTargetQueueWaitMillis() {
+        return targetQueueWaitMillis;
+    }
+
+    public void setTargetQueueWaitMillis(long targetQueueWaitMillis) {
+        this.targetQueueWaitMillis = targetQueueWaitMillis;
+    }
+
+    public int getScaleUpUtilization() {
+        return scaleUpUtilization;
+    }
+
+    public void setScaleUpUtilization(int scaleUpUtilization) {
+        this.scaleUpUtilization = scaleUpUtilization;
+    }
+
+    public int getScaleDownUtilization() {
+        return scaleDownUtilization;
+    }
+
+    public void setScaleDownUtilization(int scaleDownUtilization) {
+        this.scaleDownUtilization = scaleDownUtilization;
+    }
+
+    public int getMaxCpuUtilization() {
+        return maxCpuUtilization;
+    }
+
+    public void setMaxCpuUtilization(int maxCpuUtilization) {
+        this.maxCpuUtilization = maxCpuUtilization;
+    }
+
+    public int getScaleDownSamples() {
+        return scaleDownSamples;
+    }
+
+    public void setScaleDownSamples(int scaleDownSamples) {
+        this.scaleDownSamples = scaleDownSamples;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AutoScalingOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", intervalMillis=").append(intervalMillis);
+        sb.append(", minThreads=").append(minThreads);
+        sb.append(", maxThreads=").append(maxThreads);
+        sb.append(", targetQueueWaitMillis=").append(targetQueueWaitMillis);
+        sb.append(", scaleUpUtilization=").append(scaleUpUtilization);
+        sb.append(", scaleDownUtilization=").append(scaleDownUtilization);
+        sb.append(", maxCpuUtilization=").append(maxCpuUtilization);
+        sb.append(", scaleDownSamples=").append(scaleDownSamples);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class AutoScalingOptionsConfigure {
+
+    private boolean enable = false;
+    private long intervalMillis = 1000L;
+    private int minThreads = 0;
+    private int maxThreads = 0;
+    private long targetQueueWaitMillis = 50L;
+    private int scaleUpUtilization = 85;
+    private int scaleDownUtilization = 50;
+    private int maxCpuUtilization = 90;
+    private int scaleDownSamples = 5;
+
+    private AutoScalingOptionsConfigure() {
+    }
+
+    public static AutoScalingOptionsConfigure newOpts() {
+        return new AutoScalingOptionsConfigure();
+    }
+
+    public static AutoScalingOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public AutoScalingOptionsConfigure enable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure intervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure minThreads(int minThreads) {
+        this.minThreads = minThreads;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure maxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure targetQueueWaitMillis(long targetQueueWaitMillis) {
+        this.targetQueueWaitMillis = targetQueueWaitMillis;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure scaleUpUtilization(int scaleUpUtilization) {
+        this.scaleUpUtilization = scaleUpUtilization;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure scaleDownUtilization(int scaleDownUtilization) {
+        this.scaleDownUtilization = scaleDownUtilization;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure maxCpuUtilization(int maxCpuUtilization) {
+        this.maxCpuUtilization = maxCpuUtilization;
+        return this;
+    }
+
+    public AutoScalingOptionsConfigure scaleDownSamples(int scaleDownSamples) {
+        this.scaleDownSamples = scaleDownSamples;
+        return this;
+    }
+
+    public AutoScalingOptions configured() {
+        AutoScalingOptions options = new AutoScalingOptions();
+        options.setEnable(enable);
+        options.setIntervalMillis(intervalMillis);
+        options.setMinThreads(minThreads);
+        options.setMaxThreads(maxThreads);
+        options.setTargetQueueWaitMillis(targetQueueWaitMillis);
+        options.setScaleUpUtilization(scaleUpUtilization);
+        options.setScaleDownUtilization(scaleDownUtilization);
+        options.setMaxCpuUtilization(maxCpuUtilization);
+        options.setScaleDownSamples(scaleDownSamples);
+        return options;
+    }
+}
@@ -45,6 +45,34 @@ public class BizThreadsOptions implements Serializable {
      */
     private long keepAliveTimeSeconds = 180L;
 
+    /**
+     * whether to serve the waiting tasks by the priority of the routes instead of FIFO order.
+     */
+    private boolean priorityQueue = false;
+
+    /**
+     * effective priority of a waiting task will be increased by 1 every time it has waited for the given
+     * milliseconds to prevent starvation when {@link #priorityQueue} is enabled.
+     */
+    private long priorityAgingMillis = 1000L;
+
+    /**
+     * whether to use a fixed count({@link #core}) of workers which drain the tasks from a lock-free queue instead of
+     * the {@link java.util.concurrent.ThreadPoolExecutor}.
+     */
+    private boolean batchDraining = false;
+
+    /**
+     * count of the shards of the workers, every shard has its own queue and is fed by a fixed subset of the event
+     * loops, and {@link #batchDraining} is implied if it's over than 1.
+     */
+    private int shards = 1;
+
+    /**
+     * options of resizing the thread pool automatically.
+     */
+    private AutoScalingOptions autoScaling = AutoScalingOptionsConfigure.defaultOpts();
+
     public int getCore() {
         return core;
     }
@@ -77,6 +105,46 @@ public class BizThreadsOptions implements Serializable {
         this.keepAliveTimeSeconds = keepAliveTimeSeconds;
     }
 
+    public boolean isPriorityQueue() {
+        return priorityQueue;
+    }
+
+    public void setPriorityQueue(boolean priorityQueue) {
+        this.priorityQueue = priorityQueue;
+    }
+
+    public long getPriorityAgingMillis() {
+        return priorityAgingMillis;
+    }
+
+    public void setPriorityAgingMillis(long priorityAgingMillis) {
+        this.priorityAgingMillis = priorityAgingMillis;
+    }
+
+    public boolean isBatchDraining() {
+        return batchDraining;
+    }
+
+    public void setBatchDraining(boolean batchDraining) {
+        this.batchDraining = batchDraining;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public AutoScalingOptions getAutoScaling() {
+        return autoScaling;
+    }
+
+    public void setAutoScaling(AutoScalingOptions autoScaling) {
+        this.autoScaling = autoScaling;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("BizThreadsOptions{");
@@ -84,6 +152,11 @@ public class BizThreadsOptions implements Serializable {
         sb.append(", max=").append(max);
         sb.append(", blockingQueueLength=").append(blockingQueueLength);
         sb.append(", keepAliveTimeSeconds=").append(keepAliveTimeSeconds);
+        sb.append(", priorityQueue=").append(priorityQueue);
+        sb.append(", priorityAgingMillis=").append(priorityAgingMillis);
+        sb.append(", batchDraining=").append(batchDraining);
+        sb.append(", shards=").append(shards);
+        sb.append(", autoScaling=").append(autoScaling);
         sb.append('}');
         return sb.toString();
     }
@@ -29,6 +29,16 @@ public class BizThreadsOptionsConfigure {
 
     private long keepAliveTimeSeconds = 180L;
 
+    private boolean priorityQueue = false;
+
+    private long priorityAgingMillis = 1000L;
+
+    private boolean batchDraining = false;
+
+    private int shards = 1;
+
+    private AutoScalingOptions autoScaling = AutoScalingOptionsConfigure.defaultOpts();
+
     private BizThreadsOptionsConfigure() {
     }
 
@@ -60,12 +70,42 @@ public class BizThreadsOptionsConfigure {
         return this;
     }
 
+    public BizThreadsOptionsConfigure priorityQueue(boolean priorityQueue) {
+        this.priorityQueue = priorityQueue;
+        return this;
+    }
+
+    public BizThreadsOptionsConfigure priorityAgingMillis(long priorityAgingMillis) {
+        this.priorityAgingMillis = priorityAgingMillis;
+        return this;
+    }
+
+    public BizThreadsOptionsConfigure batchDraining(boolean batchDraining) {
+        this.batchDraining = batchDraining;
+        return this;
+    }
+
+    public BizThreadsOptionsConfigure shards(int shards) {
+        this.shards = shards;
+        return this;
+    }
+
+    public BizThreadsOptionsConfigure autoScaling(AutoScalingOptions autoScaling) {
+        this.autoScaling = autoScaling;
+        return this;
+    }
+
     public BizThreadsOptions configured() {
         BizThreadsOptions bizThreadsOptions = new BizThreadsOptions();
         bizThreadsOptions.setCore(core);
         bizThreadsOptions.setMax(max);
         bizThreadsOptions.setBlockingQueueLength(blockingQueueLength);
         bizThreadsOptions.setKeepAliveTimeSeconds(keepAliveTimeSeconds);
+        bizThreadsOptions.setPriorityQueue(priorityQueue);
+        bizThreadsOptions.setPriorityAgingMillis(priorityAgingMillis);
+        bizThreadsOptions.setBatchDraining(batchDraining);
+        bizThreadsOptions.setShards(shards);
+        bizThreadsOptions.setAutoScaling(autoScaling);
         return bizThreadsOptions;
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the adaptive concurrency limit of a scheduler, see {@link
+ * esa.restlight.server.schedule.ConcurrencyLimitScheduler}.
+ */
+public class ConcurrencyLimitOptions implements Serializable {
+
+    private static final long serialVersionUID = -3795185367367389452L;
+
+    /**
+     * limit before any round-trip time is sampled.
+     */
+    private int initialLimit = 64;
+
+    private int minLimit = 8;
+
+    private int maxLimit = 1024;
+
+    /**
+     * how much of the new computed limit would be applied to the current limit, which is between 0.0 and 1.0.
+     */
+    private double smoothing = 0.2D;
+
+    /**
+     * ratio of the current round-trip time over the long-term one which is treated as no queueing, limit will be
+     * decreased only if the ratio exceeds this value.
+     */
+    private double rttTolerance = 1.5D;
+
+    /**
+     * count of samples of the long-term average round-trip time.
+     */
+    private int longWindow = 600;
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrencyLimitOptions{");
+        sb.append("initialLimit=").append(initialLimit);
+        sb.append(", minLimit=").append(minLimit);
+        sb.append(", maxLimit=").append(maxLimit);
+        sb.append(", smoothing=").append(smoothing);
+        sb.append(", rttTolerance=").append(rttTolerance);
+        sb.append(", longWindow=").append(longWindow);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class ConcurrencyLimitOptionsConfigure {
+
+    private int initialLimit = 64;
+    private int minLimit = 8;
+    private int maxLimit = 1024;
+    private double smoothing = 0.2D;
+    private double rttTolerance = 1.5D;
+    private int longWindow = 600;
+
+    private ConcurrencyLimitOptionsConfigure() {
+    }
+
+    public static ConcurrencyLimitOptionsConfigure newOpts() {
+        return new ConcurrencyLimitOptionsConfigure();
+    }
+
+    public static ConcurrencyLimitOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public ConcurrencyLimitOptionsConfigure initialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    public ConcurrencyLimitOptionsConfigure minLimit(int minLimit) {
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    public ConcurrencyLimitOptionsConfigure maxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    public ConcurrencyLimitOptionsConfigure smoothing(double smoothing) {
+        this.smoothing = smoothing;
+        return this;
+    }
+
+    public ConcurrencyLimitOptionsConfigure rttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+        return this;
+    }
+
+    public ConcurrencyLimitOptionsConfigure longWindow(int longWindow) {
+        this.longWindow = longWindow;
+        return this;
+    }
+
+    public ConcurrencyLimitOptions configured() {
+        ConcurrencyLimitOptions options = new ConcurrencyLimitOptions();
+        options.setInitialLimit(initialLimit);
+        options.setMinLimit(minLimit);
+        options.setMaxLimit(maxLimit);
+        options.setSmoothing(smoothing);
+        options.setRttTolerance(rttTolerance);
+        options.setLongWindow(longWindow);
+        return options;
+    }
+}
@@ -23,6 +23,28 @@ public class RouteOptions implements Serializable {
 
     private boolean useCachedRouting = true;
 
+    /**
+     * use {@link esa.restlight.server.route.impl.TrieRouteRegistry} to route the pattern paths.
+     */
+    private boolean useTrieRouting = false;
+
+    /**
+     * partition routes by http method, see {@link esa.restlight.server.route.impl.PartitionedRouteRegistry}.
+     */
+    private boolean partitionByMethod = false;
+
+    /**
+     * max size of {@link esa.restlight.server.route.impl.MatchCachedRouteRegistry}, cache is disabled if it is not
+     * over than 0.
+     */
+    private int matchCacheSize = 0;
+
+    /**
+     * max size of {@link esa.restlight.server.route.impl.NegativeCachedRouteRegistry} which caches the unmatched
+     * requests, cache is disabled if it is not over than 0.
+     */
+    private int negativeCacheSize = 0;
+
     /**
      * cache ratio in {@link esa.restlight.server.route.impl.CachedRouteRegistry}
      * @deprecated unused
@@ -35,6 +57,18 @@ public class RouteOptions implements Serializable {
      */
     private int computeRate = 1;
 
+    /**
+     * period(in millis) of computing the cache in {@link esa.restlight.server.route.impl.CachedRouteRegistry} by a
+     * background thread instead of the {@link #computeRate}, disabled if it is not over than 0.
+     */
+    private long computePeriod = 0L;
+
+    /**
+     * allow to register and deregister routes while the server is running, see {@link
+     * esa.restlight.server.route.impl.CopyOnWriteRouteRegistry}.
+     */
+    private boolean runtimeRouting = false;
+
     public boolean isUseCachedRouting() {
         return useCachedRouting;
     }
@@ -43,6 +77,38 @@ public class RouteOptions implements Serializable {
         this.useCachedRouting = useCachedRouting;
     }
 
+    public boolean isUseTrieRouting() {
+        return useTrieRouting;
+    }
+
+    public void setUseTrieRouting(boolean useTrieRouting) {
+        this.useTrieRouting = useTrieRouting;
+    }
+
+    public boolean isPartitionByMethod() {
+        return partitionByMethod;
+    }
+
+    public void setPartitionByMethod(boolean partitionByMethod) {
+        this.partitionByMethod = partitionByMethod;
+    }
+
+    public int getMatchCacheSize() {
+        return matchCacheSize;
+    }
+
+    public void setMatchCacheSize(int matchCacheSize) {
+        this.matchCacheSize = matchCacheSize;
+    }
+
+    public int getNegativeCacheSize() {
+        return negativeCacheSize;
+    }
+
+    public void setNegativeCacheSize(int negativeCacheSize) {
+        this.negativeCacheSize = negativeCacheSize;
+    }
+
     @Deprecated
     public int getCacheRatio() {
         return cacheRatio;
@@ -61,13 +127,35 @@ public class RouteOptions implements Serializable {
         this.computeRate = computeRate;
     }
 
+    public long getComputePeriod() {
+        return computePeriod;
+    }
+
+    public void setComputePeriod(long computePeriod) {
+        this.computePeriod = computePeriod;
+    }
+
+    public boolean isRuntimeRouting() {
+        return runtimeRouting;
+    }
+
+    public void setRuntimeRouting(boolean runtimeRouting) {
+        this.runtimeRouting = runtimeRouting;
+    }
+
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("RouteOptions{");
         sb.append("useCachedRouting=").append(useCachedRouting);
+        sb.append(", useTrieRouting=").append(useTrieRouting);
+        sb.append(", partitionByMethod=").append(partitionByMethod);
+        sb.append(", matchCacheSize=").append(matchCacheSize);
+        sb.append(", negativeCacheSize=").append(negativeCacheSize);
         sb.append(", cacheRatio=").append(cacheRatio);
         sb.append(", computeRate=").append(computeRate);
+        sb.append(", computePeriod=").append(computePeriod);
+        sb.append(", runtimeRouting=").append(runtimeRouting);
         sb.append('}');
         return sb.toString();
     }
@@ -17,8 +17,14 @@ package esa.restlight.server.config;
 
 public final class RouteOptionsConfigure {
     private boolean useCachedRouting = true;
+    private boolean useTrieRouting = false;
+    private boolean partitionByMethod = false;
+    private int matchCacheSize = 0;
+    private int negativeCacheSize = 0;
     private int cacheRatio = 10;
     private int computeRate = 1;
+    private long computePeriod = 0L;
+    private boolean runtimeRouting = false;
 
     private RouteOptionsConfigure() {
     }
@@ -36,6 +42,26 @@ public final class RouteOptionsConfigure {
         return this;
     }
 
+    public RouteOptionsConfigure useTrieRouting(boolean useTrieRouting) {
+        this.useTrieRouting = useTrieRouting;
+        return this;
+    }
+
+    public RouteOptionsConfigure partitionByMethod(boolean partitionByMethod) {
+        this.partitionByMethod = partitionByMethod;
+        return this;
+    }
+
+    public RouteOptionsConfigure matchCacheSize(int matchCacheSize) {
+        this.matchCacheSize = matchCacheSize;
+        return this;
+    }
+
+    public RouteOptionsConfigure negativeCacheSize(int negativeCacheSize) {
+        this.negativeCacheSize = negativeCacheSize;
+        return this;
+    }
+
     @Deprecated
     public RouteOptionsConfigure cacheRatio(int cacheRatio) {
         this.cacheRatio = cacheRatio;
@@ -47,11 +73,27 @@ public final class RouteOptionsConfigure {
         return this;
     }
 
+    public RouteOptionsConfigure computePeriod(long computePeriod) {
+        this.computePeriod = computePeriod;
+        return this;
+    }
+
+    public RouteOptionsConfigure runtimeRouting(boolean runtimeRouting) {
+        this.runtimeRouting = runtimeRouting;
+        return this;
+    }
+
     public RouteOptions configured() {
         RouteOptions routeOptions = new RouteOptions();
         routeOptions.setUseCachedRouting(useCachedRouting);
+        routeOptions.setUseTrieRouting(useTrieRouting);
+        routeOptions.setPartitionByMethod(partitionByMethod);
+        routeOptions.setMatchCacheSize(matchCacheSize);
+        routeOptions.setNegativeCacheSize(negativeCacheSize);
         routeOptions.setCacheRatio(cacheRatio);
         routeOptions.setComputeRate(computeRate);
+        routeOptions.setComputePeriod(computePeriod);
+        routeOptions.setRuntimeRouting(runtimeRouting);
         return routeOptions;
     }
 }
@@ -30,6 +30,23 @@ public class SchedulingOptions implements Serializable {
 
     private Map<String, TimeoutOptions> timeout = new LinkedHashMap<>(1);
 
+    /**
+     * adaptive concurrency limit of the schedulers, keyed by the name of scheduler.
+     */
+    private Map<String, ConcurrencyLimitOptions> concurrencyLimit = new LinkedHashMap<>(1);
+
+    /**
+     * isolated thread pools keyed by the name of scheduler, which will be registered as schedulers automatically so
+     * that they could be used by {@code @Scheduled(name)}.
+     */
+    private Map<String, BizThreadsOptions> bulkheads = new LinkedHashMap<>(1);
+
+    /**
+     * max count of the tasks which are running concurrently in the {@link Schedulers#VIRTUAL} scheduler, the
+     * scheduler is disabled if it is not over than 0.
+     */
+    private int virtualMaxConcurrency = 0;
+
     public String getDefaultScheduler() {
         return defaultScheduler;
     }
@@ -46,11 +63,38 @@ public class SchedulingOptions implements Serializable {
         this.timeout = timeout;
     }
 
+    public Map<String, ConcurrencyLimitOptions> getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public void setConcurrencyLimit(Map<String, ConcurrencyLimitOptions> concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    public Map<String, BizThreadsOptions> getBulkheads() {
+        return bulkheads;
+    }
+
+    public void setBulkheads(Map<String, BizThreadsOptions> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    public int getVirtualMaxConcurrency() {
+        return virtualMaxConcurrency;
+    }
+
+    public void setVirtualMaxConcurrency(int virtualMaxConcurrency) {
+        this.virtualMaxConcurrency = virtualMaxConcurrency;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("SchedulingOptions{");
         sb.append("defaultScheduler='").append(defaultScheduler).append('\'');
         sb.append(", timeout=").append(timeout);
+        sb.append(", concurrencyLimit=").append(concurrencyLimit);
+        sb.append(", bulkheads=").append(bulkheads);
+        sb.append(", virtualMaxConcurrency=").append(virtualMaxConcurrency);
         sb.append('}');
         return sb.toString();
     }
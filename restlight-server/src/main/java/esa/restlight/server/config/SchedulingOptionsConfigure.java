@@ -27,6 +27,12 @@ public final class SchedulingOptionsConfigure {
 
     private Map<String, TimeoutOptions> timeout = new LinkedHashMap<>(1);
 
+    private Map<String, ConcurrencyLimitOptions> concurrencyLimit = new LinkedHashMap<>(1);
+
+    private Map<String, BizThreadsOptions> bulkheads = new LinkedHashMap<>(1);
+
+    private int virtualMaxConcurrency = 0;
+
     private SchedulingOptionsConfigure() {
     }
 
@@ -48,10 +54,28 @@ public final class SchedulingOptionsConfigure {
         return this;
     }
 
+    public SchedulingOptionsConfigure concurrencyLimit(Map<String, ConcurrencyLimitOptions> concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+        return this;
+    }
+
+    public SchedulingOptionsConfigure bulkheads(Map<String, BizThreadsOptions> bulkheads) {
+        this.bulkheads = bulkheads;
+        return this;
+    }
+
+    public SchedulingOptionsConfigure virtualMaxConcurrency(int virtualMaxConcurrency) {
+        this.virtualMaxConcurrency = virtualMaxConcurrency;
+        return this;
+    }
+
     public SchedulingOptions configured() {
         SchedulingOptions schedulingOptions = new SchedulingOptions();
         schedulingOptions.setDefaultScheduler(defaultScheduler);
         schedulingOptions.setTimeout(timeout);
+        schedulingOptions.setConcurrencyLimit(concurrencyLimit);
+        schedulingOptions.setBulkheads(bulkheads);
+        schedulingOptions.setVirtualMaxConcurrency(virtualMaxConcurrency);
         return schedulingOptions;
     }
 }
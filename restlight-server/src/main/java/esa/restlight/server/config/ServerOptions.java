@@ -64,6 +64,11 @@ public class ServerOptions implements Serializable {
      */
     private int maxContentLength = 4 * 1024 * 1024;
 
+    /**
+     * Max bytes of the body buffered for a streaming request before pausing reading from the connection, 64K
+     */
+    private int streamingBufferSize = 64 * 1024;
+
     /**
      * Max initial line length of http protocol.
      */
@@ -79,12 +84,14 @@ public class ServerOptions implements Serializable {
      */
     private int soBacklog = 128;
     /**
-     * writeBufferHighWaterMark
+     * writeBufferHighWaterMark, which is also the high water mark of the pending bytes of the chunked writer of
+     * response.
      */
     private int writeBufferHighWaterMark = -1;
 
     /**
-     * writeBufferLowWaterMark
+     * writeBufferLowWaterMark, which is also the low water mark of the pending bytes of the chunked writer of
+     * response.
      */
     private int writeBufferLowWaterMark = -1;
     /**
@@ -266,6 +273,14 @@ public class ServerOptions implements Serializable {
         this.maxContentLength = maxContentLength;
     }
 
+    public int getStreamingBufferSize() {
+        return streamingBufferSize;
+    }
+
+    public void setStreamingBufferSize(int streamingBufferSize) {
+        this.streamingBufferSize = streamingBufferSize;
+    }
+
     public int getMaxInitialLineLength() {
         return maxInitialLineLength;
     }
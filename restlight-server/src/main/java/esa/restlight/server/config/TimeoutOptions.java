@@ -24,12 +24,27 @@ public class TimeoutOptions implements Serializable {
     public enum Type {
         TTFB,
 
-        QUEUED
+        QUEUED,
+
+        /**
+         * controlled delay, {@link #timeMillis} is used as the target of queueing time.
+         */
+        CODEL,
+
+        /**
+         * deadline of both queueing and execution, running task will be interrupted once it is out of the deadline.
+         */
+        EXECUTION
     }
 
     private long timeMillis = -1L;
     private Type type = Type.QUEUED;
 
+    /**
+     * interval of {@link Type#CODEL}.
+     */
+    private long intervalMillis = 100L;
+
     public long getTimeMillis() {
         return timeMillis;
     }
@@ -46,11 +61,20 @@ public class TimeoutOptions implements Serializable {
         this.type = type;
     }
 
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("TimeoutOptions{");
         sb.append("timeMillis=").append(timeMillis);
         sb.append(", type=").append(type);
+        sb.append(", intervalMillis=").append(intervalMillis);
         sb.append('}');
         return sb.toString();
     }
@@ -19,6 +19,7 @@ public class TimeoutOptionsConfigure {
 
     private long timeMillis = -1L;
     private TimeoutOptions.Type type = TimeoutOptions.Type.QUEUED;
+    private long intervalMillis = 100L;
 
     private TimeoutOptionsConfigure() {
     }
@@ -41,10 +42,16 @@ public class TimeoutOptionsConfigure {
         return this;
     }
 
+    public TimeoutOptionsConfigure intervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
     public TimeoutOptions configured() {
         TimeoutOptions timeoutOptions = new TimeoutOptions();
         timeoutOptions.setType(type);
         timeoutOptions.setTimeMillis(timeMillis);
+        timeoutOptions.setIntervalMillis(intervalMillis);
         return timeoutOptions;
     }
 
@@ -66,6 +66,11 @@ public class FilteredHandler implements RestlightHandler {
         return filterChain.doFilter(request, response);
     }
 
+    @Override
+    public boolean isStreaming(AsyncRequest request, AsyncResponse response) {
+        return delegate.isStreaming(request, response);
+    }
+
     @Override
     public void onConnected(ChannelHandlerContext ctx) {
         for (Filter filter : filters) {
@@ -36,6 +36,19 @@ public interface RestlightHandler {
      */
     CompletableFuture<Void> process(AsyncRequest request, AsyncResponse response);
 
+    /**
+     * Whether the body of the given request should be streamed rather than aggregated, which is called as soon as the
+     * headers of the request have arrived, so the body of the given request is always empty.
+     *
+     * @param request  current request
+     * @param response current response
+     * @return {@code true} if the request should be processed before the body arrives
+     * @see esa.restlight.server.route.Mapping#streaming()
+     */
+    default boolean isStreaming(AsyncRequest request, AsyncResponse response) {
+        return false;
+    }
+
     /**
      * tcp connect event
      *
@@ -18,6 +18,7 @@ package esa.restlight.server.route;
 import esa.httpserver.core.AsyncRequest;
 import esa.restlight.core.method.HttpMethod;
 import esa.restlight.server.route.impl.MappingImpl;
+import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.util.MappingUtils;
 
 /**
@@ -316,6 +317,28 @@ public interface Mapping {
      */
     String[] produces();
 
+    /**
+     * Returns the priority of the requests which are routed to current {@link Mapping}, a request with higher priority
+     * would be scheduled earlier by a priority-aware scheduler and would be rejected later than others while
+     * overloading.
+     *
+     * @return priority between {@link RequestTask#MIN_PRIORITY} and {@link RequestTask#MAX_PRIORITY}
+     */
+    default int priority() {
+        return RequestTask.NORM_PRIORITY;
+    }
+
+    /**
+     * Whether the body of the requests which are routed to current {@link Mapping} should be streamed rather than
+     * aggregated. If {@code true}, the request is routed as soon as the headers have arrived and the body can only be
+     * read from {@link AsyncRequest#inputStream()}, which blocks until the content arrives and pauses reading from the
+     * connection while too much content has been buffered.
+     *
+     * @return {@code true} if the request body should be streamed
+     */
+    default boolean streaming() {
+        return false;
+    }
 
     /**
      * Combines current {@link Mapping} with another {@link Mapping}, and current {@link Mapping} is regarded as parent
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link RouteRegistry} which allows to register and deregister {@link Route}s while the server is running. Changes
+ * are not visible to the routing until they are republished, and the requests which have been routed before the
+ * republishing will not be affected.
+ */
+public interface RuntimeRouteRegistry extends RouteRegistry {
+
+    /**
+     * Deregister the given {@link Route}.
+     *
+     * @param route route for deregistering
+     *
+     * @return {@code true} if the given route was registered before, otherwise {@code false}
+     */
+    boolean deregisterRoute(Route route);
+
+    /**
+     * Rebuilds the routing with current registered {@link Route}s asynchronously and publishes it atomically.
+     *
+     * @return future which will be completed once all the changes made before have been published
+     */
+    CompletableFuture<Void> republish();
+}
@@ -36,17 +36,20 @@ abstract class AbstractRouteRegistry implements RouteRegistry {
      * all mappings
      */
     private final List<RouteWrap> mappingLookup = new ArrayList<>();
+    private final AmbiguityIndex ambiguityIndex = new AmbiguityIndex();
 
     @Override
     public void registerRoute(Route route) {
         Checks.checkNotNull(route, "route");
         final RouteWrap routeWrap = new RouteWrap(route);
-        mappingLookup.forEach(registered -> {
+        // only test the routes which may be ambiguous with the given one.
+        ambiguityIndex.candidates(routeWrap).forEach(registered -> {
             if (registered.predicate.mayAmbiguousWith(routeWrap.predicate)) {
                 logger.warn("Found ambiguous route:\n{}\n{}", registered.route, route);
             }
         });
         mappingLookup.add(routeWrap);
+        ambiguityIndex.add(routeWrap);
         logger.debug("Registering {}", route);
     }
 
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the registered routes which is used to find out the routes that may be ambiguous with a new one, so that
+ * we do not have to test every pair of routes by {@link
+ * esa.restlight.server.route.predicate.RoutePredicate#mayAmbiguousWith(
+ * esa.restlight.server.route.predicate.RequestPredicate)}.
+ * <p>
+ * Routes are partitioned by their methods at first(routes without any method are partitioned into another one since
+ * they are never ambiguous with the routes which has methods), and then added into a trie by the literal segments at
+ * the beginning of their paths, such as {@code /foo/bar} of {@code /foo/bar/{baz}}. Two routes can not be ambiguous if
+ * neither of their literal prefixes is the prefix of the other one, so only the routes in the ancestors and the
+ * subtree of the node of a new route should be tested.
+ */
+final class AmbiguityIndex {
+
+    private static final char SEPARATOR = '/';
+
+    private final Map<HttpMethod, Node> methods = new EnumMap<>(HttpMethod.class);
+    private final Node noMethod = new Node();
+
+    /**
+     * Gets the registered routes which may be ambiguous with the given route, note that the result is a superset of
+     * the routes that are actually ambiguous with the given route.
+     *
+     * @param route route
+     *
+     * @return candidates
+     */
+    Set<RouteWrap> candidates(RouteWrap route) {
+        final Set<RouteWrap> candidates = new LinkedHashSet<>();
+        for (Node root : roots(route, false)) {
+            for (String path : paths(route)) {
+                Node current = root;
+                for (String segment : literalPrefix(path)) {
+                    candidates.addAll(current.routes);
+                    current = current.children.get(segment);
+                    if (current == null) {
+                        break;
+                    }
+                }
+                if (current != null) {
+                    collectAll(current, candidates);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Adds the given route into current index.
+     *
+     * @param route route
+     */
+    void add(RouteWrap route) {
+        for (Node root : roots(route, true)) {
+            for (String path : paths(route)) {
+                Node current = root;
+                for (String segment : literalPrefix(path)) {
+                    current = current.children.computeIfAbsent(segment, k -> new Node());
+                }
+                current.routes.add(route);
+            }
+        }
+    }
+
+    private List<Node> roots(RouteWrap route, boolean create) {
+        final HttpMethod[] ms = route.mapping().method();
+        final List<Node> roots = new ArrayList<>(ms == null ? 1 : ms.length);
+        if (ms == null || ms.length == 0) {
+            roots.add(noMethod);
+            return roots;
+        }
+        for (HttpMethod m : ms) {
+            if (m == null) {
+                continue;
+            }
+            Node root = methods.get(m);
+            if (root == null && create) {
+                root = new Node();
+                methods.put(m, root);
+            }
+            if (root != null && !roots.contains(root)) {
+                roots.add(root);
+            }
+        }
+        return roots;
+    }
+
+    private static String[] paths(RouteWrap route) {
+        final String[] paths = route.mapping().path();
+        // route without any path is placed at the root.
+        return paths == null || paths.length == 0 ? new String[]{""} : paths;
+    }
+
+    private static List<String> literalPrefix(String path) {
+        final List<String> segments = new ArrayList<>();
+        final int len = path.length();
+        int start = 0;
+        while (true) {
+            while (start < len && path.charAt(start) == SEPARATOR) {
+                start++;
+            }
+            if (start >= len) {
+                return segments;
+            }
+            int end = path.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = len;
+            }
+            final String segment = path.substring(start, end);
+            if (PathMatcher.isPattern(segment)) {
+                return segments;
+            }
+            segments.add(segment);
+            start = end;
+        }
+    }
+
+    private static void collectAll(Node node, Set<RouteWrap> candidates) {
+        candidates.addAll(node.routes);
+        for (Node child : node.children.values()) {
+            collectAll(child, candidates);
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<RouteWrap> routes = new ArrayList<>(1);
+    }
+}
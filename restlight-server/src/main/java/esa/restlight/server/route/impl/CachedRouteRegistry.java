@@ -29,14 +29,23 @@ import java.util.function.Function;
  * routing. The algorithm used in {@link CachedRouteRegistry} is same with the LFU(Least Frequently Used), but we do not
  * update the cache immediately when the element is accessed, instead, we update it in a certain probability(default to
  * 0.1 percent).
+ * <p>
+ * If a positive compute period is given, the cache will be computed by a background thread in that period instead,
+ * see {@link ScheduledCachedRoutes}.
  */
 
 public class CachedRouteRegistry extends AbstractRouteRegistry {
 
     private final int computeRate;
+    private final long computePeriod;
 
     public CachedRouteRegistry(int computeRate) {
+        this(computeRate, 0L);
+    }
+
+    public CachedRouteRegistry(int computeRate, long computePeriod) {
         this.computeRate = computeRate;
+        this.computePeriod = computePeriod;
     }
 
     @Override
@@ -51,6 +60,9 @@ public class CachedRouteRegistry extends AbstractRouteRegistry {
 
         @Override
         CachedRoutes toRoutes(CountedRoute[] routes) {
+            if (computePeriod > 0L) {
+                return new ScheduledCachedRoutes(routes, computePeriod);
+            }
             return UnsafeUtils.hasUnsafe()
                     ? new UnsafeCachedRoutes(routes, computeRate)
                     : new DefaultCachedRoutes(routes, computeRate);
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.RuntimeRouteRegistry;
+import esa.restlight.server.util.Futures;
+import esa.restlight.server.util.LoggerUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copy-on-write implementation of {@link RuntimeRouteRegistry}.
+ * <p>
+ * Every time the registered routes are changed after the first publishing(see {@link #toReadOnly()}), a new {@link
+ * RouteRegistry} will be created by the given factory and transferred to a {@link ReadOnlyRouteRegistry} in a
+ * background thread, and then be published by a volatile write. Requests which have been routed by the old one would
+ * still be completed with it.
+ */
+public class CopyOnWriteRouteRegistry implements RuntimeRouteRegistry {
+
+    private static final ExecutorService REBUILDER =
+            Executors.newSingleThreadExecutor(new RestlightThreadFactory("Restlight-RouteRebuilder"));
+
+    private final Supplier<RouteRegistry> factory;
+    private final Function<RouteRegistry, ReadOnlyRouteRegistry> toReadOnly;
+    private final UnaryOperator<Route> normalizer;
+    /**
+     * routes as they were given, guarded by this
+     */
+    private final List<Route> registered = new ArrayList<>();
+    /**
+     * normalized routes in the same order of {@link #registered}, guarded by this
+     */
+    private final List<Route> routes = new ArrayList<>();
+    private volatile Consumer<List<Route>> publishingListener;
+    /**
+     * guarded by this
+     */
+    private long version;
+    /**
+     * version of the published one, guarded by this while updating
+     */
+    private volatile long publishedVersion = -1L;
+    private volatile ReadOnlyRouteRegistry current;
+
+    public CopyOnWriteRouteRegistry(Supplier<RouteRegistry> factory) {
+        this(factory, RouteRegistry::toReadOnly);
+    }
+
+    public CopyOnWriteRouteRegistry(Supplier<RouteRegistry> factory,
+                                    Function<RouteRegistry, ReadOnlyRouteRegistry> toReadOnly) {
+        this(factory, toReadOnly, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates a {@link CopyOnWriteRouteRegistry}.
+     *
+     * @param factory    factory of the {@link RouteRegistry} to rebuild
+     * @param toReadOnly function to transfer the rebuilt {@link RouteRegistry}
+     * @param normalizer function to normalize(such as completing the scheduler) or validate the given {@link Route}
+     *                   before it is registered, which is applied to the routes registered at runtime as well as
+     *                   the ones registered at starting.
+     */
+    public CopyOnWriteRouteRegistry(Supplier<RouteRegistry> factory,
+                                    Function<RouteRegistry, ReadOnlyRouteRegistry> toReadOnly,
+                                    UnaryOperator<Route> normalizer) {
+        Checks.checkNotNull(factory, "factory");
+        Checks.checkNotNull(toReadOnly, "toReadOnly");
+        Checks.checkNotNull(normalizer, "normalizer");
+        this.factory = factory;
+        this.toReadOnly = toReadOnly;
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Sets the listener which will be called with all the routes to publish right before they are published to the
+     * routing, such as refreshing the scheduling of the routes. The routes will not be published if the listener
+     * throws.
+     *
+     * @param listener listener
+     */
+    public void onPublishing(Consumer<List<Route>> listener) {
+        this.publishingListener = listener;
+    }
+
+    @Override
+    public void registerRoute(Route route) {
+        Checks.checkNotNull(route, "route");
+        final Route normalized = normalizer.apply(route);
+        Checks.checkNotNull(normalized, "normalized");
+        synchronized (this) {
+            registered.add(route);
+            routes.add(normalized);
+            version++;
+        }
+        republishIfNecessary();
+    }
+
+    @Override
+    public boolean deregisterRoute(Route route) {
+        Checks.checkNotNull(route, "route");
+        synchronized (this) {
+            int idx = registered.indexOf(route);
+            if (idx < 0 && (idx = routes.indexOf(route)) < 0) {
+                return false;
+            }
+            registered.remove(idx);
+            routes.remove(idx);
+            version++;
+        }
+        republishIfNecessary();
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Void> republish() {
+        return CompletableFuture.runAsync(this::rebuild, REBUILDER);
+    }
+
+    @Override
+    public Route route(AsyncRequest request) {
+        return snapshot().route(request);
+    }
+
+    @Override
+    public List<Route> routes() {
+        return snapshot().routes();
+    }
+
+    /**
+     * Publishes the first {@link ReadOnlyRouteRegistry} if it has not been published, and returns current registry
+     * itself which always routes the requests by the latest published one.
+     *
+     * @return current registry
+     */
+    @Override
+    public ReadOnlyRouteRegistry toReadOnly() {
+        snapshot();
+        return this;
+    }
+
+    private ReadOnlyRouteRegistry snapshot() {
+        ReadOnlyRouteRegistry readOnly = current;
+        if (readOnly == null) {
+            synchronized (this) {
+                if ((readOnly = current) == null) {
+                    // build the first one in caller thread
+                    final RouteRegistry registry = factory.get();
+                    routes.forEach(registry::registerRoute);
+                    this.current = readOnly = toReadOnly.apply(registry);
+                    this.publishedVersion = version;
+                }
+            }
+        }
+        return readOnly;
+    }
+
+    private void republishIfNecessary() {
+        // nothing to republish if it has never been published.
+        if (current != null) {
+            republish().whenComplete((r, t) -> {
+                if (t != null) {
+                    // the old one keeps routing the requests
+                    LoggerUtils.logger().error("Failed to republish the routes, changes are not visible to routing",
+                            Futures.unwrapCompletionException(t));
+                }
+            });
+        }
+    }
+
+    private void rebuild() {
+        final List<Route> snapshot;
+        final long v;
+        synchronized (this) {
+            v = version;
+            if (v <= publishedVersion) {
+                // already published by the previous one
+                return;
+            }
+            snapshot = new ArrayList<>(routes);
+        }
+        final RouteRegistry registry = factory.get();
+        snapshot.forEach(registry::registerRoute);
+        final ReadOnlyRouteRegistry readOnly = toReadOnly.apply(registry);
+        final Consumer<List<Route>> listener = publishingListener;
+        if (listener != null) {
+            listener.accept(snapshot);
+        }
+        synchronized (this) {
+            if (v > publishedVersion) {
+                this.current = readOnly;
+                this.publishedVersion = v;
+            }
+        }
+    }
+}
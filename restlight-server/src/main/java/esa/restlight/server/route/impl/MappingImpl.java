@@ -23,6 +23,7 @@ import esa.restlight.core.util.MediaType;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.route.predicate.HeadersPredicate;
 import esa.restlight.server.route.predicate.ParamsPredicate;
+import esa.restlight.server.schedule.RequestTask;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -44,6 +45,8 @@ public class MappingImpl implements Mapping {
     private final String[] headers;
     private final String[] consumes;
     private final String[] produces;
+    private final int priority;
+    private final boolean streaming;
 
     private String str;
 
@@ -64,12 +67,37 @@ public class MappingImpl implements Mapping {
                        String[] headers,
                        String[] consumes,
                        String[] produces) {
+        this(name, path, method, params, headers, consumes, produces, RequestTask.NORM_PRIORITY);
+    }
+
+    public MappingImpl(String name,
+                       String[] path,
+                       HttpMethod[] method,
+                       String[] params,
+                       String[] headers,
+                       String[] consumes,
+                       String[] produces,
+                       int priority) {
+        this(name, path, method, params, headers, consumes, produces, priority, false);
+    }
+
+    public MappingImpl(String name,
+                       String[] path,
+                       HttpMethod[] method,
+                       String[] params,
+                       String[] headers,
+                       String[] consumes,
+                       String[] produces,
+                       int priority,
+                       boolean streaming) {
         Checks.checkNotNull(path, "path");
         Checks.checkNotNull(method, "method");
         Checks.checkNotNull(params, "params");
         Checks.checkNotNull(headers, "headers");
         Checks.checkNotNull(consumes, "consumes");
         Checks.checkNotNull(produces, "produces");
+        Checks.checkArg(priority >= RequestTask.MIN_PRIORITY && priority <= RequestTask.MAX_PRIORITY,
+                "priority must be between " + RequestTask.MIN_PRIORITY + " and " + RequestTask.MAX_PRIORITY);
         this.name = name;
         this.path = path;
         this.method = method;
@@ -77,6 +105,8 @@ public class MappingImpl implements Mapping {
         this.headers = headers;
         this.consumes = consumes;
         this.produces = produces;
+        this.priority = priority;
+        this.streaming = streaming;
     }
 
     /**
@@ -93,7 +123,9 @@ public class MappingImpl implements Mapping {
                 this.params,
                 this.headers,
                 this.consumes,
-                this.produces);
+                this.produces,
+                this.priority,
+                this.streaming);
     }
 
     /**
@@ -123,7 +155,9 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority,
+                    this.streaming);
         }
         return this;
     }
@@ -365,7 +399,9 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority,
+                    this.streaming);
         }
         return this;
     }
@@ -455,7 +491,9 @@ public class MappingImpl implements Mapping {
                     tmp.toArray(new String[0]),
                     this.headers,
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority,
+                    this.streaming);
         }
         return this;
     }
@@ -528,7 +566,9 @@ public class MappingImpl implements Mapping {
                     this.params,
                     tmp.toArray(new String[0]),
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority,
+                    this.streaming);
         }
         return this;
     }
@@ -571,7 +611,9 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     tmp.toArray(new String[0]),
-                    this.produces);
+                    this.produces,
+                    this.priority,
+                    this.streaming);
         }
         return this;
     }
@@ -614,11 +656,51 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     this.consumes,
-                    tmp.toArray(new String[0]));
+                    tmp.toArray(new String[0]),
+                    this.priority,
+                    this.streaming);
         }
         return this;
     }
 
+    /**
+     * Sets the {@link #priority} to given value.
+     *
+     * @param priority priority
+     *
+     * @return builder
+     */
+    public MappingImpl priority(int priority) {
+        return new MappingImpl(this.name,
+                this.path,
+                this.method,
+                this.params,
+                this.headers,
+                this.consumes,
+                this.produces,
+                priority,
+                this.streaming);
+    }
+
+    /**
+     * Sets the {@link #streaming} to given value.
+     *
+     * @param streaming streaming
+     *
+     * @return builder
+     */
+    public MappingImpl streaming(boolean streaming) {
+        return new MappingImpl(this.name,
+                this.path,
+                this.method,
+                this.params,
+                this.headers,
+                this.consumes,
+                this.produces,
+                this.priority,
+                streaming);
+    }
+
     @Override
     public String name() {
         return name;
@@ -654,6 +736,16 @@ public class MappingImpl implements Mapping {
         return produces;
     }
 
+    @Override
+    public int priority() {
+        return priority;
+    }
+
+    @Override
+    public boolean streaming() {
+        return streaming;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -714,6 +806,14 @@ public class MappingImpl implements Mapping {
             if (produces != null && produces.length > 0) {
                 fragments.add("produces=" + Arrays.asList(produces).toString());
             }
+
+            if (priority != RequestTask.NORM_PRIORITY) {
+                fragments.add("priority=" + priority);
+            }
+
+            if (streaming) {
+                fragments.add("streaming=true");
+            }
             str = String.join(",", fragments);
         }
         return str;
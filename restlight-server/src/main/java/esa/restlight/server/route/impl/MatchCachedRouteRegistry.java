@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.commons.Checks;
+import esa.commons.MathUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.predicate.PatternsPredicate;
+import esa.restlight.server.util.PathMatcher;
+import esa.restlight.server.util.PathVariableUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ReadOnlyRouteRegistry} which caches the result of routing for templated routes by the method and path of
+ * request, so that the matching of the path pattern and the extraction of template variables could be skipped if the
+ * request hits the cache.
+ * <p>
+ * Only the routes whose {@link Mapping} is composed of pattern paths and methods would be cached, and there must not
+ * be any route that has other conditions(such as {@link Mapping#params()}, {@link Mapping#headers()}) potentially
+ * intersecting with it, because the result of routing is determined by the method and path only in this case.
+ * <p>
+ * The cache is bounded by the given capacity and is organized as a set-associative table, every set of which is
+ * evicted by a CLOCK(second chance) policy without any lock. Cache will be dropped along with current instance when
+ * the registry is rebuilt.
+ */
+public class MatchCachedRouteRegistry implements ReadOnlyRouteRegistry {
+
+    private static final int WAYS = 4;
+
+    private final ReadOnlyRouteRegistry delegate;
+    private final Set<Route> cacheable;
+    private final AtomicReferenceArray<Entry> table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MatchCachedRouteRegistry(ReadOnlyRouteRegistry delegate, int capacity) {
+        Checks.checkNotNull(delegate, "delegate");
+        Checks.checkArg(capacity > 0, "capacity must be over than 0");
+        this.delegate = delegate;
+        this.cacheable = cacheableRoutes(delegate.routes());
+        final int size = MathUtils.nextPowerOfTwo(Math.max(capacity, WAYS));
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public Route route(AsyncRequest request) {
+        final String method = request.rawMethod();
+        final String path = request.path();
+        final int hash = hash(method, path);
+        final int base = hash & mask & ~(WAYS - 1);
+        for (int i = 0; i < WAYS; i++) {
+            final Entry e = table.get(base + i);
+            if (e != null && e.path.equals(path) && e.method.equals(method)) {
+                e.referenced = true;
+                hits.increment();
+                request.setAttribute(PatternsPredicate.TEMPLATE_VARIABLES, e.variables);
+                return e.route;
+            }
+        }
+        misses.increment();
+        final Route route = delegate.route(request);
+        if (route != null && cacheable.contains(route)) {
+            put(base, hash, new Entry(method, path, route, snapshot(PathVariableUtils.getPathVariables(request))));
+        }
+        return route;
+    }
+
+    @Override
+    public List<Route> routes() {
+        return delegate.routes();
+    }
+
+    /**
+     * Gets the count of requests which hit the cache.
+     *
+     * @return count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the count of requests which miss the cache.
+     *
+     * @return count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private void put(int base, int hash, Entry entry) {
+        for (int i = 0; i < WAYS; i++) {
+            final int idx = base + i;
+            final Entry e = table.get(idx);
+            if (e == null) {
+                if (table.compareAndSet(idx, null, entry)) {
+                    return;
+                }
+            } else if (!e.referenced) {
+                // it does not matter if we lost the race.
+                table.compareAndSet(idx, e, entry);
+                return;
+            } else {
+                // give a second chance
+                e.referenced = false;
+            }
+        }
+        // all entries have been referenced recently
+        table.lazySet(base + ((hash >>> 16) & (WAYS - 1)), entry);
+    }
+
+    private static int hash(String method, String path) {
+        final int h = path.hashCode() * 31 + method.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static Map<String, String> snapshot(Map<String, String> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(new LinkedHashMap<>(variables));
+    }
+
+    private static Set<Route> cacheableRoutes(List<Route> routes) {
+        final List<Route> conditional = new ArrayList<>();
+        final List<Route> candidates = new ArrayList<>();
+        for (Route route : routes) {
+            final Mapping mapping = route.mapping();
+            if (hasOtherConditions(mapping)) {
+                conditional.add(route);
+            } else if (isTemplated(mapping)) {
+                candidates.add(route);
+            }
+        }
+        final Set<Route> cacheable = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Route candidate : candidates) {
+            boolean intersect = false;
+            for (Route c : conditional) {
+                if (mayIntersect(candidate.mapping().path(), c.mapping().path())) {
+                    intersect = true;
+                    break;
+                }
+            }
+            if (!intersect) {
+                cacheable.add(unwrap(candidate));
+            }
+        }
+        return cacheable;
+    }
+
+    private static boolean hasOtherConditions(Mapping mapping) {
+        return isNotEmpty(mapping.params())
+                || isNotEmpty(mapping.headers())
+                || isNotEmpty(mapping.consumes())
+                || isNotEmpty(mapping.produces());
+    }
+
+    private static boolean isTemplated(Mapping mapping) {
+        final String[] path = mapping.path();
+        if (path == null || path.length == 0) {
+            return false;
+        }
+        for (String p : path) {
+            if (PathMatcher.isPattern(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mayIntersect(String[] path1, String[] path2) {
+        if (path2 == null || path2.length == 0) {
+            return true;
+        }
+        for (String p1 : path1) {
+            for (String p2 : path2) {
+                if (PathMatcher.isPotentialIntersect(prependLeadingSlash(p1), prependLeadingSlash(p2))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String prependLeadingSlash(String path) {
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    private static boolean isNotEmpty(String[] arr) {
+        return arr != null && arr.length > 0;
+    }
+
+    private static Route unwrap(Route route) {
+        return route instanceof RouteWrap ? ((RouteWrap) route).route : route;
+    }
+
+    private static final class Entry {
+        private final String method;
+        private final String path;
+        private final Route route;
+        private final Map<String, String> variables;
+        /**
+         * Reference bit of CLOCK, races on this field are benign.
+         */
+        private boolean referenced;
+
+        private Entry(String method, String path, Route route, Map<String, String> variables) {
+            this.method = method;
+            this.path = path;
+            this.route = route;
+            this.variables = variables;
+        }
+    }
+}
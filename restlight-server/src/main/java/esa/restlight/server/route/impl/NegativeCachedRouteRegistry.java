@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.commons.Checks;
+import esa.commons.MathUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.predicate.PatternsPredicate;
+import esa.restlight.server.route.predicate.RoutePredicate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ReadOnlyRouteRegistry} which remembers the method and path of the requests recently unmatched, so that
+ * the repeated unmatched requests(such as a 404 storm from scanners) could be responded without testing all of the
+ * routes.
+ * <p>
+ * A miss is cached only if there's no route whose path pattern matches the path of request, which means the request
+ * would always be responded with a {@link io.netty.handler.codec.http.HttpResponseStatus#NOT_FOUND} regardless of
+ * the other conditions. Misses caused by the other conditions(such as {@link RoutePredicate#MATCH_STATUS} was set)
+ * would never be cached. The cache is disabled if there's any route without path, because it could match any path.
+ * <p>
+ * The cache is bounded by the given capacity and is organized as a set-associative table, every set of which is
+ * evicted by a CLOCK(second chance) policy without any lock, see {@link MatchCachedRouteRegistry}.
+ */
+public class NegativeCachedRouteRegistry implements ReadOnlyRouteRegistry {
+
+    private static final int WAYS = 4;
+
+    private final ReadOnlyRouteRegistry delegate;
+    private final boolean enabled;
+    private final AtomicReferenceArray<Entry> table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+
+    public NegativeCachedRouteRegistry(ReadOnlyRouteRegistry delegate, int capacity) {
+        Checks.checkNotNull(delegate, "delegate");
+        Checks.checkArg(capacity > 0, "capacity must be over than 0");
+        this.delegate = delegate;
+        this.enabled = !hasRouteWithoutPath(delegate.routes());
+        final int size = MathUtils.nextPowerOfTwo(Math.max(capacity, WAYS));
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public Route route(AsyncRequest request) {
+        if (!enabled) {
+            return delegate.route(request);
+        }
+        final String method = request.rawMethod();
+        final String path = request.path();
+        final int hash = hash(method, path);
+        final int base = hash & mask & ~(WAYS - 1);
+        for (int i = 0; i < WAYS; i++) {
+            final Entry e = table.get(base + i);
+            if (e != null && e.path.equals(path) && e.method.equals(method)) {
+                e.referenced = true;
+                hits.increment();
+                return null;
+            }
+        }
+        final Route route = delegate.route(request);
+        if (route == null
+                // template variables will be set once any path pattern matched.
+                && request.getAttribute(PatternsPredicate.TEMPLATE_VARIABLES) == null
+                && request.getAttribute(RoutePredicate.MATCH_STATUS) == null) {
+            put(base, hash, new Entry(method, path));
+        }
+        return route;
+    }
+
+    @Override
+    public List<Route> routes() {
+        return delegate.routes();
+    }
+
+    /**
+     * Gets the count of requests which hit the cache.
+     *
+     * @return count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    private void put(int base, int hash, Entry entry) {
+        for (int i = 0; i < WAYS; i++) {
+            final int idx = base + i;
+            final Entry e = table.get(idx);
+            if (e == null) {
+                if (table.compareAndSet(idx, null, entry)) {
+                    return;
+                }
+            } else if (!e.referenced) {
+                // it does not matter if we lost the race.
+                table.compareAndSet(idx, e, entry);
+                return;
+            } else {
+                // give a second chance
+                e.referenced = false;
+            }
+        }
+        // all entries have been referenced recently
+        table.lazySet(base + ((hash >>> 16) & (WAYS - 1)), entry);
+    }
+
+    private static int hash(String method, String path) {
+        final int h = path.hashCode() * 31 + method.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean hasRouteWithoutPath(List<Route> routes) {
+        for (Route route : routes) {
+            final String[] path = route.mapping().path();
+            if (path == null || path.length == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry {
+        private final String method;
+        private final String path;
+        /**
+         * Reference bit of CLOCK, races on this field are benign.
+         */
+        private boolean referenced;
+
+        private Entry(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.commons.Checks;
+import esa.commons.UrlUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.predicate.RoutePredicate;
+import esa.restlight.server.util.PathMatcher;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Implementation of RouteRegistry.
+ * <p>
+ * This implementation partitions all the routes by {@link HttpMethod} when transferring to a {@link
+ * ReadOnlyRouteRegistry}, so that a request would only be tested by the routes which are able to handle the method of
+ * request. It would avoid most of the unnecessary path matching when there are several routes with different methods
+ * in a same path(such as a REST resource).
+ * <p>
+ * A bitmap of the methods allowed by all of the routes will be kept for each direct url and each distinct pattern url,
+ * so that a request will still be responded with a {@link HttpResponseStatus#METHOD_NOT_ALLOWED} if its path is
+ * matched by any route whose methods do not contain the method of request, which is the same as testing the routes
+ * one by one. Pattern urls are indexed by a {@link RouteTrie}, so that a miss only costs one lookup instead of testing
+ * all of the routes.
+ */
+public class PartitionedRouteRegistry extends AbstractRouteRegistry {
+
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+
+    private final boolean useTrieRouting;
+
+    public PartitionedRouteRegistry() {
+        this(false);
+    }
+
+    public PartitionedRouteRegistry(boolean useTrieRouting) {
+        this.useTrieRouting = useTrieRouting;
+    }
+
+    @Override
+    ReadOnlyRouteRegistry toReadOnly(List<RouteWrap> mappingLookup) {
+        return new Partitioned(mappingLookup,
+                useTrieRouting ? TrieRouteRegistry.ReadOnly::new : SimpleRouteRegistry.ReadOnly::new);
+    }
+
+    static class Partitioned implements ReadOnlyRouteRegistry {
+
+        /**
+         * Bitmap of the routes which do not specify any method.
+         */
+        private static final int ANY_METHOD = -1;
+        /**
+         * Key of the routes without any path.
+         */
+        private static final String MATCH_ALL = "";
+        private static final int MAX_TL_CANDIDATES = 64;
+        private static final FastThreadLocal<int[]> CANDIDATES = new FastThreadLocal<int[]>() {
+            @Override
+            protected int[] initialValue() {
+                return new int[MAX_TL_CANDIDATES];
+            }
+        };
+        private static final Map<String, HttpMethod> METHOD_LOOKUP;
+
+        static {
+            final Map<String, HttpMethod> lookup = new HashMap<>(METHODS.length);
+            for (HttpMethod method : METHODS) {
+                lookup.put(method.name(), method);
+            }
+            METHOD_LOOKUP = lookup;
+        }
+
+        /**
+         * Partitions indexed by {@link HttpMethod#ordinal()}
+         */
+        private final ReadOnlyRouteRegistry[] partitions;
+        /**
+         * Partition for the methods which are not defined in {@link HttpMethod}, routes without any method only.
+         */
+        private final ReadOnlyRouteRegistry others;
+        /**
+         * Mapping for the direct url -> bitmap of the methods allowed by all of its routes
+         */
+        private final Map<String, Integer> commonMethods;
+        /**
+         * Distinct pattern urls and their bitmaps of the methods allowed by all of their routes, {@code null} matcher
+         * means the routes without any path which match all the requests.
+         */
+        private final PathMatcher[] patterns;
+        private final int[] patternCommonMethods;
+        private final RouteTrie patternTrie;
+        private final List<Route> immutable;
+
+        Partitioned(List<RouteWrap> mappingLookup,
+                    Function<List<RouteWrap>, ReadOnlyRouteRegistry> factory) {
+            Checks.checkNotNull(mappingLookup);
+            Checks.checkNotNull(factory);
+            final List<List<RouteWrap>> byMethod = new ArrayList<>(METHODS.length);
+            for (int i = 0; i < METHODS.length; i++) {
+                byMethod.add(new ArrayList<>());
+            }
+            final List<RouteWrap> anyMethod = new ArrayList<>();
+            final Map<String, Integer> commonMethods = new HashMap<>();
+            final Map<String, Integer> patternCommonMethods = new LinkedHashMap<>();
+            for (RouteWrap route : mappingLookup) {
+                final HttpMethod[] methods = route.mapping().method();
+                final int bitmap = bitmap(methods);
+                if (methods.length == 0) {
+                    anyMethod.add(route);
+                }
+                for (HttpMethod method : METHODS) {
+                    if (isAllowed(bitmap, method)) {
+                        byMethod.get(method.ordinal()).add(route);
+                    }
+                }
+                final String[] paths = route.mapping().path();
+                // ANY_METHOD is the identity of the intersection
+                if (paths.length == 0) {
+                    patternCommonMethods.merge(MATCH_ALL, bitmap, (x, y) -> x & y);
+                }
+                for (String path : UrlUtils.prependLeadingSlash(Arrays.asList(paths))) {
+                    if (PathMatcher.isPattern(path)) {
+                        patternCommonMethods.merge(path, bitmap, (x, y) -> x & y);
+                    } else {
+                        commonMethods.merge(path, bitmap, (x, y) -> x & y);
+                    }
+                }
+            }
+
+            this.partitions = new ReadOnlyRouteRegistry[METHODS.length];
+            for (int i = 0; i < METHODS.length; i++) {
+                partitions[i] = factory.apply(byMethod.get(i));
+            }
+            this.others = factory.apply(anyMethod);
+            this.commonMethods = commonMethods;
+            final int size = patternCommonMethods.size();
+            this.patterns = new PathMatcher[size];
+            this.patternCommonMethods = new int[size];
+            final String[][] paths = new String[size][];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : patternCommonMethods.entrySet()) {
+                final boolean matchAll = MATCH_ALL.equals(entry.getKey());
+                this.patterns[i] = matchAll ? null : new PathMatcher(entry.getKey());
+                this.patternCommonMethods[i] = entry.getValue();
+                paths[i] = matchAll ? new String[0] : new String[]{entry.getKey()};
+                i++;
+            }
+            this.patternTrie = size == 0 ? null : new RouteTrie(paths);
+            this.immutable = Collections.unmodifiableList(mappingLookup);
+        }
+
+        @Override
+        public Route route(AsyncRequest request) {
+            final HttpMethod method = METHOD_LOOKUP.get(request.rawMethod());
+            final Route route = method == null
+                    ? others.route(request)
+                    : partitions[method.ordinal()].route(request);
+            if (route != null) {
+                return route;
+            }
+            if (request.getAttribute(RoutePredicate.MATCH_STATUS) != null) {
+                // a more specific status has been found by the routes in partition.
+                return null;
+            }
+            // same as testing the routes one by one, any route whose path is matched but method is not makes it a 405
+            // even if the routes of the same method are missed by the other conditions(such as params).
+            final String path = request.path();
+            final Integer direct = commonMethods.get(path);
+            boolean notAllowed = direct != null && !isAllowed(direct, method);
+            if (patternTrie != null && !notAllowed) {
+                final int[] candidates = CANDIDATES.get();
+                final int count = patternTrie.candidates(path, candidates);
+                if (count < 0) {
+                    // too many candidates, fallback to test all of the patterns.
+                    for (int i = 0; i < patterns.length && !notAllowed; i++) {
+                        notAllowed = isNotAllowed(i, path, method);
+                    }
+                } else {
+                    for (int i = 0; i < count && !notAllowed; i++) {
+                        notAllowed = isNotAllowed(candidates[i], path, method);
+                    }
+                }
+            }
+            if (notAllowed) {
+                request.setAttribute(RoutePredicate.MATCH_STATUS, HttpResponseStatus.METHOD_NOT_ALLOWED);
+            }
+            return null;
+        }
+
+        private boolean isNotAllowed(int index, String path, HttpMethod method) {
+            if (isAllowed(patternCommonMethods[index], method)) {
+                return false;
+            }
+            final PathMatcher matcher = patterns[index];
+            return matcher == null || matcher.match(path);
+        }
+
+        @Override
+        public List<Route> routes() {
+            return immutable;
+        }
+
+        private static boolean isAllowed(int bitmap, HttpMethod method) {
+            if (bitmap == ANY_METHOD) {
+                return true;
+            }
+            if (method == null) {
+                return false;
+            }
+            return (bitmap & bit(method)) != 0
+                    // HEAD request is allowed if GET is allowed, see MethodPredicate
+                    || (method == HttpMethod.HEAD && (bitmap & bit(HttpMethod.GET)) != 0);
+        }
+
+        private static int bitmap(HttpMethod[] methods) {
+            if (methods.length == 0) {
+                return ANY_METHOD;
+            }
+            int bitmap = 0;
+            for (HttpMethod method : methods) {
+                bitmap |= bit(method);
+            }
+            return bitmap;
+        }
+
+        private static int bit(HttpMethod method) {
+            return 1 << method.ordinal();
+        }
+    }
+}
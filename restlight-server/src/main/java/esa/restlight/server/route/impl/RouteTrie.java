@@ -0,0 +1,248 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.commons.MathUtils;
+import esa.restlight.server.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment trie which is compiled from the {@link esa.restlight.server.route.Mapping#path()} of the given routes.
+ * <p>
+ * Every path pattern is split into segments by '/', and each segment will be added to the trie as one of the
+ * following children:
+ * <ul>
+ * <li>literal child: segment without any wildcard, such as {@code foo}</li>
+ * <li>single child: segment that matches exactly one segment of path, such as {@code {foo}}, {@code *}, {@code
+ * f?o}</li>
+ * <li>remaining: segment {@code **} that matches zero or more segments of path</li>
+ * </ul>
+ * <p>
+ * Lookup only walks the nodes which may match the segments of given path, and collects the indexes of the routes that
+ * may match the path. Note that the collected indexes are a superset of routes that actually match the path, which
+ * means that every candidate should be tested by its {@link esa.restlight.server.route.predicate.RoutePredicate}
+ * again.
+ */
+final class RouteTrie {
+
+    private static final char SEPARATOR = '/';
+    private static final String DOUBLE_WILDCARDS = "**";
+    private static final int[] EMPTY = new int[0];
+
+    private final Node root;
+
+    RouteTrie(RouteWrap[] routes) {
+        this(pathsOf(routes));
+    }
+
+    /**
+     * @param paths path patterns indexed by the index of route, a route without any path matches all the requests.
+     */
+    RouteTrie(String[][] paths) {
+        final Node root = new Node();
+        for (int i = 0; i < paths.length; i++) {
+            final String[] patterns = paths[i];
+            if (patterns == null || patterns.length == 0) {
+                // route without any path matches all the requests.
+                root.remainingBuilding.add(i);
+                continue;
+            }
+            for (String path : patterns) {
+                insert(root, path, i);
+            }
+        }
+        root.freeze();
+        this.root = root;
+    }
+
+    private static String[][] pathsOf(RouteWrap[] routes) {
+        final String[][] paths = new String[routes.length][];
+        for (int i = 0; i < routes.length; i++) {
+            paths[i] = routes[i].mapping().path();
+        }
+        return paths;
+    }
+
+    /**
+     * Collects the indexes of the routes that may match the given path into the given array.
+     *
+     * @param path       path
+     * @param candidates array to hold the indexes
+     *
+     * @return count of the collected indexes, or {@code -1} if the length of given array is not enough to hold all
+     * the candidates.
+     */
+    int candidates(String path, int[] candidates) {
+        return collect(root, path, 0, candidates, 0);
+    }
+
+    private static int collect(Node node, String path, int pos, int[] candidates, int count) {
+        if ((count = addAll(node.remaining, candidates, count)) < 0) {
+            return -1;
+        }
+        final int len = path.length();
+        int start = pos;
+        while (start < len && path.charAt(start) == SEPARATOR) {
+            start++;
+        }
+        if (start >= len) {
+            // path is exhausted
+            if ((count = addAll(node.terminals, candidates, count)) < 0) {
+                return -1;
+            }
+            // '/foo/*' matches '/foo/'
+            if (node.single != null) {
+                count = addAll(node.single.terminals, candidates, count);
+            }
+            return count;
+        }
+        int end = path.indexOf(SEPARATOR, start);
+        if (end < 0) {
+            end = len;
+        }
+        final Node literal = node.literal(path, start, end);
+        if (literal != null && (count = collect(literal, path, end, candidates, count)) < 0) {
+            return -1;
+        }
+        if (node.single != null) {
+            count = collect(node.single, path, end, candidates, count);
+        }
+        return count;
+    }
+
+    private static int addAll(int[] indexes, int[] candidates, int count) {
+        if (indexes.length == 0) {
+            return count;
+        }
+        if (count + indexes.length > candidates.length) {
+            return -1;
+        }
+        System.arraycopy(indexes, 0, candidates, count, indexes.length);
+        return count + indexes.length;
+    }
+
+    private static void insert(Node root, String path, int index) {
+        Node current = root;
+        final int len = path.length();
+        int start = 0;
+        while (true) {
+            while (start < len && path.charAt(start) == SEPARATOR) {
+                start++;
+            }
+            if (start >= len) {
+                current.terminalsBuilding.add(index);
+                return;
+            }
+            int end = path.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = len;
+            }
+            final String segment = path.substring(start, end);
+            if (DOUBLE_WILDCARDS.equals(segment)) {
+                // '**' may match any remaining segments, so we do not need to go further.
+                current.remainingBuilding.add(index);
+                return;
+            }
+            if (PathMatcher.isPattern(segment)) {
+                if (current.single == null) {
+                    current.single = new Node();
+                }
+                current = current.single;
+            } else {
+                current = current.literalsBuilding.computeIfAbsent(segment, k -> new Node());
+            }
+            start = end;
+        }
+    }
+
+    private static int hash(String s, int start, int end) {
+        // same as String#hashCode()
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Node {
+
+        private String[] keys;
+        private Node[] children;
+        private int mask;
+        private Node single;
+        private int[] terminals = EMPTY;
+        private int[] remaining = EMPTY;
+
+        /**
+         * Temporary holders which are only used while building.
+         */
+        private Map<String, Node> literalsBuilding = new LinkedHashMap<>();
+        private List<Integer> terminalsBuilding = new ArrayList<>(1);
+        private List<Integer> remainingBuilding = new ArrayList<>(1);
+
+        private Node literal(String path, int start, int end) {
+            if (keys == null) {
+                return null;
+            }
+            final int len = end - start;
+            int i = hash(path, start, end) & mask;
+            String key;
+            while ((key = keys[i]) != null) {
+                if (key.length() == len && path.regionMatches(start, key, 0, len)) {
+                    return children[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        private void freeze() {
+            if (!literalsBuilding.isEmpty()) {
+                // keep the load factor below 0.5
+                final int cap = MathUtils.nextPowerOfTwo(literalsBuilding.size() << 1);
+                this.keys = new String[cap];
+                this.children = new Node[cap];
+                this.mask = cap - 1;
+                for (Map.Entry<String, Node> entry : literalsBuilding.entrySet()) {
+                    final String key = entry.getKey();
+                    int i = hash(key, 0, key.length()) & mask;
+                    while (keys[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = key;
+                    children[i] = entry.getValue();
+                    entry.getValue().freeze();
+                }
+            }
+            if (single != null) {
+                single.freeze();
+            }
+            this.terminals = toArray(terminalsBuilding);
+            this.remaining = toArray(remainingBuilding);
+            this.literalsBuilding = null;
+            this.terminalsBuilding = null;
+            this.remainingBuilding = null;
+        }
+
+        private static int[] toArray(List<Integer> list) {
+            return list.isEmpty() ? EMPTY : list.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementation of {@link CachedRoutes} which never computes the lookup on the request threads.
+ * <p>
+ * Hits are recorded in the {@link java.util.concurrent.atomic.LongAdder} of {@link CountedRoute} which is striped by
+ * threads, and the lookup is re-ranked by a single daemon thread with a fixed period, the hits of every route would be
+ * reduced by half after each computing(see {@link CountedRoute#markAndReset()}) which makes the recent hits weigh more
+ * than the older ones. The computed lookup will be published by a release store. The periodic task stops by itself
+ * once current instance has been garbage collected, see {@link Ranker}.
+ */
+class ScheduledCachedRoutes implements CachedRoutes {
+
+    private static final ScheduledExecutorService RANKER;
+
+    static {
+        final ScheduledThreadPoolExecutor ranker =
+                new ScheduledThreadPoolExecutor(1, new RestlightThreadFactory("Restlight-RouteRanker"));
+        ranker.setRemoveOnCancelPolicy(true);
+        RANKER = ranker;
+    }
+
+    private final AtomicReference<CountedRoute[]> cache;
+
+    ScheduledCachedRoutes(CountedRoute[] routes, long periodMillis) {
+        if (periodMillis <= 0L) {
+            throw new IllegalArgumentException("Compute period must be over than 0");
+        }
+        this.cache = new AtomicReference<>(routes);
+        RANKER.scheduleWithFixedDelay(new Ranker(this),
+                periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void hit(CountedRoute r) {
+        r.hits.increment();
+    }
+
+    @Override
+    public CountedRoute[] lookup() {
+        return cache.get();
+    }
+
+    void compute() {
+        cache.lazySet(CachedRoutes.compute(cache.get()));
+    }
+
+    /**
+     * Holds the routes weakly so that the task could be cancelled once the routes are no longer in use, e.g. the
+     * read-only registry has been replaced.
+     */
+    private static final class Ranker implements Runnable {
+
+        private final WeakReference<ScheduledCachedRoutes> ref;
+
+        private Ranker(ScheduledCachedRoutes routes) {
+            this.ref = new WeakReference<>(routes);
+        }
+
+        @Override
+        public void run() {
+            final ScheduledCachedRoutes routes = ref.get();
+            if (routes == null) {
+                throw new CancellationSignal();
+            }
+            routes.compute();
+        }
+    }
+
+    /**
+     * An exception thrown by the periodic task will suppress the subsequent executions of it.
+     */
+    private static final class CancellationSignal extends RuntimeException {
+
+        private static final long serialVersionUID = -3452168270817329186L;
+
+        private CancellationSignal() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementation of RouteRegistry.
+ * <p>
+ * As different as {@link SimpleRouteRegistry} which tests every route one by one when the path of request is not a
+ * direct url, this implementation compiles all the {@link esa.restlight.server.route.Mapping#path()} into a segment
+ * trie, so that the cost of lookup is O(segments of path) and only the few routes found in the trie would be tested.
+ * <p>
+ * Note that the candidates will be tested in the order of registration, which means the result of routing is always
+ * the same as {@link SimpleRouteRegistry}.
+ */
+public class TrieRouteRegistry extends AbstractRouteRegistry {
+
+    @Override
+    ReadOnlyRouteRegistry toReadOnly(List<RouteWrap> mappingLookup) {
+        return new ReadOnly(mappingLookup);
+    }
+
+    static class ReadOnly extends SimpleRouteRegistry.ReadOnly {
+
+        private static final int MAX_TL_CANDIDATES = 64;
+        private static final FastThreadLocal<int[]> CANDIDATES = new FastThreadLocal<int[]>() {
+            @Override
+            protected int[] initialValue() {
+                return new int[MAX_TL_CANDIDATES];
+            }
+        };
+
+        private final RouteTrie trie;
+
+        ReadOnly(List<RouteWrap> mappingLookup) {
+            super(mappingLookup);
+            this.trie = new RouteTrie(routes.lookup());
+        }
+
+        @Override
+        RouteWrap matchAll(AsyncRequest request) {
+            final int[] candidates = CANDIDATES.get();
+            final int count = trie.candidates(request.path(), candidates);
+            if (count < 0) {
+                // too many candidates, fallback to test all of the routes.
+                return super.matchAll(request);
+            }
+            if (count == 0) {
+                return null;
+            }
+            // keep the order of registration
+            Arrays.sort(candidates, 0, count);
+            final RouteWrap[] lookup = routes.lookup();
+            int last = -1;
+            for (int i = 0; i < count; i++) {
+                final int index = candidates[i];
+                if (index == last) {
+                    continue;
+                }
+                last = index;
+                final RouteWrap route = lookup[index];
+                if (route.test(request)) {
+                    return route;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -15,11 +15,10 @@
  */
 package esa.restlight.server.route.predicate;
 
-import esa.commons.StringUtils;
 import esa.httpserver.core.AsyncRequest;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.server.util.MappingUtils;
-import io.netty.handler.codec.http.HttpHeaderNames;
+import esa.restlight.server.util.MediaTypeUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -89,10 +88,7 @@ public class ConsumesPredicate implements RequestPredicate {
 
         @Override
         protected boolean matchMediaType(AsyncRequest request) {
-            String contentTypeString = request.getHeader(HttpHeaderNames.CONTENT_TYPE);
-            MediaType contentType = StringUtils.isEmpty(contentTypeString) ? MediaType.APPLICATION_OCTET_STREAM
-                    : MediaType.valueOf(contentTypeString);
-            return getMediaType().includes(contentType);
+            return getMediaType().includes(MediaTypeUtils.getContentType(request));
         }
 
         @Override
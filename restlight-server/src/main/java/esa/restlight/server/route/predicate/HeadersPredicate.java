@@ -18,6 +18,7 @@ package esa.restlight.server.route.predicate;
 import esa.httpserver.core.AsyncRequest;
 import esa.restlight.server.util.MappingUtils;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.util.AsciiString;
 
 import java.util.*;
 
@@ -84,8 +85,14 @@ public class HeadersPredicate implements RequestPredicate {
 
     public static class Expression extends AbstractNameValueExpression {
 
+        /**
+         * pre-encoded name whose hash code is cached for looking up the headers.
+         */
+        private final AsciiString headerName;
+
         public Expression(String expression) {
             super(expression);
+            this.headerName = AsciiString.cached(name);
         }
 
         @Override
@@ -95,12 +102,12 @@ public class HeadersPredicate implements RequestPredicate {
 
         @Override
         protected boolean matchName(AsyncRequest request) {
-            return request.getHeader(name) != null;
+            return request.containsHeader(headerName);
         }
 
         @Override
         protected boolean matchValue(AsyncRequest request) {
-            return Objects.equals(this.value, request.getHeader(this.name));
+            return Objects.equals(this.value, request.getHeader(headerName));
         }
 
         @Override
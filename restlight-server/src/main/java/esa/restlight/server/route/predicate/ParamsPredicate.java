@@ -87,12 +87,13 @@ public class ParamsPredicate implements RequestPredicate {
 
         @Override
         protected boolean matchName(AsyncRequest request) {
-            return request.getParameter(name) != null;
+            // do not decode all the parameters while routing
+            return request.probeParameter(name) != null;
         }
 
         @Override
         protected boolean matchValue(AsyncRequest request) {
-            return Objects.equals(this.value, request.getParameter(this.name));
+            return Objects.equals(this.value, request.probeParameter(this.name));
         }
 
         @Override
@@ -76,7 +76,8 @@ public class PatternsPredicate implements RequestPredicate {
         if (hasTemplateVar) {
             // only matching with uri template variables if there's template in patterns.
             if (patterns.length == 1) {
-                return patterns[0].matchAndExtractUriTemplateVariables(lookupPath);
+                // variables are addressed by slot index, see PathVariables
+                return patterns[0].matchAndExtractPathVariables(lookupPath);
             } else {
                 Map<String, String> variables = null;
                 for (PathMatcher p : patterns) {
@@ -18,8 +18,7 @@ package esa.restlight.server.route.predicate;
 import esa.httpserver.core.AsyncRequest;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.server.util.MappingUtils;
-import io.netty.handler.codec.http.HttpHeaderNames;
-import io.netty.util.concurrent.FastThreadLocal;
+import esa.restlight.server.util.MediaTypeUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -33,8 +32,6 @@ public class ProducesPredicate implements RequestPredicate {
 
     public static final String COMPATIBLE_MEDIA_TYPES = "$cpt.mts";
 
-    private static final FastThreadLocal<List<MediaType>> ACCEPTABLE_MEDIA_TYPES
-            = new FastThreadLocal<>();
     private static final List<MediaType> ALL =
             Collections.singletonList(MediaType.ALL);
 
@@ -63,26 +60,22 @@ public class ProducesPredicate implements RequestPredicate {
 
     @Override
     public boolean test(AsyncRequest request) {
-        try {
-            for (Expression expression : expressions) {
-                if (expression.match(request)) {
-                    List<MediaType> compatibleMediaTypes = getCompatibleMediaType();
-                    if (!compatibleMediaTypes.isEmpty()) {
-                        request.setAttribute(COMPATIBLE_MEDIA_TYPES, compatibleMediaTypes);
-                    }
-                    return true;
+        for (Expression expression : expressions) {
+            if (expression.match(request)) {
+                List<MediaType> compatibleMediaTypes = getCompatibleMediaType(request);
+                if (!compatibleMediaTypes.isEmpty()) {
+                    request.setAttribute(COMPATIBLE_MEDIA_TYPES, compatibleMediaTypes);
                 }
+                return true;
             }
-        } finally {
-            ACCEPTABLE_MEDIA_TYPES.remove();
         }
         return false;
     }
 
-    private List<MediaType> getCompatibleMediaType() {
+    private List<MediaType> getCompatibleMediaType(AsyncRequest request) {
         List<MediaType> compatibleMediaTypes = new LinkedList<>();
         MediaType mostSpecificMediaType;
-        final List<MediaType> accepts = ACCEPTABLE_MEDIA_TYPES.get();
+        final List<MediaType> accepts = getAcceptedMediaTypes(request);
         for (MediaType acceptable : accepts) {
             for (MediaType producible : this.producibleMediaTypes) {
                 if (acceptable.isCompatibleWith(producible)) {
@@ -99,7 +92,8 @@ public class ProducesPredicate implements RequestPredicate {
     }
 
     private static List<MediaType> getAcceptedMediaTypes(AsyncRequest request) {
-        List<MediaType> mediaTypes = MediaType.valuesOf(request.getHeader(HttpHeaderNames.ACCEPT));
+        // parsed media types are shared by all the routes and the content negotiation.
+        List<MediaType> mediaTypes = MediaTypeUtils.getAcceptedMediaTypes(request);
         return (mediaTypes.isEmpty())
                 ? ALL
                 : mediaTypes;
@@ -157,10 +151,7 @@ public class ProducesPredicate implements RequestPredicate {
 
         @Override
         protected boolean matchMediaType(AsyncRequest request) {
-            List<MediaType> mediaTypes = ACCEPTABLE_MEDIA_TYPES.getIfExists();
-            if (mediaTypes == null) {
-                ACCEPTABLE_MEDIA_TYPES.set(mediaTypes = getAcceptedMediaTypes(request));
-            }
+            List<MediaType> mediaTypes = getAcceptedMediaTypes(request);
             if (mediaTypes.isEmpty()) {
                 return false;
             }
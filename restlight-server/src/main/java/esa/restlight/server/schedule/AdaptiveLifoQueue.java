@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A work queue of {@link java.util.concurrent.ThreadPoolExecutor} which serves the tasks in FIFO order normally and
+ * switches to LIFO order if the queue has not been empty for the given interval(sustained overload), so that the
+ * newest tasks which are still fresh could be served quickly instead of all the tasks timing out together. It is
+ * switched back once the queue has been drained.
+ * <p>
+ * It is usually used along with the {@link CoDelTimeoutScheduler} which drops the stale tasks.
+ */
+public class AdaptiveLifoQueue extends LinkedBlockingDeque<Runnable> {
+
+    private static final long serialVersionUID = -6343915587283542286L;
+
+    private final long intervalNanos;
+    /**
+     * the time when the queue became non-empty, or {@code 0} if it has been drained. It is set by the producer which
+     * sees the empty-to-non-empty edge and reset by the consumer which drains the queue, a lost edge could only delay
+     * the switching a little and is healed once the queue is drained again.
+     */
+    private volatile long nonEmptySince;
+
+    public AdaptiveLifoQueue(int capacity, long intervalMillis) {
+        super(capacity);
+        Checks.checkArg(intervalMillis > 0L, "intervalMillis must be over than 0");
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    @Override
+    public boolean offer(Runnable r) {
+        if (super.offer(r)) {
+            if (nonEmptySince == 0L || size() == 1) {
+                markNonEmpty();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Runnable poll() {
+        return afterRemoval(isLifo() ? super.pollLast() : super.pollFirst());
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return afterRemoval(isLifo() ? super.pollLast(timeout, unit) : super.pollFirst(timeout, unit));
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        return afterRemoval(isLifo() ? super.takeLast() : super.takeFirst());
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        if (super.removeFirstOccurrence(o)) {
+            afterRemoval(null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the tasks are served in LIFO order currently.
+     *
+     * @return {@code true} if LIFO
+     */
+    public boolean isLifo() {
+        final long since = nonEmptySince;
+        return since != 0L && System.nanoTime() - since > intervalNanos && !isEmpty();
+    }
+
+    private void markNonEmpty() {
+        final long now = System.nanoTime();
+        // 0 is reserved for the empty state
+        nonEmptySince = now == 0L ? 1L : now;
+    }
+
+    private Runnable afterRemoval(Runnable r) {
+        if (isEmpty()) {
+            nonEmptySince = 0L;
+            // a concurrent producer may have missed the edge
+            if (!isEmpty()) {
+                markNonEmpty();
+            }
+        }
+        return r;
+    }
+}
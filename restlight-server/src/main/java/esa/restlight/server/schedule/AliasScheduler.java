@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+
+import java.util.Objects;
+
+/**
+ * A {@link Scheduler} which schedules the tasks by another {@link Scheduler} in a different name. The lifecycle of
+ * the delegated one is not managed by this scheduler, which means {@link #shutdown()} would do nothing.
+ */
+class AliasScheduler implements Scheduler {
+
+    private final String name;
+    private final Scheduler delegate;
+
+    AliasScheduler(String name, Scheduler delegate) {
+        Checks.checkNotEmptyArg(name, "name");
+        Checks.checkNotNull(delegate, "delegate");
+        this.name = name;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void schedule(Runnable cmd) {
+        delegate.schedule(cmd);
+    }
+
+    @Override
+    public void shutdown() {
+        // the delegated scheduler should be shutdown by itself
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AliasScheduler that = (AliasScheduler) o;
+        return Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+
+    @Override
+    public String toString() {
+        return "AliasScheduler{name='" + name + "', delegate='" + delegate.name() + "'}";
+    }
+}
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.internal.ThreadExecutorMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} which runs the tasks by a fixed count of workers draining lock-free
+ * queues, which is designed to cut the lock contention and the context switches of handing tasks from the IO threads
+ * to the biz threads.
+ * <p>
+ * Tasks submitted by a netty event loop are buffered and published to the queue together once per IO cycle of the
+ * event loop(the flushing task of the event loop runs after the reading of current cycle), and only the parked workers
+ * are unparked(at most one per task), so that there's no {@link LockSupport#unpark(Thread)} while the workers are
+ * busy. Tasks submitted by other threads are published immediately.
+ * <p>
+ * A worker keeps draining the queue until it's empty and spins for a while before parking itself. Tasks are taken
+ * one by one, so that a blocking task would never hold other tasks which could be run by an idle worker.
+ * <p>
+ * The workers and the capacity could be split into several shards, every shard has its own queue and each event loop
+ * is pinned to a shard(in the order of their first submissions), so that the event loops only contend with the event
+ * loops of the same shard and the tasks tend to be run by the same group of workers. A worker steals the tasks of the
+ * other shards only if its own queue is empty, and a task is put into another shard only if its own shard is full.
+ * <p>
+ * Tasks over than the given capacity(including both the buffered and the queued) would be rejected.
+ */
+public class BatchDrainingExecutor extends AbstractExecutorService {
+
+    private static final int SPINS = 64;
+
+    private final int threads;
+    private final int capacity;
+    private final ThreadFactory threadFactory;
+    private final Shard[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final FastThreadLocal<Submissions> submissions = new FastThreadLocal<Submissions>() {
+        @Override
+        protected Submissions initialValue() {
+            return new Submissions(shards[(nextShard.getAndIncrement() & Integer.MAX_VALUE) % shards.length]);
+        }
+    };
+    private final Worker[] workers;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger alive = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean started;
+    private volatile boolean shutdown;
+    private volatile Consumer<Runnable> rejectedHandler;
+
+    public BatchDrainingExecutor(ThreadFactory threadFactory, int threads, int capacity) {
+        this(threadFactory, threads, capacity, 1);
+    }
+
+    public BatchDrainingExecutor(ThreadFactory threadFactory, int threads, int capacity, int shards) {
+        Checks.checkNotNull(threadFactory, "threadFactory");
+        Checks.checkArg(threads > 0, "threads must be over than 0");
+        Checks.checkArg(capacity > 0, "capacity must be over than 0");
+        Checks.checkArg(shards > 0, "shards must be over than 0");
+        Checks.checkArg(threads >= shards, "threads must not be less than shards");
+        Checks.checkArg(capacity >= shards, "capacity must not be less than shards");
+        this.threadFactory = threadFactory;
+        this.threads = threads;
+        this.capacity = capacity;
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            // spread the remainders to the first shards
+            this.shards[i] = new Shard(i,
+                    threads / shards + (i < threads % shards ? 1 : 0),
+                    capacity / shards + (i < capacity % shards ? 1 : 0));
+        }
+        this.workers = new Worker[threads];
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Checks.checkNotNull(command, "command");
+        if (shutdown) {
+            reject(command);
+            return;
+        }
+        final EventExecutor loop = ThreadExecutorMap.currentExecutor();
+        final Submissions s = loop != null && loop.inEventLoop() ? submissions.get() : null;
+        final Shard home = s != null ? s.shard : shards[(int) (Thread.currentThread().getId() % shards.length)];
+        final Shard shard = acquire(home);
+        if (shard == null) {
+            reject(command);
+            return;
+        }
+        if (!started && !start()) {
+            shard.pending.decrementAndGet();
+            reject(command);
+            return;
+        }
+        if (shard == home && s != null) {
+            s.add(command, loop);
+        } else {
+            shard.queue.offer(command);
+            signal(shard, 1);
+        }
+    }
+
+    /**
+     * Sets the handler which will be called when the task is rejected because of the shutdown or the capacity, a
+     * {@link RejectedExecutionException} would be thrown if there's no handler.
+     *
+     * @param rejectedHandler handler
+     */
+    public void setRejectedHandler(Consumer<Runnable> rejectedHandler) {
+        this.rejectedHandler = rejectedHandler;
+    }
+
+    public int getCorePoolSize() {
+        return threads;
+    }
+
+    public int getMaximumPoolSize() {
+        return threads;
+    }
+
+    public long getKeepAliveTime(TimeUnit unit) {
+        return 0L;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getPoolSize() {
+        return alive.get();
+    }
+
+    public int getLargestPoolSize() {
+        return started ? threads : 0;
+    }
+
+    public long getTaskCount() {
+        return completed.sum() + active.get() + getQueueSize();
+    }
+
+    /**
+     * Gets the count of the tasks which are waiting to be run, including the tasks which are buffered by the event
+     * loops.
+     *
+     * @return count
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.pending.get();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the count of the tasks which are waiting to be run in the given shard.
+     *
+     * @param shard index of shard
+     *
+     * @return count
+     */
+    public int getQueueSize(int shard) {
+        return shards[shard].pending.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getShards() {
+        return shards.length;
+    }
+
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        synchronized (this) {
+            if (!started) {
+                terminated.countDown();
+                return;
+            }
+        }
+        for (Worker w : workers) {
+            LockSupport.unpark(w.thread);
+        }
+    }
+
+    /**
+     * Running tasks would be interrupted, and the tasks which are buffered by the event loops would not be returned.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        final List<Runnable> tasks = new ArrayList<>();
+        for (Shard shard : shards) {
+            Runnable r;
+            while ((r = shard.queue.poll()) != null) {
+                shard.pending.decrementAndGet();
+                tasks.add(r);
+            }
+        }
+        if (started) {
+            for (Worker w : workers) {
+                w.thread.interrupt();
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0L;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchDrainingExecutor{threads=" + threads
+                + ", capacity=" + capacity
+                + ", shards=" + shards.length
+                + ", active=" + active.get()
+                + ", pending=" + getQueueSize()
+                + ", completed=" + completed.sum()
+                + ", rejected=" + rejected.sum()
+                + ", shutdown=" + shutdown + '}';
+    }
+
+    private synchronized boolean start() {
+        if (started) {
+            return true;
+        }
+        if (shutdown) {
+            return false;
+        }
+        int i = 0;
+        for (Shard shard : shards) {
+            for (int j = 0; j < shard.workers.length; j++) {
+                final Worker w = new Worker(shard);
+                w.thread = threadFactory.newThread(w);
+                shard.workers[j] = w;
+                workers[i++] = w;
+            }
+        }
+        alive.set(threads);
+        started = true;
+        for (Worker w : workers) {
+            w.thread.start();
+        }
+        return true;
+    }
+
+    /**
+     * Acquires a slot from the given shard, or from the other shards if the given one is full.
+     *
+     * @return the shard which the slot belongs to, or {@code null} if all the shards are full.
+     */
+    private Shard acquire(Shard home) {
+        for (int i = 0; i < shards.length; i++) {
+            final Shard shard = shards[(home.index + i) % shards.length];
+            if (shard.tryAcquire()) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Unparks at most {@code n} parked workers of the given shard, and the parked workers of the other shards will be
+     * unparked to steal the tasks if there's no enough parked workers in the given shard.
+     */
+    private void signal(Shard shard, int n) {
+        n = shard.signal(n);
+        for (int i = 1; i < shards.length && n > 0; i++) {
+            n = shards[(shard.index + i) % shards.length].signal(n);
+        }
+    }
+
+    private boolean hasPending() {
+        for (Shard shard : shards) {
+            if (!shard.queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(Runnable command) {
+        rejected.increment();
+        final Consumer<Runnable> handler = rejectedHandler;
+        if (handler == null) {
+            throw new RejectedExecutionException(shutdown
+                    ? "Executor has been shutdown"
+                    : "Capacity(" + capacity + ") exceeded");
+        }
+        handler.accept(command);
+    }
+
+    private static final class Shard {
+
+        private final int index;
+        private final int capacity;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Worker[] workers;
+
+        private Shard(int index, int threads, int capacity) {
+            this.index = index;
+            this.capacity = capacity;
+            this.workers = new Worker[threads];
+        }
+
+        private boolean tryAcquire() {
+            for (; ; ) {
+                final int p = pending.get();
+                if (p >= capacity) {
+                    return false;
+                }
+                if (pending.compareAndSet(p, p + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Unparks at most {@code n} parked workers.
+         *
+         * @return count of the workers which are still to be unparked
+         */
+        private int signal(int n) {
+            for (int i = 0; i < workers.length && n > 0; i++) {
+                final Worker w = workers[i];
+                if (w != null && w.state.get() == Worker.PARKED
+                        && w.state.compareAndSet(Worker.PARKED, Worker.RUNNING)) {
+                    LockSupport.unpark(w.thread);
+                    n--;
+                }
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Submissions of an event loop which are waiting to be published.
+     */
+    private final class Submissions implements Runnable {
+
+        private final Shard shard;
+        private final List<Runnable> buffer = new ArrayList<>();
+
+        private Submissions(Shard shard) {
+            this.shard = shard;
+        }
+
+        private void add(Runnable command, EventExecutor loop) {
+            buffer.add(command);
+            if (buffer.size() == 1) {
+                try {
+                    loop.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // event loop is shutting down
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            final int n = buffer.size();
+            for (int i = 0; i < n; i++) {
+                shard.queue.offer(buffer.get(i));
+            }
+            buffer.clear();
+            signal(shard, n);
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        private static final int RUNNING = 0;
+        private static final int PARKED = 1;
+
+        private final Shard shard;
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private Thread thread;
+
+        private Worker(Shard shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void run() {
+            try {
+                int spins = 0;
+                for (; ; ) {
+                    final Runnable r = poll();
+                    if (r != null) {
+                        runTask(r);
+                        spins = 0;
+                        continue;
+                    }
+                    if (shutdown && getQueueSize() == 0) {
+                        break;
+                    }
+                    if (spins++ < SPINS) {
+                        Thread.yield();
+                        continue;
+                    }
+                    state.set(PARKED);
+                    // double check to avoid missing the signal
+                    if ((hasPending() || shutdown) && state.compareAndSet(PARKED, RUNNING)) {
+                        continue;
+                    }
+                    LockSupport.park(this);
+                    // an interrupt is only used to cancel the running task
+                    Thread.interrupted();
+                    state.set(RUNNING);
+                    spins = 0;
+                }
+            } finally {
+                if (alive.decrementAndGet() == 0) {
+                    terminated.countDown();
+                }
+            }
+        }
+
+        /**
+         * Polls a task from the own shard first, and steals from the other shards if the own one is empty.
+         */
+        private Runnable poll() {
+            for (int i = 0; i < shards.length; i++) {
+                final Shard s = shards[(shard.index + i) % shards.length];
+                final Runnable r = s.queue.poll();
+                if (r != null) {
+                    s.pending.decrementAndGet();
+                    return r;
+                }
+            }
+            return null;
+        }
+
+        private void runTask(Runnable r) {
+            active.incrementAndGet();
+            try {
+                r.run();
+            } catch (Throwable t) {
+                LoggerUtils.logger().error("Error occurred while running task in BatchDrainingExecutor", t);
+            } finally {
+                // clear the interrupt status caused by an interrupted task
+                if (!shutdown) {
+                    Thread.interrupted();
+                }
+                active.decrementAndGet();
+                completed.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.restlight.server.config.TimeoutOptions;
+import esa.restlight.server.util.LoggerUtils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A {@link TimeoutScheduler} which fails the queued tasks by a controlled delay(CoDel) algorithm.
+ * <p>
+ * The {@link TimeoutOptions#getTimeMillis()} is used as the target of the sojourn time(the time from the start time
+ * of a task to its execution). Nothing would be dropped if the sojourn time of any task falls below the target in an
+ * interval, otherwise it enters into the dropping state and the tasks at the head of queue will be dropped at an
+ * increasing rate(the next drop is scheduled at {@code interval / sqrt(count)}) until the sojourn time goes back below
+ * the target.
+ * <p>
+ * Use an {@link AdaptiveLifoQueue} as the work queue of the underlying executor to serve the newest tasks first
+ * under the sustained overload. In LIFO order the task being executed is usually the newest one, so the sojourn time
+ * of the oldest task at the head of the queue is used instead, the stale tasks are dropped from the head and a task
+ * which is above the target itself is never executed while dropping.
+ */
+class CoDelTimeoutScheduler extends TimeoutScheduler {
+
+    private final long target;
+    private final long interval;
+    private final AdaptiveLifoQueue queue;
+
+    /**
+     * guarded by this, and the volatile fields could be read without lock.
+     */
+    private volatile long firstAboveTime;
+    private volatile boolean dropping;
+    private long dropNext;
+    private int count;
+    private int lastCount;
+
+    CoDelTimeoutScheduler(Scheduler scheduler, TimeoutOptions timeoutOptions) {
+        super(scheduler, timeoutOptions);
+        this.target = timeoutOptions.getTimeMillis();
+        Checks.checkArg(timeoutOptions.getIntervalMillis() > 0L, "intervalMillis must be over than 0");
+        this.interval = timeoutOptions.getIntervalMillis();
+        this.queue = lifoQueueOf(scheduler);
+    }
+
+    @Override
+    boolean shouldFailFast(long actualCost) {
+        final long now = System.currentTimeMillis();
+        final AdaptiveLifoQueue q = queue;
+        if (q == null || !q.isLifo()) {
+            return shouldDrop(actualCost, now);
+        }
+        final Runnable head = q.peekFirst();
+        if (!(head instanceof TimeoutRequestTask)) {
+            return shouldDrop(actualCost, now);
+        }
+        final TimeoutRequestTask oldest = (TimeoutRequestTask) head;
+        final long headSojourn = now - oldest.startTime;
+        if (headSojourn <= actualCost) {
+            return shouldDrop(actualCost, now);
+        }
+        if (shouldDrop(headSojourn, now) && q.removeFirstOccurrence(oldest)) {
+            oldest.failFast();
+            LoggerUtils.logger().warn("Request(url = {}, method={}) has been dropped from the head of queue: " +
+                            "Out of scheduler({}) CoDel target ({}ms), actual costs: {}ms",
+                    oldest.request().path(),
+                    oldest.request().rawMethod(),
+                    oldest.schedulerName,
+                    target,
+                    headSojourn);
+        }
+        // stale tasks should not be served while dropping, otherwise they would eventually be executed in LIFO order.
+        return dropping && actualCost >= target;
+    }
+
+    boolean shouldDrop(long sojourn, long now) {
+        if (sojourn < target) {
+            // fast path: nothing to reset
+            if (firstAboveTime != 0L || dropping) {
+                synchronized (this) {
+                    // went below the target, leave the dropping state.
+                    firstAboveTime = 0L;
+                    dropping = false;
+                }
+            }
+            return false;
+        }
+        synchronized (this) {
+            return shouldDropAboveTarget(now);
+        }
+    }
+
+    /**
+     * guarded by this
+     */
+    private boolean shouldDropAboveTarget(long now) {
+        if (firstAboveTime == 0L) {
+            // sojourn time has to stay above the target for a whole interval before dropping.
+            firstAboveTime = now + interval;
+            return false;
+        }
+        if (now < firstAboveTime) {
+            return false;
+        }
+        if (!dropping) {
+            dropping = true;
+            // recent dropping, continue with the previous drop rate
+            final int delta = count - lastCount;
+            count = delta > 1 && now - dropNext < 16L * interval ? delta : 1;
+            lastCount = count;
+            dropNext = controlLaw(now);
+            return true;
+        }
+        if (now >= dropNext) {
+            count++;
+            dropNext = controlLaw(dropNext);
+            return true;
+        }
+        return false;
+    }
+
+    private long controlLaw(long t) {
+        return t + (long) (interval / Math.sqrt(count));
+    }
+
+    private static AdaptiveLifoQueue lifoQueueOf(Scheduler scheduler) {
+        if (scheduler instanceof ExecutorScheduler) {
+            final Executor executor = ((ExecutorScheduler) scheduler).executor();
+            if (executor instanceof ThreadPoolExecutor
+                    && ((ThreadPoolExecutor) executor).getQueue() instanceof AdaptiveLifoQueue) {
+                return (AdaptiveLifoQueue) ((ThreadPoolExecutor) executor).getQueue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "CoDelTimeoutScheduler{name='" + name() + "'}";
+    }
+}
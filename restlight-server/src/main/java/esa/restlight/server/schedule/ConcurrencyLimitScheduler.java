@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ConcurrencyLimitOptions;
+import esa.restlight.server.util.ErrorDetail;
+import esa.restlight.server.util.PromiseUtils;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Scheduler} which limits the count of in-flight {@link RequestTask}s of the delegated {@link Scheduler}.
+ * <p>
+ * The round-trip time(from scheduling to the completion of {@link RequestTask#promise()}) of every request is sampled
+ * to adjust the limit automatically by a gradient algorithm, see {@link GradientLimit}. Requests over the limit will
+ * be rejected immediately with a {@code Retry-After} header instead of being queued.
+ * <p>
+ * Requests which are completed without being executed(such as rejected by the queue or failed fast by the timeout)
+ * are not sampled, because their round-trip time would be near zero and the limit would grow under overload. A request
+ * is regarded as executed only when the delegated {@link Scheduler} runs the given task, so the delegated one must not
+ * run it when failing fast, eg. a {@link TimeoutScheduler} wrapped by this scheduler completes the request without
+ * running the task if it has been queued too long.
+ */
+public class ConcurrencyLimitScheduler implements Scheduler {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    private final Scheduler scheduler;
+    private final GradientLimit limit;
+    private final BiConsumer<RequestTask, String> rejectHandler;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    public ConcurrencyLimitScheduler(Scheduler scheduler, ConcurrencyLimitOptions options) {
+        this(scheduler, options, null);
+    }
+
+    /**
+     * @param scheduler     scheduler to limit
+     * @param options       options
+     * @param rejectHandler handler of the rejected requests, they will be responded with a {@link
+     *                      HttpResponseStatus#TOO_MANY_REQUESTS} directly if it is {@code null}.
+     */
+    public ConcurrencyLimitScheduler(Scheduler scheduler,
+                                     ConcurrencyLimitOptions options,
+                                     BiConsumer<RequestTask, String> rejectHandler) {
+        Checks.checkNotNull(scheduler, "scheduler");
+        this.scheduler = scheduler;
+        this.limit = new GradientLimit(options);
+        this.rejectHandler = rejectHandler;
+    }
+
+    @Override
+    public void schedule(Runnable cmd) {
+        if (!(cmd instanceof RequestTask)) {
+            scheduler.schedule(cmd);
+            return;
+        }
+        final RequestTask task = (RequestTask) cmd;
+        final int current = tryAcquire();
+        if (current < 0) {
+            reject(task);
+            return;
+        }
+        final SampledTask sampled = new SampledTask(task);
+        task.promise().whenComplete((v, t) -> {
+            inflight.decrementAndGet();
+            if (sampled.started) {
+                limit.onSample(System.nanoTime() - sampled.start, current);
+            }
+        });
+        scheduler.schedule(sampled);
+    }
+
+    @Override
+    public String name() {
+        return scheduler.name();
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Gets current limit.
+     *
+     * @return limit
+     */
+    public int limit() {
+        return limit.limit();
+    }
+
+    GradientLimit gradientLimit() {
+        return limit;
+    }
+
+    /**
+     * Gets the count of in-flight requests.
+     *
+     * @return count
+     */
+    public int inflight() {
+        return inflight.get();
+    }
+
+    /**
+     * @return in-flight count including current request, or {@code -1} if it exceeds the limit.
+     */
+    private int tryAcquire() {
+        for (; ; ) {
+            final int current = inflight.get();
+            if (current >= limit.limit()) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private void reject(RequestTask task) {
+        final String reason = "Rejected by scheduler(" + name() + "), concurrency limit: " + limit.limit();
+        task.response().setHeader(HttpHeaderNames.RETRY_AFTER, Long.toString(retryAfterSeconds()));
+        if (rejectHandler != null) {
+            rejectHandler.accept(task, reason);
+        } else {
+            ErrorDetail.sendErrorResult(task.request(), task.response(), reason,
+                    HttpResponseStatus.TOO_MANY_REQUESTS);
+            PromiseUtils.setSuccess(task.promise(), true);
+        }
+    }
+
+    /**
+     * A slot is expected to be released after the average round-trip time, which is rounded up to seconds.
+     */
+    private long retryAfterSeconds() {
+        final double rtt = limit.longRtt();
+        return Math.max(1L, (long) Math.ceil(rtt / NANOS_PER_SECOND));
+    }
+
+    /**
+     * Marks whether the task has been executed actually.
+     */
+    private static final class SampledTask implements RequestTask {
+
+        private final RequestTask delegate;
+        private final long start = System.nanoTime();
+        private volatile boolean started;
+
+        private SampledTask(RequestTask delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public AsyncRequest request() {
+            return delegate.request();
+        }
+
+        @Override
+        public AsyncResponse response() {
+            return delegate.response();
+        }
+
+        @Override
+        public CompletableFuture<Void> promise() {
+            return delegate.promise();
+        }
+
+        @Override
+        public int priority() {
+            return delegate.priority();
+        }
+
+        @Override
+        public void run() {
+            started = true;
+            delegate.run();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConcurrencyLimitScheduler that = (ConcurrencyLimitScheduler) o;
+        return Objects.equals(name(), that.name());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name());
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitScheduler{name='" + name() + "', limit=" + limit.limit() + '}';
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.util.ErrorDetail;
+import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PromiseUtils;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deadline of a {@link RequestTask} which is scheduled by a scheduler with {@link
+ * esa.restlight.server.config.TimeoutOptions.Type#EXECUTION} timeout.
+ * <p>
+ * Once the deadline is exceeded, the response will be completed with a {@link HttpResponseStatus#SERVICE_UNAVAILABLE}
+ * immediately, the worker thread which is still running the task will be interrupted and the {@link
+ * CompletableFuture} bound by {@link #bind(CompletableFuture)} will be cancelled.
+ * <p>
+ * The response is owned by whichever of the deadline and the execution claims it first, see {@link
+ * #tryClaim(AsyncRequest)}. Results which are produced after the response has been claimed by the deadline will be
+ * dropped, and the deadline will do nothing once the response has been claimed by the execution.
+ */
+public final class ExecutionDeadline extends RequestDeadline implements TimerTask {
+
+    private static final int LEFT = 0;
+    private static final int RUNNING = 1;
+    private static final int INTERRUPTING = 2;
+    private static final int INTERRUPTED = 3;
+
+    private static final int UNCLAIMED = 0;
+    private static final int CLAIMED_BY_EXECUTION = 1;
+    private static final int CLAIMED_BY_DEADLINE = 2;
+
+    private final RequestTask task;
+    private final String schedulerName;
+    private final long timeoutMillis;
+    private final AtomicInteger runnerState = new AtomicInteger(LEFT);
+    private final AtomicInteger owner = new AtomicInteger(UNCLAIMED);
+    private volatile Thread runner;
+    private volatile CompletableFuture<?> future;
+    private volatile boolean expired;
+
+    ExecutionDeadline(RequestTask task, String schedulerName, long timeoutMillis, long deadlineMillis) {
+        super(deadlineMillis);
+        this.task = task;
+        this.schedulerName = schedulerName;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Gets the {@link ExecutionDeadline} of given request.
+     *
+     * @param request request
+     *
+     * @return deadline or {@code null} if absent
+     */
+    public static ExecutionDeadline of(AsyncRequest request) {
+        final RequestDeadline deadline = RequestDeadline.of(request);
+        return deadline instanceof ExecutionDeadline ? (ExecutionDeadline) deadline : null;
+    }
+
+    /**
+     * Tries to claim the response of given request for writing the result of the execution. This should be called
+     * before writing the response by the execution if the request may be scheduled with an {@link
+     * esa.restlight.server.config.TimeoutOptions.Type#EXECUTION} timeout.
+     *
+     * @param request request
+     *
+     * @return {@code true} if the response could be written by the execution, {@code false} if the response has been
+     * claimed by the deadline and then the result of the execution should be dropped.
+     */
+    public static boolean tryClaim(AsyncRequest request) {
+        final ExecutionDeadline deadline = of(request);
+        return deadline == null || deadline.tryClaim();
+    }
+
+    /**
+     * Tries to claim the response for writing the result of the execution.
+     *
+     * @return {@code true} if the response is owned by the execution, otherwise {@code false}
+     * @see #tryClaim(AsyncRequest)
+     */
+    public boolean tryClaim() {
+        return owner.compareAndSet(UNCLAIMED, CLAIMED_BY_EXECUTION) || owner.get() == CLAIMED_BY_EXECUTION;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return expired || super.isExpired();
+    }
+
+    /**
+     * Binds the result of the execution which will be cancelled once the deadline is exceeded.
+     *
+     * @param future future
+     */
+    public void bind(CompletableFuture<?> future) {
+        this.future = future;
+        if (expired) {
+            future.cancel(false);
+        }
+    }
+
+    void enter() {
+        runner = Thread.currentThread();
+        runnerState.set(RUNNING);
+    }
+
+    void leave() {
+        if (!runnerState.compareAndSet(RUNNING, LEFT)) {
+            // wait for the interrupting and clear the interrupt status, so that the worker thread won't be affected
+            // when running other tasks.
+            while (runnerState.get() == INTERRUPTING) {
+                Thread.yield();
+            }
+            Thread.interrupted();
+        }
+        runner = null;
+    }
+
+    @Override
+    public void run(Timeout timeout) {
+        if (timeout.isCancelled() || task.promise().isDone()) {
+            return;
+        }
+        if (!owner.compareAndSet(UNCLAIMED, CLAIMED_BY_DEADLINE)) {
+            // the response is being written by the execution
+            return;
+        }
+        expired = true;
+        final String reason = "Out of scheduler(" + schedulerName + ") execution timeout(" + timeoutMillis + ")ms";
+        try {
+            if (!task.response().isCommitted()) {
+                ErrorDetail.sendErrorResult(task.request(),
+                        task.response(),
+                        reason,
+                        HttpResponseStatus.SERVICE_UNAVAILABLE);
+            }
+        } catch (Throwable t) {
+            LoggerUtils.logger().debug("Error while sending result of expired request", t);
+        }
+
+        final CompletableFuture<?> f = future;
+        if (f != null) {
+            f.cancel(false);
+        }
+        if (runnerState.compareAndSet(RUNNING, INTERRUPTING)) {
+            try {
+                final Thread t = runner;
+                if (t != null) {
+                    t.interrupt();
+                }
+            } finally {
+                runnerState.set(INTERRUPTED);
+            }
+        }
+        PromiseUtils.setSuccess(task.promise(), true);
+        LoggerUtils.logger().warn("Request(url = {}, method={}) has been cancelled: {}",
+                task.request().path(),
+                task.request().rawMethod(),
+                reason);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.config.TimeoutOptions;
+import io.netty.util.Timeout;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TimeoutScheduler} which treats the {@link TimeoutOptions#getTimeMillis()} as the deadline of both queueing
+ * and execution. Deadlines of all the schedulers are driven by a shared {@link io.netty.util.HashedWheelTimer}, see
+ * {@link ExecutionDeadline}.
+ */
+class ExecutionTimeoutScheduler extends TimeoutScheduler {
+
+    ExecutionTimeoutScheduler(Scheduler scheduler, TimeoutOptions timeoutOptions) {
+        super(scheduler, timeoutOptions);
+    }
+
+    @Override
+    void execute(RequestTask task, long startTime, long actualCost) {
+        final ExecutionDeadline deadline =
+                new ExecutionDeadline(task, name(), timeoutMillis, startTime + timeoutMillis);
+        task.request().setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+        deadline.enter();
+        final Timeout timeout = RequestDeadline.TIMER.newTimeout(deadline,
+                timeoutMillis - actualCost,
+                TimeUnit.MILLISECONDS);
+        task.promise().whenComplete((r, t) -> timeout.cancel());
+        try {
+            task.run();
+        } finally {
+            deadline.leave();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionTimeoutScheduler{name='" + name() + "'}";
+    }
+}
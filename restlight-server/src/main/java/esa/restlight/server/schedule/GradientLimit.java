@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.restlight.server.config.ConcurrencyLimitOptions;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient based concurrency limit algorithm.
+ * <p>
+ * The limit is adjusted by the gradient of the long-term average round-trip time over the current one, which means
+ * the limit will be decreased if the round-trip time is growing(requests are queueing) and will be increased by a
+ * queue size of {@code sqrt(limit)} if it is not. The long-term average will drift down slowly if the current
+ * round-trip time is far less than it, so that the limit could be recovered after a latency spike.
+ * <p>
+ * Samples are accumulated in striped counters and the limit is updated by the average of every {@link #BATCH}
+ * samples, so that the completion of requests would not contend on a single lock.
+ */
+final class GradientLimit {
+
+    static final int BATCH = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double longFactor;
+    private final int warmup;
+
+    /**
+     * samples which have not been applied, the counters may be slightly inconsistent with each other while draining,
+     * which is benign.
+     */
+    private final LongAdder pendingCount = new LongAdder();
+    private final LongAdder pendingRtt = new LongAdder();
+    private final LongAccumulator pendingInflight = new LongAccumulator(Math::max, 0L);
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    /**
+     * guarded by this
+     */
+    private double estimatedLimit;
+    private int samples;
+
+    private volatile double longRtt;
+    private volatile int limit;
+
+    GradientLimit(ConcurrencyLimitOptions options) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getMinLimit() > 0, "minLimit must be over than 0");
+        Checks.checkArg(options.getMaxLimit() >= options.getMinLimit(), "maxLimit must not be less than minLimit");
+        Checks.checkArg(options.getSmoothing() > 0D && options.getSmoothing() <= 1D,
+                "smoothing must be in range (0.0, 1.0]");
+        Checks.checkArg(options.getRttTolerance() >= 1D, "rttTolerance must not be less than 1.0");
+        Checks.checkArg(options.getLongWindow() > 0, "longWindow must be over than 0");
+        this.minLimit = options.getMinLimit();
+        this.maxLimit = options.getMaxLimit();
+        this.smoothing = options.getSmoothing();
+        this.rttTolerance = options.getRttTolerance();
+        this.longFactor = 2D / (options.getLongWindow() + 1);
+        this.warmup = Math.min(10, options.getLongWindow());
+        this.estimatedLimit = clamp(options.getInitialLimit());
+        this.limit = (int) estimatedLimit;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * Gets the long-term average round-trip time in nanos.
+     *
+     * @return average round-trip time, {@code 0.0} if there's no sample.
+     */
+    double longRtt() {
+        return longRtt;
+    }
+
+    /**
+     * Gets the count of samples which have been applied to the limit.
+     *
+     * @return count
+     */
+    synchronized int samples() {
+        return samples;
+    }
+
+    /**
+     * Adds a sample, and the limit will be updated once there are enough samples.
+     *
+     * @param rtt      round-trip time in nanos
+     * @param inflight count of in-flight requests when this sample was started
+     */
+    void onSample(long rtt, int inflight) {
+        if (rtt <= 0L) {
+            return;
+        }
+        pendingRtt.add(rtt);
+        pendingInflight.accumulate(inflight);
+        pendingCount.increment();
+        if (pendingCount.sum() >= BATCH && updating.compareAndSet(false, true)) {
+            try {
+                final long count = pendingCount.sumThenReset();
+                final long rttSum = pendingRtt.sumThenReset();
+                final long maxInflight = pendingInflight.getThenReset();
+                if (count > 0L) {
+                    update((double) rttSum / count, (int) count, maxInflight);
+                }
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    /**
+     * Updates the limit by the average of a batch of samples, which is only called by the thread that is draining the
+     * samples.
+     */
+    private synchronized void update(double rtt, int count, long inflight) {
+        double longRtt = this.longRtt;
+        if (samples < warmup) {
+            // simple average while warming up
+            samples += count;
+            longRtt += (rtt - longRtt) * count / samples;
+        } else {
+            samples += count;
+            longRtt += (rtt - longRtt) * (1D - Math.pow(1D - longFactor, count));
+        }
+
+        // drift down the long-term rtt so that the limit could be recovered.
+        if (longRtt / rtt > 2D) {
+            longRtt *= 0.95D;
+        }
+        this.longRtt = longRtt;
+
+        // the limit is not the bottleneck now, do not grow it without any pressure.
+        if (inflight < estimatedLimit / 2D) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5D, Math.min(1D, rttTolerance * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1D - smoothing) + newLimit * smoothing;
+        this.estimatedLimit = clamp(newLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    @Override
+    public String toString() {
+        return "GradientLimit{limit=" + limit + '}';
+    }
+}
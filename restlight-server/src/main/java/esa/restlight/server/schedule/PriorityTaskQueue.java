@@ -0,0 +1,384 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded work queue of {@link java.util.concurrent.ThreadPoolExecutor} which serves the tasks by the {@link
+ * RequestTask#priority()}, tasks with the same priority are served in FIFO order. Tasks which are not {@link
+ * RequestTask}s are regarded as {@link RequestTask#NORM_PRIORITY}.
+ * <p>
+ * To prevent starvation, the effective priority of a waiting task is increased by 1 every time it has waited for the
+ * given aging interval.
+ * <p>
+ * Once the queue is full, a task with higher priority could take the place of the newest task of the lowest priority
+ * by {@link #offerOrEvict(Runnable)}, so that the lowest priority tasks are rejected first while overloading.
+ */
+public class PriorityTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private final int capacity;
+    private final long agingNanos;
+    private final ArrayDeque<Entry>[] buckets;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    /**
+     * guarded by lock
+     */
+    private int count;
+
+    @SuppressWarnings("unchecked")
+    public PriorityTaskQueue(int capacity, long agingMillis) {
+        Checks.checkArg(capacity > 0, "capacity must be over than 0");
+        Checks.checkArg(agingMillis > 0L, "agingMillis must be over than 0");
+        this.capacity = capacity;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+        this.buckets = new ArrayDeque[RequestTask.MAX_PRIORITY - RequestTask.MIN_PRIORITY + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable r) {
+        Checks.checkNotNull(r, "r");
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                return false;
+            }
+            enqueue(r);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable r, long timeout, TimeUnit unit) throws InterruptedException {
+        Checks.checkNotNull(r, "r");
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(r);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable r) throws InterruptedException {
+        Checks.checkNotNull(r, "r");
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            enqueue(r);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the given task if the queue is not full, otherwise the newest task with the lowest priority would be
+     * evicted to make room for the given task if its priority is lower than the given one.
+     *
+     * @param r task
+     *
+     * @return {@code null} if the given task has been inserted without evicting any other task, otherwise the task
+     * which should be rejected, that is the evicted task or the given task itself.
+     */
+    public Runnable offerOrEvict(Runnable r) {
+        Checks.checkNotNull(r, "r");
+        lock.lock();
+        try {
+            if (count < capacity) {
+                enqueue(r);
+                return null;
+            }
+            final int priority = priorityOf(r);
+            for (int p = RequestTask.MIN_PRIORITY; p < priority; p++) {
+                final ArrayDeque<Entry> bucket = bucketOf(p);
+                if (!bucket.isEmpty()) {
+                    final Runnable evicted = bucket.pollLast().task;
+                    count--;
+                    enqueue(r);
+                    return evicted;
+                }
+            }
+            return r;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0L) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            return count == 0 ? null : bucketOf(select()).peekFirst().task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the count of the waiting tasks of given priority.
+     *
+     * @param priority priority
+     *
+     * @return size
+     */
+    public int size(int priority) {
+        lock.lock();
+        try {
+            return bucketOf(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            for (ArrayDeque<Entry> bucket : buckets) {
+                final Iterator<Entry> it = bucket.iterator();
+                while (it.hasNext()) {
+                    if (o.equals(it.next().task)) {
+                        it.remove();
+                        count--;
+                        notFull.signal();
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        Checks.checkNotNull(c, "c");
+        Checks.checkArg(c != this, "Could not drain to self");
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < maxElements && count > 0) {
+                c.add(dequeue());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of current tasks.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        final List<Runnable> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(count);
+            for (int p = RequestTask.MAX_PRIORITY; p >= RequestTask.MIN_PRIORITY; p--) {
+                for (Entry e : bucketOf(p)) {
+                    snapshot.add(e.task);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new Iterator<Runnable>() {
+            private int cursor;
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.size();
+            }
+
+            @Override
+            public Runnable next() {
+                if (cursor >= snapshot.size()) {
+                    throw new NoSuchElementException();
+                }
+                return last = snapshot.get(cursor++);
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                PriorityTaskQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    private void enqueue(Runnable r) {
+        bucketOf(priorityOf(r)).offerLast(new Entry(r, System.nanoTime()));
+        count++;
+        notEmpty.signal();
+    }
+
+    private Runnable dequeue() {
+        final Runnable r = bucketOf(select()).pollFirst().task;
+        count--;
+        notFull.signal();
+        return r;
+    }
+
+    /**
+     * Selects the priority whose head task has the highest effective priority, and the higher priority wins if they
+     * are the same.
+     */
+    private int select() {
+        final long now = System.nanoTime();
+        int selected = RequestTask.MIN_PRIORITY;
+        long max = Long.MIN_VALUE;
+        for (int p = RequestTask.MAX_PRIORITY; p >= RequestTask.MIN_PRIORITY; p--) {
+            final Entry head = bucketOf(p).peekFirst();
+            if (head != null) {
+                final long effective = p + (now - head.enqueuedAt) / agingNanos;
+                if (effective > max) {
+                    max = effective;
+                    selected = p;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private ArrayDeque<Entry> bucketOf(int priority) {
+        return buckets[priority - RequestTask.MIN_PRIORITY];
+    }
+
+    private static int priorityOf(Runnable r) {
+        if (r instanceof RequestTask) {
+            final int priority = ((RequestTask) r).priority();
+            return Math.min(Math.max(priority, RequestTask.MIN_PRIORITY), RequestTask.MAX_PRIORITY);
+        }
+        return RequestTask.NORM_PRIORITY;
+    }
+
+    private static final class Entry {
+
+        private final Runnable task;
+        private final long enqueuedAt;
+
+        private Entry(Runnable task, long enqueuedAt) {
+            this.task = task;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
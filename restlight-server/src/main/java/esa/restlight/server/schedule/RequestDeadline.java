@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.bootstrap.WebServerException;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of a request which is computed by the start time of the request and the timeout of the scheduler, and it is
+ * attached to the {@link AsyncRequest} as an attribute before the request is handled, so that the handler could know
+ * how much time is left to avoid issuing the downstream calls which are bound to be wasted.
+ * <p>
+ * Only the schedulers whose timeout is a budget of the whole request attach a deadline, which are the {@link
+ * esa.restlight.server.config.TimeoutOptions.Type#TTFB} and the {@link
+ * esa.restlight.server.config.TimeoutOptions.Type#EXECUTION}. The {@link
+ * esa.restlight.server.config.TimeoutOptions.Type#QUEUED} timeout only limits the time of queueing, so there's no
+ * deadline for it.
+ */
+public class RequestDeadline {
+
+    /**
+     * Key of the request attribute which holds current deadline.
+     */
+    public static final String ATTRIBUTE = "$req.ddl";
+
+    /**
+     * Shared timer of all the deadlines.
+     */
+    static final Timer TIMER = new HashedWheelTimer(new RestlightThreadFactory("Restlight-Deadline"),
+            10L,
+            TimeUnit.MILLISECONDS);
+
+    private final long deadlineMillis;
+
+    public RequestDeadline(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Gets the shared timer, which is also used by the other lightweight timeouts such as the heartbeats of the
+     * server-sent events. Tasks submitted to it must not block.
+     *
+     * @return timer
+     */
+    public static Timer timer() {
+        return TIMER;
+    }
+
+    /**
+     * Gets the {@link RequestDeadline} of given request.
+     *
+     * @param request request
+     *
+     * @return deadline or {@code null} if absent
+     */
+    public static RequestDeadline of(AsyncRequest request) {
+        final Object deadline = request.getAttribute(ATTRIBUTE);
+        return deadline instanceof RequestDeadline ? (RequestDeadline) deadline : null;
+    }
+
+    /**
+     * Returns the deadline in the form of the difference, measured in milliseconds, between the deadline and midnight,
+     * January 1, 1970 UTC.
+     *
+     * @return deadline
+     */
+    public long deadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * Returns the remaining time in milliseconds.
+     *
+     * @return remaining time or {@code 0} if the deadline has been exceeded.
+     */
+    public long remainingMillis() {
+        return Math.max(0L, deadlineMillis - System.currentTimeMillis());
+    }
+
+    /**
+     * Whether the deadline has been exceeded.
+     *
+     * @return {@code true} if exceeded
+     */
+    public boolean isExpired() {
+        return remainingMillis() == 0L;
+    }
+
+    /**
+     * Completes the given {@link CompletableFuture} exceptionally by a {@link WebServerException} with {@link
+     * HttpResponseStatus#SERVICE_UNAVAILABLE} if it has not been completed before the deadline.
+     *
+     * @param future future
+     * @param <T>    type of the result
+     *
+     * @return given future
+     */
+    public <T> CompletableFuture<T> within(CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return future;
+        }
+        final long remaining = remainingMillis();
+        if (remaining == 0L) {
+            future.completeExceptionally(exceeded());
+            return future;
+        }
+        final Timeout timeout = TIMER.newTimeout(t -> future.completeExceptionally(exceeded()),
+                remaining,
+                TimeUnit.MILLISECONDS);
+        future.whenComplete((r, t) -> timeout.cancel());
+        return future;
+    }
+
+    private WebServerException exceeded() {
+        return new WebServerException(HttpResponseStatus.SERVICE_UNAVAILABLE,
+                "Deadline(" + deadlineMillis + ") exceeded");
+    }
+
+    @Override
+    public String toString() {
+        return "RequestDeadline{deadlineMillis=" + deadlineMillis + '}';
+    }
+}
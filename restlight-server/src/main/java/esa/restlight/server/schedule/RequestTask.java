@@ -22,6 +22,21 @@ import java.util.concurrent.CompletableFuture;
 
 public interface RequestTask extends Runnable {
 
+    /**
+     * The minimum priority that a task can have.
+     */
+    int MIN_PRIORITY = 0;
+
+    /**
+     * The default priority that is assigned to a task.
+     */
+    int NORM_PRIORITY = 5;
+
+    /**
+     * The maximum priority that a task can have.
+     */
+    int MAX_PRIORITY = 10;
+
     /**
      * Get associated request
      *
@@ -42,4 +57,14 @@ public interface RequestTask extends Runnable {
      * @return promise
      */
     CompletableFuture<Void> promise();
+
+    /**
+     * Get the priority of current task which is between {@link #MIN_PRIORITY} and {@link #MAX_PRIORITY}, a task with
+     * higher priority would be executed earlier by a priority-aware scheduler.
+     *
+     * @return priority
+     */
+    default int priority() {
+        return NORM_PRIORITY;
+    }
 }
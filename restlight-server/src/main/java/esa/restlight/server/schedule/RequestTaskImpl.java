@@ -26,22 +26,33 @@ class RequestTaskImpl implements RequestTask {
     private final AsyncResponse res;
     private final CompletableFuture<Void> promise;
     private final Runnable r;
+    private final int priority;
 
     private RequestTaskImpl(AsyncRequest req,
                             AsyncResponse res,
                             CompletableFuture<Void> promise,
-                            Runnable r) {
+                            Runnable r,
+                            int priority) {
         this.req = req;
         this.res = res;
         this.promise = promise;
         this.r = r;
+        this.priority = priority;
     }
 
     static RequestTaskImpl newRequestTask(AsyncRequest req,
                                           AsyncResponse resp,
                                           CompletableFuture<Void> promise,
                                           Runnable r) {
-        return new RequestTaskImpl(req, resp, promise, r);
+        return newRequestTask(req, resp, promise, r, NORM_PRIORITY);
+    }
+
+    static RequestTaskImpl newRequestTask(AsyncRequest req,
+                                          AsyncResponse resp,
+                                          CompletableFuture<Void> promise,
+                                          Runnable r,
+                                          int priority) {
+        return new RequestTaskImpl(req, resp, promise, r, priority);
     }
 
     @Override
@@ -64,6 +75,11 @@ class RequestTaskImpl implements RequestTask {
         return promise;
     }
 
+    @Override
+    public int priority() {
+        return priority;
+    }
+
     @Override
     public String toString() {
         return "RequestTask{uri='" + req.uri() + "\'method='" + req.method() + "\'}";
@@ -16,7 +16,7 @@
 package esa.restlight.server.schedule;
 
 import esa.commons.Checks;
-import esa.commons.StringUtils;
+import esa.commons.UrlUtils;
 import esa.commons.function.Consumer3;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
@@ -29,16 +29,20 @@ import esa.restlight.server.route.Route;
 import esa.restlight.server.route.predicate.RoutePredicate;
 import esa.restlight.server.util.ErrorDetail;
 import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PathMatcher;
 import esa.restlight.server.util.PromiseUtils;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -50,10 +54,19 @@ import static esa.restlight.server.schedule.RequestTaskImpl.newRequestTask;
 
 public class ScheduledRestlightHandler implements RestlightHandler {
 
+    private static final String STREAMING_ROUTE = "$streaming.route";
+
     private final DispatcherHandler dispatcher;
-    private final List<Scheduler> schedulers = new LinkedList<>();
+    private final List<Scheduler> schedulers = new CopyOnWriteArrayList<>();
     private final RequestTaskHook hook;
-    private Consumer3<AsyncRequest, AsyncResponse, CompletableFuture<Void>> processor;
+    private volatile Consumer3<AsyncRequest, AsyncResponse, CompletableFuture<Void>> processor;
+    private boolean prioritized;
+    private volatile boolean streaming;
+    /**
+     * path patterns of the streaming routes, which are used to skip routing the most of the non-streaming requests on
+     * headers. {@code null} if any of the streaming route matches all the paths.
+     */
+    private volatile PathMatcher[] streamingPaths;
     private volatile long terminationTimeoutSeconds;
 
     public ScheduledRestlightHandler(ServerOptions options,
@@ -73,19 +86,57 @@ public class ScheduledRestlightHandler implements RestlightHandler {
 
     @Override
     public synchronized void onStart() {
-        final List<Route> routes = dispatcher.routes();
-        final Set<Scheduler> tmp = new HashSet<>();
+        refresh(dispatcher.routes());
+    }
+
+    /**
+     * Refreshes the scheduling by the given routes, which must be called before the routes are published to the
+     * routing if they are changed at runtime. Schedulers, priorities and streaming paths which have been seen before
+     * are kept, so that the requests which are routed by the old routes would still be scheduled properly and all the
+     * schedulers would be drained when shutting down.
+     *
+     * @param routes routes
+     */
+    public synchronized void refresh(List<Route> routes) {
+        final Set<Scheduler> tmp = new HashSet<>(this.schedulers);
+        final List<Scheduler> added = new ArrayList<>();
+        boolean prioritized = this.prioritized;
+        boolean streaming = this.streaming;
+        List<PathMatcher> paths = streaming && streamingPaths == null
+                ? null
+                : new ArrayList<>(streamingPaths == null ? Collections.emptyList() : Arrays.asList(streamingPaths));
         for (Route route : routes) {
             Scheduler scheduler = route.scheduler();
             Checks.checkNotNull(scheduler);
             if (tmp.add(scheduler)) {
-                this.schedulers.add(scheduler);
+                added.add(scheduler);
+            }
+            prioritized |= route.mapping().priority() != RequestTask.NORM_PRIORITY;
+            if (route.mapping().streaming()) {
+                // reading the streaming body in io thread would block the arrival of the body itself.
+                Checks.checkArg(!Schedulers.isIo(scheduler),
+                        "Streaming route(" + route.mapping() + ") could not be scheduled by IO scheduler");
+                streaming = true;
+                final String[] path = route.mapping().path();
+                if (paths != null && path != null && path.length > 0) {
+                    for (String p : path) {
+                        paths.add(new PathMatcher(UrlUtils.prependLeadingSlash(p)));
+                    }
+                } else {
+                    paths = null;
+                }
             }
         }
-
-        if (this.schedulers.size() == 1) {
+        this.schedulers.addAll(added);
+        this.prioritized = prioritized;
+        this.streamingPaths = paths == null ? null : paths.toArray(new PathMatcher[0]);
+        this.streaming = streaming;
+
+        // priority of the request task must be known before scheduling, so route in io thread if necessary.
+        if (this.schedulers.size() == 1 && !prioritized) {
+            final Scheduler scheduler = this.schedulers.get(0);
             this.processor = (req, res, promise) ->
-                    processByFixedScheduler(req, res, promise, this.schedulers.get(0));
+                    processByFixedScheduler(req, res, promise, scheduler);
         } else {
             // some of the route should be execute on io scheduler
             // some of the route should be execute on route.scheduler()
@@ -121,7 +172,8 @@ public class ScheduledRestlightHandler implements RestlightHandler {
             final RequestTask task = hook.onRequest(newRequestTask(req,
                     res,
                     promise,
-                    () -> dispatcher.service(req, res, promise, route)));
+                    () -> dispatcher.service(req, res, promise, route),
+                    route.mapping().priority()));
 
             if (task != null) {
                 route.scheduler().schedule(task);
@@ -132,7 +184,10 @@ public class ScheduledRestlightHandler implements RestlightHandler {
     private Route routeOrNotFound(AsyncRequest req,
                                   AsyncResponse res,
                                   CompletableFuture<Void> promise) {
-        final Route route = dispatcher.route(req, res);
+        Route route = streaming ? req.removeUncheckedAttribute(STREAMING_ROUTE) : null;
+        if (route == null) {
+            route = dispatcher.route(req, res);
+        }
         if (route == null) {
             notFound(req, res, promise);
             return null;
@@ -145,6 +200,35 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         return route;
     }
 
+    @Override
+    public boolean isStreaming(AsyncRequest request, AsyncResponse response) {
+        if (!streaming || !mayBeStreaming(request.path())) {
+            return false;
+        }
+        // the result of the non-streaming requests is not reused since the predicates(such as params) may depend on
+        // the aggregated body.
+        final Route route = dispatcher.route(request, response);
+        if (route != null && route.mapping().streaming()) {
+            // route once
+            request.setAttribute(STREAMING_ROUTE, route);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean mayBeStreaming(String path) {
+        final PathMatcher[] paths = streamingPaths;
+        if (paths == null) {
+            return true;
+        }
+        for (PathMatcher p : paths) {
+            if (p.match(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public List<Scheduler> schedulers() {
         return this.schedulers;
@@ -270,8 +354,14 @@ public class ScheduledRestlightHandler implements RestlightHandler {
     static void notFound(AsyncRequest request,
                          AsyncResponse response,
                          CompletableFuture<Void> promise) {
-        LoggerUtils.logger().warn("No mapping for request(url={}, method={})",
-                request.path(), request.method());
+        if (LoggerUtils.logger().isDebugEnabled()) {
+            LoggerUtils.logger().debug("No mapping for request(url={}, method={})",
+                    request.path(), request.method());
+        } else {
+            // avoid flooding the log by a 404 storm
+            LoggerUtils.logWarnPeriodically("No mapping for request(url={}, method={})",
+                    request.path(), request.method());
+        }
 
         HttpResponseStatus status = request.removeUncheckedAttribute(RoutePredicate.MATCH_STATUS);
         if (status == null) {
@@ -279,9 +369,7 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         }
 
         response.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
-        response.sendResult(status.code(),
-                ErrorDetail.buildErrorMsg(request.path(), StringUtils.empty(),
-                        status.reasonPhrase(), status.code()));
+        response.sendResult(status.code(), ErrorDetail.buildErrorMsg(request.path(), status));
 
         PromiseUtils.setSuccess(promise);
     }
@@ -15,10 +15,14 @@
  */
 package esa.restlight.server.schedule;
 
+import esa.commons.Checks;
 import esa.commons.concurrent.DirectExecutor;
+import esa.restlight.server.config.ConcurrencyLimitOptions;
 import esa.restlight.server.config.TimeoutOptions;
+import esa.restlight.server.util.LoggerUtils;
 
 import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 public final class Schedulers {
 
@@ -30,6 +34,10 @@ public final class Schedulers {
      * Reserved word. Please do not use it as your own {@link Scheduler#name()}
      */
     public static final String BIZ = "BIZ";
+    /**
+     * Reserved word. Please do not use it as your own {@link Scheduler#name()}
+     */
+    public static final String VIRTUAL = "VIRTUAL";
 
     private static final Scheduler IO_SCHEDULER = fromExecutor(IO, DirectExecutor.INSTANCE);
     private static final Scheduler BIZ_SCHEDULER = fromExecutor(BIZ, r -> {
@@ -80,6 +88,26 @@ public final class Schedulers {
         return new ExecutorSchedulerImpl(name, executor);
     }
 
+    /**
+     * Creates a {@link Schedulers#VIRTUAL} {@link Scheduler} which runs every task in a virtual thread, see {@link
+     * VirtualThreadExecutor}. The given {@code fallback} will be used to schedule the tasks instead if current JVM
+     * does not support virtual threads.
+     *
+     * @param maxConcurrency max count of tasks which are running concurrently
+     * @param fallback       fallback scheduler
+     *
+     * @return virtual scheduler
+     */
+    public static Scheduler virtual(int maxConcurrency, Scheduler fallback) {
+        Checks.checkNotNull(fallback, "fallback");
+        if (VirtualThreadExecutor.isSupported()) {
+            return fromExecutor(VIRTUAL, new VirtualThreadExecutor("Restlight-Virtual-", maxConcurrency));
+        }
+        LoggerUtils.logger().warn("Virtual thread is unsupported in current JVM, tasks of scheduler({}) " +
+                "will be scheduled by scheduler({})", VIRTUAL, fallback.name());
+        return new AliasScheduler(VIRTUAL, fallback);
+    }
+
     /**
      * Wraps the given {@code scheduler} by {@code timeoutOptions}.
      *
@@ -92,6 +120,10 @@ public final class Schedulers {
             TimeoutScheduler wrapped;
             if (TimeoutOptions.Type.TTFB == timeoutOptions.getType()) {
                 wrapped = new TTFBTimeoutScheduler(scheduler, timeoutOptions);
+            } else if (TimeoutOptions.Type.CODEL == timeoutOptions.getType()) {
+                wrapped = new CoDelTimeoutScheduler(scheduler, timeoutOptions);
+            } else if (TimeoutOptions.Type.EXECUTION == timeoutOptions.getType()) {
+                wrapped = new ExecutionTimeoutScheduler(scheduler, timeoutOptions);
             } else {
                 wrapped = new TimeoutScheduler(scheduler, timeoutOptions);
             }
@@ -103,6 +135,27 @@ public final class Schedulers {
         }
     }
 
+    /**
+     * Wraps the given {@code scheduler} by an adaptive concurrency limit, see {@link ConcurrencyLimitScheduler}.
+     *
+     * @param scheduler     scheduler
+     * @param options       concurrency limit options
+     * @param rejectHandler handler of the rejected requests
+     *
+     * @return scheduler
+     */
+    public static Scheduler limited(Scheduler scheduler,
+                                    ConcurrencyLimitOptions options,
+                                    BiConsumer<RequestTask, String> rejectHandler) {
+        if (options == null) {
+            return scheduler;
+        }
+        final ConcurrencyLimitScheduler limited = new ConcurrencyLimitScheduler(scheduler, options, rejectHandler);
+        return scheduler instanceof ExecutorScheduler
+                ? new ConcurrencyLimitExecutorScheduler((ExecutorScheduler) scheduler, limited)
+                : limited;
+    }
+
     static boolean isIo(Scheduler scheduler) {
         return IO.equals(scheduler.name());
     }
@@ -38,6 +38,14 @@ class TTFBTimeoutScheduler extends TimeoutScheduler {
         return System.currentTimeMillis();
     }
 
+    @Override
+    void execute(RequestTask task, long startTime, long actualCost) {
+        // the start time is the time of the first byte, so the timeMillis is a budget of the whole request which
+        // could be exposed to the handler as the deadline.
+        task.request().setAttribute(RequestDeadline.ATTRIBUTE, new RequestDeadline(startTime + timeoutMillis));
+        task.run();
+    }
+
     @Override
     void schedule0(TimeoutRequestTask task) {
         long actualCost;
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.restlight.server.ServerDeployContext;
+import esa.restlight.server.config.AutoScalingOptions;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resizes the core pool size of a {@link ThreadPoolExecutor} automatically by sampling the active count, the queue
+ * depth, the estimated waiting time of the queued tasks and the cpu usage of current process at a fixed interval.
+ * <p>
+ * The pool is enlarged by 25% once the estimated queue waiting time exceeds the target or the utilization of the
+ * threads reaches the high watermark unless the cpu is saturated, and it's shrunk by 12.5% only if the utilization
+ * stays below the low watermark without any queued task for several consecutive samples, so that the pool size would
+ * not flap between two values.
+ * <p>
+ * The waiting time is estimated by Little's law: the queue depth over the throughput of the last interval.
+ */
+public class ThreadPoolAutoScaler implements TimerTask {
+
+    /**
+     * Prefix of the key of the {@link ServerDeployContext} attribute which holds the auto scaler of a scheduler.
+     */
+    public static final String ATTRIBUTE_PREFIX = "$autoscaler.";
+
+    private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+
+    private final String name;
+    private final ThreadPoolExecutor pool;
+    private final long intervalMillis;
+    private final int minThreads;
+    private final int maxThreads;
+    private final int configuredMax;
+    private final long targetQueueWaitMillis;
+    private final int scaleUpUtilization;
+    private final int scaleDownUtilization;
+    private final int maxCpuUtilization;
+    private final int scaleDownSamples;
+    private final LongAdder scaleUps = new LongAdder();
+    private final LongAdder scaleDowns = new LongAdder();
+    private volatile Decision lastDecision;
+    private volatile boolean stopped;
+
+    /**
+     * accessed by the timer thread only
+     */
+    private long lastNanos;
+    private long lastCompleted;
+    private int lowSamples;
+
+    public ThreadPoolAutoScaler(String name, ThreadPoolExecutor pool, AutoScalingOptions options) {
+        Checks.checkNotEmptyArg(name, "name");
+        Checks.checkNotNull(pool, "pool");
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getIntervalMillis() > 0L, "intervalMillis must be over than 0");
+        Checks.checkArg(options.getScaleDownSamples() > 0, "scaleDownSamples must be over than 0");
+        Checks.checkArg(options.getScaleDownUtilization() < options.getScaleUpUtilization(),
+                "scaleDownUtilization must be less than scaleUpUtilization");
+        this.name = name;
+        this.pool = pool;
+        this.intervalMillis = options.getIntervalMillis();
+        this.minThreads = options.getMinThreads() > 0 ? options.getMinThreads() : pool.getCorePoolSize();
+        this.maxThreads = options.getMaxThreads() > 0 ? options.getMaxThreads() : pool.getMaximumPoolSize();
+        Checks.checkArg(minThreads <= maxThreads, "minThreads must not be over than maxThreads");
+        this.configuredMax = pool.getMaximumPoolSize();
+        this.targetQueueWaitMillis = options.getTargetQueueWaitMillis();
+        this.scaleUpUtilization = options.getScaleUpUtilization();
+        this.scaleDownUtilization = options.getScaleDownUtilization();
+        this.maxCpuUtilization = options.getMaxCpuUtilization();
+        this.scaleDownSamples = options.getScaleDownSamples();
+        this.lastNanos = System.nanoTime();
+        this.lastCompleted = pool.getCompletedTaskCount();
+    }
+
+    /**
+     * Gets the {@link ThreadPoolAutoScaler} of the given scheduler.
+     *
+     * @param ctx       context
+     * @param scheduler name of scheduler
+     *
+     * @return auto scaler or {@code null} if absent
+     */
+    public static ThreadPoolAutoScaler of(ServerDeployContext<?> ctx, String scheduler) {
+        final Object scaler = ctx.attribute(ATTRIBUTE_PREFIX + scheduler);
+        return scaler instanceof ThreadPoolAutoScaler ? (ThreadPoolAutoScaler) scaler : null;
+    }
+
+    /**
+     * Starts sampling and resizing at the fixed interval until {@link #stop()} is called or the pool is shutdown.
+     */
+    public void start() {
+        RequestDeadline.TIMER.newTimeout(this, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void run(Timeout timeout) {
+        if (stopped || pool.isShutdown()) {
+            return;
+        }
+        try {
+            sample(System.nanoTime(), cpuUtilization());
+        } catch (Throwable t) {
+            LoggerUtils.logger().warn("Error while auto scaling scheduler({})", name, t);
+        } finally {
+            RequestDeadline.TIMER.newTimeout(this, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    Decision sample(long now, int cpu) {
+        final long completed = pool.getCompletedTaskCount();
+        final long elapsedMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(now - lastNanos));
+        final long throughput = completed - lastCompleted;
+        lastNanos = now;
+        lastCompleted = completed;
+
+        final int core = pool.getCorePoolSize();
+        final int active = pool.getActiveCount();
+        final int queued = pool.getQueue().size();
+        final int utilization = active * 100 / core;
+        final long queueWait;
+        if (queued == 0) {
+            queueWait = 0L;
+        } else if (throughput <= 0L) {
+            // nothing completed in the whole interval
+            queueWait = elapsedMillis;
+        } else {
+            queueWait = queued * elapsedMillis / throughput;
+        }
+
+        Action action = Action.HOLD;
+        int target = core;
+        String reason;
+        if ((queueWait > targetQueueWaitMillis || utilization >= scaleUpUtilization) && core < maxThreads) {
+            lowSamples = 0;
+            if (cpu >= 0 && cpu >= maxCpuUtilization) {
+                reason = "cpu saturated";
+            } else {
+                action = Action.UP;
+                target = Math.min(maxThreads, core + Math.max(1, core >> 2));
+                reason = queueWait > targetQueueWaitMillis ? "queue wait exceeded" : "high utilization";
+            }
+        } else if (utilization < scaleDownUtilization && queued == 0 && core > minThreads) {
+            if (++lowSamples >= scaleDownSamples) {
+                lowSamples = 0;
+                action = Action.DOWN;
+                target = Math.max(minThreads, core - Math.max(1, core >> 3));
+                reason = "low utilization";
+            } else {
+                reason = "cooling down";
+            }
+        } else {
+            lowSamples = 0;
+            reason = "stable";
+        }
+
+        if (action != Action.HOLD) {
+            resize(core, target);
+            if (action == Action.UP) {
+                scaleUps.increment();
+            } else {
+                scaleDowns.increment();
+            }
+            LoggerUtils.logger().info("Resize scheduler({}) from {} to {}: {}", name, core, target, reason);
+        }
+        final Decision decision = new Decision(System.currentTimeMillis(), action, core, target, active, queued,
+                queueWait, utilization, cpu, reason);
+        lastDecision = decision;
+        return decision;
+    }
+
+    private void resize(int core, int target) {
+        if (target > core) {
+            if (target > pool.getMaximumPoolSize()) {
+                pool.setMaximumPoolSize(target);
+            }
+            pool.setCorePoolSize(target);
+        } else {
+            pool.setCorePoolSize(target);
+            // restore the max pool size which may be enlarged before
+            final int max = Math.max(target, configuredMax);
+            if (pool.getMaximumPoolSize() > max) {
+                pool.setMaximumPoolSize(max);
+            }
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int minThreads() {
+        return minThreads;
+    }
+
+    public int maxThreads() {
+        return maxThreads;
+    }
+
+    public long scaleUpCount() {
+        return scaleUps.sum();
+    }
+
+    public long scaleDownCount() {
+        return scaleDowns.sum();
+    }
+
+    /**
+     * Gets the last decision.
+     *
+     * @return decision or {@code null} if there's no sample yet
+     */
+    public Decision lastDecision() {
+        return lastDecision;
+    }
+
+    /**
+     * Gets the cpu usage of current process in percentage.
+     *
+     * @return usage or {@code -1} if unavailable
+     */
+    private static int cpuUtilization() {
+        double load = -1D;
+        if (OS instanceof com.sun.management.OperatingSystemMXBean) {
+            load = ((com.sun.management.OperatingSystemMXBean) OS).getProcessCpuLoad();
+        }
+        if (load < 0D) {
+            final double average = OS.getSystemLoadAverage();
+            if (average >= 0D) {
+                load = Math.min(1D, average / OS.getAvailableProcessors());
+            }
+        }
+        return load < 0D ? -1 : (int) (load * 100D);
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadPoolAutoScaler{name='" + name + "', minThreads=" + minThreads
+                + ", maxThreads=" + maxThreads + ", lastDecision=" + lastDecision + '}';
+    }
+
+    public enum Action {
+        UP,
+        DOWN,
+        HOLD
+    }
+
+    public static final class Decision {
+
+        private final long timestamp;
+        private final Action action;
+        private final int from;
+        private final int to;
+        private final int activeCount;
+        private final int queueSize;
+        private final long queueWaitMillis;
+        private final int utilization;
+        private final int cpuUtilization;
+        private final String reason;
+
+        Decision(long timestamp,
+                 Action action,
+                 int from,
+                 int to,
+                 int activeCount,
+                 int queueSize,
+                 long queueWaitMillis,
+                 int utilization,
+                 int cpuUtilization,
+                 String reason) {
+            this.timestamp = timestamp;
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.activeCount = activeCount;
+            this.queueSize = queueSize;
+            this.queueWaitMillis = queueWaitMillis;
+            this.utilization = utilization;
+            this.cpuUtilization = cpuUtilization;
+            this.reason = reason;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public long getQueueWaitMillis() {
+            return queueWaitMillis;
+        }
+
+        /**
+         * Percentage of the active threads over the core pool size.
+         *
+         * @return utilization
+         */
+        public int getUtilization() {
+            return utilization;
+        }
+
+        /**
+         * Cpu usage of current process in percentage, {@code -1} if unavailable.
+         *
+         * @return usage
+         */
+        public int getCpuUtilization() {
+            return cpuUtilization;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Decision{action=" + action + ", from=" + from + ", to=" + to
+                    + ", activeCount=" + activeCount + ", queueSize=" + queueSize
+                    + ", queueWaitMillis=" + queueWaitMillis + ", utilization=" + utilization
+                    + ", cpuUtilization=" + cpuUtilization + ", reason='" + reason + "'}";
+        }
+    }
+}
@@ -32,7 +32,7 @@ import java.util.concurrent.CompletableFuture;
 class TimeoutScheduler implements Scheduler {
 
     private final Scheduler scheduler;
-    private final long timeoutMillis;
+    final long timeoutMillis;
 
     TimeoutScheduler(Scheduler scheduler, TimeoutOptions timeoutOptions) {
         Checks.checkNotNull(scheduler, "scheduler");
@@ -44,7 +44,7 @@ class TimeoutScheduler implements Scheduler {
     @Override
     public void schedule(Runnable command) {
         if (command instanceof RequestTask) {
-            schedule0(new TimeoutRequestTask(((RequestTask) command), name(),
+            schedule0(new TimeoutRequestTask(((RequestTask) command), this,
                     getStartTime((RequestTask) command), timeoutMillis));
         } else {
             scheduler.schedule(command);
@@ -91,16 +91,42 @@ class TimeoutScheduler implements Scheduler {
         scheduler.schedule(task);
     }
 
+    /**
+     * Whether the task should be failed fast instead of being executed.
+     *
+     * @param actualCost time(in millis) from the start time to the time of execution.
+     *
+     * @return {@code true} if task should be failed fast
+     */
+    boolean shouldFailFast(long actualCost) {
+        return actualCost >= timeoutMillis;
+    }
+
+    /**
+     * Executes the given task which has not been timed out before execution.
+     *
+     * @param task       task
+     * @param startTime  start time of the task
+     * @param actualCost time(in millis) from the start time to the time of execution.
+     */
+    void execute(RequestTask task, long startTime, long actualCost) {
+        // the timeMillis is the maximum time of queueing rather than a deadline of the whole request, so there's no
+        // deadline to expose here.
+        task.run();
+    }
+
     static final class TimeoutRequestTask implements RequestTask {
 
         final long startTime;
         final String schedulerName;
         final long timeout;
         private final RequestTask delegate;
+        private final TimeoutScheduler scheduler;
 
-        private TimeoutRequestTask(RequestTask delegate, String schedulerName, long startTime, long timeout) {
+        private TimeoutRequestTask(RequestTask delegate, TimeoutScheduler scheduler, long startTime, long timeout) {
             this.delegate = delegate;
-            this.schedulerName = schedulerName;
+            this.scheduler = scheduler;
+            this.schedulerName = scheduler.name();
             this.startTime = startTime;
             this.timeout = timeout;
         }
@@ -120,11 +146,16 @@ class TimeoutScheduler implements Scheduler {
             return delegate.promise();
         }
 
+        @Override
+        public int priority() {
+            return delegate.priority();
+        }
+
         @Override
         public void run() {
             long actualCost;
-            if ((actualCost = System.currentTimeMillis() - startTime) < timeout) {
-                delegate.run();
+            if (!scheduler.shouldFailFast(actualCost = System.currentTimeMillis() - startTime)) {
+                scheduler.execute(delegate, startTime, actualCost);
             } else {
                 failFast();
                 LoggerUtils.logger().warn("Request(url = {}, method={}) has been rejected before execution: " +
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.restlight.server.util.LoggerUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} which runs every task in a new virtual thread, and the count of
+ * tasks that are running concurrently is limited by the given max concurrency, tasks over than that would be
+ * rejected.
+ * <p>
+ * Virtual threads are created by reflection, because they are only available since JDK 21(or JDK 19 with preview
+ * features enabled), use {@link #isSupported()} to check whether current JVM supports them.
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            // throws UnsupportedOperationException if preview features are not enabled in JDK 19 and 20
+            ofVirtual.invoke(null);
+        } catch (Throwable t) {
+            LoggerUtils.logger().debug("Virtual thread is unsupported in current JVM", t);
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private final int maxConcurrency;
+    private final ThreadFactory threadFactory;
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean shutdown;
+    private volatile Consumer<Runnable> rejectedHandler;
+
+    public VirtualThreadExecutor(String namePrefix, int maxConcurrency) {
+        Checks.checkNotEmptyArg(namePrefix, "namePrefix");
+        Checks.checkArg(maxConcurrency > 0, "maxConcurrency must be over than 0");
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual thread is unsupported in current JVM");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.threadFactory = newFactory(namePrefix);
+    }
+
+    /**
+     * Whether current JVM supports the virtual threads.
+     *
+     * @return {@code true} if supported
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Checks.checkNotNull(command, "command");
+        if (shutdown || !tryAcquire()) {
+            reject(command);
+            return;
+        }
+        try {
+            threadFactory.newThread(() -> {
+                try {
+                    command.run();
+                } finally {
+                    completed.increment();
+                    release();
+                }
+            }).start();
+        } catch (Throwable e) {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the handler which will be called when the task is rejected because of the shutdown or the max concurrency,
+     * a {@link RejectedExecutionException} would be thrown if there's no handler.
+     *
+     * @param rejectedHandler handler
+     */
+    public void setRejectedHandler(Consumer<Runnable> rejectedHandler) {
+        this.rejectedHandler = rejectedHandler;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Gets the count of the virtual threads which are running(mounted or parked) tasks.
+     *
+     * @return count
+     */
+    public int getActiveCount() {
+        return running.get();
+    }
+
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        tryTerminate();
+    }
+
+    /**
+     * Running virtual threads would not be interrupted, and there's no queued tasks to be returned.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0L;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadExecutor{maxConcurrency=" + maxConcurrency
+                + ", active=" + running.get()
+                + ", completed=" + completed.sum()
+                + ", rejected=" + rejected.sum()
+                + ", shutdown=" + shutdown + '}';
+    }
+
+    private boolean tryAcquire() {
+        for (; ; ) {
+            final int r = running.get();
+            if (r >= maxConcurrency) {
+                return false;
+            }
+            if (running.compareAndSet(r, r + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        if (running.decrementAndGet() == 0) {
+            tryTerminate();
+        }
+    }
+
+    private void tryTerminate() {
+        if (shutdown && running.get() == 0) {
+            terminated.countDown();
+        }
+    }
+
+    private void reject(Runnable command) {
+        rejected.increment();
+        final Consumer<Runnable> handler = rejectedHandler;
+        if (handler == null) {
+            throw new RejectedExecutionException(shutdown
+                    ? "Executor has been shutdown"
+                    : "Max concurrency(" + maxConcurrency + ") exceeded");
+        }
+        handler.accept(command);
+    }
+
+    private static ThreadFactory newFactory(String namePrefix) {
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = NAME.invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create factory of virtual thread", e);
+        }
+    }
+}
@@ -26,6 +26,25 @@ import java.nio.charset.StandardCharsets;
 
 public class ErrorDetail<T> {
 
+    private static final byte[] PATH_PREFIX = "{\"path\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TIME_PREFIX = "\",\"message\":\"\",\"time\":\"".getBytes(StandardCharsets.UTF_8);
+    /**
+     * pre-encoded tails of the statuses which are responded if there's no route matched.
+     */
+    private static final HttpResponseStatus[] ROUTING_STATUSES = {
+            HttpResponseStatus.NOT_FOUND,
+            HttpResponseStatus.METHOD_NOT_ALLOWED,
+            HttpResponseStatus.NOT_ACCEPTABLE,
+            HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE
+    };
+    private static final byte[][] ROUTING_TAILS = new byte[ROUTING_STATUSES.length][];
+
+    static {
+        for (int i = 0; i < ROUTING_STATUSES.length; i++) {
+            ROUTING_TAILS[i] = tail(ROUTING_STATUSES[i]);
+        }
+    }
+
     private final String path;
     private final T message;
     private final long time;
@@ -49,6 +68,47 @@ public class ErrorDetail<T> {
         return new ErrorDetail<>(path, message, error, status).toBytes();
     }
 
+    /**
+     * Builds the error message with an empty message which is same as {@link #buildErrorMsg(String, String, String,
+     * int)}, but the constant parts of the statuses which are responded when routing failed(404, 405, 406, 415) are
+     * pre-encoded, so that it could be built without any intermediate {@link String}.
+     *
+     * @param path   path of request
+     * @param status status
+     *
+     * @return error message
+     */
+    public static byte[] buildErrorMsg(String path, HttpResponseStatus status) {
+        byte[] tail = null;
+        for (int i = 0; i < ROUTING_STATUSES.length; i++) {
+            if (ROUTING_STATUSES[i].code() == status.code()) {
+                tail = ROUTING_TAILS[i];
+                break;
+            }
+        }
+        if (tail == null) {
+            return buildErrorMsg(path, StringUtils.empty(), status.reasonPhrase(), status.code());
+        }
+        final byte[] p = isAscii(path) ? null : path.getBytes(StandardCharsets.UTF_8);
+        final String time = DateUtils.formatByCache(System.currentTimeMillis());
+        final int pathLen = p == null ? path.length() : p.length;
+        final byte[] bytes = new byte[PATH_PREFIX.length + pathLen + TIME_PREFIX.length + time.length() + tail.length];
+        int i = 0;
+        System.arraycopy(PATH_PREFIX, 0, bytes, i, PATH_PREFIX.length);
+        i += PATH_PREFIX.length;
+        if (p == null) {
+            i = writeAscii(path, bytes, i);
+        } else {
+            System.arraycopy(p, 0, bytes, i, p.length);
+            i += p.length;
+        }
+        System.arraycopy(TIME_PREFIX, 0, bytes, i, TIME_PREFIX.length);
+        i += TIME_PREFIX.length;
+        i = writeAscii(time, bytes, i);
+        System.arraycopy(tail, 0, bytes, i, tail.length);
+        return bytes;
+    }
+
     public String getPath() {
         return path;
     }
@@ -85,6 +145,27 @@ public class ErrorDetail<T> {
         return this.toString().getBytes(StandardCharsets.UTF_8);
     }
 
+    private static byte[] tail(HttpResponseStatus status) {
+        return ("\",\"error\":\"" + status.reasonPhrase() + "\",\"status\":" + status.code() + '}')
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int writeAscii(String s, byte[] dst, int offset) {
+        for (int i = 0; i < s.length(); i++) {
+            dst[offset++] = (byte) s.charAt(i);
+        }
+        return offset;
+    }
+
     public static void sendErrorResult(AsyncRequest request,
                                        AsyncResponse response,
                                        Throwable ex,
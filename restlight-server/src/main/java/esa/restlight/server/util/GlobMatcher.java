@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Matcher of a path segment which only consists of literals, {@code ?}, {@code *} and template variables without any
+ * regex such as {@code {foo}}, it is used to replace the {@link java.util.regex.Pattern} in {@link PathMatcher}.
+ * <p>
+ * The pattern is compiled to an array of chars, and the target is matched from the end to the beginning by the
+ * classic two pointers algorithm which never allocates while matching, and every {@code *} (and template variable)
+ * would match as few chars as possible. It results in the same matches as the greedy quantifiers of the regex, eg:
+ * {@code {foo}-{bar}} matches {@code a-b-c} with {@code foo=a-b} and {@code bar=c}.
+ * <p>
+ * Note that the wildcards do not match the line terminators which is same as the regex without {@link
+ * java.util.regex.Pattern#DOTALL}.
+ */
+final class GlobMatcher implements BiPredicate<String, Map<String, String>> {
+
+    private static final char LITERAL = 0;
+    private static final char ANY_CHAR = 1;
+    private static final char ANY_CHARS = 2;
+
+    private final char[] chars;
+    private final char[] kinds;
+    /**
+     * names of the {@link #ANY_CHARS}, {@code null} if it is a '*'
+     */
+    private final String[] names;
+    private final boolean hasVariable;
+    private final boolean caseSensitive;
+
+    private GlobMatcher(char[] chars, char[] kinds, String[] names, boolean caseSensitive) {
+        this.chars = chars;
+        this.kinds = kinds;
+        this.names = names;
+        boolean hasVariable = false;
+        for (String name : names) {
+            if (name != null) {
+                hasVariable = true;
+                break;
+            }
+        }
+        this.hasVariable = hasVariable;
+        this.caseSensitive = caseSensitive;
+    }
+
+    @Override
+    public boolean test(String target, Map<String, String> uriTemplateVariables) {
+        if (uriTemplateVariables == null || !hasVariable) {
+            return match(target, null);
+        }
+        final int[] ranges = new int[names.length << 1];
+        if (match(target, ranges)) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null) {
+                    uriTemplateVariables.put(names[i], target.substring(ranges[i << 1], ranges[(i << 1) + 1]));
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Matches the given target and records the range of each {@link #ANY_CHARS} if necessary.
+     */
+    private boolean match(String target, int[] ranges) {
+        int i = target.length() - 1;
+        int j = chars.length - 1;
+        // ordinal of the ANY_CHARS which is counted from the end
+        int star = names.length;
+        int starJ = -1;
+        int mark = -1;
+        while (i >= 0) {
+            if (j >= 0 && kinds[j] != ANY_CHARS && matches(j, target.charAt(i))) {
+                i--;
+                j--;
+            } else if (j >= 0 && kinds[j] == ANY_CHARS) {
+                if (ranges != null) {
+                    if (starJ >= 0) {
+                        ranges[star << 1] = mark + 1;
+                    }
+                    ranges[((star - 1) << 1) + 1] = i + 1;
+                }
+                star--;
+                starJ = j;
+                mark = i;
+                j--;
+            } else if (starJ >= 0 && !isLineTerminator(target.charAt(mark))) {
+                // let the last '*' match one more char
+                mark--;
+                i = mark;
+                j = starJ - 1;
+            } else {
+                return false;
+            }
+        }
+        if (ranges != null && starJ >= 0) {
+            ranges[star << 1] = mark + 1;
+        }
+        while (j >= 0 && kinds[j] == ANY_CHARS) {
+            star--;
+            if (ranges != null) {
+                ranges[star << 1] = 0;
+                ranges[(star << 1) + 1] = 0;
+            }
+            j--;
+        }
+        return j < 0;
+    }
+
+    private boolean matches(int j, char c) {
+        if (kinds[j] == ANY_CHAR) {
+            return !isLineTerminator(c);
+        }
+        final char p = chars[j];
+        if (p == c) {
+            return true;
+        }
+        if (caseSensitive) {
+            return false;
+        }
+        // same as String#equalsIgnoreCase()
+        final char u1 = Character.toUpperCase(p);
+        final char u2 = Character.toUpperCase(c);
+        return u1 == u2 || Character.toLowerCase(u1) == Character.toLowerCase(u2);
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    static final class Builder {
+
+        private final StringBuilder chars = new StringBuilder();
+        private final StringBuilder kinds = new StringBuilder();
+        private final List<String> names = new ArrayList<>();
+
+        Builder literal(String literal) {
+            chars.append(literal);
+            for (int i = 0; i < literal.length(); i++) {
+                kinds.append(LITERAL);
+            }
+            return this;
+        }
+
+        Builder anyChar() {
+            chars.append('?');
+            kinds.append(ANY_CHAR);
+            return this;
+        }
+
+        Builder anyChars() {
+            return variable(null);
+        }
+
+        Builder variable(String name) {
+            chars.append('*');
+            kinds.append(ANY_CHARS);
+            names.add(name);
+            return this;
+        }
+
+        GlobMatcher build(boolean caseSensitive) {
+            final char[] cs = new char[chars.length()];
+            chars.getChars(0, cs.length, cs, 0);
+            final char[] ks = new char[kinds.length()];
+            kinds.getChars(0, ks.length, ks, 0);
+            return new GlobMatcher(cs, ks, names.toArray(new String[0]), caseSensitive);
+        }
+    }
+}
@@ -30,21 +30,28 @@ public final class LoggerUtils {
 
 
     private final AtomicLong lastLogTime = new AtomicLong(0L);
+    private final AtomicLong lastWarnTime = new AtomicLong(0L);
 
     public static Logger logger() {
         return logger;
     }
 
     public static void logErrorPeriodically(String message, Object... objects) {
-        if (canLogNow()) {
+        if (canLogNow(INSTANCE.lastLogTime)) {
             logger.error(message, objects);
         }
     }
 
-    private static boolean canLogNow() {
+    public static void logWarnPeriodically(String message, Object... objects) {
+        if (canLogNow(INSTANCE.lastWarnTime)) {
+            logger.warn(message, objects);
+        }
+    }
+
+    private static boolean canLogNow(AtomicLong lastLogTime) {
         long timestamp = System.nanoTime();
-        if (timestamp - INSTANCE.lastLogTime.get() > LOG_PERIOD) {
-            INSTANCE.lastLogTime.lazySet(timestamp);
+        if (timestamp - lastLogTime.get() > LOG_PERIOD) {
+            lastLogTime.lazySet(timestamp);
             return true;
         }
         return false;
@@ -23,6 +23,7 @@ import esa.restlight.server.route.impl.MappingImpl;
 import esa.restlight.server.route.predicate.ConsumesPredicate;
 import esa.restlight.server.route.predicate.HeadersPredicate;
 import esa.restlight.server.route.predicate.ProducesPredicate;
+import esa.restlight.server.schedule.RequestTask;
 import io.netty.handler.codec.http.HttpHeaderNames;
 
 import java.util.Arrays;
@@ -50,7 +51,10 @@ public class MappingUtils {
                 .name(StringUtils.nonEmptyOrElse(child.name(), parent.name()))
                 .path(combinePaths(parent.path(), child.path()))
                 .method(removeDuplicate(parent.method(), child.method(), new HttpMethod[0]))
-                .params(removeDuplicateString(parent.params(), child.params()));
+                .params(removeDuplicateString(parent.params(), child.params()))
+                // priority of child mapping takes precedence over the parent if it has been specified.
+                .priority(child.priority() != RequestTask.NORM_PRIORITY ? child.priority() : parent.priority())
+                .streaming(child.streaming() || parent.streaming());
 
         String[] parentHeaders = parent.headers();
         if (parseConsumeExpressions(child.consumes(), child.headers()).isEmpty()) {
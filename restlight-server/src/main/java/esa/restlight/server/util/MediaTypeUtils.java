@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.util.MediaType;
+import io.netty.handler.codec.http.HttpHeaderNames;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Utils to get the parsed media types of the 'Accept' and 'Content-Type' headers of a request.
+ * <p>
+ * Parsed values of the 'Accept' header are cached by the raw header string(there's usually only a few distinct values
+ * in practice). The cache is bounded and organized as a set-associative table, every set of which is evicted by a
+ * CLOCK(second chance) policy without any lock, so that the frequently used values would not be squeezed out by the
+ * random ones. And the parsed results are memoized in the attributes of the request so that they would be shared by
+ * the routing and the content negotiation.
+ */
+public final class MediaTypeUtils {
+
+    private static final String ACCEPTED_MEDIA_TYPES = "$acpt.mts";
+    private static final String CONTENT_TYPE = "$cnt.mt";
+    /**
+     * max size of the cache, must be a power of two.
+     */
+    static final int MAX_CACHE_SIZE = 256;
+    private static final int WAYS = 4;
+    private static final AtomicReferenceArray<Entry> CACHE = new AtomicReferenceArray<>(MAX_CACHE_SIZE);
+
+    /**
+     * Gets the parsed media types of the 'Accept' header in the original order.
+     *
+     * @param request request
+     *
+     * @return unmodifiable media types, or an empty list if the 'Accept' header is absent.
+     */
+    public static List<MediaType> getAcceptedMediaTypes(AsyncRequest request) {
+        List<MediaType> mediaTypes = request.getUncheckedAttribute(ACCEPTED_MEDIA_TYPES);
+        if (mediaTypes == null) {
+            mediaTypes = parseMediaTypes(request.getHeader(HttpHeaderNames.ACCEPT));
+            request.setAttribute(ACCEPTED_MEDIA_TYPES, mediaTypes);
+        }
+        return mediaTypes;
+    }
+
+    /**
+     * Gets the parsed media type of the 'Content-Type' header.
+     *
+     * @param request request
+     *
+     * @return media type, or {@link MediaType#APPLICATION_OCTET_STREAM} if the 'Content-Type' header is absent.
+     */
+    public static MediaType getContentType(AsyncRequest request) {
+        MediaType contentType = request.getUncheckedAttribute(CONTENT_TYPE);
+        if (contentType == null) {
+            final String value = request.getHeader(HttpHeaderNames.CONTENT_TYPE);
+            contentType = StringUtils.isEmpty(value)
+                    ? MediaType.APPLICATION_OCTET_STREAM
+                    : MediaType.valueOf(value);
+            request.setAttribute(CONTENT_TYPE, contentType);
+        }
+        return contentType;
+    }
+
+    /**
+     * Parses the given media types string which is separated by ',', such as 'application/json,text/plain'.
+     *
+     * @param mediaTypes media types string
+     *
+     * @return unmodifiable media types
+     */
+    public static List<MediaType> parseMediaTypes(String mediaTypes) {
+        if (StringUtils.isEmpty(mediaTypes)) {
+            return Collections.emptyList();
+        }
+        final int hash = hash(mediaTypes);
+        final int base = hash & (MAX_CACHE_SIZE - 1) & ~(WAYS - 1);
+        for (int i = 0; i < WAYS; i++) {
+            final Entry e = CACHE.get(base + i);
+            if (e != null && e.value.equals(mediaTypes)) {
+                e.referenced = true;
+                return e.parsed;
+            }
+        }
+        final List<MediaType> parsed = Collections.unmodifiableList(MediaType.valuesOf(mediaTypes));
+        put(base, hash, new Entry(mediaTypes, parsed));
+        return parsed;
+    }
+
+    private static void put(int base, int hash, Entry entry) {
+        for (int i = 0; i < WAYS; i++) {
+            final int idx = base + i;
+            final Entry e = CACHE.get(idx);
+            if (e == null) {
+                if (CACHE.compareAndSet(idx, null, entry)) {
+                    return;
+                }
+            } else if (!e.referenced) {
+                // it does not matter if we lost the race.
+                CACHE.compareAndSet(idx, e, entry);
+                return;
+            } else {
+                // give a second chance
+                e.referenced = false;
+            }
+        }
+        // all entries have been referenced recently
+        CACHE.lazySet(base + ((hash >>> 16) & (WAYS - 1)), entry);
+    }
+
+    private static int hash(String value) {
+        final int h = value.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private MediaTypeUtils() {
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final List<MediaType> parsed;
+        /**
+         * Reference bit of CLOCK, races on this field are benign.
+         */
+        private boolean referenced;
+
+        private Entry(String value, List<MediaType> parsed) {
+            this.value = value;
+            this.parsed = parsed;
+        }
+    }
+}
@@ -18,10 +18,15 @@ package esa.restlight.server.util;
 import esa.commons.StringUtils;
 import io.netty.util.concurrent.FastThreadLocal;
 
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
@@ -58,6 +63,18 @@ public class PathMatcher {
         }
     };
 
+    /**
+     * Slots of the template variables which are reused by the matching of current thread, so that nothing would be
+     * allocated if the path does not match, which is the common case when the patterns are tried one by one.
+     */
+    private static final FastThreadLocal<ExtractingVariables> EXTRACTING =
+            new FastThreadLocal<ExtractingVariables>() {
+                @Override
+                protected ExtractingVariables initialValue() {
+                    return new ExtractingVariables();
+                }
+            };
+
     private static final Map<String, PathMatcher> CACHE = new ConcurrentHashMap<>(64);
 
     private final String pattern;
@@ -66,23 +83,52 @@ public class PathMatcher {
     private final boolean caseSensitive;
     private final boolean isPattern;
     private final boolean isTemplateVarPattern;
+    private final String[] variableNames;
+    private final PathVariables emptyVariables;
 
     public PathMatcher(String pattern) {
         this(pattern, true);
     }
 
     public PathMatcher(String pattern, boolean caseSensitive) {
+        this(pattern, caseSensitive, false);
+    }
+
+    /**
+     * Creates a {@link PathMatcher}.
+     *
+     * @param pattern       pattern
+     * @param caseSensitive case sensitive
+     * @param useRegex      whether to match the {@code ?}, {@code *} and template variables by {@link Pattern}
+     *                      instead of {@link GlobMatcher}, note that {@link Pattern} is always used for the template
+     *                      variables with regex, such as {@code {foo:\d+}}.
+     */
+    public PathMatcher(String pattern, boolean caseSensitive, boolean useRegex) {
         this.pattern = pattern;
         this.caseSensitive = caseSensitive;
-        this.patternDirs = getPatternDirs(pattern, caseSensitive);
+        this.patternDirs = getPatternDirs(pattern, caseSensitive, useRegex);
         this.isStartWithSeparator = pattern.startsWith(SEPARATOR);
         this.isPattern = isPattern(pattern);
         this.isTemplateVarPattern = isTemplateVarPattern(pattern);
+        this.variableNames = getVariableNames(patternDirs);
+        this.emptyVariables = variableNames.length == 0 ? new PathVariables(variableNames) : null;
+    }
+
+    private static String[] getVariableNames(PatternDir[] patternDirs) {
+        final Set<String> names = new LinkedHashSet<>();
+        for (PatternDir dir : patternDirs) {
+            Collections.addAll(names, dir.matcher.variableNames);
+        }
+        return names.toArray(new String[0]);
     }
 
     private static PatternDir[] getPatternDirs(String pattern, boolean caseSensitive) {
+        return getPatternDirs(pattern, caseSensitive, false);
+    }
+
+    private static PatternDir[] getPatternDirs(String pattern, boolean caseSensitive, boolean useRegex) {
         return toDirs(pattern).stream()
-                .map(p -> new PatternDir(p, caseSensitive))
+                .map(p -> new PatternDir(p, caseSensitive, useRegex))
                 .toArray(PatternDir[]::new);
     }
 
@@ -463,6 +509,34 @@ public class PathMatcher {
         }
     }
 
+    /**
+     * Matches the given path against the given {@link #pattern}, and extracts the template variables into a {@link
+     * PathVariables} whose slot indexes are determined when current {@link PathMatcher} is created.
+     * <p>
+     * The variables are extracted into the thread local slots first, and they will be copied only if the given path
+     * matched, because the returned variables may be held by the request after current matching.
+     *
+     * @param path the path String to test
+     * @return a not {@code null} {@link PathVariables} if the given path matched, otherwise {@code null}.
+     */
+    public PathVariables matchAndExtractPathVariables(String path) {
+        if (emptyVariables != null) {
+            // immutable since there's no slot to put
+            return doMatch(path, true, null) ? emptyVariables : null;
+        }
+        if (variableNames.length > MAX_TL_ARRAY_LEN) {
+            final PathVariables variables = new PathVariables(variableNames);
+            return doMatch(path, true, variables) ? variables : null;
+        }
+        final ExtractingVariables extracting = EXTRACTING.get();
+        extracting.reset(variableNames);
+        if (doMatch(path, true, extracting)) {
+            return new PathVariables(variableNames, Arrays.copyOf(extracting.values, variableNames.length));
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Matches the given path against the given {@link #pattern}.
      *
@@ -682,15 +756,46 @@ public class PathMatcher {
                 : new String[minLength];
     }
 
+    /**
+     * Reusable slots of template variables which only supports {@link #put(String, String)}.
+     */
+    private static final class ExtractingVariables extends AbstractMap<String, String> {
+
+        private final String[] values = new String[MAX_TL_ARRAY_LEN];
+        private String[] names;
+
+        private void reset(String[] names) {
+            this.names = names;
+            Arrays.fill(values, 0, names.length, null);
+        }
+
+        @Override
+        public String put(String key, String value) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] == key || names[i].equals(key)) {
+                    final String pre = values[i];
+                    values[i] = value;
+                    return pre;
+                }
+            }
+            throw new IllegalArgumentException("Undefined template variable '" + key + "'");
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private static class PatternDir {
         private final String dir;
         private final Matcher matcher;
         private final boolean isDoubleWildcards;
         private final boolean isSingleWildcard;
 
-        PatternDir(String dir, boolean caseSensitive) {
+        PatternDir(String dir, boolean caseSensitive, boolean useRegex) {
             this.dir = dir;
-            this.matcher = new Matcher(dir, caseSensitive);
+            this.matcher = new Matcher(dir, caseSensitive, useRegex);
             this.isDoubleWildcards = "**".equals(dir);
             this.isSingleWildcard = "*".equals(dir);
         }
@@ -701,9 +806,16 @@ public class PathMatcher {
         private static final Pattern GLOB_PATTERN =
                 Pattern.compile("\\?|\\*|\\{((?:\\{[^/]+?}|[^/{}]|\\\\[{}])+?)}");
         private final BiPredicate<String, Map<String, String>> matcher;
+        private final String[] variableNames;
 
         Matcher(String pattern, boolean caseSensitive) {
-            this.matcher = toMatcher(pattern, caseSensitive);
+            this(pattern, caseSensitive, false);
+        }
+
+        Matcher(String pattern, boolean caseSensitive, boolean useRegex) {
+            final List<String> variableNames = new LinkedList<>();
+            this.matcher = toMatcher(pattern, caseSensitive, useRegex, variableNames);
+            this.variableNames = variableNames.toArray(new String[0]);
         }
 
         boolean matchStrings(String str) {
@@ -714,28 +826,38 @@ public class PathMatcher {
             return matcher.test(str, uriTemplateVariables);
         }
 
-        private static BiPredicate<String, Map<String, String>> toMatcher(String patternStr, boolean caseSensitive) {
+        private static BiPredicate<String, Map<String, String>> toMatcher(String patternStr,
+                                                                         boolean caseSensitive,
+                                                                         boolean useRegex,
+                                                                         List<String> variableNames) {
             final StringBuilder patternBuilder = new StringBuilder();
             final java.util.regex.Matcher matcher = GLOB_PATTERN.matcher(patternStr);
-            final List<String> variableNames = new LinkedList<>();
+            // regex is only necessary for the template variables with regex such as '{foo:\d+}'
+            final GlobMatcher.Builder glob = new GlobMatcher.Builder();
+            boolean hasRegexVar = false;
             boolean isPathVarOnly = false;
             int start = 0;
             int end = 0;
             while (matcher.find()) {
                 isPathVarOnly = false;
                 patternBuilder.append(quote(patternStr, end, start = matcher.start()));
+                glob.literal(patternStr.substring(end, start));
                 String match = matcher.group();
                 if ("?".equals(match)) {
                     patternBuilder.append('.');
+                    glob.anyChar();
                 } else if ("*".equals(match)) {
                     patternBuilder.append(".*");
+                    glob.anyChars();
                 } else if (match.startsWith("{") && match.endsWith("}")) {
                     int colonIdx = match.indexOf(':');
                     if (colonIdx == -1) {
                         patternBuilder.append("(.*)");
                         variableNames.add(matcher.group(1));
+                        glob.variable(matcher.group(1));
                         isPathVarOnly = true;
                     } else {
+                        hasRegexVar = true;
                         String variablePattern = match.substring(colonIdx + 1, match.length() - 1);
                         patternBuilder.append('(');
                         patternBuilder.append(variablePattern);
@@ -832,6 +954,9 @@ public class PathMatcher {
                         return false;
                     };
                 }
+            } else if (!useRegex && !hasRegexVar) {
+                glob.literal(patternStr.substring(end));
+                return glob.build(caseSensitive);
             } else {
                 patternBuilder.append(quote(patternStr, end, patternStr.length()));
                 final Pattern pattern = (caseSensitive ? Pattern.compile(patternBuilder.toString()) :
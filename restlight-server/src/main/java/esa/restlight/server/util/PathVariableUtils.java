@@ -38,6 +38,10 @@ public final class PathVariableUtils {
         return variables.get(name);
     }
 
+    public static String getPathVariable(AsyncRequest request, PathVariables.Slot slot) {
+        return slot.get(getPathVariables(request));
+    }
+
     public static Map<String, String> getPathVariables(AsyncRequest request) {
         return request.getUncheckedAttribute(PatternsPredicate.TEMPLATE_VARIABLES);
     }
@@ -46,7 +50,14 @@ public final class PathVariableUtils {
         Map<String, MultiValueMap<String, String>> matrixVars =
                 request.getUncheckedAttribute(MATRIX_VARIABLES_ATTRIBUTE);
         if (matrixVars == null) {
-            matrixVars = extractMatrixVariables(getPathVariables(request));
+            Map<String, String> uriVariables = getPathVariables(request);
+            if (uriVariables != null && !uriVariables.isEmpty()) {
+                // uri variables may be modified while extracting and the original one may be shared with other
+                // requests(see MatchCachedRouteRegistry), so we should use a copy of it.
+                uriVariables = new LinkedHashMap<>(uriVariables);
+                request.setAttribute(PatternsPredicate.TEMPLATE_VARIABLES, uriVariables);
+            }
+            matrixVars = extractMatrixVariables(uriVariables);
             request.setAttribute(MATRIX_VARIABLES_ATTRIBUTE, matrixVars);
         }
 
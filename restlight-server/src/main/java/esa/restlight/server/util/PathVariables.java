@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import esa.commons.Checks;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Template variables extracted by {@link PathMatcher#matchAndExtractPathVariables(String)}.
+ * <p>
+ * Every template variable in the pattern is given a fixed slot index when the {@link PathMatcher} is created, and the
+ * matched values are written into a {@link String} array by the slot index directly instead of a {@link
+ * java.util.HashMap}, which would reduce the allocations of the map and its entries. Values could be got by the slot
+ * index through {@link Slot} which is supposed to be created once and reused.
+ * <p>
+ * Note that only the names which are defined in pattern are allowed to be put into current map.
+ */
+public final class PathVariables extends AbstractMap<String, String> {
+
+    private final String[] names;
+    private final String[] values;
+
+    PathVariables(String[] names) {
+        this(names, new String[names.length]);
+    }
+
+    PathVariables(String[] names, String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Gets the slot index of given name.
+     *
+     * @param name name
+     *
+     * @return index, or {@code -1} if the given name is not defined
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] == name) {
+                return i;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the value by the slot index.
+     *
+     * @param index index
+     *
+     * @return value
+     */
+    public String get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final int idx = indexOf((String) key);
+        return idx < 0 ? null : values[idx];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        final int idx = indexOf(key);
+        if (idx < 0) {
+            throw new IllegalArgumentException("Undefined template variable '" + key + "'");
+        }
+        final String pre = values[idx];
+        values[idx] = value;
+        return pre;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (String value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Itr();
+            }
+
+            @Override
+            public int size() {
+                return PathVariables.this.size();
+            }
+        };
+    }
+
+    private final class Itr implements Iterator<Entry<String, String>> {
+
+        private int next = advance(0);
+
+        private int advance(int from) {
+            while (from < values.length && values[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final int i = next;
+            next = advance(i + 1);
+            return new SimpleImmutableEntry<>(names[i], values[i]);
+        }
+    }
+
+    /**
+     * Resolves the value of a template variable by the slot index, the index will be computed once and reused as long
+     * as the variables are extracted from the same pattern.
+     */
+    public static final class Slot {
+
+        private final String name;
+        private Index index;
+
+        public Slot(String name) {
+            Checks.checkNotNull(name, "name");
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Gets the value of current variable from the given variables.
+         *
+         * @param variables variables
+         *
+         * @return value
+         */
+        public String get(Map<String, String> variables) {
+            if (variables == null || variables.isEmpty()) {
+                return null;
+            }
+            if (variables instanceof PathVariables) {
+                final PathVariables vars = (PathVariables) variables;
+                Index idx = this.index;
+                if (idx == null || idx.names != vars.names) {
+                    // races are benign, fields of Index are all final.
+                    this.index = idx = new Index(vars.names, vars.indexOf(name));
+                }
+                return idx.index < 0 ? null : vars.values[idx.index];
+            }
+            return variables.get(name);
+        }
+    }
+
+    private static final class Index {
+        private final String[] names;
+        private final int index;
+
+        private Index(String[] names, int index) {
+            this.names = names;
+            this.index = index;
+        }
+    }
+}
@@ -16,17 +16,29 @@
 package esa.restlight.server;
 
 import esa.restlight.server.bootstrap.RestlightServer;
+import esa.restlight.server.config.AutoScalingOptionsConfigure;
+import esa.restlight.server.config.BizThreadsOptions;
+import esa.restlight.server.config.BizThreadsOptionsConfigure;
 import esa.restlight.server.config.RouteOptionsConfigure;
 import esa.restlight.server.config.SchedulingOptionsConfigure;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.ServerOptionsConfigure;
+import esa.restlight.server.config.TimeoutOptions;
+import esa.restlight.server.config.TimeoutOptionsConfigure;
 import esa.restlight.server.handler.RestlightHandler;
 import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RuntimeRouteRegistry;
+import esa.restlight.server.schedule.BatchDrainingExecutor;
 import esa.restlight.server.schedule.ExecutorScheduler;
+import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.schedule.RequestTaskHook;
 import esa.restlight.server.schedule.Scheduler;
 import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.schedule.VirtualThreadExecutor;
 import esa.restlight.server.spi.RequestTaskHookFactory;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.junit.jupiter.api.Test;
 
@@ -34,7 +46,10 @@ import java.net.SocketAddress;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -45,6 +60,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class RestliteTest {
 
@@ -114,6 +134,173 @@ class RestliteTest {
         assertTrue(custom.getRejectedExecutionHandler() instanceof BaseDeployments.BizRejectedHandler);
     }
 
+    @Test
+    void testBulkheads() {
+        final BizThreadsOptions bulkhead = BizThreadsOptionsConfigure.newOpts()
+                .core(2)
+                .max(4)
+                .blockingQueueLength(8)
+                .keepAliveTimeSeconds(10L)
+                .configured();
+        final ServerOptions ops = ServerOptionsConfigure.newOpts()
+                .scheduling(SchedulingOptionsConfigure.newOpts()
+                        .bulkheads(Collections.singletonMap("slow", bulkhead))
+                        .configured())
+                .configured();
+        final ServerDeployContext<ServerOptions> ctx = Restlite0.forServer(ops).deployments().deployContext();
+        final Scheduler slow = ctx.schedulers().get("slow");
+        assertTrue(slow instanceof ExecutorScheduler);
+        assertTrue(((ExecutorScheduler) slow).executor() instanceof ThreadPoolExecutor);
+        final ThreadPoolExecutor pool = (ThreadPoolExecutor) ((ExecutorScheduler) slow).executor();
+        assertEquals(2, pool.getCorePoolSize());
+        assertEquals(4, pool.getMaximumPoolSize());
+        assertEquals(10L, pool.getKeepAliveTime(TimeUnit.SECONDS));
+        assertEquals(8, pool.getQueue().remainingCapacity());
+        assertTrue(pool.getRejectedExecutionHandler() instanceof BaseDeployments.BizRejectedHandler);
+        pool.shutdownNow();
+
+        final ServerOptions illegal = ServerOptionsConfigure.newOpts()
+                .scheduling(SchedulingOptionsConfigure.newOpts()
+                        .bulkheads(Collections.singletonMap(Schedulers.BIZ, bulkhead))
+                        .configured())
+                .configured();
+        assertThrows(IllegalArgumentException.class, () -> Restlite0.forServer(illegal).deployments());
+    }
+
+    @Test
+    void testNormalizeRuntimeRoutes() {
+        final ServerOptions ops = ServerOptionsConfigure.newOpts()
+                .route(RouteOptionsConfigure.newOpts().runtimeRouting(true).configured())
+                .configured();
+        final Restlite0 restlite = Restlite0.forServer(ops);
+        restlite.deployments().addRoute(Route.route(get("/foo")).schedule(Schedulers.io()));
+        final RestlightHandler handler = restlite.deployments().applyDeployments();
+        handler.onStart();
+        assertEquals(Collections.singletonList(Schedulers.io()), handler.schedulers());
+
+        final ServerDeployContext<ServerOptions> ctx = restlite.deployments().deployContext();
+        final RuntimeRouteRegistry registry = ctx.runtimeRouteRegistry().orElse(null);
+        assertNotNull(registry);
+        final Route bar = Route.route(get("/bar"));
+        registry.registerRoute(bar);
+        registry.republish().join();
+        final Scheduler biz = ctx.schedulers().get(Schedulers.BIZ);
+        assertTrue(registry.routes().stream().anyMatch(r -> r.scheduler() == biz));
+        // new scheduler is known by the handler
+        assertEquals(2, handler.schedulers().size());
+        assertTrue(handler.schedulers().contains(biz));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.registerRoute(Route.route(get("/baz").streaming(true)).schedule(Schedulers.io())));
+
+        // deregister by the given instance
+        assertTrue(registry.deregisterRoute(bar));
+        registry.republish().join();
+        assertEquals(1, registry.routes().size());
+        // scheduler is still kept to be drained when shutting down
+        assertTrue(handler.schedulers().contains(biz));
+        ((ExecutorService) ((ExecutorScheduler) biz).executor()).shutdownNow();
+    }
+
+    @Test
+    void testBatchDraining() {
+        final ServerOptions ops = ServerOptionsConfigure.newOpts()
+                .bizThreads(BizThreadsOptionsConfigure.newOpts()
+                        .core(2)
+                        .blockingQueueLength(8)
+                        .batchDraining(true)
+                        .configured())
+                .configured();
+        final ServerDeployContext<ServerOptions> ctx = Restlite0.forServer(ops).deployments().deployContext();
+        final Scheduler biz = ctx.schedulers().get(Schedulers.BIZ);
+        assertTrue(biz instanceof ExecutorScheduler);
+        assertTrue(((ExecutorScheduler) biz).executor() instanceof BatchDrainingExecutor);
+        final BatchDrainingExecutor executor = (BatchDrainingExecutor) ((ExecutorScheduler) biz).executor();
+        assertEquals(2, executor.getCorePoolSize());
+        assertEquals(8, executor.getCapacity());
+        executor.shutdownNow();
+
+        final ServerOptions sharded = ServerOptionsConfigure.newOpts()
+                .bizThreads(BizThreadsOptionsConfigure.newOpts()
+                        .core(4)
+                        .blockingQueueLength(8)
+                        .shards(2)
+                        .configured())
+                .configured();
+        final Scheduler biz1 = Restlite0.forServer(sharded).deployments().deployContext()
+                .schedulers().get(Schedulers.BIZ);
+        final BatchDrainingExecutor executor1 = (BatchDrainingExecutor) ((ExecutorScheduler) biz1).executor();
+        assertEquals(2, executor1.getShards());
+        executor1.shutdownNow();
+
+        final ServerOptions illegal = ServerOptionsConfigure.newOpts()
+                .bizThreads(BizThreadsOptionsConfigure.newOpts()
+                        .blockingQueueLength(0)
+                        .batchDraining(true)
+                        .configured())
+                .configured();
+        assertThrows(IllegalArgumentException.class, () -> Restlite0.forServer(illegal).deployments());
+
+        final ServerOptions autoScaling = ServerOptionsConfigure.newOpts()
+                .bizThreads(BizThreadsOptionsConfigure.newOpts()
+                        .blockingQueueLength(8)
+                        .batchDraining(true)
+                        .autoScaling(AutoScalingOptionsConfigure.newOpts()
+                                .enable(true)
+                                .configured())
+                        .configured())
+                .configured();
+        assertThrows(IllegalArgumentException.class, () -> Restlite0.forServer(autoScaling).deployments());
+    }
+
+    @Test
+    void testVirtualFallbackToConfiguredBiz() throws Exception {
+        assumeFalse(VirtualThreadExecutor.isSupported());
+        final ServerOptions ops = ServerOptionsConfigure.newOpts()
+                .bizThreads(BizThreadsOptionsConfigure.newOpts()
+                        .core(1)
+                        .max(1)
+                        .blockingQueueLength(8)
+                        .configured())
+                .scheduling(SchedulingOptionsConfigure.newOpts()
+                        .virtualMaxConcurrency(16)
+                        .timeout(Collections.singletonMap(Schedulers.BIZ, TimeoutOptionsConfigure.newOpts()
+                                .type(TimeoutOptions.Type.QUEUED)
+                                .timeMillis(1L)
+                                .configured()))
+                        .configured())
+                .configured();
+        final ServerDeployContext<ServerOptions> ctx = Restlite0.forServer(ops).deployments().deployContext();
+        final Scheduler biz = ctx.schedulers().get(Schedulers.BIZ);
+        final Scheduler virtual = ctx.schedulers().get(Schedulers.VIRTUAL);
+        assertNotNull(virtual);
+
+        // block the only worker of BIZ so that the request would be queued
+        final CountDownLatch latch = new CountDownLatch(1);
+        biz.schedule(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final RequestTask task = mock(RequestTask.class);
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        when(task.request()).thenReturn(MockAsyncRequest.aMockRequest().build());
+        when(task.response()).thenReturn(response);
+        when(task.promise()).thenReturn(promise);
+        virtual.schedule(task);
+        TimeUnit.MILLISECONDS.sleep(10L);
+        latch.countDown();
+
+        // failed fast by the timeout of BIZ
+        promise.get(3L, TimeUnit.SECONDS);
+        assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR.code(), response.status());
+        verify(task, never()).run();
+        ((ExecutorService) ((ExecutorScheduler) biz).executor()).shutdownNow();
+    }
+
     private static class Restlite0 extends Restlite {
 
         /**
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.bootstrap;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CurrentChannelHandlerTest {
+
+    @Test
+    void testCurrentChannelWhileReading() {
+        final AtomicReference<Channel> read = new AtomicReference<>();
+        final EmbeddedChannel channel = new EmbeddedChannel(CurrentChannelHandler.INSTANCE,
+                new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        read.set(CurrentChannelHandler.current());
+                    }
+                });
+        assertNull(CurrentChannelHandler.current());
+        channel.writeInbound("foo");
+        assertSame(channel, read.get());
+        assertNull(CurrentChannelHandler.current());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutoScalingOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final AutoScalingOptions options = AutoScalingOptionsConfigure.newOpts()
+                .enable(true)
+                .intervalMillis(10L)
+                .minThreads(1)
+                .maxThreads(2)
+                .targetQueueWaitMillis(20L)
+                .scaleUpUtilization(80)
+                .scaleDownUtilization(30)
+                .maxCpuUtilization(70)
+                .scaleDownSamples(3)
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertEquals(10L, options.getIntervalMillis());
+        assertEquals(1, options.getMinThreads());
+        assertEquals(2, options.getMaxThreads());
+        assertEquals(20L, options.getTargetQueueWaitMillis());
+        assertEquals(80, options.getScaleUpUtilization());
+        assertEquals(30, options.getScaleDownUtilization());
+        assertEquals(70, options.getMaxCpuUtilization());
+        assertEquals(3, options.getScaleDownSamples());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final AutoScalingOptions options = AutoScalingOptionsConfigure.defaultOpts();
+        final AutoScalingOptions def = new AutoScalingOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.getIntervalMillis(), options.getIntervalMillis());
+        assertEquals(def.getMinThreads(), options.getMinThreads());
+        assertEquals(def.getMaxThreads(), options.getMaxThreads());
+        assertEquals(def.getTargetQueueWaitMillis(), options.getTargetQueueWaitMillis());
+        assertEquals(def.getScaleUpUtilization(), options.getScaleUpUtilization());
+        assertEquals(def.getScaleDownUtilization(), options.getScaleDownUtilization());
+        assertEquals(def.getMaxCpuUtilization(), options.getMaxCpuUtilization());
+        assertEquals(def.getScaleDownSamples(), options.getScaleDownSamples());
+    }
+}
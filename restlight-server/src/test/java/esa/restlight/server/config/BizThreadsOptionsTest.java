@@ -18,22 +18,35 @@ package esa.restlight.server.config;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BizThreadsOptionsTest {
 
     @Test
     void testConfigure() {
+        final AutoScalingOptions autoScaling = AutoScalingOptionsConfigure.newOpts().enable(true).configured();
         final BizThreadsOptions options = BizThreadsOptionsConfigure.newOpts()
                 .core(1)
                 .max(2)
                 .blockingQueueLength(3)
                 .keepAliveTimeSeconds(4L)
+                .priorityQueue(true)
+                .priorityAgingMillis(5L)
+                .batchDraining(true)
+                .shards(4)
+                .autoScaling(autoScaling)
                 .configured();
 
         assertEquals(1, options.getCore());
         assertEquals(2, options.getMax());
         assertEquals(3, options.getBlockingQueueLength());
         assertEquals(4L, options.getKeepAliveTimeSeconds());
+        assertTrue(options.isPriorityQueue());
+        assertEquals(5L, options.getPriorityAgingMillis());
+        assertTrue(options.isBatchDraining());
+        assertEquals(4, options.getShards());
+        assertSame(autoScaling, options.getAutoScaling());
     }
 
     @Test
@@ -44,6 +57,11 @@ class BizThreadsOptionsTest {
         assertEquals(def.getMax(), options.getMax());
         assertEquals(def.getBlockingQueueLength(), options.getBlockingQueueLength());
         assertEquals(def.getKeepAliveTimeSeconds(), options.getKeepAliveTimeSeconds());
+        assertEquals(def.isPriorityQueue(), options.isPriorityQueue());
+        assertEquals(def.getPriorityAgingMillis(), options.getPriorityAgingMillis());
+        assertEquals(def.isBatchDraining(), options.isBatchDraining());
+        assertEquals(def.getShards(), options.getShards());
+        assertEquals(def.getAutoScaling().isEnable(), options.getAutoScaling().isEnable());
     }
 }
 
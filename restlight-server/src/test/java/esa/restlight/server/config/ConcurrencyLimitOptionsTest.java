@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyLimitOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final ConcurrencyLimitOptions options = ConcurrencyLimitOptionsConfigure.newOpts()
+                .initialLimit(10)
+                .minLimit(1)
+                .maxLimit(100)
+                .smoothing(0.5D)
+                .rttTolerance(2.0D)
+                .longWindow(100)
+                .configured();
+
+        assertEquals(10, options.getInitialLimit());
+        assertEquals(1, options.getMinLimit());
+        assertEquals(100, options.getMaxLimit());
+        assertEquals(0.5D, options.getSmoothing());
+        assertEquals(2.0D, options.getRttTolerance());
+        assertEquals(100, options.getLongWindow());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final ConcurrencyLimitOptions options = ConcurrencyLimitOptionsConfigure.defaultOpts();
+        final ConcurrencyLimitOptions def = new ConcurrencyLimitOptions();
+        assertEquals(def.getInitialLimit(), options.getInitialLimit());
+        assertEquals(def.getMinLimit(), options.getMinLimit());
+        assertEquals(def.getMaxLimit(), options.getMaxLimit());
+        assertEquals(def.getSmoothing(), options.getSmoothing());
+        assertEquals(def.getRttTolerance(), options.getRttTolerance());
+        assertEquals(def.getLongWindow(), options.getLongWindow());
+    }
+}
@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RouteOptionsTest {
 
@@ -28,11 +29,23 @@ class RouteOptionsTest {
                 .cacheRatio(100)
                 .computeRate(100)
                 .useCachedRouting(false)
+                .useTrieRouting(true)
+                .partitionByMethod(true)
+                .matchCacheSize(1024)
+                .negativeCacheSize(512)
+                .computePeriod(100L)
+                .runtimeRouting(true)
                 .configured();
 
         assertEquals(100, options.getCacheRatio());
         assertEquals(100, options.getComputeRate());
         assertFalse(options.isUseCachedRouting());
+        assertTrue(options.isUseTrieRouting());
+        assertTrue(options.isPartitionByMethod());
+        assertEquals(1024, options.getMatchCacheSize());
+        assertEquals(512, options.getNegativeCacheSize());
+        assertEquals(100L, options.getComputePeriod());
+        assertTrue(options.isRuntimeRouting());
     }
 
     @Test
@@ -42,6 +55,12 @@ class RouteOptionsTest {
         assertEquals(def.getComputeRate(), options.getComputeRate());
         assertEquals(def.getCacheRatio(), options.getCacheRatio());
         assertEquals(def.isUseCachedRouting(), options.isUseCachedRouting());
+        assertEquals(def.isUseTrieRouting(), options.isUseTrieRouting());
+        assertEquals(def.isPartitionByMethod(), options.isPartitionByMethod());
+        assertEquals(def.getMatchCacheSize(), options.getMatchCacheSize());
+        assertEquals(def.getNegativeCacheSize(), options.getNegativeCacheSize());
+        assertEquals(def.getComputePeriod(), options.getComputePeriod());
+        assertEquals(def.isRuntimeRouting(), options.isRuntimeRouting());
     }
 
 }
@@ -17,6 +17,7 @@ package esa.restlight.server.config;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -33,10 +34,16 @@ class SchedulingOptionsTest {
         final SchedulingOptions options = SchedulingOptionsConfigure.newOpts()
                 .defaultScheduler("foo")
                 .timeout(timeoutOptions)
+                .concurrencyLimit(Collections.singletonMap("A", ConcurrencyLimitOptionsConfigure.defaultOpts()))
+                .bulkheads(Collections.singletonMap("B", BizThreadsOptionsConfigure.defaultOpts()))
+                .virtualMaxConcurrency(1000)
                 .configured();
 
         assertEquals("foo", options.getDefaultScheduler());
         assertEquals(1, options.getTimeout().size());
+        assertEquals(1, options.getConcurrencyLimit().size());
+        assertEquals(1, options.getBulkheads().size());
+        assertEquals(1000, options.getVirtualMaxConcurrency());
     }
 
     @Test
@@ -44,6 +51,10 @@ class SchedulingOptionsTest {
         assertEquals(new SchedulingOptions().getDefaultScheduler(),
                 SchedulingOptionsConfigure.defaultOpts().getDefaultScheduler());
         assertTrue(new SchedulingOptions().getTimeout().isEmpty());
+        assertTrue(new SchedulingOptions().getConcurrencyLimit().isEmpty());
+        assertTrue(new SchedulingOptions().getBulkheads().isEmpty());
+        assertEquals(new SchedulingOptions().getVirtualMaxConcurrency(),
+                SchedulingOptionsConfigure.defaultOpts().getVirtualMaxConcurrency());
     }
 
 }
@@ -40,6 +40,7 @@ class ServerOptionsTest {
                 .compress(true)
                 .decompress(true)
                 .maxContentLength(9)
+                .streamingBufferSize(16)
                 .maxInitialLineLength(10)
                 .maxHeaderSize(11)
                 .soBacklog(12)
@@ -68,6 +69,7 @@ class ServerOptionsTest {
         assertTrue(options.isDecompress());
 
         assertEquals(9, options.getMaxContentLength());
+        assertEquals(16, options.getStreamingBufferSize());
         assertEquals(10, options.getMaxInitialLineLength());
         assertEquals(11, options.getMaxHeaderSize());
         assertEquals(12, options.getSoBacklog());
@@ -27,10 +27,12 @@ class TimeoutOptionsTest {
         final TimeoutOptions options = TimeoutOptionsConfigure.newOpts()
                 .timeMillis(100L)
                 .type(TimeoutOptions.Type.TTFB)
+                .intervalMillis(50L)
                 .configured();
 
         assertEquals(100L, options.getTimeMillis());
         assertSame(TimeoutOptions.Type.TTFB, options.getType());
+        assertEquals(50L, options.getIntervalMillis());
     }
 
     @Test
@@ -38,6 +40,7 @@ class TimeoutOptionsTest {
         final TimeoutOptions options = TimeoutOptionsConfigure.defaultOpts();
         assertEquals(-1L, options.getTimeMillis());
         assertSame(TimeoutOptions.Type.QUEUED, options.getType());
+        assertEquals(100L, options.getIntervalMillis());
     }
 
 }
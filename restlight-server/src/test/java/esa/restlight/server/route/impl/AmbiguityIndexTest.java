@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmbiguityIndexTest {
+
+    @Test
+    void testCandidates() {
+        final AmbiguityIndex index = new AmbiguityIndex();
+        final RouteWrap foo = add(index, Mapping.get("/foo/bar"));
+        final RouteWrap fooVar = add(index, Mapping.get("/foo/{bar}"));
+        final RouteWrap baz = add(index, Mapping.get("/baz/qux"));
+        final RouteWrap all = add(index, Mapping.get("/**"));
+        final RouteWrap post = add(index, Mapping.post("/foo/bar"));
+        final RouteWrap any = add(index, Mapping.mapping("/foo/bar"));
+
+        Set<RouteWrap> candidates = index.candidates(wrap(Mapping.get("/foo/bar")));
+        assertTrue(candidates.contains(foo));
+        assertTrue(candidates.contains(fooVar));
+        assertTrue(candidates.contains(all));
+        assertFalse(candidates.contains(baz));
+        assertFalse(candidates.contains(post));
+        assertFalse(candidates.contains(any));
+
+        candidates = index.candidates(wrap(Mapping.get("/{foo}/bar")));
+        assertTrue(candidates.contains(foo));
+        assertTrue(candidates.contains(fooVar));
+        assertTrue(candidates.contains(baz));
+        assertTrue(candidates.contains(all));
+        assertFalse(candidates.contains(post));
+
+        candidates = index.candidates(wrap(Mapping.mapping("/foo/bar").method(HttpMethod.GET, HttpMethod.POST)));
+        assertTrue(candidates.contains(foo));
+        assertTrue(candidates.contains(post));
+        assertFalse(candidates.contains(any));
+
+        candidates = index.candidates(wrap(Mapping.mapping("/foo")));
+        assertEquals(1, candidates.size());
+        assertTrue(candidates.contains(any));
+    }
+
+    @Test
+    void testCandidatesAreSupersetOfAmbiguousRoutes() {
+        final AmbiguityIndex index = new AmbiguityIndex();
+        final String[] paths = {"/foo", "/foo/bar", "/foo/b?r", "/foo/*/baz", "/foo/**", "/{a}/bar", "/bar/{b}",
+                "/bar/qux/", "foo/bar", "/"};
+        final RouteWrap[] routes = new RouteWrap[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            routes[i] = wrap(Mapping.get(paths[i]));
+        }
+        for (int i = 0; i < routes.length; i++) {
+            final Set<RouteWrap> candidates = index.candidates(routes[i]);
+            for (int j = 0; j < i; j++) {
+                if (routes[j].predicate.mayAmbiguousWith(routes[i].predicate)) {
+                    assertTrue(candidates.contains(routes[j]), paths[j] + " <-> " + paths[i]);
+                }
+            }
+            index.add(routes[i]);
+        }
+    }
+
+    private static RouteWrap add(AmbiguityIndex index, Mapping mapping) {
+        final RouteWrap route = wrap(mapping);
+        index.add(route);
+        return route;
+    }
+
+    private static RouteWrap wrap(Mapping mapping) {
+        return new RouteWrap(Route.route(mapping));
+    }
+}
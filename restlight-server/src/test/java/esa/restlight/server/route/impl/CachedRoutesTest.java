@@ -23,6 +23,7 @@ import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class CachedRoutesTest {
 
@@ -51,4 +52,32 @@ class CachedRoutesTest {
         assertEquals(r2, routes.lookup()[1]);
     }
 
+    @Test
+    void testScheduledHitsAndLookup() {
+        final CountedRoute[] crs = new CountedRoute[3];
+        final CountedRoute r0 = new CountedRoute(Route.route(Mapping.get("/foo")));
+        final CountedRoute r1 = new CountedRoute(Route.route(Mapping.get("/bar")));
+        final CountedRoute r2 = new CountedRoute(Route.route(Mapping.get("/baz")));
+        crs[0] = r0;
+        crs[1] = r1;
+        crs[2] = r2;
+        // the periodic task would be never triggered and it stops by itself once the routes are collected
+        final ScheduledCachedRoutes routes = new ScheduledCachedRoutes(crs, Long.MAX_VALUE);
+        routes.hit(r2);
+        // never computed on the request threads
+        assertArrayEquals(crs, routes.lookup());
+        routes.compute();
+        assertEquals(r2, routes.lookup()[0]);
+        routes.hit(r1);
+        routes.hit(r1);
+        routes.compute();
+        assertEquals(r1, routes.lookup()[0]);
+        assertEquals(r2, routes.lookup()[1]);
+    }
+
+    @Test
+    void testIllegalComputePeriod() {
+        assertThrows(IllegalArgumentException.class, () -> new ScheduledCachedRoutes(new CountedRoute[0], 0L));
+    }
+
 }
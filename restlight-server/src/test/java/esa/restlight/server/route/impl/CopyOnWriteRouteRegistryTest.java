@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CopyOnWriteRouteRegistryTest extends DefaultRouteRegistryTest {
+
+    @Override
+    protected RouteRegistry buildMapperRegistry() {
+        return new CopyOnWriteRouteRegistry(SimpleRouteRegistry::new);
+    }
+
+    @Test
+    void testRegisterAndDeregisterAtRuntime() {
+        final CopyOnWriteRouteRegistry registry = new CopyOnWriteRouteRegistry(SimpleRouteRegistry::new);
+        final Route foo = route(get("/foo"));
+        final Route bar = route(get("/bar"));
+        registry.registerRoute(foo);
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+        assertSame(registry, readOnly);
+
+        final AsyncRequest fooRequest = MockAsyncRequest.aMockRequest().withUri("/foo").build();
+        final AsyncRequest barRequest = MockAsyncRequest.aMockRequest().withUri("/bar").build();
+        assertSame(foo, readOnly.route(fooRequest));
+        assertNull(readOnly.route(barRequest));
+
+        registry.registerRoute(bar);
+        registry.republish().join();
+        assertSame(foo, readOnly.route(fooRequest));
+        assertSame(bar, readOnly.route(barRequest));
+        assertEquals(2, readOnly.routes().size());
+
+        assertTrue(registry.deregisterRoute(foo));
+        assertFalse(registry.deregisterRoute(foo));
+        registry.republish().join();
+        assertNull(readOnly.route(fooRequest));
+        assertSame(bar, readOnly.route(barRequest));
+        assertEquals(1, readOnly.routes().size());
+    }
+
+    @Test
+    void testRepublishWithTransfer() {
+        final CopyOnWriteRouteRegistry registry = new CopyOnWriteRouteRegistry(SimpleRouteRegistry::new,
+                r -> new MatchCachedRouteRegistry(r.toReadOnly(), 16));
+        registry.registerRoute(route(get("/foo/{id}")));
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().withUri("/foo/1").build();
+        assertEquals("/foo/{id}", registry.toReadOnly().route(request).mapping().path()[0]);
+
+        registry.registerRoute(route(get("/bar/{id}")));
+        registry.republish().join();
+        final AsyncRequest request1 = MockAsyncRequest.aMockRequest().withUri("/bar/1").build();
+        assertEquals("/bar/{id}", registry.route(request1).mapping().path()[0]);
+    }
+
+    @Test
+    void testNormalizeAndNotifyBeforePublishing() {
+        final Route normalized = route(get("/bar"));
+        final CopyOnWriteRouteRegistry registry = new CopyOnWriteRouteRegistry(SimpleRouteRegistry::new,
+                RouteRegistry::toReadOnly,
+                r -> "/bar".equals(r.mapping().path()[0]) ? normalized : r);
+        final List<List<Route>> published = new ArrayList<>();
+        final AsyncRequest barRequest = MockAsyncRequest.aMockRequest().withUri("/bar").build();
+        registry.onPublishing(routes -> {
+            if (published.isEmpty()) {
+                // not routable before the listener returns
+                assertNull(registry.route(barRequest));
+            }
+            published.add(routes);
+        });
+        registry.registerRoute(route(get("/foo")));
+        registry.toReadOnly();
+
+        final Route bar = route(get("/bar"));
+        registry.registerRoute(bar);
+        registry.republish().join();
+        assertSame(normalized, registry.route(barRequest));
+        assertEquals(1, published.size());
+        assertTrue(published.get(0).contains(normalized));
+
+        // deregister by the given instance
+        assertTrue(registry.deregisterRoute(bar));
+        registry.republish().join();
+        assertNull(registry.route(barRequest));
+        assertEquals(2, published.size());
+    }
+
+    @Test
+    void testKeepRoutingIfFailedToRepublish() {
+        final CopyOnWriteRouteRegistry registry = new CopyOnWriteRouteRegistry(SimpleRouteRegistry::new);
+        final Route foo = route(get("/foo"));
+        registry.registerRoute(foo);
+        registry.toReadOnly();
+        registry.onPublishing(routes -> {
+            throw new IllegalStateException("mock failure");
+        });
+
+        // failure of the republishing triggered by registering is logged
+        registry.registerRoute(route(get("/bar")));
+        assertThrows(CompletionException.class, () -> registry.republish().join());
+        final AsyncRequest fooRequest = MockAsyncRequest.aMockRequest().withUri("/foo").build();
+        final AsyncRequest barRequest = MockAsyncRequest.aMockRequest().withUri("/bar").build();
+        assertSame(foo, registry.route(fooRequest));
+        assertNull(registry.route(barRequest));
+    }
+}
@@ -18,6 +18,7 @@ package esa.restlight.server.route.impl;
 import esa.restlight.core.method.HttpMethod;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.server.route.Mapping;
+import esa.restlight.server.schedule.RequestTask;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -69,7 +70,8 @@ class MappingImplTest {
                 .params("p=1")
                 .headers("h=1")
                 .consumes("text/plain")
-                .produces("text/html");
+                .produces("text/html")
+                .priority(RequestTask.MAX_PRIORITY);
         assertEquals("name", mapping.name());
         assertNotNull(mapping.path());
         assertEquals(1, mapping.path().length);
@@ -85,6 +87,32 @@ class MappingImplTest {
         assertEquals("text/plain", mapping.consumes()[0]);
         assertNotNull(mapping.produces());
         assertEquals("text/html", mapping.produces()[0]);
+        assertEquals(RequestTask.MAX_PRIORITY, mapping.priority());
+    }
+
+    @Test
+    void testStreaming() {
+        assertFalse(Mapping.mapping().streaming());
+        final Mapping streaming = Mapping.mapping("/foo").streaming(true);
+        assertTrue(streaming.streaming());
+        assertTrue(streaming.toString().contains("streaming=true"));
+        // copied by builder
+        assertTrue(Mapping.mapping("/foo").streaming(true).consumes("text/plain").streaming());
+        assertTrue(streaming.combine(Mapping.mapping("/bar")).streaming());
+        assertTrue(Mapping.mapping("/foo").combine(Mapping.mapping("/bar").streaming(true)).streaming());
+        assertFalse(Mapping.mapping("/foo").combine(Mapping.mapping("/bar")).streaming());
+    }
+
+    @Test
+    void testPriority() {
+        assertEquals(RequestTask.NORM_PRIORITY, Mapping.mapping().priority());
+        assertThrows(IllegalArgumentException.class, () -> Mapping.mapping().priority(RequestTask.MAX_PRIORITY + 1));
+        assertThrows(IllegalArgumentException.class, () -> Mapping.mapping().priority(RequestTask.MIN_PRIORITY - 1));
+
+        final Mapping parent = Mapping.mapping("/foo").priority(RequestTask.MAX_PRIORITY);
+        assertEquals(RequestTask.MAX_PRIORITY, parent.combine(Mapping.mapping("/bar")).priority());
+        assertEquals(RequestTask.MIN_PRIORITY,
+                parent.combine(Mapping.mapping("/bar").priority(RequestTask.MIN_PRIORITY)).priority());
     }
 
     @Test
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.util.PathVariableUtils;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.junit.jupiter.api.Test;
+
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Mapping.post;
+import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MatchCachedRouteRegistryTest {
+
+    @Test
+    void testIllegalCapacity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MatchCachedRouteRegistry(new SimpleRouteRegistry().toReadOnly(), 0));
+    }
+
+    @Test
+    void testCacheTemplatedRoute() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        final Route r1 = route(get("/foo/{id}"));
+        final Route r2 = route(post("/foo/{id}"));
+        registry.registerRoute(r1);
+        registry.registerRoute(r2);
+        final MatchCachedRouteRegistry cached = new MatchCachedRouteRegistry(registry.toReadOnly(), 16);
+
+        final AsyncRequest req1 = request("GET", "/foo/1");
+        assertSame(r1, cached.route(req1));
+        assertEquals("1", PathVariableUtils.getPathVariable(req1, "id"));
+        assertEquals(0L, cached.hitCount());
+        assertEquals(1L, cached.missCount());
+
+        final AsyncRequest req2 = request("GET", "/foo/1");
+        assertSame(r1, cached.route(req2));
+        assertEquals("1", PathVariableUtils.getPathVariable(req2, "id"));
+        assertEquals(1L, cached.hitCount());
+
+        // method is a part of key
+        assertSame(r2, cached.route(request("POST", "/foo/1")));
+        assertEquals(1L, cached.hitCount());
+        assertEquals(2L, cached.missCount());
+
+        assertNull(cached.route(request("DELETE", "/foo/1")));
+        assertNull(cached.route(request("DELETE", "/foo/1")));
+        assertEquals(1L, cached.hitCount());
+    }
+
+    @Test
+    void testSkipRouteIntersectedWithConditionalRoute() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        final Route r1 = route(get("/foo/{id}").hasHeader("x"));
+        final Route r2 = route(get("/foo/{id}"));
+        registry.registerRoute(r1);
+        registry.registerRoute(r2);
+        final MatchCachedRouteRegistry cached = new MatchCachedRouteRegistry(registry.toReadOnly(), 16);
+
+        assertSame(r2, cached.route(request("GET", "/foo/1")));
+        assertSame(r1, cached.route(MockAsyncRequest.aMockRequest()
+                .withMethod("GET")
+                .withUri("/foo/1")
+                .withHeader("x", "1")
+                .build()));
+        assertEquals(0L, cached.hitCount());
+    }
+
+    @Test
+    void testBounded() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        final Route r = route(get("/foo/{id}"));
+        registry.registerRoute(r);
+        final MatchCachedRouteRegistry cached = new MatchCachedRouteRegistry(registry.toReadOnly(), 4);
+        for (int i = 0; i < 100; i++) {
+            final AsyncRequest req = request("GET", "/foo/" + i);
+            assertSame(r, cached.route(req));
+            assertEquals(String.valueOf(i), PathVariableUtils.getPathVariable(req, "id"));
+        }
+        assertEquals(100L, cached.missCount());
+    }
+
+    private static AsyncRequest request(String method, String uri) {
+        return MockAsyncRequest.aMockRequest().withMethod(method).withUri(uri).build();
+    }
+}
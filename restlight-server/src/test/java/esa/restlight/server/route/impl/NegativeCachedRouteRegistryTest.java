@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.predicate.RoutePredicate;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Mapping.post;
+import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NegativeCachedRouteRegistryTest {
+
+    @Test
+    void testIllegalCapacity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new NegativeCachedRouteRegistry(new SimpleRouteRegistry().toReadOnly(), 0));
+    }
+
+    @Test
+    void testCacheUnmatchedPath() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        final Route r1 = route(get("/foo/{id}"));
+        registry.registerRoute(r1);
+        final NegativeCachedRouteRegistry cached = new NegativeCachedRouteRegistry(registry.toReadOnly(), 16);
+
+        assertNull(cached.route(request("GET", "/bar")));
+        assertEquals(0L, cached.hitCount());
+        assertNull(cached.route(request("GET", "/bar")));
+        assertEquals(1L, cached.hitCount());
+
+        // method is a part of key
+        assertNull(cached.route(request("POST", "/bar")));
+        assertEquals(1L, cached.hitCount());
+
+        assertSame(r1, cached.route(request("GET", "/foo/1")));
+        assertEquals(1L, cached.hitCount());
+    }
+
+    @Test
+    void testSkipMismatchOfOtherConditions() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        final Route r1 = route(get("/foo").hasHeader("x"));
+        final Route r2 = route(post("/bar"));
+        registry.registerRoute(r1);
+        registry.registerRoute(r2);
+        final NegativeCachedRouteRegistry cached = new NegativeCachedRouteRegistry(registry.toReadOnly(), 16);
+
+        assertNull(cached.route(request("GET", "/foo")));
+        assertNull(cached.route(request("GET", "/foo")));
+        assertSame(r1, cached.route(MockAsyncRequest.aMockRequest()
+                .withMethod("GET")
+                .withUri("/foo")
+                .withHeader("x", "1")
+                .build()));
+
+        final AsyncRequest req = request("GET", "/bar");
+        assertNull(cached.route(req));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, req.getAttribute(RoutePredicate.MATCH_STATUS));
+        final AsyncRequest req1 = request("GET", "/bar");
+        assertNull(cached.route(req1));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, req1.getAttribute(RoutePredicate.MATCH_STATUS));
+        assertEquals(0L, cached.hitCount());
+    }
+
+    @Test
+    void testDisabledIfThereIsRouteWithoutPath() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        final Route r1 = route(Mapping.mapping().hasHeader("a"));
+        registry.registerRoute(r1);
+        final NegativeCachedRouteRegistry cached = new NegativeCachedRouteRegistry(registry.toReadOnly(), 16);
+
+        assertNull(cached.route(request("GET", "/foo")));
+        assertNull(cached.route(request("GET", "/foo")));
+        assertEquals(0L, cached.hitCount());
+        assertSame(r1, cached.route(MockAsyncRequest.aMockRequest()
+                .withMethod("GET")
+                .withUri("/foo")
+                .withHeader("a", "1")
+                .build()));
+    }
+
+    @Test
+    void testBounded() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        registry.registerRoute(route(get("/foo")));
+        final NegativeCachedRouteRegistry cached = new NegativeCachedRouteRegistry(registry.toReadOnly(), 4);
+        for (int i = 0; i < 100; i++) {
+            assertNull(cached.route(request("GET", "/bar/" + i)));
+        }
+        assertEquals(0L, cached.hitCount());
+        assertNull(cached.route(request("GET", "/bar/99")));
+        assertEquals(1L, cached.hitCount());
+    }
+
+    private static AsyncRequest request(String method, String uri) {
+        return MockAsyncRequest.aMockRequest().withMethod(method).withUri(uri).build();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.predicate.RoutePredicate;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import static esa.restlight.server.route.Mapping.delete;
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Mapping.mapping;
+import static esa.restlight.server.route.Mapping.post;
+import static esa.restlight.server.route.Mapping.put;
+import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PartitionedRouteRegistryTest extends DefaultRouteRegistryTest {
+
+    @Override
+    protected RouteRegistry buildMapperRegistry() {
+        return new PartitionedRouteRegistry();
+    }
+
+    @Test
+    void testRouteByMethod() {
+        final RouteRegistry registry = buildMapperRegistry();
+        final Route r1 = route(get("/foo/{id}"));
+        final Route r2 = route(post("/foo/{id}"));
+        final Route r3 = route(put("/foo/{id}"));
+        final Route r4 = route(get("/bar"));
+        final Route r5 = route(mapping("/bar"));
+        registry.registerRoute(r1);
+        registry.registerRoute(r2);
+        registry.registerRoute(r3);
+        registry.registerRoute(r4);
+        registry.registerRoute(r5);
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        assertSame(r1, readOnly.route(request("GET", "/foo/1")));
+        assertSame(r1, readOnly.route(request("HEAD", "/foo/1")));
+        assertSame(r2, readOnly.route(request("POST", "/foo/1")));
+        assertSame(r3, readOnly.route(request("PUT", "/foo/1")));
+        assertSame(r4, readOnly.route(request("GET", "/bar")));
+        assertSame(r5, readOnly.route(request("POST", "/bar")));
+        assertSame(r5, readOnly.route(request("PROPFIND", "/bar")));
+    }
+
+    @Test
+    void testMethodNotAllowed() {
+        final RouteRegistry registry = new PartitionedRouteRegistry(true);
+        registry.registerRoute(route(get("/foo/{id}")));
+        registry.registerRoute(route(get("/bar")));
+        registry.registerRoute(route(post("/bar")));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        final AsyncRequest r1 = request("DELETE", "/foo/1");
+        assertNull(readOnly.route(r1));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, r1.getAttribute(RoutePredicate.MATCH_STATUS));
+
+        final AsyncRequest r2 = request("DELETE", "/bar");
+        assertNull(readOnly.route(r2));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, r2.getAttribute(RoutePredicate.MATCH_STATUS));
+
+        final AsyncRequest r3 = request("GET", "/baz");
+        assertNull(readOnly.route(r3));
+        assertNull(r3.getAttribute(RoutePredicate.MATCH_STATUS));
+    }
+
+    @Test
+    void testMethodNotAllowedByPatterns() {
+        final RouteRegistry registry = buildMapperRegistry();
+        registry.registerRoute(route(get("/foo/{id}")));
+        registry.registerRoute(route(post("/foo/*")));
+        registry.registerRoute(route(put("/bar/**")));
+        registry.registerRoute(route(mapping().method(HttpMethod.DELETE)));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        // methods of all the matched patterns are allowed
+        final AsyncRequest r1 = request("PATCH", "/foo/1");
+        assertNull(readOnly.route(r1));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, r1.getAttribute(RoutePredicate.MATCH_STATUS));
+
+        final AsyncRequest r2 = request("GET", "/bar/1/2");
+        assertNull(readOnly.route(r2));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, r2.getAttribute(RoutePredicate.MATCH_STATUS));
+
+        // route without any path matches all the paths
+        final AsyncRequest r3 = request("GET", "/baz");
+        assertNull(readOnly.route(r3));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, r3.getAttribute(RoutePredicate.MATCH_STATUS));
+    }
+
+    @Test
+    void testNotFoundByPatterns() {
+        final RouteRegistry registry = buildMapperRegistry();
+        registry.registerRoute(route(get("/foo/{id}")));
+        registry.registerRoute(route(post("/bar/*")));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        final AsyncRequest r1 = request("GET", "/bar/1/2");
+        assertNull(readOnly.route(r1));
+        assertNull(r1.getAttribute(RoutePredicate.MATCH_STATUS));
+
+        final AsyncRequest r2 = request("DELETE", "/baz/1");
+        assertNull(readOnly.route(r2));
+        assertNull(r2.getAttribute(RoutePredicate.MATCH_STATUS));
+    }
+
+    @Test
+    void testDirectUrlWithoutPattern() {
+        final RouteRegistry registry = buildMapperRegistry();
+        registry.registerRoute(route(get("/foo")));
+        registry.registerRoute(route(delete("/foo")));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        final AsyncRequest r1 = request("PUT", "/foo");
+        assertNull(readOnly.route(r1));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, r1.getAttribute(RoutePredicate.MATCH_STATUS));
+        final AsyncRequest r2 = request("PUT", "/bar");
+        assertNull(readOnly.route(r2));
+        assertNull(r2.getAttribute(RoutePredicate.MATCH_STATUS));
+    }
+
+    @Test
+    void testSameStatusAsLinearRegistryIfMissedByParams() {
+        final Route[] routes = {
+                route(get("/foo").params("a=1")),
+                route(post("/foo")),
+                route(get("/bar/{id}").params("a=1")),
+                route(post("/bar/baz")),
+                route(get("/qux").params("a=1")),
+                route(post("/qux/{id}")),
+                route(get("/qux/1").params("a=1")),
+        };
+        final RouteRegistry linear = new SimpleRouteRegistry();
+        final RouteRegistry partitioned = new PartitionedRouteRegistry(true);
+        for (Route r : routes) {
+            linear.registerRoute(r);
+            partitioned.registerRoute(r);
+        }
+        final ReadOnlyRouteRegistry expected = linear.toReadOnly();
+        final ReadOnlyRouteRegistry actual = partitioned.toReadOnly();
+
+        // a route of the same method is missed by params, but the path is matched by a route of another method
+        assertSameStatus(expected, actual, "GET", "/foo", HttpResponseStatus.METHOD_NOT_ALLOWED);
+        assertSameStatus(expected, actual, "GET", "/bar/baz", HttpResponseStatus.METHOD_NOT_ALLOWED);
+        assertSameStatus(expected, actual, "GET", "/qux/1", HttpResponseStatus.METHOD_NOT_ALLOWED);
+        // only the route of the same method is matched by path
+        assertSameStatus(expected, actual, "GET", "/qux", null);
+        assertSameStatus(expected, actual, "GET", "/bar/1", null);
+    }
+
+    private static void assertSameStatus(ReadOnlyRouteRegistry expected,
+                                         ReadOnlyRouteRegistry actual,
+                                         String method,
+                                         String uri,
+                                         HttpResponseStatus status) {
+        final AsyncRequest r1 = request(method, uri);
+        assertNull(expected.route(r1));
+        assertEquals(status, r1.getAttribute(RoutePredicate.MATCH_STATUS));
+        final AsyncRequest r2 = request(method, uri);
+        assertNull(actual.route(r2));
+        assertEquals(status, r2.getAttribute(RoutePredicate.MATCH_STATUS));
+    }
+
+    private static AsyncRequest request(String method, String uri) {
+        return MockAsyncRequest.aMockRequest().withMethod(method).withUri(uri).build();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.predicate.RoutePredicate;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Mapping.mapping;
+import static esa.restlight.server.route.Mapping.post;
+import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TrieRouteRegistryTest extends DefaultRouteRegistryTest {
+
+    @Override
+    protected RouteRegistry buildMapperRegistry() {
+        return new TrieRouteRegistry();
+    }
+
+    @Test
+    void testMatchInOrderOfRegistration() {
+        final RouteRegistry registry = buildMapperRegistry();
+        final Route r1 = route(get("/foo/**"));
+        final Route r2 = route(get("/foo/{bar}"));
+        final Route r3 = route(get("/foo/bar"));
+        registry.registerRoute(r1);
+        registry.registerRoute(r2);
+        registry.registerRoute(r3);
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        // direct url first
+        assertSame(r3, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/foo/bar").build()));
+        assertSame(r1, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/foo/baz").build()));
+        assertSame(r1, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/foo/baz/qux").build()));
+    }
+
+    @Test
+    void testWildcardsAndTemplateVars() {
+        final RouteRegistry registry = buildMapperRegistry();
+        final Route r1 = route(get("/foo/{bar}/baz"));
+        final Route r2 = route(get("/f?o/*"));
+        final Route r3 = route(get("/qux/**/end"));
+        final Route r4 = route(get().path("/a/{b}", "/c/d/*"));
+        registry.registerRoute(r1);
+        registry.registerRoute(r2);
+        registry.registerRoute(r3);
+        registry.registerRoute(r4);
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        assertSame(r1, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/foo/1/baz").build()));
+        assertSame(r2, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/fao/1").build()));
+        assertSame(r2, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/fao/").build()));
+        assertSame(r3, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/qux/1/2/end").build()));
+        assertSame(r4, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/a/1").build()));
+        assertSame(r4, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/c/d/e").build()));
+        assertNull(readOnly.route(MockAsyncRequest.aMockRequest().withUri("/foo/1/qux").build()));
+        assertNull(readOnly.route(MockAsyncRequest.aMockRequest().withUri("/qux/1/2").build()));
+        assertNull(readOnly.route(MockAsyncRequest.aMockRequest().withUri("/a/1/2").build()));
+    }
+
+    @Test
+    void testEmptyPathMatchesAll() {
+        final RouteRegistry registry = buildMapperRegistry();
+        final Route r = route(mapping());
+        registry.registerRoute(r);
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+        assertSame(r, readOnly.route(MockAsyncRequest.aMockRequest().withUri("/foo/bar").build()));
+    }
+
+    @Test
+    void testMethodNotAllowed() {
+        final RouteRegistry registry = buildMapperRegistry();
+        registry.registerRoute(route(post("/foo/{bar}")));
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().withMethod("GET").withUri("/foo/bar").build();
+        assertNull(registry.toReadOnly().route(request));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, request.getAttribute(RoutePredicate.MATCH_STATUS));
+    }
+
+    @Test
+    void testTooManyCandidates() {
+        final RouteRegistry registry = buildMapperRegistry();
+        for (int i = 0; i < 100; i++) {
+            registry.registerRoute(route(get("/foo/{bar}").hasParam("p" + i)));
+        }
+        final Route last = route(get("/foo/{bar}"));
+        registry.registerRoute(last);
+        final Route found =
+                registry.toReadOnly().route(MockAsyncRequest.aMockRequest().withUri("/foo/bar").build());
+        assertNotNull(found);
+        assertSame(last, found);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLifoQueueTest {
+
+    @Test
+    void testIllegalInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLifoQueue(10, 0L));
+    }
+
+    @Test
+    void testFifoBeforeOverload() throws InterruptedException {
+        final AdaptiveLifoQueue queue = new AdaptiveLifoQueue(10, 10_000L);
+        final Runnable r1 = () -> {
+        };
+        final Runnable r2 = () -> {
+        };
+        assertTrue(queue.offer(r1));
+        assertTrue(queue.offer(r2));
+        assertFalse(queue.isLifo());
+        assertSame(r1, queue.poll());
+        assertSame(r2, queue.take());
+        assertNull(queue.poll(1L, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testLifoUnderOverload() throws InterruptedException {
+        final AdaptiveLifoQueue queue = new AdaptiveLifoQueue(10, 1L);
+        final Runnable r1 = () -> {
+        };
+        final Runnable r2 = () -> {
+        };
+        final Runnable r3 = () -> {
+        };
+        queue.offer(r1);
+        queue.offer(r2);
+        queue.offer(r3);
+        TimeUnit.MILLISECONDS.sleep(5L);
+        assertTrue(queue.isLifo());
+        assertSame(r3, queue.poll());
+        assertSame(r2, queue.take());
+        assertSame(r1, queue.poll(1L, TimeUnit.MILLISECONDS));
+        assertFalse(queue.isLifo());
+    }
+
+    @Test
+    void testResetOnceDrained() throws InterruptedException {
+        final AdaptiveLifoQueue queue = new AdaptiveLifoQueue(10, 5L);
+        final Runnable r1 = () -> {
+        };
+        final Runnable r2 = () -> {
+        };
+        final Runnable r3 = () -> {
+        };
+        queue.offer(r1);
+        queue.offer(r2);
+        TimeUnit.MILLISECONDS.sleep(10L);
+        assertTrue(queue.isLifo());
+        assertSame(r2, queue.poll());
+        assertTrue(queue.removeFirstOccurrence(r1));
+        // drained, the non-empty time starts over
+        queue.offer(r1);
+        queue.offer(r2);
+        queue.offer(r3);
+        assertFalse(queue.isLifo());
+        assertSame(r1, queue.poll());
+    }
+
+    @Test
+    void testBounded() {
+        final AdaptiveLifoQueue queue = new AdaptiveLifoQueue(1, 100L);
+        assertTrue(queue.offer(() -> {
+        }));
+        assertFalse(queue.offer(() -> {
+        }));
+    }
+}
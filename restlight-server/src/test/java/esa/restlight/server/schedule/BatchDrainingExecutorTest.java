@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import io.netty.util.concurrent.DefaultEventExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchDrainingExecutorTest {
+
+    @Test
+    void testIllegalArgs() {
+        final RestlightThreadFactory factory = new RestlightThreadFactory("test");
+        assertThrows(NullPointerException.class, () -> new BatchDrainingExecutor(null, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchDrainingExecutor(factory, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchDrainingExecutor(factory, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BatchDrainingExecutor(factory, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BatchDrainingExecutor(factory, 1, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new BatchDrainingExecutor(factory, 2, 1, 2));
+    }
+
+    @Test
+    void testExecute() throws InterruptedException {
+        final BatchDrainingExecutor executor = newExecutor(4, 1024);
+        assertEquals(0, executor.getPoolSize());
+        final int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.execute(latch::countDown);
+        }
+        assertTrue(latch.await(3L, TimeUnit.SECONDS));
+        assertEquals(4, executor.getPoolSize());
+        assertEquals(0, executor.getQueueSize());
+
+        // error thrown by a task should not kill the worker
+        final CountDownLatch latch1 = new CountDownLatch(1);
+        executor.execute(() -> {
+            throw new IllegalStateException();
+        });
+        executor.execute(latch1::countDown);
+        assertTrue(latch1.await(3L, TimeUnit.SECONDS));
+        assertEquals(4, executor.getPoolSize());
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(3L, TimeUnit.SECONDS));
+        assertEquals(count + 2, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    void testFlushOncePerEventLoopCycle() throws InterruptedException {
+        final BatchDrainingExecutor executor = newExecutor(2, 1024);
+        final DefaultEventExecutor loop = new DefaultEventExecutor();
+        try {
+            final CountDownLatch latch = new CountDownLatch(3);
+            final AtomicInteger ranBeforeFlush = new AtomicInteger();
+            loop.execute(() -> {
+                executor.execute(latch::countDown);
+                executor.execute(latch::countDown);
+                executor.execute(latch::countDown);
+                // buffered until current cycle of the event loop ends
+                assertEquals(3, executor.getQueueSize());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(50L);
+                } catch (InterruptedException ignored) {
+                }
+                ranBeforeFlush.set((int) (3L - latch.getCount()));
+            });
+            assertTrue(latch.await(3L, TimeUnit.SECONDS));
+            assertEquals(0, ranBeforeFlush.get());
+            assertEquals(0, executor.getQueueSize());
+        } finally {
+            loop.shutdownGracefully();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testShardsAndStealing() throws InterruptedException {
+        final BatchDrainingExecutor executor =
+                new BatchDrainingExecutor(new RestlightThreadFactory("Test-Shard"), 2, 8, 2);
+        assertEquals(2, executor.getShards());
+        final DefaultEventExecutor loop0 = new DefaultEventExecutor();
+        final DefaultEventExecutor loop1 = new DefaultEventExecutor();
+        try {
+            final CountDownLatch blocking = new CountDownLatch(1);
+            final CountDownLatch running = new CountDownLatch(1);
+            final CountDownLatch stolen = new CountDownLatch(1);
+            // loop0 is pinned to the first shard
+            loop0.submit(() -> executor.execute(() -> {
+                running.countDown();
+                try {
+                    blocking.await();
+                } catch (InterruptedException ignored) {
+                }
+            })).sync();
+            assertTrue(running.await(3L, TimeUnit.SECONDS));
+            // loop1 is pinned to the second shard
+            loop1.submit(() -> {
+                executor.execute(() -> {
+                });
+                assertEquals(1, executor.getQueueSize(1));
+                assertEquals(0, executor.getQueueSize(0));
+            }).sync();
+
+            // the worker of the first shard is blocking, the task should be stolen by the idle worker
+            loop0.execute(() -> executor.execute(stolen::countDown));
+            assertTrue(stolen.await(3L, TimeUnit.SECONDS));
+            blocking.countDown();
+        } finally {
+            loop0.shutdownGracefully();
+            loop1.shutdownGracefully();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(3L, TimeUnit.SECONDS));
+        assertEquals(3L, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    void testSpillToOtherShards() throws InterruptedException {
+        final BatchDrainingExecutor executor =
+                new BatchDrainingExecutor(new RestlightThreadFactory("Test-Shard"), 2, 2, 2);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        final CountDownLatch running = new CountDownLatch(2);
+        final Runnable block = () -> {
+            running.countDown();
+            try {
+                blocking.await();
+            } catch (InterruptedException ignored) {
+            }
+        };
+        executor.execute(block);
+        executor.execute(block);
+        assertTrue(running.await(3L, TimeUnit.SECONDS));
+        // every shard has one slot
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+        });
+        assertEquals(1, executor.getQueueSize(0));
+        assertEquals(1, executor.getQueueSize(1));
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        blocking.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(3L, TimeUnit.SECONDS));
+        assertEquals(4L, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    void testReject() throws InterruptedException {
+        final BatchDrainingExecutor executor = newExecutor(1, 1);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                blocking.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        assertTrue(running.await(3L, TimeUnit.SECONDS));
+        assertEquals(1, executor.getActiveCount());
+
+        final Runnable queued = () -> {
+        };
+        executor.execute(queued);
+        assertEquals(1, executor.getQueueSize());
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        final AtomicReference<Runnable> rejected = new AtomicReference<>();
+        executor.setRejectedHandler(rejected::set);
+        final Runnable r = () -> {
+        };
+        executor.execute(r);
+        assertSame(r, rejected.get());
+        assertEquals(2L, executor.getRejectedTaskCount());
+
+        final List<Runnable> remaining = executor.shutdownNow();
+        assertEquals(1, remaining.size());
+        assertSame(queued, remaining.get(0));
+        assertTrue(executor.isShutdown());
+        assertTrue(executor.awaitTermination(3L, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+
+        // rejected after shutdown
+        final Runnable r1 = () -> {
+        };
+        executor.execute(r1);
+        assertSame(r1, rejected.get());
+    }
+
+    @Test
+    void testShutdownBeforeStart() {
+        final BatchDrainingExecutor executor = newExecutor(1, 1);
+        executor.shutdown();
+        assertTrue(executor.isTerminated());
+        assertEquals(0, executor.getPoolSize());
+        assertFalse(executor.shutdownNow().iterator().hasNext());
+    }
+
+    private static BatchDrainingExecutor newExecutor(int threads, int capacity) {
+        return new BatchDrainingExecutor(new RestlightThreadFactory("Test-Batch"), threads, capacity);
+    }
+}
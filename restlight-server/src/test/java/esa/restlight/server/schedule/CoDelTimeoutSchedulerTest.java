@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.TimeoutOptions;
+import esa.restlight.server.config.TimeoutOptionsConfigure;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoDelTimeoutSchedulerTest {
+
+    @Test
+    void testIllegalInterval() {
+        assertThrows(IllegalArgumentException.class, () -> newScheduler(10L, 0L));
+    }
+
+    @Test
+    void testNotDropBelowTarget() {
+        final CoDelTimeoutScheduler scheduler = newScheduler(10L, 100L);
+        for (long now = 0L; now < 1000L; now += 10L) {
+            assertFalse(scheduler.shouldDrop(9L, now));
+        }
+    }
+
+    @Test
+    void testDropAfterAnInterval() {
+        final CoDelTimeoutScheduler scheduler = newScheduler(10L, 100L);
+        // above the target but not for a whole interval
+        assertFalse(scheduler.shouldDrop(20L, 1L));
+        assertFalse(scheduler.shouldDrop(20L, 50L));
+        // go below the target which resets the state.
+        assertFalse(scheduler.shouldDrop(5L, 60L));
+        assertFalse(scheduler.shouldDrop(20L, 70L));
+        assertFalse(scheduler.shouldDrop(20L, 169L));
+        // above the target for a whole interval
+        assertTrue(scheduler.shouldDrop(20L, 170L));
+        // next drop is scheduled at interval / sqrt(count)
+        assertFalse(scheduler.shouldDrop(20L, 200L));
+        assertTrue(scheduler.shouldDrop(20L, 270L));
+        assertFalse(scheduler.shouldDrop(20L, 300L));
+        // 270 + 100 / sqrt(2)
+        assertTrue(scheduler.shouldDrop(20L, 341L));
+
+        // leave the dropping state
+        assertFalse(scheduler.shouldDrop(5L, 350L));
+        assertFalse(scheduler.shouldDrop(20L, 360L));
+    }
+
+    @Test
+    void testShouldFailFast() {
+        final CoDelTimeoutScheduler scheduler = newScheduler(10L, 100L);
+        assertFalse(scheduler.shouldFailFast(0L));
+        assertFalse(scheduler.shouldFailFast(100L));
+    }
+
+    @Test
+    void testDropFromHeadInLifoOrder() throws InterruptedException {
+        final AdaptiveLifoQueue queue = new AdaptiveLifoQueue(16, 1L);
+        // tasks are offered to the queue directly and polled manually, so that no worker would be started.
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS, queue);
+        final ExecutorScheduler underlying = mock(ExecutorScheduler.class);
+        when(underlying.executor()).thenReturn(pool);
+        doAnswer(inv -> queue.offer(inv.getArgument(0))).when(underlying).schedule(any());
+        final CoDelTimeoutScheduler scheduler = new CoDelTimeoutScheduler(underlying,
+                TimeoutOptionsConfigure.newOpts()
+                        .type(TimeoutOptions.Type.CODEL)
+                        .timeMillis(20L)
+                        .intervalMillis(1L)
+                        .configured());
+        final AtomicInteger executed = new AtomicInteger();
+
+        final AsyncResponse stale = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> stalePromise = new CompletableFuture<>();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                stale, stalePromise, executed::incrementAndGet));
+        TimeUnit.MILLISECONDS.sleep(50L);
+
+        scheduler.schedule(RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(), new CompletableFuture<>(), executed::incrementAndGet));
+        assertTrue(queue.isLifo());
+        // the newest one is served and the head has been above the target since now.
+        queue.poll().run();
+        assertEquals(1, executed.get());
+        TimeUnit.MILLISECONDS.sleep(2L);
+
+        scheduler.schedule(RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(), new CompletableFuture<>(), executed::incrementAndGet));
+        queue.poll().run();
+        // the stale one at the head is dropped instead of the fresh one
+        assertEquals(2, executed.get());
+        assertTrue(queue.isEmpty());
+        assertTrue(stalePromise.isDone());
+        assertEquals(500, stale.status());
+    }
+
+    private static CoDelTimeoutScheduler newScheduler(long target, long interval) {
+        final TimeoutOptions options = TimeoutOptionsConfigure.newOpts()
+                .type(TimeoutOptions.Type.CODEL)
+                .timeMillis(target)
+                .intervalMillis(interval)
+                .configured();
+        return new CoDelTimeoutScheduler(mock(Scheduler.class), options);
+    }
+}
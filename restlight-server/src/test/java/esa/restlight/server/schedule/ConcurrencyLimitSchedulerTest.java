@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ConcurrencyLimitOptions;
+import esa.restlight.server.config.ConcurrencyLimitOptionsConfigure;
+import esa.restlight.server.config.TimeoutOptions;
+import esa.restlight.server.config.TimeoutOptionsConfigure;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ConcurrencyLimitSchedulerTest {
+
+    private static final ConcurrencyLimitOptions OPTIONS = ConcurrencyLimitOptionsConfigure.newOpts()
+            .initialLimit(2)
+            .minLimit(2)
+            .maxLimit(2)
+            .configured();
+
+    @Test
+    void testDelegate() {
+        final Scheduler delegate = mock(Scheduler.class);
+        final ConcurrencyLimitScheduler scheduler = new ConcurrencyLimitScheduler(delegate, OPTIONS);
+        scheduler.name();
+        verify(delegate).name();
+
+        scheduler.shutdown();
+        verify(delegate).shutdown();
+
+        final Runnable runnable = () -> {
+        };
+        scheduler.schedule(runnable);
+        verify(delegate).schedule(runnable);
+        assertEquals(0, scheduler.inflight());
+    }
+
+    @Test
+    void testRejectOverLimit() {
+        final Pending delegate = new Pending();
+        final ConcurrencyLimitScheduler scheduler = new ConcurrencyLimitScheduler(delegate, OPTIONS);
+
+        final RequestTask task0 = newTask(MockAsyncResponse.aMockResponse().build());
+        final RequestTask task1 = newTask(MockAsyncResponse.aMockResponse().build());
+        scheduler.schedule(task0);
+        scheduler.schedule(task1);
+        assertEquals(2, delegate.tasks.size());
+        assertEquals(2, scheduler.inflight());
+
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final RequestTask task2 = newTask(response);
+        scheduler.schedule(task2);
+        assertEquals(2, delegate.tasks.size());
+        assertTrue(task2.promise().isDone());
+        assertEquals(HttpResponseStatus.TOO_MANY_REQUESTS.code(), response.status());
+        assertNotNull(response.getHeader(HttpHeaderNames.RETRY_AFTER));
+
+        // release a slot
+        task0.promise().complete(null);
+        assertEquals(1, scheduler.inflight());
+        final RequestTask task3 = newTask(MockAsyncResponse.aMockResponse().build());
+        scheduler.schedule(task3);
+        assertEquals(3, delegate.tasks.size());
+        assertFalse(task3.promise().isDone());
+    }
+
+    @Test
+    void testNotSampleUnexecutedTasks() {
+        final Pending delegate = new Pending();
+        final ConcurrencyLimitScheduler scheduler = new ConcurrencyLimitScheduler(delegate,
+                ConcurrencyLimitOptionsConfigure.newOpts()
+                        .initialLimit(100)
+                        .minLimit(100)
+                        .maxLimit(100)
+                        .configured());
+        final List<RequestTask> tasks = new ArrayList<>();
+        for (int i = 0; i < GradientLimit.BATCH; i++) {
+            final RequestTask task = newTask(MockAsyncResponse.aMockResponse().build());
+            tasks.add(task);
+            scheduler.schedule(task);
+        }
+        // rejected or failed fast by the downstream scheduler
+        tasks.forEach(t -> t.promise().complete(null));
+        assertEquals(0, scheduler.inflight());
+        assertEquals(0, scheduler.gradientLimit().samples());
+
+        delegate.tasks.clear();
+        tasks.clear();
+        for (int i = 0; i < GradientLimit.BATCH; i++) {
+            final RequestTask task = newTask(MockAsyncResponse.aMockResponse().build());
+            tasks.add(task);
+            scheduler.schedule(task);
+        }
+        delegate.tasks.forEach(Runnable::run);
+        tasks.forEach(t -> t.promise().complete(null));
+        assertEquals(GradientLimit.BATCH, scheduler.gradientLimit().samples());
+    }
+
+    @Test
+    void testNotSampleTasksFailedFastByTimeout() throws InterruptedException {
+        final Pending delegate = new Pending();
+        final Scheduler scheduler = Schedulers.limited(Schedulers.wrapped(delegate,
+                TimeoutOptionsConfigure.newOpts()
+                        .type(TimeoutOptions.Type.QUEUED)
+                        .timeMillis(1L)
+                        .configured()),
+                ConcurrencyLimitOptionsConfigure.newOpts()
+                        .initialLimit(100)
+                        .minLimit(100)
+                        .maxLimit(100)
+                        .configured(), null);
+        assertTrue(scheduler instanceof ConcurrencyLimitScheduler);
+        final List<AsyncResponse> responses = new ArrayList<>();
+        for (int i = 0; i < GradientLimit.BATCH; i++) {
+            final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+            responses.add(response);
+            scheduler.schedule(newTask(response));
+        }
+        Thread.sleep(10L);
+        delegate.tasks.forEach(Runnable::run);
+        responses.forEach(r -> assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR.code(), r.status()));
+        final ConcurrencyLimitScheduler limited = (ConcurrencyLimitScheduler) scheduler;
+        assertEquals(0, limited.inflight());
+        assertEquals(0, limited.gradientLimit().samples());
+    }
+
+    @Test
+    void testRejectByHandler() {
+        final Pending delegate = new Pending();
+        final AtomicReference<RequestTask> rejected = new AtomicReference<>();
+        final ConcurrencyLimitScheduler scheduler =
+                new ConcurrencyLimitScheduler(delegate, OPTIONS, (task, reason) -> rejected.set(task));
+        scheduler.schedule(newTask(MockAsyncResponse.aMockResponse().build()));
+        scheduler.schedule(newTask(MockAsyncResponse.aMockResponse().build()));
+        final RequestTask task = newTask(MockAsyncResponse.aMockResponse().build());
+        scheduler.schedule(task);
+        assertSame(task, rejected.get());
+        assertEquals("1", task.response().getHeader(HttpHeaderNames.RETRY_AFTER));
+    }
+
+    @Test
+    void testLimitedExecutorScheduler() {
+        final ExecutorScheduler executor = Schedulers.fromExecutor("foo", Runnable::run);
+        final Scheduler limited = Schedulers.limited(executor, OPTIONS, null);
+        assertTrue(limited instanceof ExecutorScheduler);
+        assertEquals("foo", limited.name());
+        assertSame(executor, Schedulers.limited(executor, null, null));
+    }
+
+    private static RequestTask newTask(AsyncResponse response) {
+        return RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                response, new CompletableFuture<>(), () -> {
+                });
+    }
+
+    private static class Pending implements Scheduler {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public String name() {
+            return "pending";
+        }
+
+        @Override
+        public void schedule(Runnable cmd) {
+            tasks.add(cmd);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.TimeoutOptions;
+import esa.restlight.server.config.TimeoutOptionsConfigure;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.util.Timeout;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ExecutionTimeoutSchedulerTest {
+
+    @Test
+    void testInterruptRunningTask() throws Exception {
+        final ExecutionTimeoutScheduler scheduler = newScheduler(50L);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(request, response, promise, () -> {
+            try {
+                TimeUnit.SECONDS.sleep(10L);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        }));
+
+        assertTrue(interrupted.get());
+        // interrupt status should be cleared after leaving
+        assertFalse(Thread.currentThread().isInterrupted());
+        promise.get(1L, TimeUnit.SECONDS);
+        assertEquals(503, response.status());
+        final ExecutionDeadline deadline = ExecutionDeadline.of(request);
+        assertNotNull(deadline);
+        assertTrue(deadline.isExpired());
+    }
+
+    @Test
+    void testCompleteInTime() throws Exception {
+        final ExecutionTimeoutScheduler scheduler = newScheduler(1000L);
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(request, response, promise, () -> {
+            response.sendResult(200);
+            promise.complete(null);
+        }));
+        assertEquals(200, response.status());
+        final ExecutionDeadline deadline = ExecutionDeadline.of(request);
+        assertNotNull(deadline);
+        assertFalse(deadline.isExpired());
+    }
+
+    @Test
+    void testCancelBoundFuture() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        assertNull(ExecutionDeadline.of(request));
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        final ExecutionDeadline deadline = new ExecutionDeadline(RequestTaskImpl.newRequestTask(request,
+                response, promise, () -> {
+                }), "foo", 10L, System.currentTimeMillis() + 10L);
+
+        final CompletableFuture<Void> f1 = new CompletableFuture<>();
+        deadline.bind(f1);
+        deadline.run(mock(Timeout.class));
+        assertTrue(deadline.isExpired());
+        assertTrue(f1.isCancelled());
+        assertTrue(promise.isDone());
+        assertEquals(503, response.status());
+
+        // bound after expiration
+        final CompletableFuture<Void> f2 = new CompletableFuture<>();
+        deadline.bind(f2);
+        assertTrue(f2.isCancelled());
+    }
+
+    @Test
+    void testDropResultAfterClaimedByDeadline() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        assertTrue(ExecutionDeadline.tryClaim(request));
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        final ExecutionDeadline deadline = new ExecutionDeadline(RequestTaskImpl.newRequestTask(request,
+                response, promise, () -> {
+                }), "foo", 10L, System.currentTimeMillis() + 10L);
+        request.setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+
+        deadline.run(mock(Timeout.class));
+        assertEquals(503, response.status());
+        assertFalse(deadline.tryClaim());
+        assertFalse(ExecutionDeadline.tryClaim(request));
+    }
+
+    @Test
+    void testNotWriteAfterClaimedByExecution() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        final ExecutionDeadline deadline = new ExecutionDeadline(RequestTaskImpl.newRequestTask(request,
+                response, promise, () -> {
+                }), "foo", 10L, System.currentTimeMillis() + 10000L);
+        request.setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+
+        assertTrue(ExecutionDeadline.tryClaim(request));
+        // claimed repeatedly by the execution
+        assertTrue(deadline.tryClaim());
+        deadline.run(mock(Timeout.class));
+        assertFalse(response.isCommitted());
+        assertFalse(promise.isDone());
+        assertFalse(deadline.isExpired());
+    }
+
+    private static ExecutionTimeoutScheduler newScheduler(long timeout) {
+        final TimeoutOptions options = TimeoutOptionsConfigure.newOpts()
+                .type(TimeoutOptions.Type.EXECUTION)
+                .timeMillis(timeout)
+                .configured();
+        return new ExecutionTimeoutScheduler(Schedulers.io(), options);
+    }
+}
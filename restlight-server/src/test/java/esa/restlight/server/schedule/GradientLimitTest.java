@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.config.ConcurrencyLimitOptionsConfigure;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    @Test
+    void testIllegalOptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts().minLimit(0).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts()
+                        .minLimit(10).maxLimit(5).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts().smoothing(0D).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts().rttTolerance(0.5D).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts().longWindow(0).configured()));
+    }
+
+    @Test
+    void testInitialLimitIsClamped() {
+        assertEquals(8, new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts()
+                .initialLimit(1).minLimit(8).configured()).limit());
+        assertEquals(16, new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts()
+                .initialLimit(100).maxLimit(16).configured()).limit());
+    }
+
+    @Test
+    void testUpdateByBatch() {
+        final GradientLimit limit = new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts()
+                .initialLimit(20).smoothing(1D).configured());
+        for (int i = 0; i < GradientLimit.BATCH - 1; i++) {
+            limit.onSample(1_000_000L, limit.limit());
+        }
+        assertEquals(0, limit.samples());
+        assertEquals(0D, limit.longRtt());
+        limit.onSample(1_000_000L, limit.limit());
+        assertEquals(GradientLimit.BATCH, limit.samples());
+        assertEquals(1_000_000D, limit.longRtt(), 1D);
+        assertTrue(limit.limit() > 20);
+    }
+
+    @Test
+    void testGrowWithStableRtt() {
+        final GradientLimit limit = new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts()
+                .initialLimit(20).configured());
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(1_000_000L, limit.limit());
+        }
+        assertTrue(limit.limit() > 20);
+    }
+
+    @Test
+    void testNotGrowWithoutPressure() {
+        final GradientLimit limit = new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts()
+                .initialLimit(20).configured());
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(1_000_000L, 1);
+        }
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void testShrinkWithGrowingRtt() {
+        final GradientLimit limit = new GradientLimit(ConcurrencyLimitOptionsConfigure.newOpts()
+                .initialLimit(100).minLimit(10).configured());
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(1_000_000L, 1);
+        }
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(10_000_000L, limit.limit());
+        }
+        assertTrue(limit.limit() < 100);
+        assertTrue(limit.limit() >= 10);
+    }
+}
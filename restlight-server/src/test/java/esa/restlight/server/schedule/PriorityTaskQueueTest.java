@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriorityTaskQueueTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(IllegalArgumentException.class, () -> new PriorityTaskQueue(0, 100L));
+        assertThrows(IllegalArgumentException.class, () -> new PriorityTaskQueue(10, 0L));
+    }
+
+    @Test
+    void testServeByPriority() throws InterruptedException {
+        final PriorityTaskQueue queue = new PriorityTaskQueue(10, 10_000L);
+        final RequestTask low = task(RequestTask.MIN_PRIORITY);
+        final RequestTask norm1 = task(RequestTask.NORM_PRIORITY);
+        final RequestTask norm2 = task(RequestTask.NORM_PRIORITY);
+        final Runnable plain = () -> {
+        };
+        final RequestTask high = task(RequestTask.MAX_PRIORITY);
+        assertTrue(queue.offer(low));
+        assertTrue(queue.offer(norm1));
+        assertTrue(queue.offer(norm2));
+        assertTrue(queue.offer(plain));
+        assertTrue(queue.offer(high));
+        assertEquals(5, queue.size());
+        assertEquals(3, queue.size(RequestTask.NORM_PRIORITY));
+        assertEquals(1, queue.size(RequestTask.MIN_PRIORITY));
+
+        assertSame(high, queue.peek());
+        assertSame(high, queue.poll());
+        assertSame(norm1, queue.take());
+        assertSame(norm2, queue.poll(1L, TimeUnit.MILLISECONDS));
+        assertSame(plain, queue.poll());
+        assertSame(low, queue.poll());
+        assertNull(queue.poll());
+        assertNull(queue.poll(1L, TimeUnit.MILLISECONDS));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testAging() throws InterruptedException {
+        final PriorityTaskQueue queue = new PriorityTaskQueue(10, 1L);
+        final RequestTask low = task(RequestTask.MIN_PRIORITY);
+        queue.offer(low);
+        TimeUnit.MILLISECONDS.sleep(50L);
+        final RequestTask high = task(RequestTask.MAX_PRIORITY);
+        queue.offer(high);
+        // the low priority task has waited long enough to be served first
+        assertSame(low, queue.poll());
+        assertSame(high, queue.poll());
+    }
+
+    @Test
+    void testEviction() {
+        final PriorityTaskQueue queue = new PriorityTaskQueue(2, 10_000L);
+        final RequestTask low1 = task(RequestTask.MIN_PRIORITY);
+        final RequestTask low2 = task(RequestTask.MIN_PRIORITY);
+        assertNull(queue.offerOrEvict(low1));
+        assertTrue(queue.offer(low2));
+        assertFalse(queue.offer(task(RequestTask.MAX_PRIORITY)));
+        assertEquals(0, queue.remainingCapacity());
+
+        // the same priority could not evict any task
+        final RequestTask low3 = task(RequestTask.MIN_PRIORITY);
+        assertSame(low3, queue.offerOrEvict(low3));
+
+        // the newest one of the lowest priority is evicted
+        final RequestTask high = task(RequestTask.MAX_PRIORITY);
+        assertSame(low2, queue.offerOrEvict(high));
+        assertEquals(2, queue.size());
+        assertSame(high, queue.poll());
+        assertSame(low1, queue.poll());
+    }
+
+    @Test
+    void testRemoveAndDrain() {
+        final PriorityTaskQueue queue = new PriorityTaskQueue(10, 10_000L);
+        final RequestTask t1 = task(RequestTask.MIN_PRIORITY);
+        final RequestTask t2 = task(RequestTask.NORM_PRIORITY);
+        final RequestTask t3 = task(RequestTask.MAX_PRIORITY);
+        queue.offer(t1);
+        queue.offer(t2);
+        queue.offer(t3);
+        assertTrue(queue.remove(t2));
+        assertFalse(queue.remove(t2));
+        assertTrue(queue.contains(t1));
+        assertEquals(2, queue.toArray().length);
+
+        final List<Runnable> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained));
+        assertSame(t3, drained.get(0));
+        assertSame(t1, drained.get(1));
+        assertTrue(queue.isEmpty());
+    }
+
+    private static RequestTask task(int priority) {
+        return RequestTaskImpl.newRequestTask(null, null, null, () -> {
+        }, priority);
+    }
+}
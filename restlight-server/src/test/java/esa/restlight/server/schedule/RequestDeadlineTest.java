@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDeadlineTest {
+
+    @Test
+    void testOf() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        assertNull(RequestDeadline.of(request));
+        request.setAttribute(RequestDeadline.ATTRIBUTE, "foo");
+        assertNull(RequestDeadline.of(request));
+        final RequestDeadline deadline = new RequestDeadline(System.currentTimeMillis());
+        request.setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+        assertSame(deadline, RequestDeadline.of(request));
+        assertNull(ExecutionDeadline.of(request));
+    }
+
+    @Test
+    void testRemaining() {
+        final long now = System.currentTimeMillis();
+        final RequestDeadline deadline = new RequestDeadline(now + 10_000L);
+        assertEquals(now + 10_000L, deadline.deadlineMillis());
+        assertTrue(deadline.remainingMillis() > 0L);
+        assertFalse(deadline.isExpired());
+
+        final RequestDeadline expired = new RequestDeadline(now - 1L);
+        assertEquals(0L, expired.remainingMillis());
+        assertTrue(expired.isExpired());
+    }
+
+    @Test
+    void testWithin() throws Exception {
+        final RequestDeadline deadline = new RequestDeadline(System.currentTimeMillis() + 10_000L);
+        final CompletableFuture<Object> f1 = new CompletableFuture<>();
+        assertSame(f1, deadline.within(f1));
+        f1.complete("foo");
+        assertEquals("foo", f1.get());
+
+        final RequestDeadline expired = new RequestDeadline(System.currentTimeMillis() - 1L);
+        final CompletableFuture<Object> f2 = expired.within(new CompletableFuture<>());
+        assertTrue(f2.isCompletedExceptionally());
+        assertUnavailable(f2);
+
+        // completed by the timer
+        final RequestDeadline shortly = new RequestDeadline(System.currentTimeMillis() + 20L);
+        final CompletableFuture<Object> f3 = shortly.within(new CompletableFuture<>());
+        assertUnavailable(f3);
+    }
+
+    private static void assertUnavailable(CompletableFuture<Object> f) {
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(1L, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof WebServerException);
+        assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE, ((WebServerException) e.getCause()).status());
+    }
+}
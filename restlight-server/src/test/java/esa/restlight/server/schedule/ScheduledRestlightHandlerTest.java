@@ -17,10 +17,12 @@ package esa.restlight.server.schedule;
 
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.method.HttpMethod;
 import esa.restlight.server.bootstrap.DispatcherHandler;
 import esa.restlight.server.config.ServerOptionsConfigure;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.route.Route;
+import esa.restlight.server.route.impl.MappingImpl;
 import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
 import esa.restlight.test.mock.MockAsyncRequest;
@@ -39,10 +41,13 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static esa.restlight.server.route.Mapping.get;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ScheduledRestlightHandlerTest {
@@ -371,6 +376,73 @@ class ScheduledRestlightHandlerTest {
         assertTrue(res2.isCommitted());
     }
 
+    @Test
+    void testStreaming() throws Exception {
+        // Schedulers.biz() is just a marker which drops all the tasks, so schedule the tasks directly.
+        final ForStreamingAssertion dispatcher =
+                new ForStreamingAssertion(Schedulers.fromExecutor(Schedulers.BIZ, Runnable::run));
+        final ScheduledRestlightHandler handler =
+                new ScheduledRestlightHandler(ServerOptionsConfigure.defaultOpts(), dispatcher);
+        handler.onStart();
+
+        final AsyncRequest req1 = MockAsyncRequest.aMockRequest().withUri("/foo").build();
+        final AsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        assertTrue(handler.isStreaming(req1, res1));
+        handler.process(req1, res1).get(3L, TimeUnit.SECONDS);
+        assertEquals(HttpResponseStatus.NO_CONTENT.code(), res1.status());
+        // routed only once
+        assertEquals(1, dispatcher.routed.get());
+
+        final AsyncRequest req2 = MockAsyncRequest.aMockRequest().withUri("/bar").build();
+        final AsyncResponse res2 = MockAsyncResponse.aMockResponse().build();
+        assertFalse(handler.isStreaming(req2, res2));
+        handler.process(req2, res2).get(3L, TimeUnit.SECONDS);
+        assertEquals(HttpResponseStatus.NO_CONTENT.code(), res2.status());
+        // path of the non-streaming request doesn't match any streaming route, so it is routed only once too
+        assertEquals(2, dispatcher.routed.get());
+
+        // no streaming route
+        final ForRouteAssertion dispatcher1 = new ForRouteAssertion();
+        final ScheduledRestlightHandler handler1 =
+                new ScheduledRestlightHandler(ServerOptionsConfigure.defaultOpts(), dispatcher1);
+        handler1.onStart();
+        assertFalse(handler1.isStreaming(req2, res2));
+    }
+
+    @Test
+    void testStreamingPathWithoutLeadingSlash() throws Exception {
+        final ForStreamingAssertion dispatcher =
+                new ForStreamingAssertion(Schedulers.fromExecutor(Schedulers.BIZ, Runnable::run),
+                        // mapping which is created by the constructor directly is not normalized
+                        new MappingImpl(null,
+                                new String[]{"foo"},
+                                new HttpMethod[0],
+                                new String[0],
+                                new String[0],
+                                new String[0],
+                                new String[0],
+                                RequestTask.NORM_PRIORITY,
+                                true));
+        final ScheduledRestlightHandler handler =
+                new ScheduledRestlightHandler(ServerOptionsConfigure.defaultOpts(), dispatcher);
+        handler.onStart();
+
+        final AsyncRequest req = MockAsyncRequest.aMockRequest().withUri("/foo").build();
+        final AsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        assertTrue(handler.isStreaming(req, res));
+        handler.process(req, res).get(3L, TimeUnit.SECONDS);
+        assertEquals(HttpResponseStatus.NO_CONTENT.code(), res.status());
+        assertEquals(1, dispatcher.routed.get());
+    }
+
+    @Test
+    void testStreamingOnIo() {
+        final ScheduledRestlightHandler handler =
+                new ScheduledRestlightHandler(ServerOptionsConfigure.defaultOpts(),
+                        new ForStreamingAssertion(Schedulers.io()));
+        assertThrows(IllegalArgumentException.class, handler::onStart);
+    }
+
     private void forTest(String s1, String s2) {
         doProcess(new ForScheduleAssertion(s1, s2));
     }
@@ -540,6 +612,55 @@ class ScheduledRestlightHandlerTest {
         }
     }
 
+    private static class ForStreamingAssertion implements DispatcherHandler {
+
+        private final Route streaming;
+        private final Route aggregated;
+        private final AtomicInteger routed = new AtomicInteger();
+
+        private ForStreamingAssertion(Scheduler scheduler) {
+            this(scheduler, Mapping.get("/foo").streaming(true));
+        }
+
+        private ForStreamingAssertion(Scheduler scheduler, Mapping streaming) {
+            this.streaming = Route.route(streaming).schedule(scheduler);
+            this.aggregated = Route.route(Mapping.get("/bar")).schedule(scheduler);
+        }
+
+        @Override
+        public List<Route> routes() {
+            return Arrays.asList(streaming, aggregated);
+        }
+
+        @Override
+        public Route route(AsyncRequest request, AsyncResponse response) {
+            routed.incrementAndGet();
+            return request.uri().equals("/foo") ? streaming : aggregated;
+        }
+
+        @Override
+        public void service(AsyncRequest request, AsyncResponse response, CompletableFuture<Void> promise,
+                            Route route) {
+            response.sendResult(204);
+            promise.complete(null);
+        }
+
+        @Override
+        public void handleRejectedWork(RequestTask task, String reason) {
+
+        }
+
+        @Override
+        public void handleUnfinishedWorks(List<RequestTask> unfinishedWorkList) {
+
+        }
+
+        @Override
+        public long rejectCount() {
+            return 0;
+        }
+    }
+
     private abstract static class RequestTaskWrap implements RequestTask {
 
         final RequestTask delegate;
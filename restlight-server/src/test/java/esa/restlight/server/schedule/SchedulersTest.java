@@ -161,6 +161,32 @@ class SchedulersTest {
         assertNotNull(wrapped6);
         assertNotSame(scheduler6, wrapped6);
         assertTrue(wrapped6 instanceof TimeoutScheduler);
+
+        // wraps to CoDelTimeoutScheduler
+        final Scheduler wrapped7 = Schedulers.wrapped(scheduler4, TimeoutOptionsConfigure.newOpts()
+                .timeMillis(100L).type(TimeoutOptions.Type.CODEL).configured());
+        assertTrue(wrapped7 instanceof CoDelTimeoutScheduler);
+
+        final Scheduler wrapped8 = Schedulers.wrapped(scheduler4, TimeoutOptionsConfigure.newOpts()
+                .timeMillis(100L).type(TimeoutOptions.Type.EXECUTION).configured());
+        assertTrue(wrapped8 instanceof ExecutionTimeoutScheduler);
     }
 
+    @Test
+    void testVirtual() {
+        final ExecutorService e = Executors.newCachedThreadPool();
+        final ExecutorScheduler fallback = Schedulers.fromExecutor("foo", e);
+        final Scheduler virtual = Schedulers.virtual(10, fallback);
+        assertEquals(Schedulers.VIRTUAL, virtual.name());
+        if (VirtualThreadExecutor.isSupported()) {
+            assertTrue(virtual instanceof ExecutorScheduler);
+            assertTrue(((ExecutorScheduler) virtual).executor() instanceof VirtualThreadExecutor);
+        } else {
+            assertTrue(virtual instanceof AliasScheduler);
+            virtual.shutdown();
+            assertFalse(e.isShutdown());
+        }
+        virtual.shutdown();
+        e.shutdown();
+    }
 }
@@ -15,6 +15,7 @@
  */
 package esa.restlight.server.schedule;
 
+import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.httpserver.utils.Constants;
 import esa.restlight.server.config.TimeoutOptions;
@@ -28,6 +29,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TTFBTimeoutSchedulerTest {
@@ -98,5 +100,27 @@ class TTFBTimeoutSchedulerTest {
         assertEquals(200, response1.status());
     }
 
+    @Test
+    void testAttachDeadline() {
+        final TimeoutScheduler scheduler = new TTFBTimeoutScheduler(Schedulers.io(),
+                TimeoutOptionsConfigure.newOpts()
+                        .timeMillis(1000L)
+                        .type(TimeoutOptions.Type.TTFB)
+                        .configured());
+        final long start = System.currentTimeMillis() - 100L;
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader(Constants.TTFB.toString(), String.valueOf(start)).build();
+        final AtomicBoolean executed = new AtomicBoolean();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(request,
+                MockAsyncResponse.aMockResponse().build(), new CompletableFuture<>(), () -> {
+                    final RequestDeadline deadline = RequestDeadline.of(request);
+                    assertNotNull(deadline);
+                    assertEquals(start + 1000L, deadline.deadlineMillis());
+                    assertFalse(deadline.isExpired());
+                    executed.set(true);
+                }));
+        assertTrue(executed.get());
+    }
+
 }
 
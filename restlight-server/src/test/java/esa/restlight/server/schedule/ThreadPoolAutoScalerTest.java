@@ -0,0 +1,221 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.config.AutoScalingOptions;
+import esa.restlight.server.config.AutoScalingOptionsConfigure;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreadPoolAutoScalerTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1L);
+
+    @Test
+    void testIllegalArgs() {
+        final ThreadPoolExecutor pool = newPool(2, 4);
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ThreadPoolAutoScaler("", pool, AutoScalingOptionsConfigure.defaultOpts()));
+            assertThrows(NullPointerException.class,
+                    () -> new ThreadPoolAutoScaler("foo", null, AutoScalingOptionsConfigure.defaultOpts()));
+            assertThrows(IllegalArgumentException.class, () -> new ThreadPoolAutoScaler("foo", pool,
+                    AutoScalingOptionsConfigure.newOpts().intervalMillis(0L).configured()));
+            assertThrows(IllegalArgumentException.class, () -> new ThreadPoolAutoScaler("foo", pool,
+                    AutoScalingOptionsConfigure.newOpts().scaleDownSamples(0).configured()));
+            assertThrows(IllegalArgumentException.class, () -> new ThreadPoolAutoScaler("foo", pool,
+                    AutoScalingOptionsConfigure.newOpts().scaleUpUtilization(50).configured()));
+            assertThrows(IllegalArgumentException.class, () -> new ThreadPoolAutoScaler("foo", pool,
+                    AutoScalingOptionsConfigure.newOpts().minThreads(8).configured()));
+
+            final ThreadPoolAutoScaler scaler =
+                    new ThreadPoolAutoScaler("foo", pool, AutoScalingOptionsConfigure.defaultOpts());
+            assertEquals("foo", scaler.name());
+            assertEquals(2, scaler.minThreads());
+            assertEquals(4, scaler.maxThreads());
+            assertNull(scaler.lastDecision());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testScaleUpByQueueWait() throws InterruptedException {
+        final ThreadPoolExecutor pool = newPool(2, 4);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        try {
+            final ThreadPoolAutoScaler scaler =
+                    new ThreadPoolAutoScaler("foo", pool, AutoScalingOptionsConfigure.defaultOpts());
+            block(pool, 2, blocking);
+            pool.execute(() -> {
+            });
+
+            long now = System.nanoTime() + INTERVAL;
+            final ThreadPoolAutoScaler.Decision decision = scaler.sample(now, -1);
+            assertSame(decision, scaler.lastDecision());
+            assertEquals(ThreadPoolAutoScaler.Action.UP, decision.getAction());
+            assertEquals(2, decision.getFrom());
+            assertEquals(3, decision.getTo());
+            assertEquals(2, decision.getActiveCount());
+            assertEquals(1, decision.getQueueSize());
+            assertEquals(100, decision.getUtilization());
+            assertTrue(decision.getQueueWaitMillis() > 50L);
+            assertEquals(3, pool.getCorePoolSize());
+            assertEquals(4, pool.getMaximumPoolSize());
+
+            // the cpu is saturated
+            block(pool, 1, blocking);
+            now += INTERVAL;
+            final ThreadPoolAutoScaler.Decision held = scaler.sample(now, 95);
+            assertEquals(ThreadPoolAutoScaler.Action.HOLD, held.getAction());
+            assertEquals("cpu saturated", held.getReason());
+            assertEquals(3, pool.getCorePoolSize());
+
+            now += INTERVAL;
+            assertEquals(ThreadPoolAutoScaler.Action.UP, scaler.sample(now, 10).getAction());
+            assertEquals(4, pool.getCorePoolSize());
+            assertEquals(2L, scaler.scaleUpCount());
+            assertEquals(0L, scaler.scaleDownCount());
+        } finally {
+            blocking.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testScaleDownWithHysteresis() {
+        final ThreadPoolExecutor pool = newPool(4, 4);
+        try {
+            final ThreadPoolAutoScaler scaler = new ThreadPoolAutoScaler("foo", pool,
+                    AutoScalingOptionsConfigure.newOpts()
+                            .minThreads(2)
+                            .scaleDownSamples(3)
+                            .configured());
+            long now = System.nanoTime();
+            for (int i = 0; i < 2; i++) {
+                now += INTERVAL;
+                final ThreadPoolAutoScaler.Decision decision = scaler.sample(now, -1);
+                assertEquals(ThreadPoolAutoScaler.Action.HOLD, decision.getAction());
+                assertEquals("cooling down", decision.getReason());
+                assertEquals(4, pool.getCorePoolSize());
+            }
+            now += INTERVAL;
+            final ThreadPoolAutoScaler.Decision decision = scaler.sample(now, -1);
+            assertEquals(ThreadPoolAutoScaler.Action.DOWN, decision.getAction());
+            assertEquals(4, decision.getFrom());
+            assertEquals(3, decision.getTo());
+            assertEquals(3, pool.getCorePoolSize());
+            assertEquals(4, pool.getMaximumPoolSize());
+            assertEquals(1L, scaler.scaleDownCount());
+
+            // have to wait for another whole window
+            now += INTERVAL;
+            assertEquals(ThreadPoolAutoScaler.Action.HOLD, scaler.sample(now, -1).getAction());
+            now += INTERVAL;
+            assertEquals(ThreadPoolAutoScaler.Action.HOLD, scaler.sample(now, -1).getAction());
+            now += INTERVAL;
+            assertEquals(ThreadPoolAutoScaler.Action.DOWN, scaler.sample(now, -1).getAction());
+            assertEquals(2, pool.getCorePoolSize());
+
+            // bounded by the minThreads
+            for (int i = 0; i < 5; i++) {
+                now += INTERVAL;
+                final ThreadPoolAutoScaler.Decision stable = scaler.sample(now, -1);
+                assertEquals(ThreadPoolAutoScaler.Action.HOLD, stable.getAction());
+                assertEquals("stable", stable.getReason());
+            }
+            assertEquals(2, pool.getCorePoolSize());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testEnlargeAndRestoreMaxPoolSize() throws InterruptedException {
+        final ThreadPoolExecutor pool = newPool(1, 1);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        try {
+            final AutoScalingOptions options = AutoScalingOptionsConfigure.newOpts()
+                    .maxThreads(2)
+                    .scaleDownSamples(1)
+                    .configured();
+            final ThreadPoolAutoScaler scaler = new ThreadPoolAutoScaler("foo", pool, options);
+            block(pool, 1, blocking);
+            pool.execute(() -> {
+            });
+            long now = System.nanoTime() + INTERVAL;
+            assertEquals(ThreadPoolAutoScaler.Action.UP, scaler.sample(now, -1).getAction());
+            assertEquals(2, pool.getCorePoolSize());
+            assertEquals(2, pool.getMaximumPoolSize());
+
+            // bounded by the maxThreads
+            now += INTERVAL;
+            assertEquals(ThreadPoolAutoScaler.Action.HOLD, scaler.sample(now, -1).getAction());
+            assertEquals(2, pool.getCorePoolSize());
+
+            blocking.countDown();
+            for (int i = 0; i < 100 && (pool.getActiveCount() > 0 || !pool.getQueue().isEmpty()); i++) {
+                TimeUnit.MILLISECONDS.sleep(10L);
+            }
+            now += INTERVAL;
+            assertEquals(ThreadPoolAutoScaler.Action.DOWN, scaler.sample(now, -1).getAction());
+            assertEquals(1, pool.getCorePoolSize());
+            assertEquals(1, pool.getMaximumPoolSize());
+        } finally {
+            blocking.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testStopAfterShutdown() {
+        final ThreadPoolExecutor pool = newPool(1, 1);
+        final ThreadPoolAutoScaler scaler = new ThreadPoolAutoScaler("foo", pool,
+                AutoScalingOptionsConfigure.defaultOpts());
+        pool.shutdown();
+        scaler.run(null);
+        assertNull(scaler.lastDecision());
+    }
+
+    private static void block(ThreadPoolExecutor pool, int count, CountDownLatch blocking)
+            throws InterruptedException {
+        final CountDownLatch running = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            pool.execute(() -> {
+                running.countDown();
+                try {
+                    blocking.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+        }
+        assertTrue(running.await(3L, TimeUnit.SECONDS));
+    }
+
+    private static ThreadPoolExecutor newPool(int core, int max) {
+        return new ThreadPoolExecutor(core, max, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(16));
+    }
+}
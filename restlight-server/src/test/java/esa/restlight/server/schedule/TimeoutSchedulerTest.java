@@ -15,6 +15,7 @@
  */
 package esa.restlight.server.schedule;
 
+import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.restlight.server.config.TimeoutOptionsConfigure;
 import esa.restlight.test.mock.MockAsyncRequest;
@@ -27,6 +28,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -103,5 +105,20 @@ class TimeoutSchedulerTest {
         assertEquals(200, response1.status());
     }
 
-}
+    @Test
+    void testNoDeadlineForQueuedTimeout() {
+        final TimeoutScheduler scheduler = new TimeoutScheduler(Schedulers.io(),
+                TimeoutOptionsConfigure.newOpts().timeMillis(1000L).configured());
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AtomicBoolean executed = new AtomicBoolean();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(request,
+                MockAsyncResponse.aMockResponse().build(), new CompletableFuture<>(), () -> {
+                    // timeout of queueing is not a deadline of the request
+                    assertNull(RequestDeadline.of(request));
+                    executed.set(true);
+                }));
+        assertTrue(executed.get());
+        assertNull(RequestDeadline.of(request));
+    }
 
+}
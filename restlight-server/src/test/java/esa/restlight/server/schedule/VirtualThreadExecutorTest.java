@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadExecutorTest {
+
+    @Test
+    void testUnsupported() {
+        assumeFalse(VirtualThreadExecutor.isSupported());
+        assertThrows(IllegalStateException.class, () -> new VirtualThreadExecutor("foo", 1));
+    }
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(IllegalArgumentException.class, () -> new VirtualThreadExecutor("", 1));
+        assertThrows(IllegalArgumentException.class, () -> new VirtualThreadExecutor("foo", 0));
+    }
+
+    @Test
+    void testExecuteInVirtualThread() throws InterruptedException {
+        assumeTrue(VirtualThreadExecutor.isSupported());
+        final VirtualThreadExecutor executor = new VirtualThreadExecutor("foo-", 1);
+        final AtomicReference<String> name = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            name.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+        assertTrue(latch.await(1L, TimeUnit.SECONDS));
+        assertTrue(name.get().startsWith("foo-"));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.SECONDS));
+        assertEquals(1L, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    void testRejectOverMaxConcurrency() throws InterruptedException {
+        assumeTrue(VirtualThreadExecutor.isSupported());
+        final VirtualThreadExecutor executor = new VirtualThreadExecutor("foo-", 1);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocking.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        assertEquals(1, executor.getActiveCount());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+
+        final AtomicReference<Runnable> rejected = new AtomicReference<>();
+        executor.setRejectedHandler(rejected::set);
+        final Runnable r = () -> {
+        };
+        executor.execute(r);
+        assertSame(r, rejected.get());
+        assertEquals(2L, executor.getRejectedTaskCount());
+
+        executor.shutdown();
+        assertFalse(executor.isTerminated());
+        blocking.countDown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    void testShutdown() {
+        assumeTrue(VirtualThreadExecutor.isSupported());
+        final VirtualThreadExecutor executor = new VirtualThreadExecutor("foo-", 1);
+        final List<Runnable> remaining = executor.shutdownNow();
+        assertTrue(remaining.isEmpty());
+        assertTrue(executor.isShutdown());
+        assertTrue(executor.isTerminated());
+
+        final AtomicBoolean executed = new AtomicBoolean();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> executed.set(true)));
+        assertFalse(executed.get());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import esa.commons.StringUtils;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ErrorDetailTest {
+
+    @Test
+    void testBuildErrorMsgByStatus() {
+        assertSameWithoutTime("/foo", HttpResponseStatus.NOT_FOUND);
+        assertSameWithoutTime("/foo", HttpResponseStatus.METHOD_NOT_ALLOWED);
+        assertSameWithoutTime("/foo", HttpResponseStatus.NOT_ACCEPTABLE);
+        assertSameWithoutTime("/foo", HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertSameWithoutTime("/你好", HttpResponseStatus.NOT_FOUND);
+        // not pre-encoded
+        assertSameWithoutTime("/foo", HttpResponseStatus.BAD_REQUEST);
+    }
+
+    private static void assertSameWithoutTime(String path, HttpResponseStatus status) {
+        final String expect = new String(ErrorDetail.buildErrorMsg(path, StringUtils.empty(),
+                status.reasonPhrase(), status.code()), StandardCharsets.UTF_8);
+        final String actual = new String(ErrorDetail.buildErrorMsg(path, status), StandardCharsets.UTF_8);
+        assertEquals(withoutTime(expect), withoutTime(actual));
+    }
+
+    private static String withoutTime(String msg) {
+        return msg.replaceAll("\"time\":\"[^\"]*\"", "\"time\":\"\"");
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GlobMatcherTest {
+
+    @Test
+    void testMatch() {
+        final GlobMatcher matcher = new GlobMatcher.Builder()
+                .literal("a")
+                .anyChar()
+                .anyChars()
+                .literal("c")
+                .build(true);
+        assertTrue(matcher.test("abc", null));
+        assertTrue(matcher.test("abxxc", null));
+        assertTrue(matcher.test("abccc", null));
+        assertFalse(matcher.test("ac", null));
+        assertFalse(matcher.test("abcd", null));
+        assertFalse(matcher.test("Abc", null));
+        assertFalse(matcher.test("ab\nc", null));
+
+        final GlobMatcher insensitive = new GlobMatcher.Builder()
+                .literal("a")
+                .anyChar()
+                .anyChars()
+                .literal("c")
+                .build(false);
+        assertTrue(insensitive.test("AbC", null));
+    }
+
+    @Test
+    void testExtractVariables() {
+        final GlobMatcher matcher = new GlobMatcher.Builder()
+                .variable("foo")
+                .literal("-")
+                .variable("bar")
+                .anyChars()
+                .literal(".json")
+                .build(true);
+        final Map<String, String> variables = new LinkedHashMap<>();
+        assertTrue(matcher.test("a-b-c.json", variables));
+        // same as the greedy quantifier of regex
+        assertEquals("a-b", variables.get("foo"));
+        assertEquals("c", variables.get("bar"));
+
+        variables.clear();
+        assertTrue(matcher.test("-.json", variables));
+        assertEquals("", variables.get("foo"));
+        assertEquals("", variables.get("bar"));
+
+        variables.clear();
+        assertFalse(matcher.test("a.json", variables));
+        assertTrue(variables.isEmpty());
+    }
+
+    @Test
+    void testSameAsRegex() {
+        final String[] patterns = {"f?o*", "*{a}-{b}*", "{a}.{b}", "a*b?c*", "*"};
+        final String[] paths = {"foo", "f-o.x", "a-b-c-d", "abbcc", "a.b.c", "", "x-"};
+        for (String pattern : patterns) {
+            final PathMatcher.Matcher glob = new PathMatcher.Matcher(pattern, true);
+            final PathMatcher.Matcher regex = new PathMatcher.Matcher(pattern, true, true);
+            for (String path : paths) {
+                final Map<String, String> v1 = new LinkedHashMap<>();
+                final Map<String, String> v2 = new LinkedHashMap<>();
+                assertEquals(regex.matchStrings(path, v2), glob.matchStrings(path, v1), pattern + " " + path);
+                assertEquals(v2, v1, pattern + " " + path);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediaTypeUtilsTest {
+
+    @Test
+    void testParseMediaTypes() {
+        assertTrue(MediaTypeUtils.parseMediaTypes(null).isEmpty());
+        assertTrue(MediaTypeUtils.parseMediaTypes("").isEmpty());
+        final List<MediaType> mediaTypes = MediaTypeUtils.parseMediaTypes("text/plain;q=0.5,application/json");
+        assertEquals(2, mediaTypes.size());
+        assertEquals(MediaType.parseMediaType("text/plain;q=0.5"), mediaTypes.get(0));
+        assertEquals(MediaType.APPLICATION_JSON, mediaTypes.get(1));
+        assertSame(mediaTypes, MediaTypeUtils.parseMediaTypes("text/plain;q=0.5,application/json"));
+        assertThrows(UnsupportedOperationException.class, () -> mediaTypes.add(MediaType.ALL));
+    }
+
+    @Test
+    void testEvictRandomValues() {
+        final String hot = "application/json,text/plain";
+        final List<MediaType> mediaTypes = MediaTypeUtils.parseMediaTypes(hot);
+        for (int i = 0; i < MediaTypeUtils.MAX_CACHE_SIZE * 8; i++) {
+            MediaTypeUtils.parseMediaTypes("application/x-" + i);
+            // keep the hot value referenced
+            assertSame(mediaTypes, MediaTypeUtils.parseMediaTypes(hot));
+        }
+
+        // random values could be evicted but a new value will still be cached
+        final String value = "application/x-foo";
+        assertSame(MediaTypeUtils.parseMediaTypes(value), MediaTypeUtils.parseMediaTypes(value));
+    }
+
+    @Test
+    void testGetAcceptedMediaTypes() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.ACCEPT.toString(), "application/json")
+                .build();
+        final List<MediaType> mediaTypes = MediaTypeUtils.getAcceptedMediaTypes(request);
+        assertEquals(1, mediaTypes.size());
+        assertEquals(MediaType.APPLICATION_JSON, mediaTypes.get(0));
+        assertSame(mediaTypes, MediaTypeUtils.getAcceptedMediaTypes(request));
+
+        assertTrue(MediaTypeUtils.getAcceptedMediaTypes(MockAsyncRequest.aMockRequest().build()).isEmpty());
+    }
+
+    @Test
+    void testGetContentType() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json")
+                .build();
+        assertEquals(MediaType.APPLICATION_JSON, MediaTypeUtils.getContentType(request));
+        assertSame(MediaTypeUtils.getContentType(request), MediaTypeUtils.getContentType(request));
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM,
+                MediaTypeUtils.getContentType(MockAsyncRequest.aMockRequest().build()));
+    }
+}
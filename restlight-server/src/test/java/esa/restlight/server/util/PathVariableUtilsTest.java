@@ -21,6 +21,7 @@ import esa.restlight.server.route.predicate.PatternsPredicate;
 import esa.restlight.test.mock.MockAsyncRequest;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -76,4 +77,19 @@ class PathVariableUtilsTest {
         assertTrue(PathVariableUtils.getMatrixVariables(request1).isEmpty());
     }
 
+    @Test
+    void testGetMatrixVariablesFromSharedVariables() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withUri("/")
+                .build();
+        final Map<String, String> variables = new HashMap<>();
+        variables.put("bar", "21;b=22");
+        final Map<String, String> shared = Collections.unmodifiableMap(variables);
+        request.setAttribute(PatternsPredicate.TEMPLATE_VARIABLES, shared);
+        final Map<String, MultiValueMap<String, String>> matrix = PathVariableUtils.getMatrixVariables(request);
+        assertEquals("22", matrix.get("bar").get("b").get(0));
+        assertEquals("21", PathVariableUtils.getPathVariable(request, "bar"));
+        assertEquals("21;b=22", shared.get("bar"));
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathVariablesTest {
+
+    @Test
+    void testMatchAndExtractPathVariables() {
+        final PathMatcher matcher = new PathMatcher("/foo/{a}/bar/{b:\\d+}/{c}");
+        final PathVariables variables = matcher.matchAndExtractPathVariables("/foo/x/bar/1/y");
+        assertNotNull(variables);
+        assertEquals(3, variables.size());
+        assertEquals(0, variables.indexOf("a"));
+        assertEquals(1, variables.indexOf("b"));
+        assertEquals(2, variables.indexOf("c"));
+        assertEquals(-1, variables.indexOf("d"));
+        assertEquals("x", variables.get(0));
+        assertEquals("1", variables.get(1));
+        assertEquals("y", variables.get(2));
+        assertEquals("x", variables.get("a"));
+        assertNull(variables.get("d"));
+
+        final Map<String, String> expect = new LinkedHashMap<>();
+        expect.put("a", "x");
+        expect.put("b", "1");
+        expect.put("c", "y");
+        assertEquals(expect, variables);
+        assertEquals(matcher.matchAndExtractUriTemplateVariables("/foo/x/bar/1/y"), variables);
+
+        assertNull(matcher.matchAndExtractPathVariables("/foo/x/bar/z/y"));
+        assertThrows(IllegalArgumentException.class, () -> variables.put("d", "z"));
+    }
+
+    @Test
+    void testDetachedFromReusedVariables() {
+        final PathMatcher matcher = new PathMatcher("/foo/{a}/{b:\\d+}");
+        // partially matched
+        assertNull(matcher.matchAndExtractPathVariables("/foo/x/y"));
+        final PathVariables v1 = matcher.matchAndExtractPathVariables("/foo/1/2");
+        final PathVariables v2 = matcher.matchAndExtractPathVariables("/foo/3/4");
+        assertNotNull(v1);
+        assertNotNull(v2);
+        assertEquals("1", v1.get("a"));
+        assertEquals("2", v1.get("b"));
+        assertEquals("3", v2.get("a"));
+        assertEquals("4", v2.get("b"));
+
+        v1.clear();
+        assertTrue(v1.isEmpty());
+        assertEquals(2, v2.size());
+    }
+
+    @Test
+    void testWithoutTemplateVariables() {
+        final PathMatcher matcher = new PathMatcher("/foo/*");
+        final PathVariables variables = matcher.matchAndExtractPathVariables("/foo/bar");
+        assertNotNull(variables);
+        assertTrue(variables.isEmpty());
+        assertSame(variables, matcher.matchAndExtractPathVariables("/foo/baz"));
+        assertNull(matcher.matchAndExtractPathVariables("/bar/baz"));
+    }
+
+    @Test
+    void testTooManyTemplateVariables() {
+        final StringBuilder pattern = new StringBuilder();
+        final StringBuilder path = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            pattern.append("/{v").append(i).append('}');
+            path.append('/').append(i);
+        }
+        final PathMatcher matcher = new PathMatcher(pattern.toString());
+        final PathVariables variables = matcher.matchAndExtractPathVariables(path.toString());
+        assertNotNull(variables);
+        assertEquals(20, variables.size());
+        assertEquals("19", variables.get("v19"));
+        assertNull(matcher.matchAndExtractPathVariables("/foo"));
+    }
+
+    @Test
+    void testSlot() {
+        final PathMatcher matcher = new PathMatcher("/foo/{a}/{b}");
+        final PathVariables.Slot slot = new PathVariables.Slot("b");
+        assertEquals("b", slot.name());
+        assertNull(slot.get(null));
+        assertEquals("2", slot.get(matcher.matchAndExtractPathVariables("/foo/1/2")));
+        assertEquals("3", slot.get(matcher.matchAndExtractPathVariables("/foo/1/3")));
+        assertNull(new PathVariables.Slot("c").get(matcher.matchAndExtractPathVariables("/foo/1/3")));
+
+        final Map<String, String> map = new HashMap<>();
+        map.put("b", "4");
+        assertEquals("4", slot.get(map));
+        assertEquals("5", slot.get(new PathMatcher("/{b}/bar").matchAndExtractPathVariables("/5/bar")));
+    }
+}
@@ -66,6 +66,7 @@ public class ManagementOptions extends RestlightOptions {
         sb.append(", compress=").append(isCompress());
         sb.append(", decompress=").append(isDecompress());
         sb.append(", maxContentLength=").append(getMaxContentLength());
+        sb.append(", streamingBufferSize=").append(getStreamingBufferSize());
         sb.append(", maxInitialLineLength=").append(getMaxInitialLineLength());
         sb.append(", maxHeaderSize=").append(getMaxHeaderSize());
         sb.append(", soBacklog=").append(getSoBacklog());
@@ -18,6 +18,7 @@ package esa.restlight.starter.actuator.autoconfigurer;
 import esa.restlight.starter.ServerStarter;
 import esa.restlight.starter.actuator.meter.RestlightBizThreadPoolBinder;
 import esa.restlight.starter.actuator.meter.RestlightIoExecutorBinder;
+import esa.restlight.starter.actuator.meter.RestlightVirtualSchedulerBinder;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -47,4 +48,11 @@ public class MeterAutoConfiguration {
     public RestlightIoExecutorBinder restlightIoExecutorMeter(MeterRegistry registry) {
         return new RestlightIoExecutorBinder(registry);
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public RestlightVirtualSchedulerBinder restlightVirtualSchedulerMeter(MeterRegistry registry) {
+        return new RestlightVirtualSchedulerBinder(registry);
+    }
 }
@@ -20,12 +20,16 @@ import esa.commons.logging.Logger;
 import esa.commons.logging.LoggerFactory;
 import esa.restlight.core.DeployContext;
 import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.schedule.BatchDrainingExecutor;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.schedule.ThreadPoolAutoScaler;
 import esa.restlight.spring.util.RestlightBizExecutorAware;
 import esa.restlight.spring.util.RestlightDeployContextAware;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
 
 import java.io.Serializable;
@@ -46,12 +50,11 @@ public class RestlightBizThreadPoolEndpoint implements RestlightBizExecutorAware
 
     @ReadOperation
     public ThreadPoolMetric threadPoolMetric() {
+        final ThreadPoolMetric metric = new ThreadPoolMetric();
         if (bizExecutor instanceof ThreadPoolExecutor) {
             ThreadPoolExecutor executor = (ThreadPoolExecutor) bizExecutor;
-            ThreadPoolMetric metric = new ThreadPoolMetric();
             metric.setCorePoolSize(executor.getCorePoolSize());
             metric.setMaxPoolSize(executor.getMaximumPoolSize());
-            metric.setQueueLength(config.getBizThreads().getBlockingQueueLength());
             metric.setKeepAliveTimeSeconds(executor.getKeepAliveTime(TimeUnit.SECONDS));
             metric.setActiveCount(executor.getActiveCount());
             metric.setPoolSize(executor.getPoolSize());
@@ -59,15 +62,46 @@ public class RestlightBizThreadPoolEndpoint implements RestlightBizExecutorAware
             metric.setTaskCount(executor.getTaskCount());
             metric.setQueueCount(executor.getQueue().size());
             metric.setCompletedTaskCount(executor.getCompletedTaskCount());
-            if (deployContext != null) {
-                deployContext.dispatcherHandler()
-                        .ifPresent(dispatcherHandler -> metric.setRejectTaskCount(dispatcherHandler.rejectCount()));
-            } else {
-                metric.setRejectTaskCount(-1L);
-            }
-            return metric;
-        }
-        return null;
+        } else if (bizExecutor instanceof BatchDrainingExecutor) {
+            BatchDrainingExecutor executor = (BatchDrainingExecutor) bizExecutor;
+            metric.setCorePoolSize(executor.getCorePoolSize());
+            metric.setMaxPoolSize(executor.getMaximumPoolSize());
+            metric.setKeepAliveTimeSeconds(executor.getKeepAliveTime(TimeUnit.SECONDS));
+            metric.setActiveCount(executor.getActiveCount());
+            metric.setPoolSize(executor.getPoolSize());
+            metric.setLargestPoolSize(executor.getLargestPoolSize());
+            metric.setTaskCount(executor.getTaskCount());
+            metric.setQueueCount(executor.getQueueSize());
+            metric.setCompletedTaskCount(executor.getCompletedTaskCount());
+        } else {
+            return null;
+        }
+        metric.setQueueLength(config.getBizThreads().getBlockingQueueLength());
+        if (deployContext != null) {
+            deployContext.dispatcherHandler()
+                    .ifPresent(dispatcherHandler -> metric.setRejectTaskCount(dispatcherHandler.rejectCount()));
+        } else {
+            metric.setRejectTaskCount(-1L);
+        }
+        return metric;
+    }
+
+    /**
+     * Gets the last decision made by the auto scaler of the given scheduler, the BIZ scheduler could also be named as
+     * 'biz'.
+     *
+     * @param name name of scheduler
+     *
+     * @return decision or {@code null} if auto scaling is disabled
+     */
+    @ReadOperation
+    public ThreadPoolAutoScaler.Decision autoScaling(@Selector String name) {
+        if (deployContext == null) {
+            return null;
+        }
+        final ThreadPoolAutoScaler scaler = ThreadPoolAutoScaler.of(deployContext,
+                "biz".equalsIgnoreCase(name) ? Schedulers.BIZ : name);
+        return scaler == null ? null : scaler.lastDecision();
     }
 
     @WriteOperation
@@ -81,6 +115,8 @@ public class RestlightBizThreadPoolEndpoint implements RestlightBizExecutorAware
             executor.setCorePoolSize(corePoolSize);
             executor.setMaximumPoolSize(maxPoolSize);
             logger.info("Set biz thread pool size to core: {}, max: {}", corePoolSize, maxPoolSize);
+        } else if (bizExecutor instanceof BatchDrainingExecutor) {
+            logger.warn("Resizing is unsupported by BatchDrainingExecutor, which has a fixed count of workers");
         }
     }
 
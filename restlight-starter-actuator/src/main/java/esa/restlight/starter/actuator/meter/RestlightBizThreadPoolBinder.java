@@ -19,6 +19,14 @@ import esa.commons.Checks;
 import esa.restlight.core.DeployContext;
 import esa.restlight.core.config.RestlightOptions;
 import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.config.BizThreadsOptions;
+import esa.restlight.server.schedule.BatchDrainingExecutor;
+import esa.restlight.server.schedule.ExecutorScheduler;
+import esa.restlight.server.schedule.PriorityTaskQueue;
+import esa.restlight.server.schedule.RequestTask;
+import esa.restlight.server.schedule.Scheduler;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.schedule.ThreadPoolAutoScaler;
 import esa.restlight.spring.util.RestlightBizExecutorAware;
 import esa.restlight.spring.util.RestlightDeployContextAware;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
@@ -31,6 +39,7 @@ import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 public class RestlightBizThreadPoolBinder implements RestlightBizExecutorAware, RestlightDeployContextAware {
 
@@ -50,9 +59,12 @@ public class RestlightBizThreadPoolBinder implements RestlightBizExecutorAware,
     @Override
     public void setRestlightBizExecutor(Executor bizExecutor) {
         final String restlightBizThread = "restlight.biz.thread";
-        if (bizExecutor instanceof ThreadPoolExecutor) {
-            ThreadPoolExecutor executor = (ThreadPoolExecutor) bizExecutor;
-            createBizThreadPoolGauge(restlightBizThread, registry, executor);
+        if (bizExecutor instanceof ThreadPoolExecutor || bizExecutor instanceof BatchDrainingExecutor) {
+            if (bizExecutor instanceof ThreadPoolExecutor) {
+                createBizThreadPoolGauge(restlightBizThread, "biz", registry, (ThreadPoolExecutor) bizExecutor);
+            } else {
+                createBatchDrainingGauge(restlightBizThread, "biz", registry, (BatchDrainingExecutor) bizExecutor);
+            }
             Gauge.builder(restlightBizThread, config, (c) -> c.getBizThreads().getBlockingQueueLength())
                     .tag(CATEGORY, "biz")
                     .tag("id", "queue.length")
@@ -76,63 +88,207 @@ public class RestlightBizThreadPoolBinder implements RestlightBizExecutorAware,
     @Override
     public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
         this.deployContext = ctx;
+        bindBulkheads(ctx);
+        bindAutoScaler(ctx, Schedulers.BIZ, "biz");
+        config.getScheduling().getBulkheads().keySet().forEach(name -> bindAutoScaler(ctx, name, name));
+    }
+
+    private void bindAutoScaler(DeployContext<? extends RestlightOptions> ctx, String scheduler, String category) {
+        final ThreadPoolAutoScaler scaler = ThreadPoolAutoScaler.of(ctx, scheduler);
+        if (scaler == null) {
+            return;
+        }
+        final String restlightBizThread = "restlight.biz.thread";
+        Gauge.builder(restlightBizThread, scaler, s -> decision(s, ThreadPoolAutoScaler.Decision::getQueueWaitMillis))
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "autoscaling.queue.wait.millis")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, scaler, s -> decision(s, ThreadPoolAutoScaler.Decision::getUtilization))
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "autoscaling.utilization")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, scaler,
+                s -> decision(s, ThreadPoolAutoScaler.Decision::getCpuUtilization))
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "autoscaling.cpu.utilization")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, scaler, s -> decision(s, ThreadPoolAutoScaler.Decision::getTo))
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "autoscaling.target.pool.size")
+                .register(registry);
+
+        FunctionCounter.builder(restlightBizThread, scaler, ThreadPoolAutoScaler::scaleUpCount)
+                .tag(CATEGORY, category)
+                .tag("id", "autoscaling.scale.up.count")
+                .register(registry);
+
+        FunctionCounter.builder(restlightBizThread, scaler, ThreadPoolAutoScaler::scaleDownCount)
+                .tag(CATEGORY, category)
+                .tag("id", "autoscaling.scale.down.count")
+                .register(registry);
+    }
+
+    private static double decision(ThreadPoolAutoScaler scaler,
+                                   ToDoubleFunction<ThreadPoolAutoScaler.Decision> value) {
+        final ThreadPoolAutoScaler.Decision decision = scaler.lastDecision();
+        return decision == null ? 0D : value.applyAsDouble(decision);
+    }
+
+    private void bindBulkheads(DeployContext<? extends RestlightOptions> ctx) {
+        final String restlightBizThread = "restlight.biz.thread";
+        config.getScheduling().getBulkheads().forEach((name, bulkhead) -> {
+            final Scheduler scheduler = ctx.schedulers().get(name);
+            if (!(scheduler instanceof ExecutorScheduler)) {
+                return;
+            }
+            final Executor executor = ((ExecutorScheduler) scheduler).executor();
+            if (executor instanceof ThreadPoolExecutor || executor instanceof BatchDrainingExecutor) {
+                if (executor instanceof ThreadPoolExecutor) {
+                    createBizThreadPoolGauge(restlightBizThread, name, registry, (ThreadPoolExecutor) executor);
+                } else {
+                    createBatchDrainingGauge(restlightBizThread, name, registry, (BatchDrainingExecutor) executor);
+                }
+                Gauge.builder(restlightBizThread, bulkhead, BizThreadsOptions::getBlockingQueueLength)
+                        .tag(CATEGORY, name)
+                        .tag("id", "queue.length")
+                        .register(registry);
+            }
+        });
     }
 
     private void createBizThreadPoolGauge(String restlightBizThread,
+                                          String category,
                                           MeterRegistry registry,
                                           ThreadPoolExecutor executor) {
         Gauge.builder(restlightBizThread, executor, ThreadPoolExecutor::getCorePoolSize)
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "core.pool.size")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, ThreadPoolExecutor::getMaximumPoolSize)
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "max.pool.size")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, e -> e.getKeepAliveTime(TimeUnit.SECONDS))
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "keep.alive.time.seconds")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, ThreadPoolExecutor::getActiveCount)
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "active.count")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, ThreadPoolExecutor::getPoolSize)
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "pool.size")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, ThreadPoolExecutor::getLargestPoolSize)
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "largest.pool.size")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, ThreadPoolExecutor::getTaskCount)
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "task.count")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, e -> e.getQueue().size())
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "queue.count")
                 .register(registry);
 
         Gauge.builder(restlightBizThread, executor, ThreadPoolExecutor::getCompletedTaskCount)
                 .strongReference(true)
-                .tag(CATEGORY, "biz")
+                .tag(CATEGORY, category)
                 .tag("id", "completed.task.count")
                 .register(registry);
+
+        if (executor.getQueue() instanceof PriorityTaskQueue) {
+            final PriorityTaskQueue queue = (PriorityTaskQueue) executor.getQueue();
+            for (int p = RequestTask.MIN_PRIORITY; p <= RequestTask.MAX_PRIORITY; p++) {
+                final int priority = p;
+                Gauge.builder(restlightBizThread, queue, q -> q.size(priority))
+                        .strongReference(true)
+                        .tag(CATEGORY, category)
+                        .tag("id", "priority." + priority + ".queue.count")
+                        .register(registry);
+            }
+        }
+    }
+
+    private void createBatchDrainingGauge(String restlightBizThread,
+                                          String category,
+                                          MeterRegistry registry,
+                                          BatchDrainingExecutor executor) {
+        Gauge.builder(restlightBizThread, executor, BatchDrainingExecutor::getCorePoolSize)
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "core.pool.size")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, executor, BatchDrainingExecutor::getMaximumPoolSize)
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "max.pool.size")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, executor, BatchDrainingExecutor::getActiveCount)
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "active.count")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, executor, BatchDrainingExecutor::getPoolSize)
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "pool.size")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, executor, BatchDrainingExecutor::getTaskCount)
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "task.count")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, executor, BatchDrainingExecutor::getQueueSize)
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "queue.count")
+                .register(registry);
+
+        Gauge.builder(restlightBizThread, executor, BatchDrainingExecutor::getCompletedTaskCount)
+                .strongReference(true)
+                .tag(CATEGORY, category)
+                .tag("id", "completed.task.count")
+                .register(registry);
+
+        if (executor.getShards() > 1) {
+            for (int i = 0; i < executor.getShards(); i++) {
+                final int shard = i;
+                Gauge.builder(restlightBizThread, executor, e -> e.getQueueSize(shard))
+                        .strongReference(true)
+                        .tag(CATEGORY, category)
+                        .tag("id", "shard." + shard + ".queue.count")
+                        .register(registry);
+            }
+        }
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.commons.Checks;
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.schedule.ExecutorScheduler;
+import esa.restlight.server.schedule.Scheduler;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.schedule.VirtualThreadExecutor;
+import esa.restlight.spring.util.RestlightDeployContextAware;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Binds the metrics of the {@link Schedulers#VIRTUAL} scheduler if it is running on virtual threads.
+ */
+public class RestlightVirtualSchedulerBinder implements RestlightDeployContextAware {
+
+    private static final String NAME = "restlight.virtual.thread";
+    private static final String CATEGORY = "category";
+
+    private final MeterRegistry registry;
+
+    public RestlightVirtualSchedulerBinder(MeterRegistry registry) {
+        Checks.checkNotNull(registry);
+        this.registry = registry;
+    }
+
+    @Override
+    public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
+        final Scheduler scheduler = ctx.schedulers().get(Schedulers.VIRTUAL);
+        if (scheduler instanceof ExecutorScheduler
+                && ((ExecutorScheduler) scheduler).executor() instanceof VirtualThreadExecutor) {
+            bind((VirtualThreadExecutor) ((ExecutorScheduler) scheduler).executor());
+        }
+    }
+
+    private void bind(VirtualThreadExecutor executor) {
+        Gauge.builder(NAME, executor, VirtualThreadExecutor::getMaxConcurrency)
+                .strongReference(true)
+                .tag(CATEGORY, "virtual")
+                .tag("id", "max.concurrency")
+                .register(registry);
+
+        Gauge.builder(NAME, executor, VirtualThreadExecutor::getActiveCount)
+                .strongReference(true)
+                .tag(CATEGORY, "virtual")
+                .tag("id", "active.count")
+                .register(registry);
+
+        FunctionCounter.builder(NAME, executor, VirtualThreadExecutor::getCompletedTaskCount)
+                .tag(CATEGORY, "virtual")
+                .tag("id", "completed.task.count")
+                .register(registry);
+
+        FunctionCounter.builder(NAME, executor, VirtualThreadExecutor::getRejectedTaskCount)
+                .tag(CATEGORY, "virtual")
+                .tag("id", "reject.task.count")
+                .register(registry);
+    }
+}
@@ -15,6 +15,13 @@
  */
 package esa.restlight.starter.actuator.endpoint;
 
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.config.AutoScalingOptionsConfigure;
+import esa.restlight.server.schedule.BatchDrainingExecutor;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.schedule.ThreadPoolAutoScaler;
 import esa.restlight.starter.actuator.meter.RestlightBizThreadPoolBinder;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
 import io.micrometer.prometheus.PrometheusConfig;
@@ -31,7 +38,11 @@ import java.util.concurrent.TimeUnit;
 
 import static esa.restlight.starter.actuator.endpoint.RestlightBizThreadPoolEndpoint.ThreadPoolMetric;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class RestlightBizThreadPoolEndpointTest {
 
@@ -84,6 +95,81 @@ class RestlightBizThreadPoolEndpointTest {
         executor.shutdown();
     }
 
+    @Test
+    void testBatchDrainingMetrics() throws InterruptedException {
+        final RestlightBizThreadPoolEndpoint endpoint = new RestlightBizThreadPoolEndpoint();
+        final AutoRestlightServerOptions ops = new AutoRestlightServerOptions();
+        endpoint.config = ops;
+        final BatchDrainingExecutor executor = new BatchDrainingExecutor(new RestlightThreadFactory("test"),
+                2,
+                ops.getBizThreads().getBlockingQueueLength());
+        endpoint.setRestlightBizExecutor(executor);
+
+        final CountDownLatch exeLatch = new CountDownLatch(1);
+        final CountDownLatch awaitLatch = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                exeLatch.countDown();
+                awaitLatch.await();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+
+        exeLatch.await();
+        final ThreadPoolMetric metric = endpoint.threadPoolMetric();
+        assertEquals(2, metric.getCorePoolSize());
+        assertEquals(2, metric.getMaxPoolSize());
+        assertEquals(ops.getBizThreads().getBlockingQueueLength(), metric.getQueueLength());
+        assertEquals(1, metric.getActiveCount());
+        assertEquals(2, metric.getPoolSize());
+        assertEquals(0, metric.getQueueCount());
+        assertEquals(0, metric.getCompletedTaskCount());
+
+        // resizing is ignored
+        endpoint.update(4, 8);
+        assertEquals(2, executor.getCorePoolSize());
+
+        awaitLatch.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1L, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAutoScaling() throws InterruptedException {
+        final RestlightBizThreadPoolEndpoint endpoint = new RestlightBizThreadPoolEndpoint();
+        assertNull(endpoint.autoScaling("biz"));
+
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        endpoint.setDeployContext(ctx);
+        assertNull(endpoint.autoScaling("biz"));
+
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(16));
+        final ThreadPoolAutoScaler scaler = new ThreadPoolAutoScaler(Schedulers.BIZ, executor,
+                AutoScalingOptionsConfigure.newOpts()
+                        .enable(true)
+                        .intervalMillis(10L)
+                        .configured());
+        when(ctx.attribute(ThreadPoolAutoScaler.ATTRIBUTE_PREFIX + Schedulers.BIZ)).thenReturn(scaler);
+        scaler.start();
+        try {
+            ThreadPoolAutoScaler.Decision decision = null;
+            for (int i = 0; i < 100 && decision == null; i++) {
+                TimeUnit.MILLISECONDS.sleep(10L);
+                decision = endpoint.autoScaling("biz");
+            }
+            assertNotNull(decision);
+            assertSame(scaler.lastDecision(), endpoint.autoScaling(Schedulers.BIZ));
+            assertEquals(ThreadPoolAutoScaler.Action.HOLD, decision.getAction());
+            assertNull(endpoint.autoScaling("foo"));
+        } finally {
+            scaler.stop();
+            executor.shutdown();
+        }
+    }
+
     @Test
     void testMetrics4Prometheus() {
         final AutoRestlightServerOptions ops = new AutoRestlightServerOptions();
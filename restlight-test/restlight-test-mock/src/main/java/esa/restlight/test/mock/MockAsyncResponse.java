@@ -24,6 +24,7 @@ import esa.commons.logging.Logger;
 import esa.commons.logging.LoggerFactory;
 import esa.commons.netty.http.Http1HeadersAdaptor;
 import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.ChunkedWriter;
 import esa.httpserver.core.HttpOutputStream;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
@@ -55,6 +56,7 @@ public class MockAsyncResponse implements AsyncResponse {
     private int status = 200;
     private int bufferSize = AsyncResponse.DEFAULT_BUFFER_SIZE;
     private MockHttpOutputStream os;
+    private MockChunkedWriter writer;
     private List<Consumer<AsyncResponse>> endListeners = new ArrayList<>(1);
     private HttpHeaders headers = new DefaultHttpHeaders();
     private HttpHeaders trailingHeaders = new DefaultHttpHeaders();
@@ -205,6 +207,17 @@ public class MockAsyncResponse implements AsyncResponse {
         return os;
     }
 
+    @Override
+    public ChunkedWriter chunkedWriter() {
+        if (writer == null) {
+            if (os != null) {
+                throw new IllegalStateException("OutputStream has already opened. use it please.");
+            }
+            writer = new MockChunkedWriter(this);
+        }
+        return writer;
+    }
+
     @Override
     public int bufferSize() {
         return this.bufferSize;
@@ -354,6 +367,7 @@ public class MockAsyncResponse implements AsyncResponse {
         endListeners.clear();
         IOUtils.closeQuietly(os);
         os = null;
+        writer = null;
     }
 
     boolean casSetCommitted() {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.test.mock;
+
+import esa.commons.http.HttpHeaders;
+import esa.httpserver.core.ChunkedWriter;
+import io.netty.buffer.ByteBuf;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ChunkedWriter} which writes the chunks to the {@link MockAsyncResponse} immediately, so that it is always
+ * writable.
+ */
+class MockChunkedWriter implements ChunkedWriter {
+
+    private final MockAsyncResponse response;
+    private volatile boolean ended;
+
+    MockChunkedWriter(MockAsyncResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    public CompletableFuture<Void> write(ByteBuf chunk) {
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        try {
+            if (ended) {
+                written.completeExceptionally(new IllegalStateException("Already ended"));
+            } else {
+                response.casSetCommitted();
+                response.result.writeBytes(chunk);
+                written.complete(null);
+            }
+        } finally {
+            chunk.release();
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isWritable() {
+        return true;
+    }
+
+    @Override
+    public ChunkedWriter onWritabilityChanged(Consumer<Boolean> listener) {
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<Void> end(HttpHeaders trailers) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        if (ended) {
+            future.completeExceptionally(new IllegalStateException("Already ended"));
+            return future;
+        }
+        ended = true;
+        if (trailers != null) {
+            for (Map.Entry<String, String> trailer : trailers) {
+                response.addTrailer(trailer.getKey(), trailer.getValue());
+            }
+        }
+        response.casSetCommitted();
+        response.callEndListener();
+        future.complete(null);
+        return future;
+    }
+
+    @Override
+    public boolean isEnded() {
+        return ended;
+    }
+}